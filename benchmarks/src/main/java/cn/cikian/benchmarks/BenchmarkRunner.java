@@ -0,0 +1,31 @@
+package cn.cikian.benchmarks;
+
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+
+/**
+ * 基准测试入口，参数与JMH命令行相同（如 {@code Json -p dataset=huge}）；
+ * 未指定 {@code -prof} 时默认附带 {@code -prof gc}，同时输出吞吐量、耗时与分配速率
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/18 00:50
+ */
+
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(new CommandLineOptions(args));
+        if (!Arrays.asList(args).contains("-prof")) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,99 @@
+package cn.cikian.benchmarks;
+
+
+import cn.cikian.utils.file.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 目录压缩
+ * <ul>
+ *     <li>manySmall：2000个1KB的文件，分布在20个子目录中，反映逐个条目的固定开销</li>
+ *     <li>fewLarge：4个16MB的文件，反映压缩本身的吞吐量</li>
+ * </ul>
+ * 文件内容由少量词语随机拼接，压缩率接近日志和文本
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/18 00:50
+ */
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileBenchmark {
+    private static final String[] WORDS = {"INFO ", "WARN ", "request ", "user=", "id=", "200 ", "404 ",
+            "GET /api/items ", "took ", "ms\n", "订单", "完成 "};
+
+    @Param({"manySmall", "fewLarge"})
+    public String layout;
+
+    private Path source;
+    private Path target;
+
+    @Setup(Level.Trial)
+    public void createFiles() throws IOException {
+        source = Files.createTempDirectory("ciktools-bench-src-");
+        target = Files.createTempDirectory("ciktools-bench-out-").resolve("out.zip");
+        Random random = new Random(42);
+        if ("manySmall".equals(layout)) {
+            for (int i = 0; i < 2000; i++) {
+                Path dir = Files.createDirectories(source.resolve("d" + (i % 20)));
+                Files.write(dir.resolve("f" + i + ".log"), content(random, 1024));
+            }
+        } else {
+            for (int i = 0; i < 4; i++) {
+                Files.write(source.resolve("large" + i + ".log"), content(random, 16 << 20));
+            }
+        }
+    }
+
+    private static byte[] content(Random random, int size) {
+        StringBuilder sb = new StringBuilder(size + 32);
+        while (sb.length() < size) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextInt(1000));
+        }
+        return sb.substring(0, size).getBytes(java.nio.charset.StandardCharsets.UTF_8);
+    }
+
+    @Setup(Level.Invocation)
+    public void deleteOutput() throws IOException {
+        Files.deleteIfExists(target);
+    }
+
+    @Benchmark
+    public String compressToZipFile() throws IOException {
+        return FileUtils.compressToZipFile(source.toString(), target.toString());
+    }
+
+    @Benchmark
+    public String compressToZipFileParallel() throws IOException {
+        return FileUtils.compressToZipFileParallel(source.toString(), target.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() {
+        FileUtils.deleteFileOrDir(source.toString());
+        FileUtils.deleteFileOrDir(target.getParent().toString());
+    }
+}
@@ -0,0 +1,75 @@
+package cn.cikian.benchmarks;
+
+
+import cn.cikian.utils.http.HttpUtils;
+import cn.cikian.utils.http.enitry.JSON;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 通过本机回环地址上的HTTP服务测量{@link HttpUtils#getAction(String)}，包含连接复用、响应读取与JSON解析，
+ * 不受外部网络影响；服务端使用JDK自带的HttpServer，固定返回预先生成的响应体
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/18 00:50
+ */
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+@State(Scope.Benchmark)
+public class HttpBenchmark {
+    @Param({"small", "medium"})
+    public String dataset;
+
+    private HttpServer server;
+    private String url;
+
+    @Setup
+    public void startServer() throws IOException {
+        byte[] body = JsonDatasets.of(dataset).getBytes(StandardCharsets.UTF_8);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/data", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/data";
+    }
+
+    @Benchmark
+    public JSON getAction() throws IOException {
+        return HttpUtils.getAction(url);
+    }
+
+    @TearDown
+    public void stopServer() {
+        server.stop(0);
+    }
+}
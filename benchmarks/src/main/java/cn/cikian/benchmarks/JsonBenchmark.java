@@ -0,0 +1,106 @@
+package cn.cikian.benchmarks;
+
+
+import cn.cikian.utils.http.enitry.JSON;
+import cn.cikian.utils.http.enitry.JSONArray;
+import cn.cikian.utils.http.enitry.JSONObj;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON解析、取值与序列化
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/18 00:50
+ */
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+    @Param({"small", "medium", "huge"})
+    public String dataset;
+
+    private String text;
+    private byte[] utf8;
+    private JSON parsed;
+
+    @Setup
+    public void setup() {
+        text = JsonDatasets.of(dataset);
+        utf8 = text.getBytes(StandardCharsets.UTF_8);
+        parsed = new JSON(text);
+        // 预先访问全部嵌套节点，序列化时测量的是输出而不是延迟解析
+        touch(parsed);
+    }
+
+    /**
+     * 只解析不取值
+     */
+    @Benchmark
+    public JSON parse() {
+        return new JSON(text);
+    }
+
+    /**
+     * 由UTF-8字节解析，不解码为字符串
+     */
+    @Benchmark
+    public JSON parseUtf8() {
+        return new JSON(utf8);
+    }
+
+    /**
+     * 解析后读取每条记录的所有字段，反映完整的解码开销
+     */
+    @Benchmark
+    public void parseAndReadAll(Blackhole bh) {
+        bh.consume(touch(new JSON(text)));
+    }
+
+    @Benchmark
+    public String serialize() {
+        return parsed.toString();
+    }
+
+    private static long touch(JSON json) {
+        long sum = 0;
+        for (String key : json.keySet()) {
+            sum += touch(json.getObj(key));
+        }
+        return sum;
+    }
+
+    private static long touch(JSONObj node) {
+        if (JSONObj.OBJECT.equals(node.getType())) {
+            return touch(node.getJSON());
+        }
+        if (JSONObj.ARRAY.equals(node.getType())) {
+            JSONArray array = node.getArray();
+            long sum = 0;
+            for (int i = 0; i < array.size(); i++) {
+                sum += touch(array.getObj(i));
+            }
+            return sum;
+        }
+        String value = node.getString();
+        return value == null ? 0 : value.length();
+    }
+}
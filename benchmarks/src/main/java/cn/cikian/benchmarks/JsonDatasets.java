@@ -0,0 +1,61 @@
+package cn.cikian.benchmarks;
+
+
+import java.util.Random;
+
+/**
+ * JSON测试数据，固定随机种子，多次运行结果可比
+ * <ul>
+ *     <li>small：单个约200字节的对象，类似一次接口调用的响应</li>
+ *     <li>medium：含100条记录的列表响应，约25KB</li>
+ *     <li>huge：含50000条记录的列表响应，约12MB</li>
+ * </ul>
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/18 00:50
+ */
+
+final class JsonDatasets {
+    private JsonDatasets() {
+    }
+
+    static String of(String name) {
+        switch (name) {
+            case "small":
+                return record(new StringBuilder(), new Random(1), 1).toString();
+            case "medium":
+                return list(100);
+            case "huge":
+                return list(50_000);
+            default:
+                throw new IllegalArgumentException("未知的数据集: " + name);
+        }
+    }
+
+    private static String list(int size) {
+        Random random = new Random(size);
+        StringBuilder sb = new StringBuilder(size * 256);
+        sb.append("{\"code\":200,\"message\":\"success\",\"data\":{\"total\":").append(size).append(",\"items\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            record(sb, random, i);
+        }
+        return sb.append("]}}").toString();
+    }
+
+    private static StringBuilder record(StringBuilder sb, Random random, int id) {
+        return sb.append("{\"id\":").append(id)
+                .append(",\"userName\":\"user_").append(Integer.toHexString(random.nextInt()))
+                .append("\",\"email\":\"u").append(id).append("@example.com\"")
+                .append(",\"age\":").append(18 + random.nextInt(60))
+                .append(",\"score\":").append(random.nextInt(10000) / 100.0)
+                .append(",\"active\":").append(random.nextBoolean())
+                .append(",\"remark\":null")
+                .append(",\"tags\":[\"t").append(random.nextInt(10)).append("\",\"t").append(random.nextInt(10)).append("\"]")
+                .append(",\"address\":{\"city\":\"城市").append(random.nextInt(100))
+                .append("\",\"street\":\"第").append(random.nextInt(1000)).append("号\\n二层\"}}");
+    }
+}
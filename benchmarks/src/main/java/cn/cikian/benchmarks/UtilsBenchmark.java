@@ -0,0 +1,78 @@
+package cn.cikian.benchmarks;
+
+
+import cn.cikian.utils.date.DateUtils;
+import cn.cikian.utils.encrypt.MD5Utils;
+import cn.cikian.utils.string.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 摘要、随机字符串与日期格式化；size同时作为MD5输入的字符数和随机字符串的长度
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/18 00:50
+ */
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UtilsBenchmark {
+    @Param({"16", "256", "65536"})
+    public int size;
+
+    private String input;
+    private LocalDateTime dateTime;
+    private Date date;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(size);
+        StringBuilder sb = new StringBuilder(size);
+        for (int i = 0; i < size; i++) {
+            // 约十分之一为中文，覆盖多字节编码
+            sb.append(random.nextInt(10) == 0 ? (char) ('一' + random.nextInt(1000)) : (char) ('a' + random.nextInt(26)));
+        }
+        input = sb.toString();
+        dateTime = LocalDateTime.of(2026, 10, 18, 0, 50, 30);
+        date = new Date(1792255830000L);
+    }
+
+    @Benchmark
+    public String md5() {
+        return MD5Utils.md5(input);
+    }
+
+    @Benchmark
+    public String randomStr() {
+        return StringUtils.getRandomStr(size);
+    }
+
+    @Benchmark
+    public String formatLocalDateTime() {
+        return DateUtils.format(dateTime);
+    }
+
+    @Benchmark
+    public String formatDate() {
+        return DateUtils.format(date, "yyyy/MM/dd HH:mm:ss");
+    }
+}
@@ -13,7 +13,15 @@ public enum ErrorCode {
     ENCRYPT_FAILED(1002, "加密失败", "加密过程中发生错误"),
     DECRYPT_FAILED(1003, "解密失败", "解密过程中发生错误"),
     UNSUPPORTED_ALGORITHM(1004, "不支持的算法", "请求的加密算法不被支持"),
-    INVALID_INPUT(1005, "无效输入", "输入数据不符合要求");
+    INVALID_INPUT(1005, "无效输入", "输入数据不符合要求"),
+    HTTP_STATUS_ERROR(2001, "HTTP状态码异常", "服务端返回了非成功的状态码"),
+    HTTP_CONNECT_TIMEOUT(2002, "连接超时", "在连接超时时间内未能建立连接"),
+    HTTP_READ_TIMEOUT(2003, "读取超时", "在读取超时时间内未收到响应数据"),
+    HTTP_CONNECT_FAILED(2004, "连接失败", "无法建立到目标主机的连接"),
+    HTTP_IO_ERROR(2005, "网络异常", "请求发送或响应读取过程中发生IO错误"),
+    HTTP_POOL_TIMEOUT(2006, "获取连接超时", "连接池已满，等待空闲连接超时"),
+    HTTP_CIRCUIT_OPEN(2007, "熔断中", "目标主机近期失败过多，请求被快速拒绝"),
+    HTTP_CANCELLED(2008, "请求已取消", "请求在完成前被取消");
 
     private final int code;
     private final String message;
@@ -9,6 +9,7 @@ import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -84,6 +85,19 @@ public class FileUtils {
         return new ByteArrayInputStream(baos.toByteArray());
     }
 
+    /**
+     * 将文件压缩为zip格式，返回边读边压缩的输入流<br>
+     * 与{@link #compressToZipStream(String)}不同，整个压缩包不会放入内存：每次读取时才压缩下一块数据，
+     * 内存占用固定，适合直接写入HTTP响应或上传；读取过程中的IO异常由read方法抛出，使用完毕后需关闭
+     *
+     * @param absolutePath 文件或文件夹绝对路径
+     * @return zip格式的输入流
+     * @throws IOException 路径无法访问
+     */
+    public static InputStream compressToZipStreaming(String absolutePath) throws IOException {
+        return new ZipEncodingInputStream(Paths.get(absolutePath));
+    }
+
     /**
      * 将文件压缩为zip格式，并返回文件绝对路径，默认输出到用户临时文件夹
      *
@@ -119,6 +133,58 @@ public class FileUtils {
      * @throws IOException IO异常
      */
     public static String compressToZipFile(String absolutePath, String outputPath) throws IOException {
+        Path finalOutputPath = zipOutputPath(outputPath);
+
+        try (FileOutputStream fos = new FileOutputStream(finalOutputPath.toFile());
+             ZipOutputStream zos = new ZipOutputStream(fos);
+             Stream<Path> walk = Files.walk(Paths.get(absolutePath))) {
+
+            Path sourcePath = Paths.get(absolutePath);
+            walk.forEach(path -> {
+                try {
+                    String entryName = entryName(sourcePath, path);
+                    if (entryName.isEmpty()) return;
+
+                    zos.putNextEntry(new ZipEntry(entryName + (Files.isDirectory(path) ? "/" : "")));
+                    if (!Files.isDirectory(path)) {
+                        Files.copy(path, zos);
+                    }
+                    zos.closeEntry();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            return finalOutputPath.toAbsolutePath().toString();
+        } catch (Exception e) {
+            Files.deleteIfExists(finalOutputPath);
+            if (e instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e).getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 多线程压缩为zip格式，输出路径的规则同{@link #compressToZipFile(String, String)}<br>
+     * 使用默认设置的{@link ParallelZipCompressor}：在公共线程池中按文件及1MB分块并行压缩，
+     * 图片、视频、压缩包等已压缩的类型直接存储；需要调整线程池、压缩级别等时直接使用ParallelZipCompressor
+     *
+     * @param absolutePath 文件或文件夹绝对路径
+     * @param outputPath   输出路径
+     * @return 压缩后的zip文件绝对路径
+     * @throws IOException IO异常
+     */
+    public static String compressToZipFileParallel(String absolutePath, String outputPath) throws IOException {
+        return new ParallelZipCompressor().compressToZipFile(absolutePath, outputPath);
+    }
+
+    /**
+     * 以.zip结尾时即为输出文件，否则为输出文件夹并使用默认命名；创建父目录
+     *
+     * @throws FileAlreadyExistsException 输出文件已存在
+     */
+    static Path zipOutputPath(String outputPath) throws IOException {
         Path output = Paths.get(outputPath);
 
         // 处理路径分隔符
@@ -139,35 +205,7 @@ public class FileUtils {
         if (Files.exists(finalOutputPath)) {
             throw new FileAlreadyExistsException(finalOutputPath.toString());
         }
-
-        try (FileOutputStream fos = new FileOutputStream(finalOutputPath.toFile());
-             ZipOutputStream zos = new ZipOutputStream(fos)) {
-
-            Path sourcePath = Paths.get(absolutePath);
-            Files.walk(sourcePath)
-                    .forEach(path -> {
-                        try {
-                            String entryName = sourcePath.relativize(path).toString().replace('\\', '/');
-                            if (entryName.isEmpty()) return;
-
-                            zos.putNextEntry(new ZipEntry(entryName + (Files.isDirectory(path) ? "/" : "")));
-                            if (!Files.isDirectory(path)) {
-                                Files.copy(path, zos);
-                            }
-                            zos.closeEntry();
-                        } catch (IOException e) {
-                            throw new UncheckedIOException(e);
-                        }
-                    });
-
-            return finalOutputPath.toAbsolutePath().toString();
-        } catch (Exception e) {
-            Files.deleteIfExists(finalOutputPath);
-            if (e instanceof UncheckedIOException) {
-                throw ((UncheckedIOException) e).getCause();
-            }
-            throw e;
-        }
+        return finalOutputPath;
     }
 
     /**
@@ -212,22 +250,35 @@ public class FileUtils {
     private static void compress(String absolutePath, ZipOutputStream zos) throws IOException {
         Path sourcePath = Paths.get(absolutePath);
 
-        Files.walk(sourcePath)
-                .forEach(path -> {
-                    try {
-                        String entryName = sourcePath.relativize(path).toString().replace('\\', '/');
-                        if (entryName.isEmpty()) return;
-
-                        zos.putNextEntry(new ZipEntry(entryName + (Files.isDirectory(path) ? "/" : "")));
-                        if (!Files.isDirectory(path)) {
-                            Files.copy(path, zos);
-                            System.out.printf("\r\u001B[32mCompressing... %s\u001B[0m", entryName);
-                        }
-                        zos.closeEntry();
-                    } catch (IOException e) {
-                        throw new UncheckedIOException(e);
+        try (Stream<Path> walk = Files.walk(sourcePath)) {
+            walk.forEach(path -> {
+                try {
+                    String entryName = entryName(sourcePath, path);
+                    if (entryName.isEmpty()) return;
+
+                    zos.putNextEntry(new ZipEntry(entryName + (Files.isDirectory(path) ? "/" : "")));
+                    if (!Files.isDirectory(path)) {
+                        Files.copy(path, zos);
+                        System.out.printf("\r\u001B[32mCompressing... %s\u001B[0m", entryName);
                     }
-                });
+                    zos.closeEntry();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
         System.out.println("\n\u001B[32mCompression completed successfully!\u001B[0m");
     }
-}
\ No newline at end of file
+
+    /**
+     * @param sourcePath 压缩的根路径
+     * @param path       根路径下的文件或文件夹
+     * @return zip条目名，使用'/'分隔；根路径为文件时为文件名，为文件夹时根路径本身返回空字符串
+     */
+    static String entryName(Path sourcePath, Path path) {
+        if (path.equals(sourcePath) && !Files.isDirectory(path)) {
+            return String.valueOf(path.getFileName());
+        }
+        return sourcePath.relativize(path).toString().replace('\\', '/');
+    }
+}
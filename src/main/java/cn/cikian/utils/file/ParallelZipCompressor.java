@@ -0,0 +1,726 @@
+package cn.cikian.utils.file;
+
+
+import cn.cikian.code.ErrorCode;
+import cn.cikian.exception.CikException;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 多线程zip压缩<br>
+ * 每个文件（大文件则每个分块）在线程池中独立压缩，由调用线程按目录遍历顺序依次写出，并生成完整的中央目录。
+ * 大文件按{@link #setChunkSize(int)}切分，各块以前一块末尾32KB为字典分别压缩后首尾相接，
+ * 与pigz相同，压缩率与整体压缩几乎一致；已完成但尚未写出的分块数不超过{@link #setMaxPendingChunks(int)}，
+ * 内存占用约为二者之积，与文件大小无关。超过4GB的文件或条目数超过65535时自动使用ZIP64格式。<br>
+ * 压缩级别可按文件类型（扩展名）设置，已压缩过的类型（如jpg、mp4、zip）默认直接存储（STORED），不再浪费CPU
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/18 01:40
+ */
+
+public class ParallelZipCompressor {
+    private static final int DICTIONARY = 32 * 1024;
+    private static final long ZIP64_LIMIT = 0xFFFFFFFFL;
+    private static final int ZIP64_COUNT = 0xFFFF;
+    private static final int FLAG_DESCRIPTOR = 0x08;
+    private static final int FLAG_UTF8 = 0x0800;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+    /**
+     * 表示直接存储的压缩级别
+     */
+    private static final int LEVEL_STORED = -2;
+    private static final Set<String> DEFAULT_STORED = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "zip", "jar", "war", "gz", "tgz", "bz2", "xz", "7z", "rar", "zst", "lz4",
+            "jpg", "jpeg", "png", "gif", "webp", "heic", "mp3", "aac", "ogg", "flac", "mp4", "mkv", "avi", "mov", "webm")));
+    /**
+     * 每个线程按级别各保留一个压缩器；同一个压缩器切换级别会在设置字典之后才生效，导致输出错误
+     */
+    private static final ThreadLocal<Deflater[]> DEFLATERS = ThreadLocal.withInitial(() -> new Deflater[11]);
+
+    private Executor executor = ForkJoinPool.commonPool();
+    private int level = Deflater.DEFAULT_COMPRESSION;
+    private final Map<String, Integer> levels = new HashMap<>();
+    private Set<String> stored = DEFAULT_STORED;
+    private int chunkSize = 1024 * 1024;
+    private int maxPendingChunks = Math.max(4, ForkJoinPool.getCommonPoolParallelism() * 4);
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @param executor 压缩用的线程池，默认为{@link ForkJoinPool#commonPool()}
+     */
+    public void setExecutor(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor不能为null");
+        }
+        this.executor = executor;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * @param level 默认压缩级别，0-9，或{@link Deflater#DEFAULT_COMPRESSION}
+     */
+    public void setLevel(int level) {
+        this.level = checkLevel(level);
+    }
+
+    /**
+     * 为某类文件单独设置压缩级别，优先于直接存储的设置
+     *
+     * @param extension 扩展名，不含'.'，不区分大小写
+     * @param level     压缩级别，0-9，或{@link Deflater#DEFAULT_COMPRESSION}
+     */
+    public void setLevel(String extension, int level) {
+        levels.put(extension.toLowerCase(Locale.ROOT), checkLevel(level));
+    }
+
+    public Set<String> getStored() {
+        return stored;
+    }
+
+    /**
+     * 设置直接存储（不压缩）的文件类型，替换默认列表；不传参数时所有文件都压缩
+     *
+     * @param extensions 扩展名，不含'.'，不区分大小写
+     */
+    public void setStored(String... extensions) {
+        Set<String> set = new HashSet<>();
+        for (String extension : extensions) {
+            set.add(extension.toLowerCase(Locale.ROOT));
+        }
+        this.stored = Collections.unmodifiableSet(set);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @param chunkSize 分块大小，默认1MB；大于此大小的文件分块并行压缩，不应小于64KB
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize < 64 * 1024) {
+            throw new IllegalArgumentException("分块大小不应小于64KB");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    public int getMaxPendingChunks() {
+        return maxPendingChunks;
+    }
+
+    /**
+     * @param maxPendingChunks 已提交但尚未写出的分块上限，默认为并行度的4倍
+     */
+    public void setMaxPendingChunks(int maxPendingChunks) {
+        if (maxPendingChunks <= 0) {
+            throw new IllegalArgumentException("分块上限必须大于0");
+        }
+        this.maxPendingChunks = maxPendingChunks;
+    }
+
+    private static int checkLevel(int level) {
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < 0 || level > 9)) {
+            throw new IllegalArgumentException("压缩级别应为0-9或-1: " + level);
+        }
+        return level;
+    }
+
+    /**
+     * 压缩为zip文件，输出路径的规则同{@link FileUtils#compressToZipFile(String, String)}
+     *
+     * @param absolutePath 文件或文件夹绝对路径
+     * @param outputPath   输出路径
+     * @return 压缩后的zip文件绝对路径
+     * @throws IOException IO异常，失败时删除已写出的部分
+     */
+    public String compressToZipFile(String absolutePath, String outputPath) throws IOException {
+        Path finalOutputPath = FileUtils.zipOutputPath(outputPath);
+        try (OutputStream out = Files.newOutputStream(finalOutputPath, StandardOpenOption.CREATE_NEW)) {
+            compress(absolutePath, out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(finalOutputPath);
+            throw e;
+        }
+        return finalOutputPath.toAbsolutePath().toString();
+    }
+
+    /**
+     * 压缩并写出到输出流，写完后刷新但不关闭输出流
+     *
+     * @param absolutePath 文件或文件夹绝对路径
+     * @param out          输出流
+     * @throws IOException IO异常
+     */
+    public void compress(String absolutePath, OutputStream out) throws IOException {
+        Path sourcePath = Paths.get(absolutePath);
+        try (Stream<Path> walk = Files.walk(sourcePath)) {
+            new Job(sourcePath, walk.iterator(), out).run();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private int levelOf(String extension) {
+        Integer custom = levels.get(extension);
+        if (custom != null) {
+            return custom;
+        }
+        return stored.contains(extension) ? LEVEL_STORED : level;
+    }
+
+    private static String extension(Path path) {
+        String name = String.valueOf(path.getFileName());
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 一次压缩：调用线程提交分块并按顺序写出
+     */
+    private final class Job {
+        private final Path sourcePath;
+        private final Iterator<Path> paths;
+        private final CountingOutputStream out;
+        private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+        private final List<Entry> written = new ArrayList<>();
+        private Entry submitting;
+        private int pending;
+        private volatile boolean cancelled;
+
+        private Job(Path sourcePath, Iterator<Path> paths, OutputStream out) {
+            this.sourcePath = sourcePath;
+            this.paths = paths;
+            this.out = new CountingOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        }
+
+        private void run() throws IOException {
+            try {
+                while (true) {
+                    submit();
+                    Entry head = queue.peek();
+                    if (head == null) {
+                        break;
+                    }
+                    if (writeNext(head)) {
+                        queue.poll();
+                        written.add(head);
+                    }
+                }
+                writeCentralDirectory();
+                out.flush();
+            } finally {
+                cancelled = true;
+            }
+        }
+
+        /**
+         * 在上限内提交后续分块，遍历目录与压缩同时进行
+         */
+        private void submit() throws IOException {
+            while (pending < maxPendingChunks) {
+                if (submitting == null) {
+                    if (!paths.hasNext()) {
+                        return;
+                    }
+                    Path path = paths.next();
+                    String name = FileUtils.entryName(sourcePath, path);
+                    if (name.isEmpty()) {
+                        continue;
+                    }
+                    submitting = new Entry(path, name);
+                    queue.add(submitting);
+                }
+                if (submitting.submitted == submitting.chunks.length) {
+                    submitting = null;
+                    continue;
+                }
+                Entry entry = submitting;
+                int index = entry.submitted++;
+                CompletableFuture<Chunk> future = new CompletableFuture<>();
+                entry.chunks[index] = future;
+                // 不使用supplyAsync：公共线程池并行度为1时它会为每个任务新建线程
+                executor.execute(() -> {
+                    try {
+                        future.complete(compressChunk(entry, index));
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+                pending++;
+            }
+        }
+
+        /**
+         * 写出队首条目的下一部分
+         *
+         * @return 条目已全部写出
+         */
+        private boolean writeNext(Entry entry) throws IOException {
+            if (entry.chunks.length == 0) {
+                entry.offset = out.count;
+                writeLocalHeader(entry, false);
+                return true;
+            }
+            Chunk chunk = await(entry.chunks[entry.written]);
+            entry.chunks[entry.written++] = null;
+            pending--;
+            if (entry.storedLarge) {
+                entry.crc = chunk.crc;
+                entry.compressedSize = entry.size;
+                entry.offset = out.count;
+                writeLocalHeader(entry, false);
+                copyFile(entry);
+                return true;
+            }
+            if (entry.chunks.length == 1) {
+                entry.crc = chunk.crc;
+                entry.compressedSize = chunk.size;
+                entry.offset = out.count;
+                writeLocalHeader(entry, false);
+                out.write(chunk.data, 0, chunk.size);
+                return true;
+            }
+            if (entry.written == 1) {
+                entry.offset = out.count;
+                writeLocalHeader(entry, true);
+            }
+            entry.crc = entry.written == 1 ? chunk.crc : crc32Combine(entry.crc, chunk.crc, chunk.length);
+            entry.compressedSize += chunk.size;
+            out.write(chunk.data, 0, chunk.size);
+            if (entry.written < entry.chunks.length) {
+                return false;
+            }
+            writeDataDescriptor(entry);
+            return true;
+        }
+
+        private Chunk await(CompletableFuture<Chunk> future) throws IOException {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) cause).getCause();
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new CikException(ErrorCode.FAIL.code(), "压缩失败", cause);
+            }
+        }
+
+        private Chunk compressChunk(Entry entry, int index) {
+            if (cancelled) {
+                throw new CikException(ErrorCode.FAIL.code(), "压缩已取消");
+            }
+            try {
+                if (entry.storedLarge) {
+                    return checksum(entry);
+                }
+                long start = (long) index * chunkSize;
+                int length = (int) Math.min(chunkSize, entry.size - start);
+                int dictionary = (int) Math.min(DICTIONARY, start);
+                byte[] input = new byte[dictionary + length];
+                try (FileChannel channel = FileChannel.open(entry.path, StandardOpenOption.READ)) {
+                    readFully(channel, ByteBuffer.wrap(input), start - dictionary, entry);
+                }
+                CRC32 crc = new CRC32();
+                crc.update(input, dictionary, length);
+                if (entry.method == STORED) {
+                    return new Chunk(input, length, length, crc.getValue());
+                }
+                return deflate(input, dictionary, length, index == entry.chunks.length - 1, crc.getValue(), entry.level);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * 直接存储的大文件只在线程池中计算CRC，数据由写出线程直接从文件复制
+         */
+        private Chunk checksum(Entry entry) throws IOException {
+            CRC32 crc = new CRC32();
+            byte[] buf = new byte[64 * 1024];
+            long total = 0;
+            try (InputStream in = Files.newInputStream(entry.path)) {
+                int n;
+                while ((n = in.read(buf)) > 0) {
+                    crc.update(buf, 0, n);
+                    total += n;
+                }
+            }
+            if (total != entry.size) {
+                throw modified(entry);
+            }
+            return new Chunk(null, 0, entry.size, crc.getValue());
+        }
+
+        private void copyFile(Entry entry) throws IOException {
+            byte[] buf = new byte[64 * 1024];
+            long remaining = entry.size;
+            try (InputStream in = Files.newInputStream(entry.path)) {
+                while (remaining > 0) {
+                    int n = in.read(buf, 0, (int) Math.min(buf.length, remaining));
+                    if (n < 0) {
+                        throw modified(entry);
+                    }
+                    out.write(buf, 0, n);
+                    remaining -= n;
+                }
+            }
+        }
+
+        private void writeLocalHeader(Entry entry, boolean descriptor) throws IOException {
+            boolean zip64 = entry.size >= ZIP64_LIMIT || entry.compressedSize >= ZIP64_LIMIT;
+            writeInt(0x04034b50L);
+            writeShort(zip64 ? 45 : 20);
+            writeShort(FLAG_UTF8 | (descriptor ? FLAG_DESCRIPTOR : 0));
+            writeShort(entry.method);
+            writeInt(entry.dosTime);
+            writeInt(descriptor ? 0 : entry.crc);
+            if (zip64) {
+                writeInt(ZIP64_LIMIT);
+                writeInt(ZIP64_LIMIT);
+            } else {
+                writeInt(descriptor ? 0 : entry.compressedSize);
+                writeInt(descriptor ? 0 : entry.size);
+            }
+            writeShort(entry.name.length);
+            writeShort(zip64 ? 20 : 0);
+            out.write(entry.name);
+            if (zip64) {
+                writeShort(0x0001);
+                writeShort(16);
+                writeLong(descriptor ? 0 : entry.size);
+                writeLong(descriptor ? 0 : entry.compressedSize);
+            }
+        }
+
+        private void writeDataDescriptor(Entry entry) throws IOException {
+            writeInt(0x08074b50L);
+            writeInt(entry.crc);
+            if (entry.size >= ZIP64_LIMIT || entry.compressedSize >= ZIP64_LIMIT) {
+                writeLong(entry.compressedSize);
+                writeLong(entry.size);
+            } else {
+                writeInt(entry.compressedSize);
+                writeInt(entry.size);
+            }
+        }
+
+        private void writeCentralDirectory() throws IOException {
+            long start = out.count;
+            for (Entry entry : written) {
+                boolean sizes = entry.size >= ZIP64_LIMIT || entry.compressedSize >= ZIP64_LIMIT;
+                boolean offset = entry.offset >= ZIP64_LIMIT;
+                int extra = (sizes ? 16 : 0) + (offset ? 8 : 0);
+                int version = extra > 0 ? 45 : 20;
+                writeInt(0x02014b50L);
+                writeShort(version);
+                writeShort(version);
+                writeShort(FLAG_UTF8 | (entry.chunks.length > 1 && entry.method == DEFLATED ? FLAG_DESCRIPTOR : 0));
+                writeShort(entry.method);
+                writeInt(entry.dosTime);
+                writeInt(entry.crc);
+                writeInt(sizes ? ZIP64_LIMIT : entry.compressedSize);
+                writeInt(sizes ? ZIP64_LIMIT : entry.size);
+                writeShort(entry.name.length);
+                writeShort(extra > 0 ? extra + 4 : 0);
+                // 注释长度、磁盘号、内部属性、外部属性
+                writeShort(0);
+                writeShort(0);
+                writeShort(0);
+                writeInt(0);
+                writeInt(offset ? ZIP64_LIMIT : entry.offset);
+                out.write(entry.name);
+                if (extra > 0) {
+                    writeShort(0x0001);
+                    writeShort(extra);
+                    if (sizes) {
+                        writeLong(entry.size);
+                        writeLong(entry.compressedSize);
+                    }
+                    if (offset) {
+                        writeLong(entry.offset);
+                    }
+                }
+            }
+            long size = out.count - start;
+            int count = written.size();
+            if (count >= ZIP64_COUNT || size >= ZIP64_LIMIT || start >= ZIP64_LIMIT) {
+                long end64 = out.count;
+                writeInt(0x06064b50L);
+                writeLong(44);
+                writeShort(45);
+                writeShort(45);
+                writeInt(0);
+                writeInt(0);
+                writeLong(count);
+                writeLong(count);
+                writeLong(size);
+                writeLong(start);
+                writeInt(0x07064b50L);
+                writeInt(0);
+                writeLong(end64);
+                writeInt(1);
+            }
+            writeInt(0x06054b50L);
+            writeShort(0);
+            writeShort(0);
+            writeShort(Math.min(count, ZIP64_COUNT));
+            writeShort(Math.min(count, ZIP64_COUNT));
+            writeInt(Math.min(size, ZIP64_LIMIT));
+            writeInt(Math.min(start, ZIP64_LIMIT));
+            writeShort(0);
+        }
+
+        private void writeShort(int v) throws IOException {
+            out.write(v & 0xff);
+            out.write((v >>> 8) & 0xff);
+        }
+
+        private void writeInt(long v) throws IOException {
+            writeShort((int) (v & 0xffff));
+            writeShort((int) ((v >>> 16) & 0xffff));
+        }
+
+        private void writeLong(long v) throws IOException {
+            writeInt(v & ZIP64_LIMIT);
+            writeInt(v >>> 32);
+        }
+    }
+
+    /**
+     * zip中的一个条目；STORED的大文件不分块，只有一个计算CRC的任务
+     */
+    private final class Entry {
+        private final Path path;
+        private final byte[] name;
+        private final long size;
+        private final int method;
+        private final int level;
+        private final long dosTime;
+        private final boolean storedLarge;
+        private final CompletableFuture<Chunk>[] chunks;
+        private int submitted;
+        private int written;
+        private long crc;
+        private long compressedSize;
+        private long offset;
+
+        @SuppressWarnings("unchecked")
+        private Entry(Path path, String entryName) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            boolean directory = attributes.isDirectory();
+            this.path = path;
+            this.name = (entryName + (directory ? "/" : "")).getBytes(StandardCharsets.UTF_8);
+            this.size = directory ? 0 : attributes.size();
+            this.dosTime = dosTime(attributes.lastModifiedTime().toMillis());
+            int entryLevel = directory ? LEVEL_STORED : levelOf(extension(path));
+            this.method = entryLevel == LEVEL_STORED ? STORED : DEFLATED;
+            this.level = entryLevel;
+            this.storedLarge = method == STORED && size > chunkSize;
+            int count = directory ? 0 : storedLarge ? 1 : (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+            this.chunks = (CompletableFuture<Chunk>[]) new CompletableFuture<?>[count];
+        }
+    }
+
+    /**
+     * 压缩结果：data的前size个字节，对应原始数据length个字节
+     */
+    private static final class Chunk {
+        private final byte[] data;
+        private final int size;
+        private final long length;
+        private final long crc;
+
+        private Chunk(byte[] data, int size, long length, long crc) {
+            this.data = data;
+            this.size = size;
+            this.length = length;
+            this.crc = crc;
+        }
+    }
+
+    /**
+     * 压缩一块数据；非最后一块以SYNC_FLUSH结束，不写结束标记，以便与后续块首尾相接
+     *
+     * @param input      前dictionary个字节为字典，其后length个字节为数据
+     * @param dictionary 字典长度
+     */
+    private static Chunk deflate(byte[] input, int dictionary, int length, boolean last, long crc, int level) {
+        Deflater[] deflaters = DEFLATERS.get();
+        Deflater deflater = deflaters[level + 1];
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+            deflaters[level + 1] = deflater;
+        } else {
+            deflater.reset();
+        }
+        if (dictionary > 0) {
+            deflater.setDictionary(input, 0, dictionary);
+        }
+        deflater.setInput(input, dictionary, length);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, length / 2));
+        byte[] buf = new byte[Math.min(64 * 1024, Math.max(64, length + 64))];
+        if (last) {
+            deflater.finish();
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buf);
+                bytes.write(buf, 0, n);
+            }
+        } else {
+            int n;
+            do {
+                n = deflater.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH);
+                bytes.write(buf, 0, n);
+            } while (n == buf.length);
+        }
+        return new Chunk(bytes.toByteArray(), bytes.size(), length, crc);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position, Entry entry) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position);
+            if (n < 0) {
+                throw modified(entry);
+            }
+            position += n;
+        }
+    }
+
+    private static IOException modified(Entry entry) {
+        return new IOException("文件在压缩过程中被修改: " + entry.path);
+    }
+
+    private static long dosTime(long millis) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+        if (time.getYear() < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        return ((long) (time.getYear() - 1980) << 25) | (time.getMonthValue() << 21) | (time.getDayOfMonth() << 16)
+                | (time.getHour() << 11) | (time.getMinute() << 5) | (time.getSecond() >> 1);
+    }
+
+    /**
+     * 由两段数据各自的CRC32得到相接后的CRC32，算法同zlib的crc32_combine
+     *
+     * @param crc1 前一段的CRC
+     * @param crc2 后一段的CRC
+     * @param len2 后一段的长度
+     */
+    static long crc32Combine(long crc1, long crc2, long len2) {
+        if (len2 <= 0) {
+            return crc1;
+        }
+        long[] even = new long[32];
+        long[] odd = new long[32];
+        // 一个0比特对应的算子
+        odd[0] = 0xedb88320L;
+        long row = 1;
+        for (int n = 1; n < 32; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        gf2MatrixSquare(even, odd);
+        gf2MatrixSquare(odd, even);
+        do {
+            gf2MatrixSquare(even, odd);
+            if ((len2 & 1) != 0) {
+                crc1 = gf2MatrixTimes(even, crc1);
+            }
+            len2 >>= 1;
+            if (len2 == 0) {
+                break;
+            }
+            gf2MatrixSquare(odd, even);
+            if ((len2 & 1) != 0) {
+                crc1 = gf2MatrixTimes(odd, crc1);
+            }
+            len2 >>= 1;
+        } while (len2 != 0);
+        return crc1 ^ crc2;
+    }
+
+    private static long gf2MatrixTimes(long[] mat, long vec) {
+        long sum = 0;
+        int i = 0;
+        while (vec != 0) {
+            if ((vec & 1) != 0) {
+                sum ^= mat[i];
+            }
+            vec >>= 1;
+            i++;
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(long[] square, long[] mat) {
+        for (int n = 0; n < 32; n++) {
+            square[n] = gf2MatrixTimes(mat, mat[n]);
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package cn.cikian.utils.file;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 边读边压缩的zip输入流<br>
+ * 每次读取时才从源文件读出一块数据交给{@link ZipOutputStream}压缩，压缩结果暂存在一个小缓冲区中供读取，
+ * 不使用额外线程，内存占用与源文件大小无关；读取中的IO异常直接由read抛出
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/18 01:10
+ */
+
+final class ZipEncodingInputStream extends InputStream {
+    private static final int CHUNK = 64 * 1024;
+
+    private final Path source;
+    private final Stream<Path> walk;
+    private final Iterator<Path> paths;
+    private final Sink sink = new Sink();
+    private final ZipOutputStream zos = new ZipOutputStream(sink);
+    private final byte[] chunk = new byte[CHUNK];
+    private InputStream current;
+    private boolean finished;
+    private boolean closed;
+
+    ZipEncodingInputStream(Path source) throws IOException {
+        this.source = source;
+        this.walk = Files.walk(source);
+        this.paths = walk.iterator();
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("流已关闭");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        while (sink.available() == 0) {
+            if (finished) {
+                return -1;
+            }
+            sink.reset();
+            try {
+                produce();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        return sink.drain(b, off, len);
+    }
+
+    @Override
+    public int available() {
+        return sink.available();
+    }
+
+    /**
+     * 向zip中写入下一块数据，可能因数据尚在压缩器中而暂时没有输出
+     */
+    private void produce() throws IOException {
+        if (current != null) {
+            int n = current.read(chunk);
+            if (n >= 0) {
+                zos.write(chunk, 0, n);
+                return;
+            }
+            current.close();
+            current = null;
+            zos.closeEntry();
+            return;
+        }
+        if (!paths.hasNext()) {
+            zos.finish();
+            finished = true;
+            return;
+        }
+        Path path = paths.next();
+        String entryName = FileUtils.entryName(source, path);
+        if (entryName.isEmpty()) {
+            return;
+        }
+        boolean directory = Files.isDirectory(path);
+        zos.putNextEntry(new ZipEntry(entryName + (directory ? "/" : "")));
+        if (directory) {
+            zos.closeEntry();
+        } else {
+            current = Files.newInputStream(path);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (current != null) {
+                current.close();
+            }
+        } finally {
+            walk.close();
+            // 释放压缩器的本地内存，写出的剩余数据直接丢弃
+            zos.close();
+        }
+    }
+
+    /**
+     * 暂存压缩结果的缓冲区，读完后复用
+     */
+    private static final class Sink extends OutputStream {
+        private byte[] buf = new byte[CHUNK + 1024];
+        private int count;
+        private int pos;
+
+        @Override
+        public void write(int b) {
+            ensure(1);
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensure(len);
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+
+        private void ensure(int len) {
+            if (count + len > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + len));
+            }
+        }
+
+        int available() {
+            return count - pos;
+        }
+
+        int drain(byte[] b, int off, int len) {
+            int n = Math.min(len, count - pos);
+            System.arraycopy(buf, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+
+        void reset() {
+            count = 0;
+            pos = 0;
+        }
+    }
+}
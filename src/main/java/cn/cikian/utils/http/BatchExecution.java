@@ -0,0 +1,306 @@
+package cn.cikian.utils.http;
+
+
+import cn.cikian.code.ErrorCode;
+import cn.cikian.exception.CikException;
+import cn.cikian.utils.http.client.Route;
+import cn.cikian.utils.http.enitry.BatchResult;
+import cn.cikian.utils.http.enitry.JSON;
+import cn.cikian.utils.http.enitry.Request;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 一批请求的并发执行<br>
+ * 同时进行的请求数受全局上限和每个主机的上限共同约束，各主机之间轮流派发，单个主机积压不会饿死其他主机。
+ * 单个请求失败只记录在对应的{@link BatchResult}中，不影响其余请求；
+ * 结果既可按输入顺序整体获取，也可按完成顺序以流的形式逐个消费
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 18:50
+ */
+
+public class BatchExecution {
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    private final HttpClient client;
+    private final List<Request> requests;
+    private final int maxConcurrency;
+    private final int maxPerHost;
+    private final BatchResult[] results;
+    private final LinkedBlockingQueue<BatchResult> completed = new LinkedBlockingQueue<>();
+    private final CompletableFuture<List<BatchResult>> done = new CompletableFuture<>();
+    private final Map<Route, HostQueue> hosts = new HashMap<>();
+    private final ArrayDeque<HostQueue> ready = new ArrayDeque<>();
+    private final Map<Integer, Thread> running = new HashMap<>();
+    private final ExecutorService workers;
+
+    private int inFlight;
+    private int finished;
+    private int failed;
+    private boolean cancelled;
+
+    BatchExecution(HttpClient client, Collection<Request> requests, int maxConcurrency, int maxPerHost) {
+        if (maxConcurrency <= 0 || maxPerHost <= 0) {
+            throw new IllegalArgumentException("并发上限必须大于0");
+        }
+        this.client = client;
+        this.requests = new ArrayList<>(requests);
+        this.maxConcurrency = maxConcurrency;
+        this.maxPerHost = maxPerHost;
+        this.results = new BatchResult[this.requests.size()];
+        int id = SEQ.incrementAndGet();
+        AtomicInteger threadSeq = new AtomicInteger();
+        this.workers = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "ciktools-http-batch-" + id + "-" + threadSeq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 按主机分组入队并开始派发
+     */
+    synchronized void start() {
+        for (int i = 0; i < requests.size(); i++) {
+            Request request = requests.get(i);
+            Route route;
+            try {
+                route = Route.of(new URL(request.getUrl()));
+            } catch (IOException | RuntimeException e) {
+                finish(null, new BatchResult(i, request, null,
+                        new CikException(ErrorCode.INVALID_INPUT.code(), "非法的请求地址: " + request.getUrl(), e)));
+                continue;
+            }
+            HostQueue host = hosts.computeIfAbsent(route, r -> new HostQueue());
+            host.tasks.add(i);
+            markReady(host);
+        }
+        dispatch();
+        checkDone();
+    }
+
+    /**
+     * 在并发上限内从各主机轮流取出请求交给工作线程
+     */
+    private void dispatch() {
+        while (!cancelled && inFlight < maxConcurrency && !ready.isEmpty()) {
+            HostQueue host = ready.poll();
+            host.ready = false;
+            int index = host.tasks.poll();
+            host.inFlight++;
+            inFlight++;
+            markReady(host);
+            workers.execute(() -> run(host, index));
+        }
+    }
+
+    private void markReady(HostQueue host) {
+        if (!host.ready && !host.tasks.isEmpty() && host.inFlight < maxPerHost) {
+            host.ready = true;
+            ready.add(host);
+        }
+    }
+
+    private void run(HostQueue host, int index) {
+        Request request = requests.get(index);
+        synchronized (this) {
+            if (cancelled) {
+                finish(host, cancelledResult(index));
+                checkDone();
+                return;
+            }
+            running.put(index, Thread.currentThread());
+        }
+        BatchResult result;
+        Error fatal = null;
+        try {
+            JSON json = client.execute(request);
+            result = new BatchResult(index, request, json, null);
+        } catch (CikException e) {
+            result = new BatchResult(index, request, null, e);
+        } catch (IOException e) {
+            result = new BatchResult(index, request, null,
+                    new CikException(ErrorCode.INVALID_INPUT.code(), "请求无法发送: " + e.getMessage(), e));
+        } catch (RuntimeException e) {
+            result = new BatchResult(index, request, null,
+                    new CikException(ErrorCode.FAIL.code(), "请求执行失败: " + e.getMessage(), e));
+        } catch (Error e) {
+            // 先完成该下标，保证批次能够结束，再把Error抛给工作线程
+            fatal = e;
+            result = new BatchResult(index, request, null,
+                    new CikException(ErrorCode.FAIL.code(), "请求执行失败: " + e, e));
+        }
+        synchronized (this) {
+            running.remove(index);
+            // 取消时被中断的请求按取消处理
+            if (cancelled && !result.isSuccess()) {
+                result = cancelledResult(index);
+            }
+            Thread.interrupted();
+            finish(host, result);
+            dispatch();
+            checkDone();
+        }
+        if (fatal != null) {
+            throw fatal;
+        }
+    }
+
+    private BatchResult cancelledResult(int index) {
+        return new BatchResult(index, requests.get(index), null,
+                new CikException(ErrorCode.HTTP_CANCELLED.code(), "批量请求已取消"));
+    }
+
+    private void finish(HostQueue host, BatchResult result) {
+        if (host != null) {
+            host.inFlight--;
+            inFlight--;
+            markReady(host);
+        }
+        results[result.getIndex()] = result;
+        finished++;
+        if (!result.isSuccess()) {
+            failed++;
+        }
+        completed.add(result);
+    }
+
+    private void checkDone() {
+        if (finished == results.length && !done.isDone()) {
+            workers.shutdown();
+            done.complete(Collections.unmodifiableList(Arrays.asList(results.clone())));
+        }
+    }
+
+    /**
+     * 取消批量执行：尚未开始的请求直接以{@link ErrorCode#HTTP_CANCELLED}结束，进行中的请求被中断，
+     * 阻塞在不可中断IO上的请求会等到完成或超时，其失败结果同样记为取消
+     */
+    public synchronized void cancel() {
+        if (cancelled || done.isDone()) {
+            return;
+        }
+        cancelled = true;
+        for (HostQueue host : hosts.values()) {
+            Integer index;
+            while ((index = host.tasks.poll()) != null) {
+                finish(null, cancelledResult(index));
+            }
+        }
+        ready.clear();
+        for (Thread thread : running.values()) {
+            thread.interrupt();
+        }
+        checkDone();
+    }
+
+    /**
+     * 等待全部请求结束
+     *
+     * @return 按输入顺序排列的结果
+     */
+    public List<BatchResult> getResults() {
+        return done.join();
+    }
+
+    /**
+     * @return 全部请求结束时完成的Future，值为按输入顺序排列的结果
+     */
+    public CompletableFuture<List<BatchResult>> toFuture() {
+        return done;
+    }
+
+    /**
+     * 按完成顺序逐个消费结果，流在全部请求结束后终止；只能消费一次
+     *
+     * @return 结果流
+     */
+    public Stream<BatchResult> stream() {
+        Iterator<BatchResult> it = new Iterator<BatchResult>() {
+            private int delivered;
+
+            @Override
+            public boolean hasNext() {
+                return delivered < results.length;
+            }
+
+            @Override
+            public BatchResult next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    BatchResult result = completed.take();
+                    delivered++;
+                    return result;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CikException(ErrorCode.HTTP_CANCELLED.code(), "等待批量结果被中断");
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliterator(it, results.length,
+                Spliterator.SIZED | Spliterator.NONNULL), false);
+    }
+
+    public int getTotal() {
+        return results.length;
+    }
+
+    /**
+     * @return 已结束（成功、失败或取消）的请求数
+     */
+    public synchronized int getFinished() {
+        return finished;
+    }
+
+    /**
+     * @return 失败或被取消的请求数
+     */
+    public synchronized int getFailed() {
+        return failed;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isDone() {
+        return done.isDone();
+    }
+
+    /**
+     * 同一主机的待派发请求
+     */
+    private static final class HostQueue {
+        private final ArrayDeque<Integer> tasks = new ArrayDeque<>();
+        private int inFlight;
+        private boolean ready;
+    }
+}
@@ -0,0 +1,1199 @@
+package cn.cikian.utils.http;
+
+
+import cn.cikian.code.ErrorCode;
+import cn.cikian.exception.CikException;
+import cn.cikian.utils.http.client.ChunkedInputStream;
+import cn.cikian.utils.http.client.CircuitBreaker;
+import cn.cikian.utils.http.client.ConnectionPool;
+import cn.cikian.utils.http.client.ContentCoding;
+import cn.cikian.utils.http.client.ContentLengthInputStream;
+import cn.cikian.utils.http.client.ExchangeListener;
+import cn.cikian.utils.http.client.ExchangeTrace;
+import cn.cikian.utils.http.client.HttpCodec;
+import cn.cikian.utils.http.client.Http2Transport;
+import cn.cikian.utils.http.client.HttpConnection;
+import cn.cikian.utils.http.client.HttpMetrics;
+import cn.cikian.utils.http.client.Interceptor;
+import cn.cikian.utils.http.client.NioTransport;
+import cn.cikian.utils.http.client.PoolStats;
+import cn.cikian.utils.http.client.ResponseBodyStream;
+import cn.cikian.utils.http.client.ResponseCache;
+import cn.cikian.utils.http.client.RetryPolicy;
+import cn.cikian.utils.http.client.Route;
+import cn.cikian.utils.http.client.SingleFlight;
+import cn.cikian.utils.http.client.TransferStats;
+import cn.cikian.utils.http.enitry.Body;
+import cn.cikian.utils.http.enitry.Header;
+import cn.cikian.utils.http.enitry.JSON;
+import cn.cikian.utils.http.enitry.Param;
+import cn.cikian.utils.http.enitry.Request;
+import cn.cikian.utils.http.enitry.Response;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.net.UnknownHostException;
+import java.nio.channels.UnresolvedAddressException;
+import java.net.URLEncoder;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 基于连接池的HTTP/1.1客户端<br>
+ * 同一路由的连接以keep-alive方式复用，避免每次请求重新进行TCP及TLS握手；
+ * 可选对http地址启用HTTP/2（h2c），同一主机的并发请求在一条连接上多路复用。
+ * 实例是线程安全的，应当在多个请求之间共享。<br>
+ * 超时、连接失败、IO异常、非成功状态码及熔断均以带不同{@link ErrorCode}的{@link CikException}抛出
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 10:40
+ */
+
+public class HttpClient implements Closeable {
+    public static final int DEFAULT_MAX_PER_ROUTE = 20;
+    public static final int DEFAULT_MAX_TOTAL = 200;
+    public static final long DEFAULT_IDLE_TIMEOUT = 60_000;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+    public static final int DEFAULT_BATCH_CONCURRENCY = 64;
+
+    private static final String USER_AGENT = "ciktools";
+    private static final Set<String> IDEMPOTENT_METHODS =
+            new HashSet<>(Arrays.asList("GET", "HEAD", "PUT", "DELETE", "OPTIONS", "TRACE"));
+    private static final Set<String> BODY_METHODS = new HashSet<>(Arrays.asList("POST", "PUT", "PATCH"));
+
+    private final ConnectionPool pool;
+    private volatile int connectTimeout = 5000;
+    private volatile int readTimeout = 5000;
+    private volatile long leaseTimeout = 5000;
+    private volatile int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private volatile Executor callbackExecutor = ForkJoinPool.commonPool();
+    private volatile boolean compression = true;
+    private volatile long requestCompressionThreshold = -1;
+    private volatile ResponseCache responseCache;
+    private volatile SingleFlight singleFlight;
+    private volatile RetryPolicy retryPolicy = RetryPolicy.NONE;
+    private volatile CircuitBreaker circuitBreaker;
+    private volatile int maxConcurrentStreams = Http2Transport.DEFAULT_MAX_CONCURRENT_STREAMS;
+    private volatile Http2Transport http2Transport;
+    private volatile ExchangeListener exchangeListener;
+    private volatile Interceptor[] interceptors = new Interceptor[0];
+    private NioTransport nioTransport;
+    private ExecutorService blockingExecutor;
+    private ScheduledExecutorService retryScheduler;
+
+    public HttpClient() {
+        this(DEFAULT_MAX_PER_ROUTE, DEFAULT_MAX_TOTAL, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    /**
+     * 创建HTTP客户端
+     *
+     * @param maxPerRoute 每个路由（协议+主机+端口）的最大连接数
+     * @param maxTotal    连接总数上限
+     * @param idleTimeout 空闲连接存活时间（毫秒）
+     */
+    public HttpClient(int maxPerRoute, int maxTotal, long idleTimeout) {
+        this.pool = new ConnectionPool(maxPerRoute, maxTotal, idleTimeout);
+    }
+
+    /**
+     * 发送GET请求并将响应体解析为JSON
+     *
+     * @param url     请求地址
+     * @param headers 请求头Map
+     * @param params  请求参数Map
+     * @return 响应结果
+     * @throws IOException    URL非法
+     * @throws CikException 网络异常、超时或状态码不为200
+     */
+    public JSON getAction(String url, Map<String, String> headers, Map<String, String> params) throws IOException {
+        Interceptor[] chain = interceptors;
+        if (chain.length == 0) {
+            return getJSON(appendQuery(url, params), headers, connectTimeout, readTimeout);
+        }
+        try (Response response = new Chain(chain, true).proceed(request(url, headers, params))) {
+            checkStatus(response, true);
+            return readJSON(response);
+        }
+    }
+
+    /**
+     * 发送GET请求，返回流式响应
+     *
+     * @param url     请求地址
+     * @param headers 请求头Map
+     * @param params  请求参数Map
+     * @return 响应，使用完毕后需要关闭
+     * @throws IOException    URL非法
+     * @throws CikException 网络异常或超时
+     */
+    public Response get(String url, Map<String, String> headers, Map<String, String> params) throws IOException {
+        Interceptor[] chain = interceptors;
+        if (chain.length == 0) {
+            return call("GET", new URL(appendQuery(url, params)), headers, null, connectTimeout, readTimeout);
+        }
+        return new Chain(chain, false).proceed(request(url, headers, params));
+    }
+
+    /**
+     * 按Request描述的地址、方法、请求头、参数及请求体发送请求，并将响应体解析为JSON
+     *
+     * @param request 请求
+     * @return 响应结果，响应体为空时返回null
+     * @throws IOException    URL非法
+     * @throws CikException 网络异常、超时或状态码不为2xx
+     */
+    public JSON execute(Request request) throws IOException {
+        Interceptor[] chain = interceptors;
+        if (chain.length > 0) {
+            try (Response response = new Chain(chain, true).proceed(request)) {
+                checkStatus(response, false);
+                return readJSON(response);
+            }
+        }
+        if (isSharedGet(request)) {
+            return sharedGet(request);
+        }
+        try (Response response = sendDirect(request)) {
+            checkStatus(response, false);
+            return readJSON(response);
+        }
+    }
+
+    /**
+     * 按Request描述的地址、方法、请求头、参数及请求体发送请求，返回流式响应<br>
+     * 请求体直接写入连接：长度已知时使用Content-Length定长发送，未知时使用chunked编码。
+     * Request中设置的超时时间优先于客户端配置
+     *
+     * @param request 请求
+     * @return 响应，使用完毕后需要关闭
+     * @throws IOException    URL非法
+     * @throws CikException 网络异常或超时
+     */
+    public Response send(Request request) throws IOException {
+        Interceptor[] chain = interceptors;
+        if (chain.length > 0) {
+            return new Chain(chain, false).proceed(request);
+        }
+        return sendDirect(request);
+    }
+
+    /**
+     * 拦截器链的末端：需要JSON结果且可经由缓存或合并的GET请求走缓存路径，结果包装为不需再解析的响应
+     */
+    private Response proceed(Request request, boolean json) throws IOException {
+        if (json && isSharedGet(request)) {
+            return Response.of(200, sharedGet(request));
+        }
+        return sendDirect(request);
+    }
+
+    private boolean isSharedGet(Request request) {
+        return (responseCache != null || singleFlight != null) && request.getBody() == null
+                && (request.getMethod() == null || "GET".equalsIgnoreCase(request.getMethod()));
+    }
+
+    private JSON sharedGet(Request request) throws IOException {
+        Map<String, String> params = request.getParams() == null ? null : request.getParams().getParams();
+        Map<String, String> headers = request.getHeaders() == null ? null : request.getHeaders().getHeaders();
+        return getJSON(appendQuery(request.getUrl(), params), headers, connectTimeout(request), readTimeout(request));
+    }
+
+    private Response sendDirect(Request request) throws IOException {
+        String method = request.getMethod() == null ? "GET" : request.getMethod().toUpperCase(Locale.ROOT);
+        Map<String, String> params = request.getParams() == null ? null : request.getParams().getParams();
+        Map<String, String> headers = request.getHeaders() == null ? null : request.getHeaders().getHeaders();
+        return call(method, new URL(appendQuery(request.getUrl(), params)), headers, request.getBody(),
+                connectTimeout(request), readTimeout(request));
+    }
+
+    /**
+     * 并发执行一批请求，每个请求按{@link #execute(Request)}的方式发送并解析<br>
+     * 全局并发数默认64，每个主机的并发数默认等于连接池的每路由连接上限，超出连接池上限的并发只会在连接池排队直至超时
+     *
+     * @param requests 请求集合
+     * @return 批量执行句柄，可按输入顺序或完成顺序获取结果
+     */
+    public BatchExecution executeAll(Collection<Request> requests) {
+        return executeAll(requests, DEFAULT_BATCH_CONCURRENCY, pool.getMaxPerRoute());
+    }
+
+    /**
+     * 并发执行一批请求，单个请求失败不会中断整批执行，失败原因记录在对应的结果中
+     *
+     * @param requests       请求集合
+     * @param maxConcurrency 全局最大并发数
+     * @param maxPerHost     每个主机（协议+主机+端口）的最大并发数
+     * @return 批量执行句柄，可按输入顺序或完成顺序获取结果
+     */
+    public BatchExecution executeAll(Collection<Request> requests, int maxConcurrency, int maxPerHost) {
+        BatchExecution batch = new BatchExecution(this, requests, maxConcurrency, maxPerHost);
+        batch.start();
+        return batch;
+    }
+
+    /**
+     * 异步发送GET请求并将响应体解析为JSON，超时时间为连接超时与读取超时之和
+     *
+     * @param url     请求地址
+     * @param headers 请求头Map
+     * @param params  请求参数Map
+     * @return 响应结果，失败时以CikException异常结束
+     */
+    public CompletableFuture<JSON> getActionAsync(String url, Map<String, String> headers, Map<String, String> params) {
+        return getActionAsync(url, headers, params, (long) connectTimeout + readTimeout);
+    }
+
+    /**
+     * 异步发送GET请求并将响应体解析为JSON<br>
+     * http请求由NIO事件循环驱动，不占用调用线程；JSON解析在回调线程池中进行
+     *
+     * @param url           请求地址
+     * @param headers       请求头Map
+     * @param params        请求参数Map
+     * @param timeoutMillis 本次请求的超时时间（毫秒）
+     * @return 响应结果，网络异常、超时或状态码不为200时以CikException异常结束
+     */
+    public CompletableFuture<JSON> getActionAsync(String url, Map<String, String> headers, Map<String, String> params,
+                                                  long timeoutMillis) {
+        SingleFlight flight = singleFlight;
+        if (flight == null) {
+            return fetchJSONAsync(url, headers, params, timeoutMillis);
+        }
+        String key;
+        try {
+            key = flight.key(appendQuery(url, params), headers);
+        } catch (IOException e) {
+            CompletableFuture<JSON> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        return flight.executeAsync(key, () -> fetchJSONAsync(url, headers, params, timeoutMillis));
+    }
+
+    private CompletableFuture<JSON> fetchJSONAsync(String url, Map<String, String> headers, Map<String, String> params,
+                                                   long timeoutMillis) {
+        return getAsync(url, headers, params, timeoutMillis).thenApplyAsync(response -> {
+            try (Response r = response) {
+                checkStatus(r, true);
+                return r.asJSON();
+            } catch (IOException e) {
+                throw new CompletionException(translate(e, false));
+            }
+        }, callbackExecutor);
+    }
+
+    /**
+     * 异步发送GET请求，响应体完整读入内存后交付<br>
+     * http请求使用非阻塞传输层，并发数超过maxInFlight的请求排队等待；
+     * https请求在有界线程池中使用阻塞连接池完成，超时时间作为读取超时生效。
+     * 重试及熔断按客户端配置生效，重试等待不占用线程
+     *
+     * @param url           请求地址
+     * @param headers       请求头Map
+     * @param params        请求参数Map
+     * @param timeoutMillis 本次请求的超时时间（毫秒）
+     * @return 响应
+     */
+    public CompletableFuture<Response> getAsync(String url, Map<String, String> headers, Map<String, String> params,
+                                                long timeoutMillis) {
+        URL requestUrl;
+        Route route;
+        try {
+            requestUrl = new URL(appendQuery(url, params));
+            route = Route.of(requestUrl);
+        } catch (IOException | RuntimeException e) {
+            CompletableFuture<Response> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        boolean secure = route.isSecure();
+        int timeout = (int) Math.min(Integer.MAX_VALUE, timeoutMillis);
+        boolean decode = compression && (headers == null || !containsIgnoreCase(headers, "Accept-Encoding"));
+        String target = target(requestUrl);
+        Map<String, String> requestHeaders = requestHeaders(route, headers);
+        byte[] request = null;
+        try {
+            HttpCodec.validateRequestHead("GET", target, requestHeaders);
+            if (!secure) {
+                ByteArrayOutputStream head = new ByteArrayOutputStream(256);
+                HttpCodec.writeRequestHead(head, "GET", target, requestHeaders);
+                request = head.toByteArray();
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            CompletableFuture<Response> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        byte[] requestBytes = request;
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        attemptAsync(result, route, retryPolicy, 1, () -> {
+            if (secure) {
+                return CompletableFuture.supplyAsync(() -> {
+                    try (Response r = exchange("GET", requestUrl, headers, null, connectTimeout, timeout)) {
+                        return new Response(r.getStatus(), r.getReason(), r.getHeaders(),
+                                new ByteArrayInputStream(readBytes(r.getBody())), r.getTransferStats());
+                    } catch (IOException e) {
+                        throw new CompletionException(translate(e, false));
+                    }
+                }, blockingExecutor());
+            }
+            ExchangeTrace trace = ExchangeTrace.start(exchangeListener, route, "GET");
+            Supplier<CompletableFuture<Response>> http1 = () -> {
+                try {
+                    return nioTransport().send(route, "GET", requestBytes, timeoutMillis, trace);
+                } catch (IOException e) {
+                    CompletableFuture<Response> failed = new CompletableFuture<>();
+                    failed.completeExceptionally(e);
+                    return failed;
+                }
+            };
+            Http2Transport h2 = http2Transport;
+            CompletableFuture<Response> sent = h2 != null && h2.supports(route)
+                    ? h2.exchangeAsync(route, "GET", target, requestHeaders, timeoutMillis, connectTimeout,
+                    blockingExecutor(), http1, trace)
+                    : http1.get();
+            CompletableFuture<Response> decoded = sent.thenApply(r -> decodeBody(r, decode));
+            if (trace == null) {
+                return decoded;
+            }
+            return decoded.whenComplete((r, error) -> {
+                if (error != null) {
+                    trace.fail(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                }
+            }).thenApply(trace::complete);
+        });
+        return result;
+    }
+
+    /**
+     * 执行一次异步尝试，失败时按重试策略在调度线程上延迟发起下一次尝试
+     */
+    private void attemptAsync(CompletableFuture<Response> result, Route route, RetryPolicy policy, int attempt,
+                              Supplier<CompletableFuture<Response>> send) {
+        if (result.isDone()) {
+            return;
+        }
+        CircuitBreaker breaker = circuitBreaker;
+        if (breaker != null) {
+            try {
+                breaker.acquire(route);
+            } catch (CikException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+        }
+        send.get().whenComplete((response, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                if (cause instanceof IOException) {
+                    cause = translate((IOException) cause, false);
+                } else if (cause instanceof UnresolvedAddressException) {
+                    cause = new CikException(ErrorCode.HTTP_CONNECT_FAILED.code(), "无法解析主机: " + route, cause);
+                }
+                CikException failure = cause instanceof CikException ? (CikException) cause : null;
+                if (breaker != null) {
+                    if (failure != null && isHostFailure(failure)) {
+                        breaker.onFailure(route);
+                    } else {
+                        breaker.release(route);
+                    }
+                }
+                if (failure != null && policy.canRetry(attempt) && policy.isRetryable(failure)) {
+                    schedule(() -> attemptAsync(result, route, policy, attempt + 1, send), policy.delay(attempt, null));
+                } else {
+                    result.completeExceptionally(cause);
+                }
+                return;
+            }
+            recordStatus(breaker, route, response.getStatus());
+            if (policy.canRetry(attempt) && policy.isRetryableStatus(response.getStatus())) {
+                String retryAfter = response.getHeader("Retry-After");
+                response.close();
+                schedule(() -> attemptAsync(result, route, policy, attempt + 1, send),
+                        policy.delay(attempt, retryAfter));
+                return;
+            }
+            result.complete(response);
+        });
+    }
+
+    private void schedule(Runnable task, long delay) {
+        retryScheduler().schedule(task, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 包装传输层交付的未解码响应：统计字节数，decode为true时按Content-Encoding解码
+     */
+    private static Response decodeBody(Response r, boolean decode) {
+        TransferStats stats = r.getTransferStats();
+        try {
+            InputStream body = ContentCoding.decodeResponse(r.getBody(),
+                    decode ? r.getHeader("Content-Encoding") : null, stats);
+            return new Response(r.getStatus(), r.getReason(), r.getHeaders(), body, stats);
+        } catch (IOException e) {
+            r.close();
+            throw translate(e, false);
+        }
+    }
+
+    /**
+     * @return 连接池统计信息：租出、空闲及等待中的连接数
+     */
+    public PoolStats getPoolStats() {
+        return pool.getTotalStats();
+    }
+
+    /**
+     * @return 各路由的连接池统计信息
+     */
+    public Map<String, PoolStats> getRouteStats() {
+        return pool.getRouteStats();
+    }
+
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public long getLeaseTimeout() {
+        return leaseTimeout;
+    }
+
+    /**
+     * @param leaseTimeout 连接数达到上限时等待空闲连接的最长时间（毫秒）
+     */
+    public void setLeaseTimeout(long leaseTimeout) {
+        this.leaseTimeout = leaseTimeout;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * @param maxInFlight 异步请求同时进行的数量上限，超出的请求排队等待
+     */
+    public synchronized void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        if (nioTransport != null) {
+            nioTransport.setMaxInFlight(maxInFlight);
+        }
+    }
+
+    /**
+     * @return 正在进行中的异步请求数
+     */
+    public synchronized int getAsyncInFlight() {
+        return nioTransport == null ? 0 : nioTransport.getInFlight();
+    }
+
+    /**
+     * @return 因达到并发上限而排队的异步请求数
+     */
+    public synchronized int getAsyncQueued() {
+        return nioTransport == null ? 0 : nioTransport.getQueued();
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    /**
+     * @param compression 是否发送Accept-Encoding: gzip, deflate并自动流式解压响应体，默认开启；
+     *                    调用方自行设置了Accept-Encoding请求头时不做解压
+     */
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
+    public long getRequestCompressionThreshold() {
+        return requestCompressionThreshold;
+    }
+
+    /**
+     * @param requestCompressionThreshold 请求体达到该字节数（或长度未知）时以gzip压缩发送，小于0表示不压缩，默认-1
+     */
+    public void setRequestCompressionThreshold(long requestCompressionThreshold) {
+        this.requestCompressionThreshold = requestCompressionThreshold;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * 启用响应缓存，仅作用于同步的GET请求（getAction及不带请求体的GET execute），传入null关闭缓存
+     *
+     * @param responseCache 响应缓存
+     */
+    public void setResponseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * 启用相同GET请求的合并执行：并发的相同请求（URL、编码后的查询参数及指定请求头均相同）只发出一次，
+     * 所有调用方得到同一个解析结果；传入null关闭
+     *
+     * @param singleFlight 请求合并器
+     */
+    public void setSingleFlight(SingleFlight singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * 设置重试策略，只对幂等且请求体可重复发送的请求生效，传入null表示不重试
+     *
+     * @param retryPolicy 重试策略
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy == null ? RetryPolicy.NONE : retryPolicy;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * 启用按主机划分的熔断器，传入null关闭
+     *
+     * @param circuitBreaker 熔断器
+     */
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public boolean isHttp2PriorKnowledge() {
+        return http2Transport != null;
+    }
+
+    /**
+     * 对http地址启用HTTP/2（h2c先验知识方式），同一主机的并发请求复用一条连接；
+     * 对端不支持时该主机自动回退到HTTP/1.1。https地址始终使用HTTP/1.1
+     *
+     * @param enabled 是否启用
+     */
+    public synchronized void setHttp2PriorKnowledge(boolean enabled) {
+        if (enabled && http2Transport == null) {
+            http2Transport = new Http2Transport(maxConcurrentStreams, pool.getIdleTimeout());
+        } else if (!enabled && http2Transport != null) {
+            http2Transport.close();
+            http2Transport = null;
+        }
+    }
+
+    public int getMaxConcurrentStreams() {
+        return maxConcurrentStreams;
+    }
+
+    /**
+     * @param maxConcurrentStreams 每条HTTP/2连接的最大并发流数，默认100，实际值不超过服务端的限制；
+     *                             超出的请求排队，排队时间计入leaseTimeout
+     */
+    public synchronized void setMaxConcurrentStreams(int maxConcurrentStreams) {
+        if (http2Transport != null) {
+            http2Transport.setMaxConcurrentStreams(maxConcurrentStreams);
+        }
+        this.maxConcurrentStreams = maxConcurrentStreams;
+    }
+
+    /**
+     * @return HTTP/2传输层，未启用时为null
+     */
+    public Http2Transport getHttp2Transport() {
+        return http2Transport;
+    }
+
+    /**
+     * 在拦截器链末尾添加一个拦截器，对之后发起的同步调用生效
+     *
+     * @param interceptor 拦截器
+     */
+    public synchronized void addInterceptor(Interceptor interceptor) {
+        if (interceptor == null) {
+            throw new IllegalArgumentException("interceptor不能为null");
+        }
+        Interceptor[] updated = Arrays.copyOf(interceptors, interceptors.length + 1);
+        updated[interceptors.length] = interceptor;
+        interceptors = updated;
+    }
+
+    /**
+     * @param interceptor 拦截器
+     * @return 是否移除成功
+     */
+    public synchronized boolean removeInterceptor(Interceptor interceptor) {
+        for (int i = 0; i < interceptors.length; i++) {
+            if (interceptors[i] == interceptor) {
+                Interceptor[] updated = new Interceptor[interceptors.length - 1];
+                System.arraycopy(interceptors, 0, updated, 0, i);
+                System.arraycopy(interceptors, i + 1, updated, i, updated.length - i);
+                interceptors = updated;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return 按调用顺序排列的拦截器
+     */
+    public List<Interceptor> getInterceptors() {
+        return Collections.unmodifiableList(Arrays.asList(interceptors));
+    }
+
+    public ExchangeListener getExchangeListener() {
+        return exchangeListener;
+    }
+
+    /**
+     * 设置请求交换监听器，每次尝试（含重试）结束时回调一次，可用于记录耗时、状态码及字节数；
+     * 设为{@link HttpMetrics}即可按主机统计延迟直方图。为null时不做任何跟踪
+     *
+     * @param exchangeListener 监听器，为null时关闭跟踪
+     */
+    public void setExchangeListener(ExchangeListener exchangeListener) {
+        this.exchangeListener = exchangeListener;
+    }
+
+    public Executor getCallbackExecutor() {
+        return callbackExecutor;
+    }
+
+    /**
+     * @param callbackExecutor 异步请求解析域名、解析响应及执行回调的线程池，默认为ForkJoinPool.commonPool()
+     */
+    public void setCallbackExecutor(Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    @Override
+    public synchronized void close() {
+        pool.close();
+        if (nioTransport != null) {
+            nioTransport.close();
+        }
+        if (blockingExecutor != null) {
+            blockingExecutor.shutdownNow();
+        }
+        if (retryScheduler != null) {
+            retryScheduler.shutdownNow();
+        }
+        if (http2Transport != null) {
+            http2Transport.close();
+        }
+    }
+
+    private synchronized NioTransport nioTransport() throws IOException {
+        if (nioTransport == null) {
+            nioTransport = new NioTransport(maxInFlight, pool.getMaxPerRoute(), pool.getIdleTimeout());
+            // 域名解析与解析响应共用回调线程池，始终使用当前设置的线程池
+            nioTransport.setResolveExecutor(r -> callbackExecutor.execute(r));
+        }
+        return nioTransport;
+    }
+
+    private synchronized ExecutorService blockingExecutor() {
+        if (blockingExecutor == null) {
+            AtomicInteger seq = new AtomicInteger();
+            blockingExecutor = Executors.newFixedThreadPool(pool.getMaxPerRoute(), r -> {
+                Thread t = new Thread(r, "ciktools-http-blocking-" + seq.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return blockingExecutor;
+    }
+
+    private synchronized ScheduledExecutorService retryScheduler() {
+        if (retryScheduler == null) {
+            retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "ciktools-http-retry");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return retryScheduler;
+    }
+
+    /**
+     * GET请求并解析为JSON，按配置依次经过请求合并与响应缓存
+     */
+    private JSON getJSON(String fullUrl, Map<String, String> headers, int connectTimeout, int readTimeout)
+            throws IOException {
+        SingleFlight flight = singleFlight;
+        if (flight != null) {
+            return flight.execute(flight.key(fullUrl, headers),
+                    () -> fetchJSON(fullUrl, headers, connectTimeout, readTimeout));
+        }
+        return fetchJSON(fullUrl, headers, connectTimeout, readTimeout);
+    }
+
+    private JSON fetchJSON(String fullUrl, Map<String, String> headers, int connectTimeout, int readTimeout)
+            throws IOException {
+        if (responseCache != null) {
+            return cachedGet(fullUrl, headers, connectTimeout, readTimeout);
+        }
+        try (Response response = call("GET", new URL(fullUrl), headers, null, connectTimeout, readTimeout)) {
+            checkStatus(response, true);
+            return readJSON(response);
+        }
+    }
+
+    /**
+     * 经由响应缓存的GET请求：新鲜条目直接返回；过期条目带验证器发起条件请求，304时复用已解析的结果
+     */
+    private JSON cachedGet(String fullUrl, Map<String, String> headers, int connectTimeout, int readTimeout)
+            throws IOException {
+        ResponseCache cache = responseCache;
+        String key = cache.key("GET", fullUrl, headers);
+        ResponseCache.Entry entry = cache.get(key);
+        if (entry != null && entry.isFresh()) {
+            cache.recordHit();
+            return entry.getJson();
+        }
+        Map<String, String> requestHeaders = headers;
+        if (entry != null && (entry.getEtag() != null || entry.getLastModified() != null)) {
+            requestHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            if (headers != null) {
+                requestHeaders.putAll(headers);
+            }
+            if (entry.getEtag() != null) {
+                requestHeaders.put("If-None-Match", entry.getEtag());
+            }
+            if (entry.getLastModified() != null) {
+                requestHeaders.put("If-Modified-Since", entry.getLastModified());
+            }
+        }
+        try (Response response = call("GET", new URL(fullUrl), requestHeaders, null, connectTimeout, readTimeout)) {
+            if (response.getStatus() == 304 && entry != null) {
+                cache.revalidated(entry, response);
+                return entry.getJson();
+            }
+            checkStatus(response, true);
+            String text = readString(response);
+            // 与不经缓存时一致，响应体为空时结果为null，同样按响应头缓存
+            JSON json = text.isEmpty() ? null : new JSON(text);
+            cache.store(key, response, json, text.length());
+            return json;
+        }
+    }
+
+    /**
+     * 按重试策略及熔断器执行请求：可重试的异常及状态码在退避等待后重新发送，
+     * 每次尝试前检查熔断状态，并将结果报告给熔断器
+     */
+    private Response call(String method, URL url, Map<String, String> headers, Body body,
+                          int connectTimeout, int readTimeout) throws IOException {
+        Route route = Route.of(url);
+        boolean retryable = IDEMPOTENT_METHODS.contains(method) && (body == null || body.isRepeatable());
+        RetryPolicy policy = retryable ? retryPolicy : RetryPolicy.NONE;
+        CircuitBreaker breaker = circuitBreaker;
+        for (int attempt = 1; ; attempt++) {
+            if (breaker != null) {
+                breaker.acquire(route);
+            }
+            Response response;
+            try {
+                response = exchange(method, url, headers, body, connectTimeout, readTimeout);
+            } catch (CikException e) {
+                if (breaker != null) {
+                    if (isHostFailure(e)) {
+                        breaker.onFailure(route);
+                    } else {
+                        breaker.release(route);
+                    }
+                }
+                if (policy.canRetry(attempt) && policy.isRetryable(e)) {
+                    sleep(policy.delay(attempt, null));
+                    continue;
+                }
+                throw e;
+            } catch (RuntimeException | Error e) {
+                if (breaker != null) {
+                    breaker.release(route);
+                }
+                throw e;
+            }
+            recordStatus(breaker, route, response.getStatus());
+            if (policy.canRetry(attempt) && policy.isRetryableStatus(response.getStatus())) {
+                String retryAfter = response.getHeader("Retry-After");
+                response.close();
+                sleep(policy.delay(attempt, retryAfter));
+                continue;
+            }
+            return response;
+        }
+    }
+
+    private static void recordStatus(CircuitBreaker breaker, Route route, int status) {
+        if (breaker == null) {
+            return;
+        }
+        if (status >= 500) {
+            breaker.onFailure(route);
+        } else {
+            breaker.onSuccess(route);
+        }
+    }
+
+    /**
+     * 连接池等待超时是本地资源不足，不计入目标主机的失败
+     */
+    private static boolean isHostFailure(CikException e) {
+        return e.getErrorCode() != ErrorCode.HTTP_POOL_TIMEOUT.code();
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CikException(ErrorCode.HTTP_IO_ERROR.code(), "重试等待被中断", e);
+        }
+    }
+
+    /**
+     * 发送一次请求，设置了监听器时跟踪本次交换直至响应体读完或关闭
+     */
+    private Response exchange(String method, URL url, Map<String, String> headers, Body body,
+                              int connectTimeout, int readTimeout) throws IOException {
+        ExchangeTrace trace = ExchangeTrace.start(exchangeListener, Route.of(url), method);
+        if (trace == null) {
+            return exchange(method, url, headers, body, connectTimeout, readTimeout, null);
+        }
+        try {
+            return trace.complete(exchange(method, url, headers, body, connectTimeout, readTimeout, trace));
+        } catch (IOException | RuntimeException e) {
+            trace.fail(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 发送一次请求，网络异常按所处阶段转换为对应错误码的CikException；复用的连接失效时对幂等请求透明地换连接重发
+     */
+    private Response exchange(String method, URL url, Map<String, String> headers, Body body,
+                              int connectTimeout, int readTimeout, ExchangeTrace trace) throws IOException {
+        Route route = Route.of(url);
+        String target = target(url);
+        Map<String, String> requestHeaders = requestHeaders(route, headers);
+        boolean requestClose = "close".equalsIgnoreCase(requestHeaders.get("Connection"));
+        boolean decode = compression && (headers == null || !containsIgnoreCase(headers, "Accept-Encoding"));
+        long threshold = requestCompressionThreshold;
+        boolean gzip = body != null && threshold >= 0 && !requestHeaders.containsKey("Content-Encoding")
+                && (body.contentLength() < 0 || body.contentLength() >= threshold);
+        if (body != null || BODY_METHODS.contains(method)) {
+            long length = body == null ? 0 : body.contentLength();
+            if (length >= 0 && !gzip) {
+                requestHeaders.put("Content-Length", Long.toString(length));
+                requestHeaders.remove("Transfer-Encoding");
+            } else {
+                requestHeaders.put("Transfer-Encoding", "chunked");
+                requestHeaders.remove("Content-Length");
+            }
+            if (gzip) {
+                requestHeaders.put("Content-Encoding", "gzip");
+            }
+            if (body != null && body.getContentType() != null && !requestHeaders.containsKey("Content-Type")) {
+                requestHeaders.put("Content-Type", body.getCharset() == null ? body.getContentType()
+                        : body.getContentType() + "; charset=" + body.getCharset());
+            }
+        }
+        boolean retryable = IDEMPOTENT_METHODS.contains(method) && (body == null || body.isRepeatable());
+        // 在租用连接之前检查，避免写出半个请求后连接无法复用
+        HttpCodec.validateRequestHead(method, target, requestHeaders);
+
+        Http2Transport h2 = http2Transport;
+        if (h2 != null && h2.supports(route)) {
+            Response response;
+            try {
+                response = h2.exchange(route, method, target, requestHeaders, body, gzip, new TransferStats(),
+                        connectTimeout, readTimeout, leaseTimeout, trace);
+            } catch (IOException e) {
+                throw translate(e, false);
+            }
+            if (response != null) {
+                return decodeBody(response, decode);
+            }
+        }
+        while (true) {
+            HttpConnection connection;
+            try {
+                connection = pool.lease(route, leaseTimeout, connectTimeout, readTimeout, trace);
+            } catch (IOException e) {
+                throw translate(e, true);
+            }
+            boolean reused = connection.markUsed() > 0;
+            TransferStats stats = new TransferStats();
+            HttpCodec.ResponseHead head;
+            try {
+                OutputStream out = connection.getOutputStream();
+                HttpCodec.writeRequestHead(out, method, target, requestHeaders);
+                if (body != null) {
+                    ContentCoding.writeRequest(out, body, gzip, stats);
+                }
+                out.flush();
+                if (trace != null) {
+                    trace.requestSent();
+                }
+                head = HttpCodec.readResponseHead(connection.getInputStream());
+            } catch (IOException e) {
+                pool.release(connection, false);
+                // 复用的连接可能已被服务端关闭，幂等请求换一条新连接重试
+                if (reused && retryable) {
+                    continue;
+                }
+                throw translate(e, false);
+            } catch (RuntimeException e) {
+                pool.release(connection, false);
+                throw e;
+            }
+            InputStream raw = bodyStream(method, head, connection, requestClose);
+            InputStream decoded;
+            try {
+                decoded = ContentCoding.decodeResponse(raw, decode ? head.getHeader("Content-Encoding") : null, stats);
+            } catch (IOException e) {
+                raw.close();
+                throw translate(e, false);
+            }
+            return new Response(head.getStatus(), head.getReason(), head.getHeaders(), decoded, stats);
+        }
+    }
+
+    private InputStream bodyStream(String method, HttpCodec.ResponseHead head, HttpConnection connection,
+                                   boolean requestClose) {
+        boolean keepAlive = !requestClose && head.isKeepAlive();
+        long length = head.bodyLength(method);
+        InputStream in = connection.getInputStream();
+        InputStream framed;
+        if (length == HttpCodec.ResponseHead.CHUNKED) {
+            framed = new ChunkedInputStream(in);
+        } else if (length == HttpCodec.ResponseHead.UNTIL_CLOSE) {
+            framed = in;
+            keepAlive = false;
+        } else {
+            framed = new ContentLengthInputStream(in, length);
+        }
+        return new ResponseBodyStream(pool, connection, framed, keepAlive);
+    }
+
+    private int connectTimeout(Request request) {
+        return request.getConnectTimeout() == null ? connectTimeout : request.getConnectTimeout();
+    }
+
+    private int readTimeout(Request request) {
+        return request.getReadTimeout() == null ? readTimeout : request.getReadTimeout();
+    }
+
+    private static void checkStatus(Response response, boolean exact) {
+        int status = response.getStatus();
+        if (exact ? status != 200 : status < 200 || status >= 300) {
+            throw new CikException(ErrorCode.HTTP_STATUS_ERROR.code(), "HTTP请求失败，状态码: " + status);
+        }
+    }
+
+    private static String readString(Response response) {
+        try {
+            return response.asString();
+        } catch (IOException e) {
+            throw translate(e, false);
+        }
+    }
+
+    private static JSON readJSON(Response response) {
+        try {
+            return response.asJSON();
+        } catch (IOException e) {
+            throw translate(e, false);
+        }
+    }
+
+    /**
+     * 将网络异常转换为带错误码的CikException
+     *
+     * @param e          网络异常
+     * @param connecting 是否发生在建立连接阶段
+     * @return 对应的CikException
+     */
+    static CikException translate(IOException e, boolean connecting) {
+        if (connecting) {
+            return e instanceof SocketTimeoutException
+                    ? new CikException(ErrorCode.HTTP_CONNECT_TIMEOUT.code(), "连接超时: " + e.getMessage(), e)
+                    : new CikException(ErrorCode.HTTP_CONNECT_FAILED.code(), "连接失败: " + e.getMessage(), e);
+        }
+        if (e instanceof ConnectException || e instanceof NoRouteToHostException || e instanceof UnknownHostException) {
+            return new CikException(ErrorCode.HTTP_CONNECT_FAILED.code(), "连接失败: " + e.getMessage(), e);
+        }
+        if (e instanceof SocketTimeoutException) {
+            return new CikException(ErrorCode.HTTP_READ_TIMEOUT.code(), "读取超时: " + e.getMessage(), e);
+        }
+        return new CikException(ErrorCode.HTTP_IO_ERROR.code(), "网络异常: " + e.getMessage(), e);
+    }
+
+    private static String target(URL url) {
+        return url.getFile().isEmpty() ? "/" : url.getFile();
+    }
+
+    private Map<String, String> requestHeaders(Route route, Map<String, String> headers) {
+        Map<String, String> requestHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        requestHeaders.put("Host", route.hostHeader());
+        requestHeaders.put("User-Agent", USER_AGENT);
+        requestHeaders.put("Accept", "*/*");
+        if (compression) {
+            requestHeaders.put("Accept-Encoding", ContentCoding.ACCEPT_ENCODING);
+        }
+        if (headers != null) {
+            requestHeaders.putAll(headers);
+        }
+        return requestHeaders;
+    }
+
+    private static boolean containsIgnoreCase(Map<String, String> headers, String name) {
+        for (String key : headers.keySet()) {
+            if (name.equalsIgnoreCase(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String appendQuery(String url, Map<String, String> params) throws IOException {
+        if (params == null || params.isEmpty()) {
+            return url;
+        }
+        StringBuilder paramBuilder = new StringBuilder();
+        Iterator<Map.Entry<String, String>> it = params.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, String> entry = it.next();
+            paramBuilder.append(URLEncoder.encode(entry.getKey(), "UTF-8"));
+            paramBuilder.append("=");
+            paramBuilder.append(URLEncoder.encode(entry.getValue(), "UTF-8"));
+            if (it.hasNext()) {
+                paramBuilder.append("&");
+            }
+        }
+        return url + (url.contains("?") ? "&" : "?") + paramBuilder;
+    }
+
+    private static Request request(String url, Map<String, String> headers, Map<String, String> params) {
+        Request request = new Request();
+        request.setUrl(url);
+        request.setMethod("GET");
+        if (headers != null) {
+            request.setHeaders(new Header(new LinkedHashMap<>(headers)));
+        }
+        if (params != null) {
+            request.setParams(new Param(new LinkedHashMap<>(params)));
+        }
+        return request;
+    }
+
+    private static byte[] readBytes(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[8192];
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            out.write(buf, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 拦截器调用链。拦截器之间是同步嵌套调用，因此整条链共用一个对象，
+     * 进入下一个拦截器前推进下标并记录当前请求，返回后恢复，允许拦截器多次调用proceed
+     */
+    private final class Chain implements Interceptor.Chain {
+        private final Interceptor[] interceptors;
+        private final boolean json;
+        private int index;
+        private Request request;
+
+        private Chain(Interceptor[] interceptors, boolean json) {
+            this.interceptors = interceptors;
+            this.json = json;
+        }
+
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @Override
+        public Response proceed(Request request) throws IOException {
+            if (index == interceptors.length) {
+                return HttpClient.this.proceed(request, json);
+            }
+            int current = index;
+            Request previous = this.request;
+            this.request = request;
+            index = current + 1;
+            try {
+                Response response = interceptors[current].intercept(this);
+                if (response == null) {
+                    throw new CikException(ErrorCode.FAIL.code(), "拦截器返回了null: " + interceptors[current]);
+                }
+                return response;
+            } finally {
+                index = current;
+                this.request = previous;
+            }
+        }
+    }
+}
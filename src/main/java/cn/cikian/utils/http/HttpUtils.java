@@ -1,16 +1,17 @@
 package cn.cikian.utils.http;
 
 
+import cn.cikian.utils.http.client.Interceptor;
+import cn.cikian.utils.http.enitry.BatchResult;
 import cn.cikian.utils.http.enitry.JSON;
+import cn.cikian.utils.http.enitry.Request;
+import cn.cikian.utils.http.enitry.Response;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
-import java.util.Iterator;
-import java.net.URLEncoder;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Cikian
@@ -20,6 +21,11 @@ import java.net.URLEncoder;
 
 public class HttpUtils {
 
+    /**
+     * 静态方法共用的默认客户端，连接在多次调用之间复用
+     */
+    private static final HttpClient DEFAULT_CLIENT = new HttpClient();
+
     /**
      * 发送GET请求
      *
@@ -53,60 +59,130 @@ public class HttpUtils {
      * @throws IOException 网络异常
      */
     public static JSON getAction(String url, Map<String, String> headers, Map<String, String> params) throws IOException {
-        HttpURLConnection connection = null;
-        try {
-            // 处理URL参数
-            String fullUrl = url;
-            if (params != null && !params.isEmpty()) {
-                StringBuilder paramBuilder = new StringBuilder();
-                Iterator<Map.Entry<String, String>> it = params.entrySet().iterator();
-                while (it.hasNext()) {
-                    Map.Entry<String, String> entry = it.next();
-                    paramBuilder.append(URLEncoder.encode(entry.getKey(), "UTF-8"));
-                    paramBuilder.append("=");
-                    paramBuilder.append(URLEncoder.encode(entry.getValue(), "UTF-8"));
-                    if (it.hasNext()) {
-                        paramBuilder.append("&");
-                    }
-                }
-                fullUrl += (url.contains("?") ? "&" : "?") + paramBuilder;
-            }
-
-            // 创建连接
-            URL requestUrl = new URL(fullUrl);
-            connection = (HttpURLConnection) requestUrl.openConnection();
-
-            // 设置请求方法
-            connection.setRequestMethod("GET");
-            
-            // 设置请求头
-            if (headers != null && !headers.isEmpty()) {
-                for (Map.Entry<String, String> entry : headers.entrySet()) {
-                    connection.setRequestProperty(entry.getKey(), entry.getValue());
-                }
-            }
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(5000);
-
-            // 获取响应
-            int responseCode = connection.getResponseCode();
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-                String inputLine;
-                StringBuilder response = new StringBuilder();
-
-                while ((inputLine = in.readLine()) != null) {
-                    response.append(inputLine);
-                }
-                in.close();
-                return new JSON(response.toString());
-            } else {
-                throw new IOException("HTTP请求失败，状态码: " + responseCode);
-            }
-        } finally {
-            if (connection != null) {
-                connection.disconnect();
-            }
-        }
+        return DEFAULT_CLIENT.getAction(url, headers, params);
+    }
+
+    /**
+     * 发送GET请求，返回流式响应<br>
+     * 响应体可通过{@link Response#getBody()}、{@link Response#getChannel()}或{@link Response#getReader()}逐段读取，
+     * 内存占用与响应体大小无关；使用完毕后需要关闭响应
+     *
+     * @param url     请求地址
+     * @param headers 请求头Map
+     * @param params  请求参数Map
+     * @return 响应
+     * @throws IOException 网络异常
+     */
+    public static Response get(String url, Map<String, String> headers, Map<String, String> params) throws IOException {
+        return DEFAULT_CLIENT.get(url, headers, params);
+    }
+
+    /**
+     * 发送请求，返回流式响应，使用完毕后需要关闭响应
+     *
+     * @param request 请求
+     * @return 响应
+     * @throws IOException 网络异常
+     */
+    public static Response send(Request request) throws IOException {
+        return DEFAULT_CLIENT.send(request);
+    }
+
+    /**
+     * 发送请求，支持GET、POST、PUT、PATCH、DELETE等方法，请求体直接写入连接
+     *
+     * @param request 请求
+     * @return 响应结果，响应体为空时返回null
+     * @throws IOException 网络异常
+     */
+    public static JSON execute(Request request) throws IOException {
+        return DEFAULT_CLIENT.execute(request);
+    }
+
+    /**
+     * 并发执行一批请求并等待全部结束，单个请求失败不会中断整批执行
+     *
+     * @param requests 请求集合
+     * @return 按输入顺序排列的结果，失败的请求可通过{@link BatchResult#getError()}获取原因
+     */
+    public static List<BatchResult> executeAll(Collection<Request> requests) {
+        return DEFAULT_CLIENT.executeAll(requests).getResults();
+    }
+
+    /**
+     * 并发执行一批请求，返回后可按完成顺序消费结果、等待全部结果或取消
+     *
+     * @param requests       请求集合
+     * @param maxConcurrency 全局最大并发数
+     * @param maxPerHost     每个主机的最大并发数
+     * @return 批量执行句柄
+     */
+    public static BatchExecution executeAll(Collection<Request> requests, int maxConcurrency, int maxPerHost) {
+        return DEFAULT_CLIENT.executeAll(requests, maxConcurrency, maxPerHost);
+    }
+
+    /**
+     * 异步发送GET请求
+     *
+     * @param url 请求地址
+     * @return 响应结果
+     */
+    public static CompletableFuture<JSON> getActionAsync(String url) {
+        return getActionAsync(url, null, null);
+    }
+
+    /**
+     * 异步发送GET请求
+     *
+     * @param url    请求地址
+     * @param params 请求参数Map
+     * @return 响应结果
+     */
+    public static CompletableFuture<JSON> getActionAsync(String url, Map<String, String> params) {
+        return getActionAsync(url, null, params);
+    }
+
+    /**
+     * 异步发送GET请求（带headers和params）
+     *
+     * @param url     请求地址
+     * @param headers 请求头Map
+     * @param params  请求参数Map
+     * @return 响应结果
+     */
+    public static CompletableFuture<JSON> getActionAsync(String url, Map<String, String> headers, Map<String, String> params) {
+        return DEFAULT_CLIENT.getActionAsync(url, headers, params);
+    }
+
+    /**
+     * 异步发送GET请求，指定本次请求的超时时间
+     *
+     * @param url           请求地址
+     * @param headers       请求头Map
+     * @param params        请求参数Map
+     * @param timeoutMillis 超时时间（毫秒）
+     * @return 响应结果
+     */
+    public static CompletableFuture<JSON> getActionAsync(String url, Map<String, String> headers, Map<String, String> params,
+                                                         long timeoutMillis) {
+        return DEFAULT_CLIENT.getActionAsync(url, headers, params, timeoutMillis);
+    }
+
+    /**
+     * 为静态方法共用的默认客户端添加拦截器，之后的同步调用都会经过它
+     *
+     * @param interceptor 拦截器
+     */
+    public static void addInterceptor(Interceptor interceptor) {
+        DEFAULT_CLIENT.addInterceptor(interceptor);
+    }
+
+    /**
+     * 获取静态方法共用的默认客户端，可用于调整连接池参数或查看连接池统计
+     *
+     * @return 默认HTTP客户端
+     */
+    public static HttpClient getDefaultClient() {
+        return DEFAULT_CLIENT;
     }
 }
@@ -0,0 +1,87 @@
+package cn.cikian.utils.http.client;
+
+
+/**
+ * 响应缓存统计快照
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 14:40
+ */
+
+public final class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long revalidations;
+    private final long evictions;
+    private final int entries;
+    private final long bytes;
+
+    public CacheStats(long hits, long misses, long revalidations, long evictions, int entries, long bytes) {
+        this.hits = hits;
+        this.misses = misses;
+        this.revalidations = revalidations;
+        this.evictions = evictions;
+        this.entries = entries;
+        this.bytes = bytes;
+    }
+
+    /**
+     * @return 直接命中新鲜缓存的次数
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return 未命中、需要完整请求的次数
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return 条件请求返回304、复用已缓存结果的次数
+     */
+    public long getRevalidations() {
+        return revalidations;
+    }
+
+    /**
+     * @return 因超出内存预算被淘汰的条目数
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return 当前缓存条目的估算内存占用（字节）
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return 命中率，304复用计入命中
+     */
+    public double hitRate() {
+        long total = hits + misses + revalidations;
+        return total == 0 ? 0 : (double) (hits + revalidations) / total;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", revalidations=" + revalidations +
+                ", evictions=" + evictions +
+                ", entries=" + entries +
+                ", bytes=" + bytes +
+                '}';
+    }
+}
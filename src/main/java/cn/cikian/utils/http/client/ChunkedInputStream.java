@@ -0,0 +1,106 @@
+package cn.cikian.utils.http.client;
+
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 解码Transfer-Encoding: chunked的响应体，读到末尾块及trailer后返回EOF且不关闭底层连接
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 09:58
+ */
+
+public class ChunkedInputStream extends InputStream {
+    private final InputStream in;
+    private long chunkRemaining;
+    private boolean complete;
+    private boolean started;
+
+    public ChunkedInputStream(InputStream in) {
+        this.in = in;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureChunk()) {
+            return -1;
+        }
+        int b = in.read();
+        if (b == -1) {
+            throw new EOFException("chunked响应体提前结束");
+        }
+        chunkRemaining--;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureChunk()) {
+            return -1;
+        }
+        int n = in.read(b, off, (int) Math.min(len, chunkRemaining));
+        if (n == -1) {
+            throw new EOFException("chunked响应体提前结束");
+        }
+        chunkRemaining -= n;
+        return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return complete ? 0 : (int) Math.min(in.available(), chunkRemaining);
+    }
+
+    /**
+     * @return 是否已读到末尾块
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    private boolean ensureChunk() throws IOException {
+        if (complete) {
+            return false;
+        }
+        if (chunkRemaining > 0) {
+            return true;
+        }
+        if (started) {
+            // 上一个块数据之后的CRLF
+            HttpCodec.readLine(in);
+        }
+        started = true;
+        String line = HttpCodec.readLine(in);
+        if (line == null) {
+            throw new EOFException("chunked响应体提前结束");
+        }
+        int ext = line.indexOf(';');
+        String size = (ext >= 0 ? line.substring(0, ext) : line).trim();
+        try {
+            chunkRemaining = Long.parseLong(size, 16);
+        } catch (NumberFormatException e) {
+            throw new IOException("非法的chunk长度: " + line);
+        }
+        if (chunkRemaining == 0) {
+            // 跳过trailer直到空行
+            String trailer;
+            do {
+                trailer = HttpCodec.readLine(in);
+            } while (trailer != null && !trailer.isEmpty());
+            complete = true;
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        // 底层流属于连接，由连接池管理
+    }
+}
@@ -0,0 +1,87 @@
+package cn.cikian.utils.http.client;
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 以Transfer-Encoding: chunked编码写出请求体<br>
+ * 小块写入先在缓冲区聚合，缓冲区满或大块写入时才输出一个chunk；关闭时写出末尾块但不关闭底层连接
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 13:10
+ */
+
+public class ChunkedOutputStream extends OutputStream {
+    private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int count;
+    private boolean closed;
+
+    public ChunkedOutputStream(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[bufferSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count == buffer.length) {
+            flushChunk();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (len >= buffer.length) {
+            flushChunk();
+            writeChunk(b, off, len);
+            return;
+        }
+        if (len > buffer.length - count) {
+            flushChunk();
+        }
+        System.arraycopy(b, off, buffer, count, len);
+        count += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushChunk();
+        out.flush();
+    }
+
+    /**
+     * 写出剩余数据及末尾块，不关闭底层输出流
+     *
+     * @throws IOException 网络异常
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flushChunk();
+        out.write(LAST_CHUNK);
+        out.flush();
+    }
+
+    private void flushChunk() throws IOException {
+        if (count > 0) {
+            writeChunk(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    private void writeChunk(byte[] b, int off, int len) throws IOException {
+        out.write(Integer.toHexString(len).getBytes(StandardCharsets.ISO_8859_1));
+        HttpCodec.writeCrlf(out);
+        out.write(b, off, len);
+        HttpCodec.writeCrlf(out);
+    }
+}
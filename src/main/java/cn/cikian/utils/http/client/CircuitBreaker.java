@@ -0,0 +1,140 @@
+package cn.cikian.utils.http.client;
+
+
+import cn.cikian.code.ErrorCode;
+import cn.cikian.exception.CikException;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按主机（协议+主机+端口）划分的熔断器<br>
+ * 连续失败达到阈值后进入OPEN状态，期间请求直接以{@link ErrorCode#HTTP_CIRCUIT_OPEN}失败；
+ * 等待openDuration后进入HALF_OPEN，只放行一个试探请求，成功则恢复CLOSED，失败则重新OPEN。
+ * 连接失败、超时、IO异常及5xx状态码计为失败
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 15:55
+ */
+
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDuration;
+    private final ConcurrentHashMap<Route, HostState> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * @param failureThreshold 触发熔断的连续失败次数
+     * @param openDuration     熔断持续时间（毫秒），之后放行试探请求
+     */
+    public CircuitBreaker(int failureThreshold, long openDuration) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold不能小于1");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * 请求发出前调用，主机处于熔断状态时直接抛出异常<br>
+     * 放行后必须调用{@link #onSuccess(Route)}、{@link #onFailure(Route)}或{@link #release(Route)}报告结果
+     *
+     * @param route 路由
+     */
+    public void acquire(Route route) {
+        HostState host = hosts.computeIfAbsent(route, r -> new HostState());
+        synchronized (host) {
+            switch (host.state) {
+                case CLOSED:
+                    return;
+                case OPEN:
+                    if (System.currentTimeMillis() - host.openedAt >= openDuration) {
+                        host.state = State.HALF_OPEN;
+                        host.trialInFlight = true;
+                        return;
+                    }
+                    break;
+                case HALF_OPEN:
+                    if (!host.trialInFlight) {
+                        host.trialInFlight = true;
+                        return;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        throw new CikException(ErrorCode.HTTP_CIRCUIT_OPEN.code(), "主机已熔断，请求被拒绝: " + route);
+    }
+
+    public void onSuccess(Route route) {
+        HostState host = hosts.get(route);
+        if (host == null) {
+            return;
+        }
+        synchronized (host) {
+            host.state = State.CLOSED;
+            host.failures = 0;
+            host.trialInFlight = false;
+        }
+    }
+
+    public void onFailure(Route route) {
+        HostState host = hosts.computeIfAbsent(route, r -> new HostState());
+        synchronized (host) {
+            host.trialInFlight = false;
+            if (host.state == State.HALF_OPEN || ++host.failures >= failureThreshold) {
+                host.state = State.OPEN;
+                host.openedAt = System.currentTimeMillis();
+            }
+        }
+    }
+
+    /**
+     * 放行的请求因与主机无关的原因（如连接池等待超时）未能完成时调用，不计入成功或失败，
+     * 只释放HALF_OPEN状态下的试探名额
+     *
+     * @param route 路由
+     */
+    public void release(Route route) {
+        HostState host = hosts.get(route);
+        if (host == null) {
+            return;
+        }
+        synchronized (host) {
+            host.trialInFlight = false;
+        }
+    }
+
+    /**
+     * @param route 路由
+     * @return 该主机当前的熔断状态
+     */
+    public State getState(Route route) {
+        HostState host = hosts.get(route);
+        if (host == null) {
+            return State.CLOSED;
+        }
+        synchronized (host) {
+            return host.state;
+        }
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public long getOpenDuration() {
+        return openDuration;
+    }
+
+    private static final class HostState {
+        private State state = State.CLOSED;
+        private int failures;
+        private long openedAt;
+        private boolean trialInFlight;
+    }
+}
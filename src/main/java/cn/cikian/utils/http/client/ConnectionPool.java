@@ -0,0 +1,359 @@
+package cn.cikian.utils.http.client;
+
+
+import cn.cikian.code.ErrorCode;
+import cn.cikian.exception.CikException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按路由分组的HTTP连接池<br>
+ * 每个路由的连接数受maxPerRoute限制，全部路由的连接总数受maxTotal限制；
+ * 空闲超过idleTimeout的连接由后台线程定期关闭
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 09:35
+ */
+
+public class ConnectionPool implements Closeable {
+    /**
+     * 空闲超过该时长的连接在复用前需要检查是否已被对端关闭
+     */
+    private static final long VALIDATE_AFTER_INACTIVITY = 2000;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Map<Route, RoutePool> routes = new HashMap<>();
+    private final ScheduledExecutorService evictor;
+
+    private volatile int maxPerRoute;
+    private volatile int maxTotal;
+    private volatile long idleTimeout;
+
+    private int totalLeased;
+    private int totalIdle;
+    private int totalPending;
+    private boolean shutdown;
+
+    /**
+     * 创建连接池
+     *
+     * @param maxPerRoute 每个路由的最大连接数
+     * @param maxTotal    连接总数上限
+     * @param idleTimeout 空闲连接存活时间（毫秒）
+     */
+    public ConnectionPool(int maxPerRoute, int maxTotal, long idleTimeout) {
+        if (maxPerRoute <= 0 || maxTotal <= 0) {
+            throw new IllegalArgumentException("连接数上限必须大于0");
+        }
+        this.maxPerRoute = maxPerRoute;
+        this.maxTotal = maxTotal;
+        this.idleTimeout = idleTimeout;
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ciktools-http-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, idleTimeout / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 从连接池获取一条连接，没有可复用的空闲连接时新建连接；
+     * 连接数已达上限时阻塞等待，直到有连接归还或超时
+     *
+     * @param route          路由
+     * @param leaseTimeout   等待连接的超时时间（毫秒）
+     * @param connectTimeout 新建连接时的连接超时（毫秒）
+     * @param readTimeout    读取超时（毫秒）
+     * @return 已租出的连接，使用完毕后必须调用{@link #release(HttpConnection, boolean)}归还
+     * @throws IOException 网络异常
+     * @throws CikException 等待空闲连接超时（{@link ErrorCode#HTTP_POOL_TIMEOUT}）
+     */
+    public HttpConnection lease(Route route, long leaseTimeout, int connectTimeout, int readTimeout) throws IOException {
+        return lease(route, leaseTimeout, connectTimeout, readTimeout, null);
+    }
+
+    /**
+     * 租用一条连接，复用或新建连接的情况记录到trace中
+     *
+     * @param route          路由
+     * @param leaseTimeout   等待连接的超时时间（毫秒）
+     * @param connectTimeout 新建连接时的连接超时（毫秒）
+     * @param readTimeout    读取超时（毫秒）
+     * @param trace          跟踪记录，可为null
+     * @return 已租出的连接，使用完毕后必须调用{@link #release(HttpConnection, boolean)}归还
+     * @throws IOException 网络异常
+     * @throws CikException 等待空闲连接超时（{@link ErrorCode#HTTP_POOL_TIMEOUT}）
+     */
+    public HttpConnection lease(Route route, long leaseTimeout, int connectTimeout, int readTimeout,
+                                ExchangeTrace trace) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseTimeout);
+        while (true) {
+            HttpConnection reused = null;
+            List<HttpConnection> toClose = new ArrayList<>();
+            lock.lock();
+            try {
+                while (true) {
+                    if (shutdown) {
+                        throw new IOException("连接池已关闭");
+                    }
+                    RoutePool rp = routes.computeIfAbsent(route, r -> new RoutePool());
+                    reused = pollIdle(rp, toClose);
+                    if (reused != null) {
+                        break;
+                    }
+                    if (rp.leased < maxPerRoute && totalLeased + totalIdle < maxTotal) {
+                        rp.leased++;
+                        totalLeased++;
+                        break;
+                    }
+                    // 总数已满但其他路由上还有空闲连接时，关闭最旧的一条为当前路由腾出位置
+                    if (rp.leased < maxPerRoute && totalIdle > 0 && evictOldestIdle(toClose)) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new CikException(ErrorCode.HTTP_POOL_TIMEOUT.code(), "等待连接池连接超时: " + route);
+                    }
+                    totalPending++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException("等待连接池连接被中断", e);
+                    } finally {
+                        totalPending--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+                closeAll(toClose);
+            }
+
+            if (reused != null) {
+                if (System.currentTimeMillis() - reused.getLastUsed() > VALIDATE_AFTER_INACTIVITY && reused.isStale()) {
+                    release(reused, false);
+                    continue;
+                }
+                reused.setReadTimeout(readTimeout);
+                if (trace != null) {
+                    trace.reused();
+                }
+                return reused;
+            }
+
+            try {
+                return HttpConnection.open(route, connectTimeout, readTimeout, trace);
+            } catch (IOException | RuntimeException e) {
+                lock.lock();
+                try {
+                    RoutePool rp = routes.get(route);
+                    rp.leased--;
+                    totalLeased--;
+                    available.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 归还连接
+     *
+     * @param connection 连接
+     * @param reusable   连接是否可以继续复用，false时直接关闭
+     */
+    public void release(HttpConnection connection, boolean reusable) {
+        boolean close = true;
+        lock.lock();
+        try {
+            RoutePool rp = routes.get(connection.getRoute());
+            if (rp != null) {
+                rp.leased--;
+                totalLeased--;
+                if (reusable && !shutdown && connection.isOpen() && idleTimeout > 0) {
+                    connection.touch();
+                    rp.idle.addFirst(connection);
+                    totalIdle++;
+                    close = false;
+                }
+            }
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (close) {
+            connection.close();
+        }
+    }
+
+    /**
+     * 关闭空闲时间超过idleTimeout的连接
+     */
+    public void evictIdle() {
+        List<HttpConnection> toClose = new ArrayList<>();
+        long expireBefore = System.currentTimeMillis() - idleTimeout;
+        lock.lock();
+        try {
+            Iterator<RoutePool> it = routes.values().iterator();
+            while (it.hasNext()) {
+                RoutePool rp = it.next();
+                Iterator<HttpConnection> idle = rp.idle.descendingIterator();
+                while (idle.hasNext()) {
+                    HttpConnection c = idle.next();
+                    if (c.getLastUsed() >= expireBefore) {
+                        break;
+                    }
+                    idle.remove();
+                    totalIdle--;
+                    toClose.add(c);
+                }
+                if (rp.idle.isEmpty() && rp.leased == 0) {
+                    it.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        closeAll(toClose);
+    }
+
+    /**
+     * @return 整个连接池的统计信息
+     */
+    public PoolStats getTotalStats() {
+        lock.lock();
+        try {
+            return new PoolStats(totalLeased, totalIdle, totalPending, maxTotal);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 各路由的统计信息，等待数按路由无法区分，统一计为0
+     *
+     * @return 路由到统计信息的映射
+     */
+    public Map<String, PoolStats> getRouteStats() {
+        Map<String, PoolStats> stats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            for (Map.Entry<Route, RoutePool> e : routes.entrySet()) {
+                stats.put(e.getKey().toString(), new PoolStats(e.getValue().leased, e.getValue().idle.size(), 0, maxPerRoute));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return stats;
+    }
+
+    public int getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    public void setMaxPerRoute(int maxPerRoute) {
+        this.maxPerRoute = maxPerRoute;
+    }
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * 关闭连接池及全部空闲连接，已租出的连接在归还时关闭
+     */
+    @Override
+    public void close() {
+        List<HttpConnection> toClose = new ArrayList<>();
+        lock.lock();
+        try {
+            shutdown = true;
+            for (RoutePool rp : routes.values()) {
+                toClose.addAll(rp.idle);
+                totalIdle -= rp.idle.size();
+                rp.idle.clear();
+            }
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        evictor.shutdownNow();
+        closeAll(toClose);
+    }
+
+    private HttpConnection pollIdle(RoutePool rp, List<HttpConnection> toClose) {
+        long expireBefore = System.currentTimeMillis() - idleTimeout;
+        HttpConnection c;
+        while ((c = rp.idle.pollFirst()) != null) {
+            totalIdle--;
+            if (c.getLastUsed() < expireBefore || !c.isOpen()) {
+                toClose.add(c);
+                continue;
+            }
+            rp.leased++;
+            totalLeased++;
+            return c;
+        }
+        return null;
+    }
+
+    private boolean evictOldestIdle(List<HttpConnection> toClose) {
+        RoutePool oldestPool = null;
+        for (RoutePool rp : routes.values()) {
+            HttpConnection last = rp.idle.peekLast();
+            if (last != null && (oldestPool == null || last.getLastUsed() < oldestPool.idle.peekLast().getLastUsed())) {
+                oldestPool = rp;
+            }
+        }
+        if (oldestPool == null) {
+            return false;
+        }
+        toClose.add(oldestPool.idle.pollLast());
+        totalIdle--;
+        return true;
+    }
+
+    private static void closeAll(List<HttpConnection> connections) {
+        for (HttpConnection c : connections) {
+            c.close();
+        }
+    }
+
+    /**
+     * 单个路由下的连接，空闲连接按最近使用在前的顺序排列
+     */
+    private static final class RoutePool {
+        private final ArrayDeque<HttpConnection> idle = new ArrayDeque<>();
+        private int leased;
+    }
+}
@@ -0,0 +1,224 @@
+package cn.cikian.utils.http.client;
+
+
+import cn.cikian.utils.http.enitry.Body;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Content-Encoding内容编码的流式解码，以及请求/响应体的字节计数
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 14:10
+ */
+
+public final class ContentCoding {
+    /**
+     * 客户端声明支持的内容编码
+     */
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private ContentCoding() {
+    }
+
+    /**
+     * 判断内容编码是否可以解码
+     *
+     * @param encoding Content-Encoding响应头
+     * @return 是否支持
+     */
+    public static boolean isSupported(String encoding) {
+        if (encoding == null) {
+            return false;
+        }
+        String e = encoding.trim().toLowerCase(Locale.ROOT);
+        return "gzip".equals(e) || "x-gzip".equals(e) || "deflate".equals(e);
+    }
+
+    /**
+     * 按内容编码包装解码流，不支持的编码原样返回<br>
+     * deflate兼容带zlib头与不带头的两种格式；空响应体不创建解码器
+     *
+     * @param in       原始响应体
+     * @param encoding Content-Encoding响应头
+     * @return 解码后的输入流
+     * @throws IOException IO异常
+     */
+    public static InputStream decode(InputStream in, String encoding) throws IOException {
+        if (!isSupported(encoding)) {
+            return in;
+        }
+        PushbackInputStream pushback = new PushbackInputStream(in, 2);
+        int b0 = pushback.read();
+        if (b0 == -1) {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+        int b1 = pushback.read();
+        if (b1 != -1) {
+            pushback.unread(b1);
+        }
+        pushback.unread(b0);
+        String e = encoding.trim().toLowerCase(Locale.ROOT);
+        if ("deflate".equals(e)) {
+            // zlib头：CMF低4位为8且(CMF*256+FLG)能被31整除
+            boolean zlib = (b0 & 0x0f) == 8 && b1 != -1 && ((b0 << 8) | b1) % 31 == 0;
+            return new InflaterInputStream(pushback, new Inflater(!zlib), BUFFER_SIZE);
+        }
+        return new GZIPInputStream(pushback, BUFFER_SIZE);
+    }
+
+    /**
+     * 包装响应体：统计线路字节数，按内容编码解码，再统计解码后字节数
+     *
+     * @param raw      按报文长度截断的原始响应体
+     * @param encoding Content-Encoding响应头
+     * @param stats    传输统计
+     * @return 解码后的响应体
+     * @throws IOException IO异常
+     */
+    public static InputStream decodeResponse(InputStream raw, String encoding, TransferStats stats) throws IOException {
+        return countBody(decode(countWire(raw, stats), encoding), stats);
+    }
+
+    /**
+     * 写出请求体，需要压缩时经gzip编码后写出，并统计压缩前后的字节数<br>
+     * 长度已知且不压缩时按定长写出，否则使用chunked编码
+     *
+     * @param out   连接输出流
+     * @param body  请求体
+     * @param gzip  是否gzip压缩
+     * @param stats 传输统计
+     * @throws IOException IO异常
+     */
+    public static void writeRequest(OutputStream out, Body body, boolean gzip, TransferStats stats) throws IOException {
+        ChunkedOutputStream chunked = null;
+        OutputStream target = out;
+        if (gzip || body.contentLength() < 0) {
+            chunked = new ChunkedOutputStream(out, BUFFER_SIZE);
+            target = chunked;
+        }
+        writeBody(target, body, gzip, stats);
+        if (chunked != null) {
+            chunked.close();
+        }
+    }
+
+    /**
+     * 写出请求体但不做报文分帧，供自带帧长度的传输（HTTP/2 DATA帧）使用
+     *
+     * @param out   输出流
+     * @param body  请求体
+     * @param gzip  是否gzip压缩
+     * @param stats 传输统计
+     * @throws IOException IO异常
+     */
+    public static void writeBody(OutputStream out, Body body, boolean gzip, TransferStats stats) throws IOException {
+        OutputStream target = countRequest(out, stats, true);
+        if (gzip) {
+            GZIPOutputStream gz = new GZIPOutputStream(target, BUFFER_SIZE);
+            body.writeTo(countRequest(gz, stats, false));
+            gz.finish();
+        } else {
+            body.writeTo(target);
+            stats.requestBodyBytes = stats.requestWireBytes;
+        }
+        target.flush();
+    }
+
+    /**
+     * 包装输入流，读取时累加响应体线路字节数
+     */
+    static InputStream countWire(InputStream in, TransferStats stats) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b != -1) {
+                    stats.responseWireBytes++;
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                if (n > 0) {
+                    stats.responseWireBytes += n;
+                }
+                return n;
+            }
+        };
+    }
+
+    /**
+     * 包装输入流，读取时累加响应体解压后的字节数
+     */
+    static InputStream countBody(InputStream in, TransferStats stats) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b != -1) {
+                    stats.responseBodyBytes++;
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                if (n > 0) {
+                    stats.responseBodyBytes += n;
+                }
+                return n;
+            }
+        };
+    }
+
+    /**
+     * 包装输出流，写出时累加请求体字节数；wire为true时计入线路字节数，否则计入压缩前字节数<br>
+     * 关闭时不关闭底层输出流
+     */
+    static OutputStream countRequest(OutputStream out, TransferStats stats, boolean wire) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                add(1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                add(len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+
+            private void add(long n) {
+                if (wire) {
+                    stats.requestWireBytes += n;
+                } else {
+                    stats.requestBodyBytes += n;
+                }
+            }
+        };
+    }
+}
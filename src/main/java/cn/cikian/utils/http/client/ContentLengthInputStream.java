@@ -0,0 +1,67 @@
+package cn.cikian.utils.http.client;
+
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 按Content-Length读取定长响应体，读满后返回EOF且不关闭底层连接
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 09:52
+ */
+
+public class ContentLengthInputStream extends InputStream {
+    private final InputStream in;
+    private long remaining;
+
+    public ContentLengthInputStream(InputStream in, long length) {
+        this.in = in;
+        this.remaining = length;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (remaining <= 0) {
+            return -1;
+        }
+        int b = in.read();
+        if (b == -1) {
+            throw new EOFException("响应体提前结束，剩余" + remaining + "字节未读取");
+        }
+        remaining--;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (remaining <= 0) {
+            return -1;
+        }
+        int n = in.read(b, off, (int) Math.min(len, remaining));
+        if (n == -1) {
+            throw new EOFException("响应体提前结束，剩余" + remaining + "字节未读取");
+        }
+        remaining -= n;
+        return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(in.available(), remaining);
+    }
+
+    /**
+     * @return 是否已读到响应体末尾
+     */
+    public boolean isComplete() {
+        return remaining <= 0;
+    }
+
+    @Override
+    public void close() {
+        // 底层流属于连接，由连接池管理
+    }
+}
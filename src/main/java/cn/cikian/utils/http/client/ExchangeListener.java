@@ -0,0 +1,55 @@
+package cn.cikian.utils.http.client;
+
+
+/**
+ * 请求交换的监听器，每次尝试（含重试）各对应一个{@link ExchangeTrace}<br>
+ * 回调在发起请求或读取响应的线程上同步执行，实现应当足够轻量；回调抛出的异常会被忽略，不影响请求本身。
+ * 客户端未设置监听器时不会创建任何跟踪对象
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 19:20
+ */
+
+public interface ExchangeListener {
+
+    /**
+     * 交换开始，此时只有路由、方法及开始时间可用
+     *
+     * @param trace 本次交换的跟踪记录
+     */
+    default void onStart(ExchangeTrace trace) {
+    }
+
+    /**
+     * 交换结束：响应体读完或被关闭，或者请求失败。每次交换只回调一次
+     *
+     * @param trace 本次交换的跟踪记录
+     */
+    void onEnd(ExchangeTrace trace);
+
+    /**
+     * 将多个监听器组合为一个，按顺序回调
+     *
+     * @param listeners 监听器
+     * @return 组合后的监听器
+     */
+    static ExchangeListener of(ExchangeListener... listeners) {
+        ExchangeListener[] copy = listeners.clone();
+        return new ExchangeListener() {
+            @Override
+            public void onStart(ExchangeTrace trace) {
+                for (ExchangeListener listener : copy) {
+                    listener.onStart(trace);
+                }
+            }
+
+            @Override
+            public void onEnd(ExchangeTrace trace) {
+                for (ExchangeListener listener : copy) {
+                    listener.onEnd(trace);
+                }
+            }
+        };
+    }
+}
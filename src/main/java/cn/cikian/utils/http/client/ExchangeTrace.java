@@ -0,0 +1,329 @@
+package cn.cikian.utils.http.client;
+
+
+import cn.cikian.utils.http.enitry.Response;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 单次请求交换的跟踪记录：各阶段耗时、状态码、传输字节数及失败原因<br>
+ * 阶段时间点由传输层在交换过程中依次记录，未经历的阶段（如复用连接时的DNS、连接及TLS）耗时为-1；
+ * 字节数来自{@link TransferStats}，只计请求体与响应体，在交换结束时才是最终值
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 19:25
+ */
+
+public final class ExchangeTrace {
+    public static final String HTTP_1_1 = "http/1.1";
+    public static final String H2 = "h2";
+
+    private static final long UNSET = Long.MIN_VALUE;
+
+    private final ExchangeListener listener;
+    private final Route route;
+    private final String method;
+    private final long start = System.nanoTime();
+    private String protocol = HTTP_1_1;
+    private boolean reused;
+    private long dnsStart = UNSET;
+    private long dnsEnd = UNSET;
+    private long connectStart = UNSET;
+    private long connectEnd = UNSET;
+    private long tlsStart = UNSET;
+    private long tlsEnd = UNSET;
+    private long requestSent = UNSET;
+    private long firstByte = UNSET;
+    private long end = UNSET;
+    private int status = -1;
+    private TransferStats stats;
+    private Throwable error;
+
+    private ExchangeTrace(ExchangeListener listener, Route route, String method) {
+        this.listener = listener;
+        this.route = route;
+        this.method = method;
+    }
+
+    /**
+     * 开始跟踪一次交换并回调{@link ExchangeListener#onStart(ExchangeTrace)}
+     *
+     * @param listener 监听器，为null时返回null
+     * @param route    路由
+     * @param method   请求方法
+     * @return 跟踪记录，监听器为null时返回null
+     */
+    public static ExchangeTrace start(ExchangeListener listener, Route route, String method) {
+        if (listener == null) {
+            return null;
+        }
+        ExchangeTrace trace = new ExchangeTrace(listener, route, method);
+        try {
+            listener.onStart(trace);
+        } catch (RuntimeException ignored) {
+            // 监听器异常不影响请求
+        }
+        return trace;
+    }
+
+    void dnsStart() {
+        dnsStart = System.nanoTime();
+    }
+
+    void dnsEnd() {
+        dnsEnd = System.nanoTime();
+    }
+
+    void connectStart() {
+        connectStart = System.nanoTime();
+    }
+
+    void connectEnd() {
+        connectEnd = System.nanoTime();
+    }
+
+    void tlsStart() {
+        tlsStart = System.nanoTime();
+    }
+
+    void tlsEnd() {
+        tlsEnd = System.nanoTime();
+    }
+
+    void reused() {
+        reused = true;
+    }
+
+    void protocol(String protocol) {
+        this.protocol = protocol;
+    }
+
+    /**
+     * 请求头及请求体已全部写出
+     */
+    public void requestSent() {
+        requestSent = System.nanoTime();
+    }
+
+    /**
+     * 收到响应头，记录状态码及首字节时间，并让响应体在读完或关闭时结束本次交换
+     *
+     * @param response 响应
+     * @return 响应体被跟踪的响应
+     */
+    public Response complete(Response response) {
+        if (firstByte == UNSET) {
+            firstByte = System.nanoTime();
+        }
+        status = response.getStatus();
+        stats = response.getTransferStats();
+        return new Response(response.getStatus(), response.getReason(), response.getHeaders(),
+                new TracedInputStream(response.getBody()), stats);
+    }
+
+    void firstByte() {
+        firstByte = System.nanoTime();
+    }
+
+    /**
+     * 交换失败，结束本次交换
+     *
+     * @param error 失败原因
+     */
+    public void fail(Throwable error) {
+        if (this.error == null) {
+            this.error = error;
+        }
+        end();
+    }
+
+    private void end() {
+        if (end != UNSET) {
+            return;
+        }
+        end = System.nanoTime();
+        try {
+            listener.onEnd(this);
+        } catch (RuntimeException ignored) {
+            // 监听器异常不影响请求
+        }
+    }
+
+    public Route getRoute() {
+        return route;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return 实际使用的协议：{@link #HTTP_1_1}或{@link #H2}
+     */
+    public String getProtocol() {
+        return protocol;
+    }
+
+    /**
+     * @return 是否复用了已有连接
+     */
+    public boolean isReused() {
+        return reused;
+    }
+
+    /**
+     * @return 状态码，未收到响应时为-1
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return 失败原因，成功收到响应时为null
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null && status >= 0;
+    }
+
+    /**
+     * @return 交换开始时的{@link System#nanoTime()}
+     */
+    public long getStartNanos() {
+        return start;
+    }
+
+    public long getDnsNanos() {
+        return between(dnsStart, dnsEnd);
+    }
+
+    /**
+     * @return TCP连接耗时（不含DNS解析及TLS握手）
+     */
+    public long getConnectNanos() {
+        return between(connectStart, connectEnd);
+    }
+
+    public long getTlsNanos() {
+        return between(tlsStart, tlsEnd);
+    }
+
+    /**
+     * @return 从开始到请求写出完毕的耗时
+     */
+    public long getRequestNanos() {
+        return between(start, requestSent);
+    }
+
+    /**
+     * @return 从开始到收到响应头的耗时
+     */
+    public long getTtfbNanos() {
+        return between(start, firstByte);
+    }
+
+    /**
+     * @return 从开始到交换结束的耗时，未结束时为-1
+     */
+    public long getTotalNanos() {
+        return between(start, end);
+    }
+
+    /**
+     * @return 请求体实际发送的字节数
+     */
+    public long getBytesSent() {
+        return stats == null ? 0 : stats.requestWireBytes;
+    }
+
+    /**
+     * @return 响应体在线路上接收的字节数
+     */
+    public long getBytesReceived() {
+        return stats == null ? 0 : stats.responseWireBytes;
+    }
+
+    /**
+     * @return 传输统计，未收到响应时为null
+     */
+    public TransferStats getTransferStats() {
+        return stats;
+    }
+
+    private static long between(long from, long to) {
+        return from == UNSET || to == UNSET ? -1 : to - from;
+    }
+
+    private static String micros(long nanos) {
+        return nanos < 0 ? "-" : nanos / 1000 + "us";
+    }
+
+    @Override
+    public String toString() {
+        return "ExchangeTrace{" + method + ' ' + route +
+                ", protocol=" + protocol +
+                ", status=" + status +
+                ", reused=" + reused +
+                ", dns=" + micros(getDnsNanos()) +
+                ", connect=" + micros(getConnectNanos()) +
+                ", tls=" + micros(getTlsNanos()) +
+                ", ttfb=" + micros(getTtfbNanos()) +
+                ", total=" + micros(getTotalNanos()) +
+                ", sent=" + getBytesSent() +
+                ", received=" + getBytesReceived() +
+                (error == null ? "" : ", error=" + error) +
+                '}';
+    }
+
+    /**
+     * 响应体读到末尾、读取出错或被关闭时结束交换
+     */
+    private final class TracedInputStream extends FilterInputStream {
+        private TracedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                int b = in.read();
+                if (b == -1) {
+                    end();
+                }
+                return b;
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+                throw e;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                int n = in.read(b, off, len);
+                if (n == -1) {
+                    end();
+                }
+                return n;
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                in.close();
+            } finally {
+                end();
+            }
+        }
+    }
+}
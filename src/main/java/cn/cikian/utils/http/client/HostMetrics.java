@@ -0,0 +1,227 @@
+package cn.cikian.utils.http.client;
+
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个主机（协议+主机+端口）的请求指标：请求数、失败数、字节数、状态码分布及各阶段延迟直方图
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 19:45
+ */
+
+public class HostMetrics implements HostMetricsMXBean {
+    private static final int MAX_STATUS = 600;
+
+    private final Route route;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final AtomicLongArray statusCounts = new AtomicLongArray(MAX_STATUS);
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram ttfb = new LatencyHistogram();
+    private final LatencyHistogram dns = new LatencyHistogram();
+    private final LatencyHistogram connect = new LatencyHistogram();
+    private final LatencyHistogram tls = new LatencyHistogram();
+
+    HostMetrics(Route route) {
+        this.route = route;
+    }
+
+    void record(ExchangeTrace trace) {
+        requests.increment();
+        if (trace.getError() != null) {
+            failures.increment();
+        }
+        if (trace.isReused()) {
+            reused.increment();
+        }
+        int status = trace.getStatus();
+        if (status >= 0 && status < MAX_STATUS) {
+            statusCounts.incrementAndGet(status);
+        }
+        bytesSent.add(trace.getBytesSent());
+        bytesReceived.add(trace.getBytesReceived());
+        latency.recordNanos(trace.getTotalNanos());
+        ttfb.recordNanos(trace.getTtfbNanos());
+        dns.recordNanos(trace.getDnsNanos());
+        connect.recordNanos(trace.getConnectNanos());
+        tls.recordNanos(trace.getTlsNanos());
+    }
+
+    public Route getRoute() {
+        return route;
+    }
+
+    /**
+     * @return 从开始到交换结束（响应体读完）的总耗时直方图
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return 从开始到收到响应头的耗时直方图
+     */
+    public LatencyHistogram getTtfb() {
+        return ttfb;
+    }
+
+    public LatencyHistogram getDns() {
+        return dns;
+    }
+
+    public LatencyHistogram getConnect() {
+        return connect;
+    }
+
+    public LatencyHistogram getTls() {
+        return tls;
+    }
+
+    /**
+     * @param status 状态码
+     * @return 该状态码的响应次数
+     */
+    public long getStatusCount(int status) {
+        return status >= 0 && status < MAX_STATUS ? statusCounts.get(status) : 0;
+    }
+
+    @Override
+    public String getHost() {
+        return route.toString();
+    }
+
+    @Override
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    @Override
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    @Override
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    @Override
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    @Override
+    public double getReuseRatio() {
+        long total = requests.sum();
+        return total == 0 ? 0 : (double) reused.sum() / total;
+    }
+
+    @Override
+    public double getLatencyMeanMillis() {
+        return latency.snapshot().getMean() / 1000;
+    }
+
+    @Override
+    public double getLatencyP50Millis() {
+        return percentile(latency, 50);
+    }
+
+    @Override
+    public double getLatencyP90Millis() {
+        return percentile(latency, 90);
+    }
+
+    @Override
+    public double getLatencyP99Millis() {
+        return percentile(latency, 99);
+    }
+
+    @Override
+    public double getLatencyP999Millis() {
+        return percentile(latency, 99.9);
+    }
+
+    @Override
+    public double getLatencyMaxMillis() {
+        return latency.snapshot().getMax() / 1000.0;
+    }
+
+    @Override
+    public double getTtfbP50Millis() {
+        return percentile(ttfb, 50);
+    }
+
+    @Override
+    public double getTtfbP99Millis() {
+        return percentile(ttfb, 99);
+    }
+
+    @Override
+    public double getDnsP99Millis() {
+        return percentile(dns, 99);
+    }
+
+    @Override
+    public double getConnectP99Millis() {
+        return percentile(connect, 99);
+    }
+
+    @Override
+    public double getTlsP99Millis() {
+        return percentile(tls, 99);
+    }
+
+    @Override
+    public Map<String, Long> getStatusCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (int i = 0; i < MAX_STATUS; i++) {
+            long n = statusCounts.get(i);
+            if (n > 0) {
+                counts.put(Integer.toString(i), n);
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public void reset() {
+        requests.reset();
+        failures.reset();
+        reused.reset();
+        bytesSent.reset();
+        bytesReceived.reset();
+        for (int i = 0; i < MAX_STATUS; i++) {
+            statusCounts.set(i, 0);
+        }
+        latency.reset();
+        ttfb.reset();
+        dns.reset();
+        connect.reset();
+        tls.reset();
+    }
+
+    private static double percentile(LatencyHistogram histogram, double percentile) {
+        return histogram.snapshot().getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    @Override
+    public String toString() {
+        return "HostMetrics{" + route +
+                ", requests=" + getRequests() +
+                ", failures=" + getFailures() +
+                ", bytesSent=" + getBytesSent() +
+                ", bytesReceived=" + getBytesReceived() +
+                ", status=" + getStatusCounts() +
+                ", latency=" + latency.snapshot() +
+                ", ttfb=" + ttfb.snapshot() +
+                '}';
+    }
+}
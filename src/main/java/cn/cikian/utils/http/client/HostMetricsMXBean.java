@@ -0,0 +1,55 @@
+package cn.cikian.utils.http.client;
+
+
+import java.util.Map;
+
+/**
+ * 单个主机请求指标的JMX视图，耗时单位均为毫秒
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 19:45
+ */
+
+public interface HostMetricsMXBean {
+    String getHost();
+
+    long getRequests();
+
+    long getFailures();
+
+    long getBytesSent();
+
+    long getBytesReceived();
+
+    double getReuseRatio();
+
+    double getLatencyMeanMillis();
+
+    double getLatencyP50Millis();
+
+    double getLatencyP90Millis();
+
+    double getLatencyP99Millis();
+
+    double getLatencyP999Millis();
+
+    double getLatencyMaxMillis();
+
+    double getTtfbP50Millis();
+
+    double getTtfbP99Millis();
+
+    double getDnsP99Millis();
+
+    double getConnectP99Millis();
+
+    double getTlsP99Millis();
+
+    /**
+     * @return 各状态码的响应次数
+     */
+    Map<String, Long> getStatusCounts();
+
+    void reset();
+}
@@ -0,0 +1,430 @@
+package cn.cikian.utils.http.client;
+
+
+import java.io.ByteArrayOutputStream;
+import java.net.ProtocolException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HPACK头部压缩（RFC 7541）<br>
+ * 编码端只使用静态表和不加索引的字面量，不维护动态表，因此无需与对端同步表大小；
+ * 解码端完整支持动态表、表大小更新及Huffman编码的字符串
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 16:30
+ */
+
+final class Hpack {
+    static final int DEFAULT_TABLE_SIZE = 4096;
+
+    private static final String[][] STATIC_TABLE = {
+            {":authority", ""},
+            {":method", "GET"},
+            {":method", "POST"},
+            {":path", "/"},
+            {":path", "/index.html"},
+            {":scheme", "http"},
+            {":scheme", "https"},
+            {":status", "200"},
+            {":status", "204"},
+            {":status", "206"},
+            {":status", "304"},
+            {":status", "400"},
+            {":status", "404"},
+            {":status", "500"},
+            {"accept-charset", ""},
+            {"accept-encoding", "gzip, deflate"},
+            {"accept-language", ""},
+            {"accept-ranges", ""},
+            {"accept", ""},
+            {"access-control-allow-origin", ""},
+            {"age", ""},
+            {"allow", ""},
+            {"authorization", ""},
+            {"cache-control", ""},
+            {"content-disposition", ""},
+            {"content-encoding", ""},
+            {"content-language", ""},
+            {"content-length", ""},
+            {"content-location", ""},
+            {"content-range", ""},
+            {"content-type", ""},
+            {"cookie", ""},
+            {"date", ""},
+            {"etag", ""},
+            {"expect", ""},
+            {"expires", ""},
+            {"from", ""},
+            {"host", ""},
+            {"if-match", ""},
+            {"if-modified-since", ""},
+            {"if-none-match", ""},
+            {"if-range", ""},
+            {"if-unmodified-since", ""},
+            {"last-modified", ""},
+            {"link", ""},
+            {"location", ""},
+            {"max-forwards", ""},
+            {"proxy-authenticate", ""},
+            {"proxy-authorization", ""},
+            {"range", ""},
+            {"referer", ""},
+            {"refresh", ""},
+            {"retry-after", ""},
+            {"server", ""},
+            {"set-cookie", ""},
+            {"strict-transport-security", ""},
+            {"transfer-encoding", ""},
+            {"user-agent", ""},
+            {"vary", ""},
+            {"via", ""},
+            {"www-authenticate", ""}
+    };
+
+    /**
+     * 静态表中名称到首个索引的映射，以及"名称=值"到索引的映射
+     */
+    private static final Map<String, Integer> STATIC_NAMES = new HashMap<>();
+    private static final Map<String, Integer> STATIC_FIELDS = new HashMap<>();
+
+    private static final int[] HUFFMAN_CODES = {
+            0x1ff8, 0x7fffd8, 0xfffffe2, 0xfffffe3, 0xfffffe4, 0xfffffe5, 0xfffffe6, 0xfffffe7,
+            0xfffffe8, 0xffffea, 0x3ffffffc, 0xfffffe9, 0xfffffea, 0x3ffffffd, 0xfffffeb, 0xfffffec,
+            0xfffffed, 0xfffffee, 0xfffffef, 0xffffff0, 0xffffff1, 0xffffff2, 0x3ffffffe, 0xffffff3,
+            0xffffff4, 0xffffff5, 0xffffff6, 0xffffff7, 0xffffff8, 0xffffff9, 0xffffffa, 0xffffffb,
+            0x14, 0x3f8, 0x3f9, 0xffa, 0x1ff9, 0x15, 0xf8, 0x7fa,
+            0x3fa, 0x3fb, 0xf9, 0x7fb, 0xfa, 0x16, 0x17, 0x18,
+            0x0, 0x1, 0x2, 0x19, 0x1a, 0x1b, 0x1c, 0x1d,
+            0x1e, 0x1f, 0x5c, 0xfb, 0x7ffc, 0x20, 0xffb, 0x3fc,
+            0x1ffa, 0x21, 0x5d, 0x5e, 0x5f, 0x60, 0x61, 0x62,
+            0x63, 0x64, 0x65, 0x66, 0x67, 0x68, 0x69, 0x6a,
+            0x6b, 0x6c, 0x6d, 0x6e, 0x6f, 0x70, 0x71, 0x72,
+            0xfc, 0x73, 0xfd, 0x1ffb, 0x7fff0, 0x1ffc, 0x3ffc, 0x22,
+            0x7ffd, 0x3, 0x23, 0x4, 0x24, 0x5, 0x25, 0x26,
+            0x27, 0x6, 0x74, 0x75, 0x28, 0x29, 0x2a, 0x7,
+            0x2b, 0x76, 0x2c, 0x8, 0x9, 0x2d, 0x77, 0x78,
+            0x79, 0x7a, 0x7b, 0x7ffe, 0x7fc, 0x3ffd, 0x1ffd, 0xffffffc,
+            0xfffe6, 0x3fffd2, 0xfffe7, 0xfffe8, 0x3fffd3, 0x3fffd4, 0x3fffd5, 0x7fffd9,
+            0x3fffd6, 0x7fffda, 0x7fffdb, 0x7fffdc, 0x7fffdd, 0x7fffde, 0xffffeb, 0x7fffdf,
+            0xffffec, 0xffffed, 0x3fffd7, 0x7fffe0, 0xffffee, 0x7fffe1, 0x7fffe2, 0x7fffe3,
+            0x7fffe4, 0x1fffdc, 0x3fffd8, 0x7fffe5, 0x3fffd9, 0x7fffe6, 0x7fffe7, 0xffffef,
+            0x3fffda, 0x1fffdd, 0xfffe9, 0x3fffdb, 0x3fffdc, 0x7fffe8, 0x7fffe9, 0x1fffde,
+            0x7fffea, 0x3fffdd, 0x3fffde, 0xfffff0, 0x1fffdf, 0x3fffdf, 0x7fffeb, 0x7fffec,
+            0x1fffe0, 0x1fffe1, 0x3fffe0, 0x1fffe2, 0x7fffed, 0x3fffe1, 0x7fffee, 0x7fffef,
+            0xfffea, 0x3fffe2, 0x3fffe3, 0x3fffe4, 0x7ffff0, 0x3fffe5, 0x3fffe6, 0x7ffff1,
+            0x3ffffe0, 0x3ffffe1, 0xfffeb, 0x7fff1, 0x3fffe7, 0x7ffff2, 0x3fffe8, 0x1ffffec,
+            0x3ffffe2, 0x3ffffe3, 0x3ffffe4, 0x7ffffde, 0x7ffffdf, 0x3ffffe5, 0xfffff1, 0x1ffffed,
+            0x7fff2, 0x1fffe3, 0x3ffffe6, 0x7ffffe0, 0x7ffffe1, 0x3ffffe7, 0x7ffffe2, 0xfffff2,
+            0x1fffe4, 0x1fffe5, 0x3ffffe8, 0x3ffffe9, 0xffffffd, 0x7ffffe3, 0x7ffffe4, 0x7ffffe5,
+            0xfffec, 0xfffff3, 0xfffed, 0x1fffe6, 0x3fffe9, 0x1fffe7, 0x1fffe8, 0x7ffff3,
+            0x3fffea, 0x3fffeb, 0x1ffffee, 0x1ffffef, 0xfffff4, 0xfffff5, 0x3ffffea, 0x7ffff4,
+            0x3ffffeb, 0x7ffffe6, 0x3ffffec, 0x3ffffed, 0x7ffffe7, 0x7ffffe8, 0x7ffffe9, 0x7ffffea,
+            0x7ffffeb, 0xffffffe, 0x7ffffec, 0x7ffffed, 0x7ffffee, 0x7ffffef, 0x7fffff0, 0x3ffffee,
+            0x3fffffff
+    };
+
+    private static final byte[] HUFFMAN_LENGTHS = {
+            13, 23, 28, 28, 28, 28, 28, 28, 28, 24, 30, 28, 28, 30, 28, 28,
+            28, 28, 28, 28, 28, 28, 30, 28, 28, 28, 28, 28, 28, 28, 28, 28,
+            6, 10, 10, 12, 13, 6, 8, 11, 10, 10, 8, 11, 8, 6, 6, 6,
+            5, 5, 5, 6, 6, 6, 6, 6, 6, 6, 7, 8, 15, 6, 12, 10,
+            13, 6, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7,
+            7, 7, 7, 7, 7, 7, 7, 7, 8, 7, 8, 13, 19, 13, 14, 6,
+            15, 5, 6, 5, 6, 5, 6, 6, 6, 5, 7, 7, 6, 6, 6, 5,
+            6, 7, 6, 5, 5, 6, 7, 7, 7, 7, 7, 15, 11, 14, 13, 28,
+            20, 22, 20, 20, 22, 22, 22, 23, 22, 23, 23, 23, 23, 23, 24, 23,
+            24, 24, 22, 23, 24, 23, 23, 23, 23, 21, 22, 23, 22, 23, 23, 24,
+            22, 21, 20, 22, 22, 23, 23, 21, 23, 22, 22, 24, 21, 22, 23, 23,
+            21, 21, 22, 21, 23, 22, 23, 23, 20, 22, 22, 22, 23, 22, 22, 23,
+            26, 26, 20, 19, 22, 23, 22, 25, 26, 26, 26, 27, 27, 26, 24, 25,
+            19, 21, 26, 27, 27, 26, 27, 24, 21, 21, 26, 26, 28, 27, 27, 27,
+            20, 24, 20, 21, 22, 21, 21, 23, 22, 22, 25, 25, 24, 24, 26, 23,
+            26, 27, 26, 26, 27, 27, 27, 27, 27, 28, 27, 27, 27, 27, 27, 26,
+            30
+    };
+
+    private static final int EOS = 256;
+
+    /**
+     * Huffman解码树，按位展开：children[node * 2 + bit]为子节点编号，负数表示叶子，其值为 -(符号 + 1)
+     */
+    private static final int[] HUFFMAN_TREE;
+
+    static {
+        for (int i = STATIC_TABLE.length - 1; i >= 0; i--) {
+            STATIC_NAMES.put(STATIC_TABLE[i][0], i + 1);
+            STATIC_FIELDS.put(STATIC_TABLE[i][0] + '=' + STATIC_TABLE[i][1], i + 1);
+        }
+        int[] tree = new int[2 * 512];
+        int nodes = 1;
+        for (int sym = 0; sym < HUFFMAN_CODES.length; sym++) {
+            int code = HUFFMAN_CODES[sym];
+            int len = HUFFMAN_LENGTHS[sym];
+            int node = 0;
+            for (int i = len - 1; i > 0; i--) {
+                int slot = node * 2 + ((code >>> i) & 1);
+                if (tree[slot] == 0) {
+                    tree[slot] = nodes++;
+                }
+                node = tree[slot];
+            }
+            tree[node * 2 + (code & 1)] = -(sym + 1);
+        }
+        HUFFMAN_TREE = tree;
+    }
+
+    private Hpack() {
+    }
+
+    /**
+     * 编码一个头部字段，名称须已转为小写
+     *
+     * @param out   输出
+     * @param name  名称
+     * @param value 值
+     */
+    static void encode(ByteArrayOutputStream out, String name, String value) {
+        Integer index = STATIC_FIELDS.get(name + '=' + value);
+        if (index != null) {
+            writeInt(out, 0x80, 7, index);
+            return;
+        }
+        // 不加索引的字面量，敏感头部使用"永不索引"，提示中间节点不要缓存
+        boolean sensitive = "authorization".equals(name) || "cookie".equals(name)
+                || "proxy-authorization".equals(name);
+        int flags = sensitive ? 0x10 : 0x00;
+        Integer nameIndex = STATIC_NAMES.get(name);
+        if (nameIndex != null) {
+            writeInt(out, flags, 4, nameIndex);
+        } else {
+            out.write(flags);
+            writeString(out, name);
+        }
+        writeString(out, value);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeInt(out, 0x00, 7, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int flags, int prefixBits, int value) {
+        int max = (1 << prefixBits) - 1;
+        if (value < max) {
+            out.write(flags | value);
+            return;
+        }
+        out.write(flags | max);
+        value -= max;
+        while (value >= 0x80) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * 头部块解码器，持有一条连接上的动态表，不是线程安全的，只能由连接的读线程使用
+     */
+    static final class Decoder {
+        private final int maxTableSize;
+        private int tableSize;
+        private int capacity;
+        /**
+         * 动态表环形数组，head指向最新条目
+         */
+        private String[][] entries = new String[16][];
+        private int head;
+        private int count;
+        private byte[] block;
+        private int pos;
+        private int end;
+
+        Decoder(int maxTableSize) {
+            this.maxTableSize = maxTableSize;
+            this.capacity = maxTableSize;
+        }
+
+        /**
+         * 解码一个完整的头部块（HEADERS及后续CONTINUATION帧拼接后的内容）
+         *
+         * @param block 头部块
+         * @param len   长度
+         * @return 按出现顺序排列的名称、值对
+         * @throws ProtocolException 头部块格式错误
+         */
+        List<String[]> decode(byte[] block, int len) throws ProtocolException {
+            this.block = block;
+            this.pos = 0;
+            this.end = len;
+            List<String[]> fields = new ArrayList<>();
+            boolean fieldSeen = false;
+            while (pos < end) {
+                int b = block[pos] & 0xff;
+                if ((b & 0x80) != 0) {
+                    fields.add(field(readInt(7)));
+                } else if ((b & 0xc0) == 0x40) {
+                    String[] f = literal(6);
+                    add(f);
+                    fields.add(f);
+                } else if ((b & 0xe0) == 0x20) {
+                    if (fieldSeen) {
+                        throw new ProtocolException("动态表大小更新必须位于头部块开头");
+                    }
+                    int size = readInt(5);
+                    if (size > maxTableSize) {
+                        throw new ProtocolException("动态表大小超出限制: " + size);
+                    }
+                    capacity = size;
+                    evict(0);
+                    continue;
+                } else {
+                    fields.add(literal(4));
+                }
+                fieldSeen = true;
+            }
+            this.block = null;
+            return fields;
+        }
+
+        private String[] literal(int prefixBits) throws ProtocolException {
+            int index = readInt(prefixBits);
+            String name = index == 0 ? readString() : field(index)[0];
+            return new String[]{name, readString()};
+        }
+
+        private String[] field(int index) throws ProtocolException {
+            if (index <= 0) {
+                throw new ProtocolException("非法的头部索引: " + index);
+            }
+            if (index <= STATIC_TABLE.length) {
+                return STATIC_TABLE[index - 1];
+            }
+            int i = index - STATIC_TABLE.length - 1;
+            if (i >= count) {
+                throw new ProtocolException("非法的头部索引: " + index);
+            }
+            return entries[(head - i + entries.length) % entries.length];
+        }
+
+        private void add(String[] field) {
+            int size = entrySize(field);
+            if (size > capacity) {
+                // 单个条目超过表容量时清空动态表
+                evict(capacity);
+                count = 0;
+                tableSize = 0;
+                return;
+            }
+            evict(size);
+            if (count == entries.length) {
+                String[][] grown = new String[entries.length * 2][];
+                for (int i = 0; i < count; i++) {
+                    grown[count - 1 - i] = entries[(head - i + entries.length) % entries.length];
+                }
+                entries = grown;
+                head = count - 1;
+            }
+            head = (head + 1) % entries.length;
+            entries[head] = field;
+            count++;
+            tableSize += size;
+        }
+
+        /**
+         * 淘汰最旧的条目，直到可以再容纳extra字节
+         */
+        private void evict(int extra) {
+            while (count > 0 && tableSize + extra > capacity) {
+                int oldest = (head - count + 1 + entries.length) % entries.length;
+                tableSize -= entrySize(entries[oldest]);
+                entries[oldest] = null;
+                count--;
+            }
+        }
+
+        private static int entrySize(String[] field) {
+            return field[0].getBytes(StandardCharsets.UTF_8).length
+                    + field[1].getBytes(StandardCharsets.UTF_8).length + 32;
+        }
+
+        private int readInt(int prefixBits) throws ProtocolException {
+            int max = (1 << prefixBits) - 1;
+            int value = block[pos++] & max;
+            if (value < max) {
+                return value;
+            }
+            int shift = 0;
+            while (true) {
+                if (pos >= end) {
+                    throw new ProtocolException("头部块被截断");
+                }
+                int b = block[pos++] & 0xff;
+                if (shift > 21) {
+                    throw new ProtocolException("整数编码溢出");
+                }
+                value += (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+                shift += 7;
+            }
+        }
+
+        private String readString() throws ProtocolException {
+            if (pos >= end) {
+                throw new ProtocolException("头部块被截断");
+            }
+            boolean huffman = (block[pos] & 0x80) != 0;
+            int len = readInt(7);
+            if (len > end - pos) {
+                throw new ProtocolException("头部块被截断");
+            }
+            String s = huffman ? huffmanDecode(block, pos, len)
+                    : new String(block, pos, len, StandardCharsets.UTF_8);
+            pos += len;
+            return s;
+        }
+    }
+
+    static String huffmanDecode(byte[] data, int off, int len) throws ProtocolException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(len * 8 / 5 + 1);
+        int node = 0;
+        // 当前未完成符号已消耗的位数及这些位是否全为1，用于校验结尾填充
+        int depth = 0;
+        boolean allOnes = true;
+        for (int i = off; i < off + len; i++) {
+            int b = data[i] & 0xff;
+            for (int bit = 7; bit >= 0; bit--) {
+                int one = (b >>> bit) & 1;
+                int next = HUFFMAN_TREE[node * 2 + one];
+                allOnes &= one == 1;
+                depth++;
+                if (next < 0) {
+                    int sym = -next - 1;
+                    if (sym == EOS) {
+                        throw new ProtocolException("Huffman字符串中出现EOS");
+                    }
+                    out.write(sym);
+                    node = 0;
+                    depth = 0;
+                    allOnes = true;
+                } else if (next == 0) {
+                    throw new ProtocolException("非法的Huffman编码");
+                } else {
+                    node = next;
+                }
+            }
+        }
+        if (depth > 7 || !allOnes) {
+            throw new ProtocolException("非法的Huffman填充");
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,921 @@
+package cn.cikian.utils.http.client;
+
+
+import cn.cikian.code.ErrorCode;
+import cn.cikian.exception.CikException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 一条HTTP/2明文连接（h2c，先验知识方式），多个请求以流的形式在同一条连接上并发复用<br>
+ * 读线程负责解析全部帧并分发给各个流；帧在写锁内写出，保证流编号递增且HEADERS与CONTINUATION连续。
+ * 并发流数量取本端配置与对端SETTINGS_MAX_CONCURRENT_STREAMS的较小值，超出的请求排队，等有流结束后再发出
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 16:40
+ */
+
+final class Http2Connection implements Closeable {
+    static final int STREAM_WINDOW = 1 << 20;
+
+    static final int CANCEL = 0x8;
+
+    private static final byte[] PREFACE = "PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int DATA = 0x0;
+    private static final int HEADERS = 0x1;
+    private static final int RST_STREAM = 0x3;
+    private static final int SETTINGS = 0x4;
+    private static final int PUSH_PROMISE = 0x5;
+    private static final int PING = 0x6;
+    private static final int GOAWAY = 0x7;
+    private static final int WINDOW_UPDATE = 0x8;
+    private static final int CONTINUATION = 0x9;
+
+    private static final int FLAG_END_STREAM = 0x1;
+    private static final int FLAG_ACK = 0x1;
+    private static final int FLAG_END_HEADERS = 0x4;
+    private static final int FLAG_PADDED = 0x8;
+    private static final int FLAG_PRIORITY = 0x20;
+
+    private static final int NO_ERROR = 0x0;
+    private static final int PROTOCOL_ERROR = 0x1;
+    private static final int FLOW_CONTROL_ERROR = 0x3;
+    private static final int FRAME_SIZE_ERROR = 0x6;
+    private static final int REFUSED_STREAM = 0x7;
+    private static final int COMPRESSION_ERROR = 0x9;
+
+    private static final int SETTINGS_ENABLE_PUSH = 0x2;
+    private static final int SETTINGS_MAX_CONCURRENT_STREAMS = 0x3;
+    private static final int SETTINGS_INITIAL_WINDOW_SIZE = 0x4;
+    private static final int SETTINGS_MAX_FRAME_SIZE = 0x5;
+
+    private static final int DEFAULT_WINDOW = 65535;
+    private static final int DEFAULT_FRAME_SIZE = 16384;
+    private static final int CONNECTION_WINDOW = 16 << 20;
+    private static final int MAX_HEADER_BLOCK = 256 * 1024;
+
+    private final Route route;
+    private final Socket socket;
+    private final InputStream in;
+    private final OutputStream out;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition windowAvailable = lock.newCondition();
+    private final Map<Integer, Http2Stream> streams = new HashMap<>();
+    private final ArrayDeque<Http2Stream> pending = new ArrayDeque<>();
+    private final Hpack.Decoder decoder = new Hpack.Decoder(Hpack.DEFAULT_TABLE_SIZE);
+
+    private volatile int maxConcurrentStreams;
+    private volatile int peerMaxFrameSize = DEFAULT_FRAME_SIZE;
+
+    private int nextStreamId = 1;
+    private int active;
+    private int peerMaxConcurrentStreams = Integer.MAX_VALUE;
+    private int peerInitialWindow = DEFAULT_WINDOW;
+    private long sendWindow = DEFAULT_WINDOW;
+    private boolean shutdown;
+    private IOException failure;
+    private long idleSince = System.nanoTime();
+
+    /**
+     * 读线程独占：已接收但尚未通过WINDOW_UPDATE归还的连接级窗口
+     */
+    private int recvUnacked;
+
+    private Http2Connection(Route route, Socket socket, int maxConcurrentStreams) throws IOException {
+        this.route = route;
+        this.socket = socket;
+        this.in = new BufferedInputStream(socket.getInputStream(), 16384);
+        this.out = new BufferedOutputStream(socket.getOutputStream(), 16384);
+        this.maxConcurrentStreams = maxConcurrentStreams;
+    }
+
+    /**
+     * 建立连接并完成HTTP/2握手：发送连接前言及SETTINGS，并要求对端的第一帧为SETTINGS
+     *
+     * @param route                路由
+     * @param connectTimeout       连接超时（毫秒），同时作为等待对端SETTINGS的超时
+     * @param maxConcurrentStreams 本端允许的最大并发流数
+     * @param trace                跟踪记录，可为null
+     * @return 连接
+     * @throws FallbackException 对端的首个帧不是SETTINGS帧（如HTTP/1.1服务端返回的400响应），应改用HTTP/1.1
+     * @throws CikException      连接超时、连接失败或等待SETTINGS帧超时
+     * @throws IOException       其他网络异常，如握手期间连接被重置或关闭
+     */
+    static Http2Connection connect(Route route, int connectTimeout, int maxConcurrentStreams, ExchangeTrace trace)
+            throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            if (trace != null) {
+                trace.dnsStart();
+            }
+            InetAddress address = InetAddress.getByName(route.getHost());
+            if (trace != null) {
+                trace.dnsEnd();
+                trace.connectStart();
+            }
+            socket.connect(new InetSocketAddress(address, route.getPort()), connectTimeout);
+            if (trace != null) {
+                trace.connectEnd();
+            }
+        } catch (SocketTimeoutException e) {
+            socket.close();
+            throw new CikException(ErrorCode.HTTP_CONNECT_TIMEOUT.code(), "连接超时: " + route, e);
+        } catch (IOException e) {
+            socket.close();
+            throw new CikException(ErrorCode.HTTP_CONNECT_FAILED.code(), "连接失败: " + route, e);
+        }
+        Http2Connection connection;
+        try {
+            connection = new Http2Connection(route, socket, maxConcurrentStreams);
+            connection.handshake(connectTimeout);
+        } catch (IOException | RuntimeException e) {
+            socket.close();
+            throw e;
+        }
+        Thread reader = new Thread(connection::readLoop, "ciktools-h2-reader-" + route.getHost() + ":" + route.getPort());
+        reader.setDaemon(true);
+        reader.start();
+        return connection;
+    }
+
+    private void handshake(int timeout) throws IOException {
+        byte[] settings = new byte[12];
+        putSetting(settings, 0, SETTINGS_ENABLE_PUSH, 0);
+        putSetting(settings, 6, SETTINGS_INITIAL_WINDOW_SIZE, STREAM_WINDOW);
+        byte[] increment = new byte[4];
+        putInt(increment, 0, CONNECTION_WINDOW - DEFAULT_WINDOW);
+        // 一次写出，避免HTTP/1.1服务端读到前言就响应并关闭连接时，后续写入失败而读不到它的响应
+        out.write(PREFACE);
+        bufferFrame(SETTINGS, 0, 0, settings, 0, settings.length);
+        bufferFrame(WINDOW_UPDATE, 0, 0, increment, 0, increment.length);
+        out.flush();
+        byte[] head = new byte[9];
+        byte[] payload;
+        socket.setSoTimeout(timeout);
+        try {
+            readFully(head, 9);
+            int length = frameLength(head);
+            if ((head[3] & 0xff) != SETTINGS || (head[4] & FLAG_ACK) != 0 || length % 6 != 0
+                    || length > DEFAULT_FRAME_SIZE) {
+                throw new FallbackException("对端未以SETTINGS帧响应HTTP/2连接前言: " + route);
+            }
+            payload = new byte[length];
+            readFully(payload, length);
+        } catch (SocketTimeoutException e) {
+            // 超时、连接被重置等可能是暂时的问题，不能据此认定对端不支持HTTP/2
+            throw new CikException(ErrorCode.HTTP_CONNECT_TIMEOUT.code(), "等待HTTP/2 SETTINGS帧超时: " + route, e);
+        }
+        socket.setSoTimeout(0);
+        applySettings(payload, payload.length);
+        writeFrame(SETTINGS, FLAG_ACK, 0, payload, 0, 0);
+    }
+
+    Route getRoute() {
+        return route;
+    }
+
+    int getPeerMaxFrameSize() {
+        return peerMaxFrameSize;
+    }
+
+    /**
+     * @return 是否还能在该连接上新建流（未收到GOAWAY且未关闭）
+     */
+    boolean isUsable() {
+        lock.lock();
+        try {
+            return !shutdown;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return 进行中的流数
+     */
+    int getActive() {
+        lock.lock();
+        try {
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return 没有进行中的流的持续时间（毫秒），有流进行中时为0
+     */
+    long getIdleMillis() {
+        lock.lock();
+        try {
+            return active > 0 || !pending.isEmpty() ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - idleSince);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void setMaxConcurrentStreams(int maxConcurrentStreams) {
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        startPending();
+    }
+
+    /**
+     * 新建流并发出HEADERS帧；并发流已满时进入队列，由之后结束流的线程发出
+     *
+     * @param fields      按顺序排列的头部字段，伪头部在前
+     * @param endStream   是否没有请求体
+     * @param buffered    响应体是否聚合后一次性交付
+     * @param readTimeout 读取超时（毫秒）
+     * @param stats       传输统计
+     * @return 流
+     * @throws RefusedStreamException 连接已不接受新流，可以换一条连接重试
+     */
+    Http2Stream newStream(List<String[]> fields, boolean endStream, boolean buffered, int readTimeout,
+                          TransferStats stats) throws IOException {
+        ByteArrayOutputStream block = new ByteArrayOutputStream(256);
+        for (String[] field : fields) {
+            Hpack.encode(block, field[0], field[1]);
+        }
+        Http2Stream stream = new Http2Stream(this, block.toByteArray(), endStream, buffered, readTimeout, stats);
+        boolean start = false;
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new RefusedStreamException("连接已不接受新的流: " + route);
+            }
+            if (pending.isEmpty() && active < limit()) {
+                active++;
+                start = true;
+            } else {
+                pending.add(stream);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (start) {
+            start(stream);
+        }
+        return stream;
+    }
+
+    /**
+     * 放弃仍在排队的流
+     *
+     * @return 流是否仍在排队（即尚未发出）
+     */
+    boolean cancelPending(Http2Stream stream) {
+        lock.lock();
+        try {
+            return pending.remove(stream);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int limit() {
+        return Math.min(maxConcurrentStreams, peerMaxConcurrentStreams);
+    }
+
+    /**
+     * 分配流编号并写出头部块，编号分配与写出在同一写锁内完成，保证编号在线路上递增
+     */
+    private void start(Http2Stream stream) {
+        writeLock.lock();
+        try {
+            lock.lock();
+            try {
+                if (shutdown || nextStreamId < 0) {
+                    shutdown = true;
+                    active--;
+                    stream.fail(new RefusedStreamException("连接已不接受新的流: " + route));
+                    return;
+                }
+                stream.id = nextStreamId;
+                nextStreamId += 2;
+                stream.sendWindow = peerInitialWindow;
+                streams.put(stream.id, stream);
+            } finally {
+                lock.unlock();
+            }
+            byte[] block = stream.getHeaderBlock();
+            int maxFrame = peerMaxFrameSize;
+            int n = Math.min(block.length, maxFrame);
+            int flags = (n == block.length ? FLAG_END_HEADERS : 0) | (stream.isEndStream() ? FLAG_END_STREAM : 0);
+            writeFrame(HEADERS, flags, stream.id, block, 0, n);
+            for (int off = n; off < block.length; off += n) {
+                n = Math.min(block.length - off, maxFrame);
+                writeFrame(CONTINUATION, off + n == block.length ? FLAG_END_HEADERS : 0, stream.id, block, off, n);
+            }
+            out.flush();
+            stream.onStarted();
+        } catch (IOException e) {
+            fail(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void startPending() {
+        List<Http2Stream> toStart = new ArrayList<>();
+        lock.lock();
+        try {
+            while (!shutdown && !pending.isEmpty() && active < limit()) {
+                active++;
+                toStart.add(pending.poll());
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Http2Stream stream : toStart) {
+            start(stream);
+        }
+    }
+
+    /**
+     * 流结束（收到END_STREAM、被重置或被取消），释放并发名额并发出排队的流
+     */
+    private void finished(Http2Stream stream) {
+        boolean closeNow;
+        lock.lock();
+        try {
+            if (streams.remove(stream.id) == null) {
+                return;
+            }
+            active--;
+            if (active == 0) {
+                idleSince = System.nanoTime();
+            }
+            closeNow = shutdown && active == 0 && failure == null;
+        } finally {
+            lock.unlock();
+        }
+        if (closeNow) {
+            close();
+            return;
+        }
+        startPending();
+    }
+
+    /**
+     * 发送请求体数据，受连接级及流级发送窗口限制
+     */
+    void writeData(Http2Stream stream, byte[] buf, int off, int len, boolean endStream, long timeoutMillis)
+            throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (true) {
+            int n;
+            lock.lock();
+            try {
+                if (!checkWritable(stream)) {
+                    return;
+                }
+                while (len > 0 && (sendWindow <= 0 || stream.sendWindow <= 0)) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SocketTimeoutException("等待流量控制窗口超时: " + route);
+                    }
+                    try {
+                        windowAvailable.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("等待流量控制窗口被中断");
+                    }
+                    if (!checkWritable(stream)) {
+                        return;
+                    }
+                }
+                n = (int) Math.min(len, Math.min(peerMaxFrameSize, Math.min(sendWindow, stream.sendWindow)));
+                sendWindow -= n;
+                stream.sendWindow -= n;
+            } finally {
+                lock.unlock();
+            }
+            boolean last = endStream && n == len;
+            writeLock.lock();
+            try {
+                writeFrame(DATA, last ? FLAG_END_STREAM : 0, stream.id, buf, off, n);
+                if (last || n == len) {
+                    out.flush();
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            off += n;
+            len -= n;
+            if (len == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return 是否还需要继续发送；对端已完整响应（提前结束了流）时返回false，剩余的请求体直接丢弃
+     */
+    private boolean checkWritable(Http2Stream stream) throws IOException {
+        if (failure != null) {
+            throw new IOException("连接已断开: " + route, failure);
+        }
+        if (streams.containsKey(stream.id)) {
+            return true;
+        }
+        if (stream.isEnded()) {
+            return false;
+        }
+        throw new IOException("流已被重置: " + route);
+    }
+
+    void windowUpdate(Http2Stream stream, int increment) {
+        byte[] payload = new byte[4];
+        putInt(payload, 0, increment);
+        writeLock.lock();
+        try {
+            writeFrame(WINDOW_UPDATE, 0, stream.id, payload, 0, 4);
+            out.flush();
+        } catch (IOException e) {
+            fail(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 取消流：仍在排队的直接移除，已发出的发送RST_STREAM
+     */
+    void reset(Http2Stream stream, int errorCode) {
+        if (cancelPending(stream)) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (!streams.containsKey(stream.id)) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        byte[] payload = new byte[4];
+        putInt(payload, 0, errorCode);
+        writeLock.lock();
+        try {
+            writeFrame(RST_STREAM, 0, stream.id, payload, 0, 4);
+            out.flush();
+        } catch (IOException e) {
+            fail(e);
+        } finally {
+            writeLock.unlock();
+        }
+        finished(stream);
+    }
+
+    private void readLoop() {
+        byte[] head = new byte[9];
+        byte[] payload = new byte[DEFAULT_FRAME_SIZE];
+        ByteArrayOutputStream headerBlock = null;
+        int headerStream = 0;
+        boolean headerEndStream = false;
+        try {
+            while (true) {
+                readFully(head, 9);
+                int length = frameLength(head);
+                int type = head[3] & 0xff;
+                int flags = head[4] & 0xff;
+                int streamId = getInt(head, 5) & 0x7fffffff;
+                if (length > DEFAULT_FRAME_SIZE) {
+                    throw new ConnectionError(FRAME_SIZE_ERROR, "帧长度超出限制: " + length);
+                }
+                readFully(payload, length);
+                if (headerBlock != null && (type != CONTINUATION || streamId != headerStream)) {
+                    throw new ConnectionError(PROTOCOL_ERROR, "头部块未以CONTINUATION帧连续发送");
+                }
+                switch (type) {
+                    case DATA:
+                        onData(streamId, flags, payload, length);
+                        break;
+                    case HEADERS: {
+                        if (streamId == 0) {
+                            throw new ConnectionError(PROTOCOL_ERROR, "HEADERS帧的流编号为0");
+                        }
+                        int off = 0;
+                        int end = length;
+                        if ((flags & FLAG_PADDED) != 0) {
+                            end -= payload[0] & 0xff;
+                            off = 1;
+                        }
+                        if ((flags & FLAG_PRIORITY) != 0) {
+                            off += 5;
+                        }
+                        if (off > end) {
+                            throw new ConnectionError(PROTOCOL_ERROR, "HEADERS帧填充长度非法");
+                        }
+                        headerBlock = new ByteArrayOutputStream(Math.max(64, end - off));
+                        headerBlock.write(payload, off, end - off);
+                        headerStream = streamId;
+                        headerEndStream = (flags & FLAG_END_STREAM) != 0;
+                        break;
+                    }
+                    case CONTINUATION:
+                        if (headerBlock == null) {
+                            throw new ConnectionError(PROTOCOL_ERROR, "意外的CONTINUATION帧");
+                        }
+                        headerBlock.write(payload, 0, length);
+                        if (headerBlock.size() > MAX_HEADER_BLOCK) {
+                            throw new ConnectionError(PROTOCOL_ERROR, "响应头过大");
+                        }
+                        break;
+                    case RST_STREAM:
+                        onReset(streamId, getInt(payload, 0));
+                        break;
+                    case SETTINGS:
+                        if ((flags & FLAG_ACK) == 0) {
+                            applySettings(payload, length);
+                            writeLock.lock();
+                            try {
+                                writeFrame(SETTINGS, FLAG_ACK, 0, payload, 0, 0);
+                                out.flush();
+                            } finally {
+                                writeLock.unlock();
+                            }
+                        }
+                        break;
+                    case PUSH_PROMISE:
+                        throw new ConnectionError(PROTOCOL_ERROR, "未启用服务端推送");
+                    case PING:
+                        if ((flags & FLAG_ACK) == 0) {
+                            writeLock.lock();
+                            try {
+                                writeFrame(PING, FLAG_ACK, 0, payload, 0, 8);
+                                out.flush();
+                            } finally {
+                                writeLock.unlock();
+                            }
+                        }
+                        break;
+                    case GOAWAY:
+                        onGoAway(getInt(payload, 0) & 0x7fffffff, getInt(payload, 4));
+                        break;
+                    case WINDOW_UPDATE:
+                        onWindowUpdate(streamId, getInt(payload, 0) & 0x7fffffff);
+                        break;
+                    default:
+                        // PRIORITY及未知类型的帧直接忽略
+                        break;
+                }
+                if (headerBlock != null && (type == HEADERS || type == CONTINUATION) && (flags & FLAG_END_HEADERS) != 0) {
+                    onHeaders(headerStream, headerBlock, headerEndStream);
+                    headerBlock = null;
+                }
+            }
+        } catch (ConnectionError e) {
+            goAway(e.errorCode);
+            fail(e);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void onHeaders(int streamId, ByteArrayOutputStream block, boolean endStream) throws IOException {
+        List<String[]> fields;
+        try {
+            fields = decoder.decode(block.toByteArray(), block.size());
+        } catch (ProtocolException e) {
+            throw new ConnectionError(COMPRESSION_ERROR, e.getMessage());
+        }
+        Http2Stream stream = stream(streamId);
+        if (stream == null) {
+            return;
+        }
+        try {
+            stream.onHeaders(fields, endStream);
+        } catch (ProtocolException e) {
+            stream.fail(e);
+            reset(stream, PROTOCOL_ERROR);
+            return;
+        }
+        if (endStream) {
+            finished(stream);
+        }
+    }
+
+    private void onData(int streamId, int flags, byte[] payload, int length) throws IOException {
+        int off = 0;
+        int end = length;
+        if ((flags & FLAG_PADDED) != 0) {
+            off = 1;
+            end -= payload[0] & 0xff;
+            if (end < off) {
+                throw new ConnectionError(PROTOCOL_ERROR, "DATA帧填充长度非法");
+            }
+        }
+        recvUnacked += length;
+        if (recvUnacked >= CONNECTION_WINDOW / 2) {
+            byte[] increment = new byte[4];
+            putInt(increment, 0, recvUnacked);
+            recvUnacked = 0;
+            writeLock.lock();
+            try {
+                writeFrame(WINDOW_UPDATE, 0, 0, increment, 0, 4);
+                out.flush();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        Http2Stream stream = stream(streamId);
+        if (stream == null) {
+            return;
+        }
+        try {
+            stream.onData(payload, off, end - off, length);
+        } catch (ProtocolException e) {
+            stream.fail(e);
+            reset(stream, PROTOCOL_ERROR);
+            return;
+        }
+        if ((flags & FLAG_END_STREAM) != 0) {
+            stream.onEnd();
+            finished(stream);
+        }
+    }
+
+    private void onReset(int streamId, int errorCode) {
+        Http2Stream stream = stream(streamId);
+        if (stream == null) {
+            return;
+        }
+        stream.fail(errorCode == REFUSED_STREAM
+                ? new RefusedStreamException("流被对端拒绝: " + route)
+                : new IOException("流被对端重置，错误码: " + errorCode));
+        finished(stream);
+    }
+
+    private void onGoAway(int lastStreamId, int errorCode) {
+        List<Http2Stream> refused = new ArrayList<>();
+        boolean closeNow;
+        lock.lock();
+        try {
+            shutdown = true;
+            for (Http2Stream stream : streams.values()) {
+                if (stream.id > lastStreamId) {
+                    refused.add(stream);
+                }
+            }
+            for (Http2Stream stream : refused) {
+                streams.remove(stream.id);
+                active--;
+            }
+            refused.addAll(pending);
+            pending.clear();
+            closeNow = active == 0;
+        } finally {
+            lock.unlock();
+        }
+        // 编号大于lastStreamId的流未被对端处理，可以安全地换一条连接重试
+        for (Http2Stream stream : refused) {
+            stream.fail(new RefusedStreamException("连接被对端关闭(GOAWAY " + errorCode + "): " + route));
+        }
+        if (closeNow) {
+            close();
+        }
+    }
+
+    private void onWindowUpdate(int streamId, int increment) throws IOException {
+        lock.lock();
+        try {
+            if (streamId == 0) {
+                if (increment == 0 || sendWindow + increment > Integer.MAX_VALUE) {
+                    throw new ConnectionError(FLOW_CONTROL_ERROR, "非法的连接窗口增量: " + increment);
+                }
+                sendWindow += increment;
+            } else {
+                Http2Stream stream = streams.get(streamId);
+                if (stream == null) {
+                    return;
+                }
+                stream.sendWindow += increment;
+            }
+            windowAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void applySettings(byte[] payload, int length) throws IOException {
+        if (length % 6 != 0) {
+            throw new ConnectionError(FRAME_SIZE_ERROR, "SETTINGS帧长度非法: " + length);
+        }
+        boolean concurrencyChanged = false;
+        lock.lock();
+        try {
+            for (int i = 0; i < length; i += 6) {
+                int id = ((payload[i] & 0xff) << 8) | (payload[i + 1] & 0xff);
+                int value = getInt(payload, i + 2);
+                switch (id) {
+                    case SETTINGS_MAX_CONCURRENT_STREAMS:
+                        peerMaxConcurrentStreams = value < 0 ? Integer.MAX_VALUE : value;
+                        concurrencyChanged = true;
+                        break;
+                    case SETTINGS_INITIAL_WINDOW_SIZE:
+                        if (value < 0) {
+                            throw new ConnectionError(FLOW_CONTROL_ERROR, "非法的初始窗口: " + value);
+                        }
+                        int delta = value - peerInitialWindow;
+                        peerInitialWindow = value;
+                        for (Http2Stream stream : streams.values()) {
+                            stream.sendWindow += delta;
+                        }
+                        windowAvailable.signalAll();
+                        break;
+                    case SETTINGS_MAX_FRAME_SIZE:
+                        if (value < DEFAULT_FRAME_SIZE || value > 0xffffff) {
+                            throw new ConnectionError(PROTOCOL_ERROR, "非法的最大帧长度: " + value);
+                        }
+                        peerMaxFrameSize = value;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (concurrencyChanged) {
+            startPending();
+        }
+    }
+
+    private Http2Stream stream(int streamId) {
+        lock.lock();
+        try {
+            return streams.get(streamId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void goAway(int errorCode) {
+        byte[] payload = new byte[8];
+        putInt(payload, 4, errorCode);
+        writeLock.lock();
+        try {
+            writeFrame(GOAWAY, 0, 0, payload, 0, 8);
+            out.flush();
+        } catch (IOException ignored) {
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 连接失效：进行中的流以异常结束，排队的流尚未发出，以可重试的异常结束
+     */
+    private void fail(IOException e) {
+        List<Http2Stream> failed;
+        List<Http2Stream> refused;
+        lock.lock();
+        try {
+            if (failure != null) {
+                return;
+            }
+            failure = e;
+            shutdown = true;
+            failed = new ArrayList<>(streams.values());
+            refused = new ArrayList<>(pending);
+            streams.clear();
+            pending.clear();
+            active = 0;
+            windowAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        IOException cause = e instanceof EOFException ? new EOFException("连接已被对端关闭: " + route) : e;
+        for (Http2Stream stream : failed) {
+            stream.fail(cause);
+        }
+        for (Http2Stream stream : refused) {
+            stream.fail(new RefusedStreamException("连接已断开: " + route));
+        }
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            shutdown = true;
+        } finally {
+            lock.unlock();
+        }
+        goAway(NO_ERROR);
+        fail(new IOException("连接已关闭: " + route));
+    }
+
+    private void writeFrame(int type, int flags, int streamId, byte[] payload, int off, int len) throws IOException {
+        bufferFrame(type, flags, streamId, payload, off, len);
+        if (type != DATA && type != HEADERS && type != CONTINUATION) {
+            out.flush();
+        }
+    }
+
+    private void bufferFrame(int type, int flags, int streamId, byte[] payload, int off, int len) throws IOException {
+        byte[] head = new byte[9];
+        head[0] = (byte) (len >>> 16);
+        head[1] = (byte) (len >>> 8);
+        head[2] = (byte) len;
+        head[3] = (byte) type;
+        head[4] = (byte) flags;
+        putInt(head, 5, streamId);
+        out.write(head);
+        out.write(payload, off, len);
+    }
+
+    private void readFully(byte[] buf, int len) throws IOException {
+        int off = 0;
+        while (off < len) {
+            int n = in.read(buf, off, len - off);
+            if (n == -1) {
+                throw new EOFException("连接已被对端关闭");
+            }
+            off += n;
+        }
+    }
+
+    private static int frameLength(byte[] head) {
+        return ((head[0] & 0xff) << 16) | ((head[1] & 0xff) << 8) | (head[2] & 0xff);
+    }
+
+    private static int getInt(byte[] b, int off) {
+        return ((b[off] & 0xff) << 24) | ((b[off + 1] & 0xff) << 16) | ((b[off + 2] & 0xff) << 8) | (b[off + 3] & 0xff);
+    }
+
+    private static void putInt(byte[] b, int off, int value) {
+        b[off] = (byte) (value >>> 24);
+        b[off + 1] = (byte) (value >>> 16);
+        b[off + 2] = (byte) (value >>> 8);
+        b[off + 3] = (byte) value;
+    }
+
+    private static void putSetting(byte[] b, int off, int id, int value) {
+        b[off] = (byte) (id >>> 8);
+        b[off + 1] = (byte) id;
+        putInt(b, off + 2, value);
+    }
+
+    /**
+     * 对端不支持h2c先验知识方式
+     */
+    static final class FallbackException extends IOException {
+        FallbackException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 流未被对端处理（REFUSED_STREAM、GOAWAY或连接已不接受新流），可以换一条连接安全地重试
+     */
+    static final class RefusedStreamException extends IOException {
+        RefusedStreamException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 连接级协议错误，需要发送GOAWAY并关闭连接
+     */
+    private static final class ConnectionError extends ProtocolException {
+        private final int errorCode;
+
+        ConnectionError(int errorCode, String message) {
+            super(message);
+            this.errorCode = errorCode;
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package cn.cikian.utils.http.client;
+
+
+import cn.cikian.utils.http.enitry.Response;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.ProtocolException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * HTTP/2连接上的一个流，对应一次请求交换<br>
+ * 流式模式下响应头到达即交付响应，响应体按读取进度发送WINDOW_UPDATE，读得慢时对端会被流量控制挡住；
+ * 缓冲模式下响应体全部到达后才交付
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 16:50
+ */
+
+final class Http2Stream {
+    private final Http2Connection connection;
+    private final byte[] headerBlock;
+    private final boolean endStream;
+    private final boolean buffered;
+    private final int readTimeout;
+    private final TransferStats stats;
+    private final CompletableFuture<Response> response = new CompletableFuture<>();
+
+    /**
+     * 以下两个字段由连接的lock保护
+     */
+    int id;
+    long sendWindow;
+
+    private final ArrayDeque<byte[]> chunks = new ArrayDeque<>();
+    private ByteArrayOutputStream bufferedBody;
+    private int chunkPos;
+    private int unacked;
+    private boolean started;
+    private boolean ended;
+    private boolean closed;
+    private IOException failure;
+    private int status;
+    private Map<String, List<String>> headers;
+
+    Http2Stream(Http2Connection connection, byte[] headerBlock, boolean endStream, boolean buffered,
+                int readTimeout, TransferStats stats) {
+        this.connection = connection;
+        this.headerBlock = headerBlock;
+        this.endStream = endStream;
+        this.buffered = buffered;
+        this.readTimeout = readTimeout;
+        this.stats = stats;
+    }
+
+    byte[] getHeaderBlock() {
+        return headerBlock;
+    }
+
+    boolean isEndStream() {
+        return endStream;
+    }
+
+    CompletableFuture<Response> getResponse() {
+        return response;
+    }
+
+    synchronized void onStarted() {
+        started = true;
+        notifyAll();
+    }
+
+    /**
+     * 等待HEADERS帧发出（并发流已满时需要排队）
+     *
+     * @param timeoutMillis 超时时间（毫秒）
+     * @return 是否已发出
+     */
+    synchronized boolean awaitStarted(long timeoutMillis) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (!started && failure == null) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                return false;
+            }
+            waitFor(remaining);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return true;
+    }
+
+    /**
+     * 等待响应头（缓冲模式下为完整响应）
+     */
+    Response awaitResponse(long timeoutMillis) throws IOException {
+        try {
+            return response.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new SocketTimeoutException("等待响应超时: " + connection.getRoute());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待响应被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * @return 请求体输出流，按对端的最大帧长度分帧并遵守流量控制，关闭时发送END_STREAM
+     */
+    OutputStream requestBody() {
+        return new DataOutputStream();
+    }
+
+    void onHeaders(List<String[]> fields, boolean end) throws ProtocolException {
+        synchronized (this) {
+            if (headers != null) {
+                // 响应体之后的trailer，直接忽略
+                return;
+            }
+            int code = -1;
+            Map<String, List<String>> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (String[] field : fields) {
+                if (":status".equals(field[0])) {
+                    try {
+                        code = Integer.parseInt(field[1]);
+                    } catch (NumberFormatException e) {
+                        throw new ProtocolException("非法的:status: " + field[1]);
+                    }
+                } else if (!field[0].startsWith(":")) {
+                    map.computeIfAbsent(field[0], k -> new ArrayList<>(1)).add(field[1]);
+                }
+            }
+            if (code < 0) {
+                throw new ProtocolException("响应缺少:status");
+            }
+            if (code >= 100 && code < 200) {
+                return;
+            }
+            status = code;
+            headers = map;
+            if (buffered) {
+                bufferedBody = new ByteArrayOutputStream();
+            }
+        }
+        if (!buffered) {
+            response.complete(new Response(status, "", headers, new BodyInputStream(), stats));
+        }
+        if (end) {
+            onEnd();
+        }
+    }
+
+    /**
+     * @param flowControlled 本帧计入流量控制的字节数（含填充）
+     */
+    void onData(byte[] buf, int off, int len, int flowControlled) throws ProtocolException {
+        int ack = 0;
+        synchronized (this) {
+            if (headers == null) {
+                throw new ProtocolException("在响应头之前收到DATA帧");
+            }
+            if (closed) {
+                return;
+            }
+            if (buffered) {
+                bufferedBody.write(buf, off, len);
+                unacked += flowControlled;
+            } else {
+                if (len > 0) {
+                    byte[] chunk = new byte[len];
+                    System.arraycopy(buf, off, chunk, 0, len);
+                    chunks.add(chunk);
+                    notifyAll();
+                }
+                unacked += flowControlled - len;
+            }
+            if (unacked >= Http2Connection.STREAM_WINDOW / 2) {
+                ack = unacked;
+                unacked = 0;
+            }
+        }
+        if (ack > 0) {
+            connection.windowUpdate(this, ack);
+        }
+    }
+
+    void onEnd() {
+        Response complete = null;
+        synchronized (this) {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            notifyAll();
+            if (buffered && headers != null) {
+                complete = new Response(status, "", headers, new ByteArrayInputStream(bufferedBody.toByteArray()), stats);
+            }
+        }
+        if (complete != null) {
+            response.complete(complete);
+        }
+    }
+
+    void fail(IOException e) {
+        synchronized (this) {
+            if (failure != null || ended) {
+                return;
+            }
+            failure = e;
+            notifyAll();
+        }
+        response.completeExceptionally(e);
+    }
+
+    synchronized boolean isEnded() {
+        return ended;
+    }
+
+    private void waitFor(long millis) throws InterruptedIOException {
+        try {
+            wait(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待流数据被中断");
+        }
+    }
+
+    /**
+     * 响应体输入流，读取超时即读取超时时间
+     */
+    private final class BodyInputStream extends InputStream {
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int n = read(b, 0, 1);
+            return n == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            int n;
+            int ack = 0;
+            synchronized (Http2Stream.this) {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(readTimeout);
+                while (chunks.isEmpty()) {
+                    if (closed) {
+                        throw new IOException("响应体已关闭");
+                    }
+                    if (ended) {
+                        return -1;
+                    }
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (readTimeout > 0 && remaining <= 0) {
+                        throw new SocketTimeoutException("读取响应体超时: " + connection.getRoute());
+                    }
+                    waitFor(readTimeout > 0 ? remaining : 0);
+                }
+                byte[] chunk = chunks.peek();
+                n = Math.min(len, chunk.length - chunkPos);
+                System.arraycopy(chunk, chunkPos, b, off, n);
+                chunkPos += n;
+                if (chunkPos == chunk.length) {
+                    chunks.poll();
+                    chunkPos = 0;
+                }
+                unacked += n;
+                if (!ended && unacked >= Http2Connection.STREAM_WINDOW / 2) {
+                    ack = unacked;
+                    unacked = 0;
+                }
+            }
+            if (ack > 0) {
+                connection.windowUpdate(Http2Stream.this, ack);
+            }
+            return n;
+        }
+
+        @Override
+        public int available() {
+            synchronized (Http2Stream.this) {
+                byte[] chunk = chunks.peek();
+                return chunk == null ? 0 : chunk.length - chunkPos;
+            }
+        }
+
+        @Override
+        public void close() {
+            boolean reset;
+            synchronized (Http2Stream.this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                chunks.clear();
+                reset = !ended && failure == null;
+                Http2Stream.this.notifyAll();
+            }
+            // 响应体未读完就关闭时取消该流，连接本身继续复用
+            if (reset) {
+                connection.reset(Http2Stream.this, Http2Connection.CANCEL);
+            }
+        }
+    }
+
+    /**
+     * 请求体输出流，攒满一帧再发送
+     */
+    private final class DataOutputStream extends OutputStream {
+        private final byte[] buf = new byte[connection.getPeerMaxFrameSize()];
+        private int count;
+        private boolean done;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buf.length) {
+                flushBuffer(false);
+            }
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (count == buf.length) {
+                    flushBuffer(false);
+                }
+                int n = Math.min(len, buf.length - count);
+                System.arraycopy(b, off, buf, count, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        private void flushBuffer(boolean end) throws IOException {
+            connection.writeData(Http2Stream.this, buf, 0, count, end, readTimeout);
+            count = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!done) {
+                done = true;
+                flushBuffer(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package cn.cikian.utils.http.client;
+
+
+import cn.cikian.code.ErrorCode;
+import cn.cikian.exception.CikException;
+import cn.cikian.utils.http.enitry.Body;
+import cn.cikian.utils.http.enitry.Response;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * HTTP/2明文传输层（h2c，先验知识方式）<br>
+ * 每个路由只保持一条连接，所有请求作为流在其上并发复用；并发流达到上限时请求排队等待。
+ * 首次连接时对端若不以SETTINGS帧响应连接前言，则记住该路由只支持HTTP/1.1，之后由调用方回退，
+ * 该记录10分钟后失效；握手时的超时、连接重置等网络异常直接抛出，不作为回退的依据。
+ * https路由不使用本传输层：Java 8没有ALPN协商所需的API
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 17:20
+ */
+
+public class Http2Transport implements Closeable {
+    public static final int DEFAULT_MAX_CONCURRENT_STREAMS = 100;
+
+    /**
+     * HTTP/2禁止发送的逐跳头部
+     */
+    private static final Set<String> CONNECTION_HEADERS = new HashSet<>(Arrays.asList(
+            "connection", "keep-alive", "proxy-connection", "transfer-encoding", "upgrade", "host"));
+
+    /**
+     * 被拒绝的流（未被对端处理）换连接重试的次数
+     */
+    private static final int REFUSED_RETRIES = 2;
+    /**
+     * 确认只支持HTTP/1.1的路由在此时间后重新尝试HTTP/2（毫秒）
+     */
+    private static final long HTTP1_RECHECK_INTERVAL = TimeUnit.MINUTES.toMillis(10);
+
+    private final ConcurrentHashMap<Route, Http2Connection> connections = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Route, Object> connectLocks = new ConcurrentHashMap<>();
+    /**
+     * 只支持HTTP/1.1的路由及重新尝试HTTP/2的时间（System.nanoTime）
+     */
+    private final ConcurrentHashMap<Route, Long> http1Routes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final long idleTimeout;
+    private volatile int maxConcurrentStreams;
+    private volatile boolean shutdown;
+
+    /**
+     * @param maxConcurrentStreams 每条连接的最大并发流数，实际值不超过对端的SETTINGS_MAX_CONCURRENT_STREAMS
+     * @param idleTimeout          连接没有进行中的流时的存活时间（毫秒）
+     */
+    public Http2Transport(int maxConcurrentStreams, long idleTimeout) {
+        if (maxConcurrentStreams <= 0) {
+            throw new IllegalArgumentException("maxConcurrentStreams必须大于0");
+        }
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        this.idleTimeout = idleTimeout;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ciktools-h2-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, idleTimeout / 2);
+        scheduler.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param route 路由
+     * @return 是否尝试以HTTP/2发送该路由的请求
+     */
+    public boolean supports(Route route) {
+        return !route.isSecure() && !isHttp1Only(route);
+    }
+
+    /**
+     * 以HTTP/2发送请求并等待响应头，响应体以流的形式读取
+     *
+     * @param route          路由
+     * @param method         请求方法
+     * @param target         请求路径及查询串
+     * @param headers        完整的请求头（逐跳头部会被去掉）
+     * @param body           请求体，可为null
+     * @param gzip           请求体是否gzip压缩
+     * @param stats          传输统计
+     * @param connectTimeout 连接超时（毫秒）
+     * @param readTimeout    读取超时（毫秒）
+     * @param leaseTimeout   并发流已满时排队等待的超时（毫秒）
+     * @param trace          跟踪记录，可为null
+     * @return 未解码的响应；该路由不支持HTTP/2时返回null，调用方应回退到HTTP/1.1
+     * @throws IOException  网络异常
+     * @throws CikException 连接超时、连接失败或排队超时
+     */
+    public Response exchange(Route route, String method, String target, Map<String, String> headers, Body body,
+                             boolean gzip, TransferStats stats, int connectTimeout, int readTimeout, long leaseTimeout,
+                             ExchangeTrace trace) throws IOException {
+        List<String[]> fields = fields(route, method, target, headers);
+        for (int attempt = 0; ; attempt++) {
+            Http2Connection connection = connection(route, connectTimeout, trace);
+            if (connection == null) {
+                return null;
+            }
+            if (trace != null) {
+                trace.protocol(ExchangeTrace.H2);
+            }
+            Http2Stream stream = null;
+            try {
+                stream = connection.newStream(fields, body == null, false, readTimeout, stats);
+                if (!stream.awaitStarted(leaseTimeout)) {
+                    if (connection.cancelPending(stream)) {
+                        throw new CikException(ErrorCode.HTTP_POOL_TIMEOUT.code(), "等待HTTP/2并发流超时: " + route);
+                    }
+                    // 超时判定与名额释放之间存在竞争，流已经出队，很快就会发出
+                    stream.awaitStarted(readTimeout);
+                }
+                if (body != null) {
+                    try (OutputStream out = stream.requestBody()) {
+                        ContentCoding.writeBody(out, body, gzip, stats);
+                    }
+                }
+                if (trace != null) {
+                    trace.requestSent();
+                }
+                return stream.awaitResponse(readTimeout);
+            } catch (Http2Connection.RefusedStreamException e) {
+                if (attempt < REFUSED_RETRIES && (body == null || body.isRepeatable())) {
+                    continue;
+                }
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                if (stream != null) {
+                    connection.reset(stream, Http2Connection.CANCEL);
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 异步以HTTP/2发送不带请求体的请求，响应体完整接收后交付<br>
+     * 已有可用连接时直接在调用线程发出HEADERS帧；需要新建连接时在connectExecutor中完成握手
+     *
+     * @param route           路由
+     * @param method          请求方法
+     * @param target          请求路径及查询串
+     * @param headers         完整的请求头
+     * @param timeoutMillis   从提交到响应体接收完毕的超时时间（毫秒）
+     * @param connectTimeout  连接超时（毫秒）
+     * @param connectExecutor 执行阻塞握手的线程池
+     * @param fallback        该路由不支持HTTP/2时改用的HTTP/1.1发送方式
+     * @param trace           跟踪记录，可为null
+     * @return 未解码的响应
+     */
+    public CompletableFuture<Response> exchangeAsync(Route route, String method, String target,
+                                                     Map<String, String> headers, long timeoutMillis,
+                                                     int connectTimeout, Executor connectExecutor,
+                                                     Supplier<CompletableFuture<Response>> fallback,
+                                                     ExchangeTrace trace) {
+        List<String[]> fields = fields(route, method, target, headers);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        return sendAsync(route, fields, deadline, connectTimeout, connectExecutor, fallback, trace, 0);
+    }
+
+    private CompletableFuture<Response> sendAsync(Route route, List<String[]> fields, long deadline,
+                                                  int connectTimeout, Executor connectExecutor,
+                                                  Supplier<CompletableFuture<Response>> fallback,
+                                                  ExchangeTrace trace, int attempt) {
+        Http2Connection ready = connections.get(route);
+        CompletableFuture<Http2Connection> connection;
+        if (ready != null && ready.isUsable()) {
+            if (trace != null) {
+                trace.reused();
+            }
+            connection = CompletableFuture.completedFuture(ready);
+        } else {
+            connection = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return connection(route, connectTimeout, trace);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, connectExecutor);
+        }
+        return connection.thenCompose(c -> {
+            if (c == null) {
+                return fallback.get();
+            }
+            if (trace != null) {
+                trace.protocol(ExchangeTrace.H2);
+            }
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            Http2Stream stream;
+            try {
+                stream = c.newStream(fields, true, true, (int) Math.min(Integer.MAX_VALUE, remaining), new TransferStats());
+            } catch (IOException e) {
+                CompletableFuture<Response> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                return failed;
+            }
+            CompletableFuture<Response> response = stream.getResponse();
+            scheduler.schedule(() -> {
+                if (response.isDone()) {
+                    return;
+                }
+                boolean queued = c.cancelPending(stream);
+                if (!queued) {
+                    c.reset(stream, Http2Connection.CANCEL);
+                }
+                response.completeExceptionally(queued
+                        ? new CikException(ErrorCode.HTTP_POOL_TIMEOUT.code(), "等待HTTP/2并发流超时: " + route)
+                        : new CikException(ErrorCode.HTTP_READ_TIMEOUT.code(), "请求超时: " + route));
+            }, Math.max(0, remaining), TimeUnit.MILLISECONDS);
+            return response;
+        }).handle((response, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof Http2Connection.RefusedStreamException && attempt < REFUSED_RETRIES) {
+                return sendAsync(route, fields, deadline, connectTimeout, connectExecutor, fallback, trace, attempt + 1);
+            }
+            CompletableFuture<Response> result = new CompletableFuture<>();
+            if (cause != null) {
+                result.completeExceptionally(cause);
+            } else {
+                result.complete(response);
+            }
+            return result;
+        }).thenCompose(f -> f);
+    }
+
+    /**
+     * 获取路由的可用连接，没有时新建；对端不支持HTTP/2时返回null
+     */
+    private Http2Connection connection(Route route, int connectTimeout, ExchangeTrace trace) throws IOException {
+        Http2Connection connection = connections.get(route);
+        if (connection != null && connection.isUsable()) {
+            if (trace != null) {
+                trace.reused();
+            }
+            return connection;
+        }
+        synchronized (connectLocks.computeIfAbsent(route, r -> new Object())) {
+            if (shutdown) {
+                throw new IOException("HTTP/2传输层已关闭");
+            }
+            connection = connections.get(route);
+            if (connection != null && connection.isUsable()) {
+                if (trace != null) {
+                    trace.reused();
+                }
+                return connection;
+            }
+            if (isHttp1Only(route)) {
+                return null;
+            }
+            try {
+                connection = Http2Connection.connect(route, connectTimeout, maxConcurrentStreams, trace);
+            } catch (Http2Connection.FallbackException e) {
+                http1Routes.put(route, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(HTTP1_RECHECK_INTERVAL));
+                return null;
+            }
+            // 旧连接已收到GOAWAY，其上进行中的流结束后自行关闭
+            connections.put(route, connection);
+            return connection;
+        }
+    }
+
+    private static List<String[]> fields(Route route, String method, String target, Map<String, String> headers) {
+        HttpCodec.validateRequestHead(method, target, headers);
+        List<String[]> fields = new ArrayList<>(headers.size() + 4);
+        fields.add(new String[]{":method", method});
+        fields.add(new String[]{":scheme", route.isSecure() ? "https" : "http"});
+        String authority = null;
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if ("host".equalsIgnoreCase(header.getKey())) {
+                authority = header.getValue();
+            }
+        }
+        fields.add(new String[]{":authority", authority == null ? route.hostHeader() : authority});
+        fields.add(new String[]{":path", target});
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            String name = header.getKey().toLowerCase(Locale.ROOT);
+            if (CONNECTION_HEADERS.contains(name)
+                    || ("te".equals(name) && !"trailers".equalsIgnoreCase(header.getValue()))) {
+                continue;
+            }
+            fields.add(new String[]{name, header.getValue()});
+        }
+        return fields;
+    }
+
+    private void evictIdle() {
+        Iterator<Map.Entry<Route, Http2Connection>> it = connections.entrySet().iterator();
+        while (it.hasNext()) {
+            Http2Connection connection = it.next().getValue();
+            if ((!connection.isUsable() && connection.getActive() == 0) || connection.getIdleMillis() >= idleTimeout) {
+                it.remove();
+                connection.close();
+            }
+        }
+    }
+
+    public int getMaxConcurrentStreams() {
+        return maxConcurrentStreams;
+    }
+
+    /**
+     * @param maxConcurrentStreams 每条连接的最大并发流数，对已有连接立即生效
+     */
+    public void setMaxConcurrentStreams(int maxConcurrentStreams) {
+        if (maxConcurrentStreams <= 0) {
+            throw new IllegalArgumentException("maxConcurrentStreams必须大于0");
+        }
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        for (Http2Connection connection : connections.values()) {
+            connection.setMaxConcurrentStreams(maxConcurrentStreams);
+        }
+    }
+
+    /**
+     * @return 当前保持的HTTP/2连接数
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * @return 所有连接上进行中的流数
+     */
+    public int getActiveStreams() {
+        int active = 0;
+        for (Http2Connection connection : connections.values()) {
+            active += connection.getActive();
+        }
+        return active;
+    }
+
+    /**
+     * @param route 路由
+     * @return 该路由是否已确认只支持HTTP/1.1；该结论在一段时间后失效，届时重新尝试HTTP/2
+     */
+    public boolean isHttp1Only(Route route) {
+        Long recheckAt = http1Routes.get(route);
+        if (recheckAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - recheckAt < 0) {
+            return true;
+        }
+        http1Routes.remove(route, recheckAt);
+        return false;
+    }
+
+    @Override
+    public void close() {
+        shutdown = true;
+        scheduler.shutdownNow();
+        for (Http2Connection connection : connections.values()) {
+            connection.close();
+        }
+        connections.clear();
+    }
+}
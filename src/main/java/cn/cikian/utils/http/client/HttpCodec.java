@@ -0,0 +1,317 @@
+package cn.cikian.utils.http.client;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ProtocolException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * HTTP/1.1报文头的编解码
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 10:05
+ */
+
+public final class HttpCodec {
+    /**
+     * 报文中单行的长度上限
+     */
+    static final int MAX_LINE_LENGTH = 64 * 1024;
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private HttpCodec() {
+    }
+
+    /**
+     * 写出请求行与请求头，以空行结束
+     *
+     * @param out     输出流
+     * @param method  请求方法
+     * @param target  请求目标（路径及查询串）
+     * @param headers 请求头
+     * @throws IOException              网络异常
+     * @throws IllegalArgumentException 请求方法或请求头名称不是合法的token，或请求目标、请求头的值含有CR、LF、NUL
+     */
+    public static void writeRequestHead(OutputStream out, String method, String target,
+                                        Map<String, String> headers) throws IOException {
+        validateRequestHead(method, target, headers);
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(method).append(' ').append(target).append(" HTTP/1.1\r\n");
+        for (Map.Entry<String, String> e : headers.entrySet()) {
+            if (e.getValue() == null) {
+                continue;
+            }
+            sb.append(e.getKey()).append(": ").append(e.getValue()).append("\r\n");
+        }
+        sb.append("\r\n");
+        out.write(sb.toString().getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * 检查请求行与请求头，防止通过换行注入额外的请求头或请求；必须在写出任何字节之前调用
+     *
+     * @param method  请求方法，须为RFC 7230中的token
+     * @param target  请求目标，不能含有CR、LF、NUL
+     * @param headers 请求头，名称须为token，值不能含有CR、LF、NUL；值为null的请求头被忽略
+     * @throws IllegalArgumentException 不合法时抛出
+     */
+    public static void validateRequestHead(String method, String target, Map<String, String> headers) {
+        if (!isToken(method)) {
+            throw new IllegalArgumentException("非法的请求方法: " + method);
+        }
+        if (target == null || !isFieldValue(target)) {
+            throw new IllegalArgumentException("请求目标含有非法字符: " + target);
+        }
+        for (Map.Entry<String, String> e : headers.entrySet()) {
+            if (e.getValue() == null) {
+                continue;
+            }
+            if (!isToken(e.getKey())) {
+                throw new IllegalArgumentException("非法的请求头名称: " + e.getKey());
+            }
+            if (!isFieldValue(e.getValue())) {
+                throw new IllegalArgumentException("请求头" + e.getKey() + "的值含有非法字符");
+            }
+        }
+    }
+
+    private static boolean isToken(String s) {
+        if (s == null || s.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            boolean alnum = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+            if (!alnum && "!#$%&'*+-.^_`|~".indexOf(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isFieldValue(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\r' || c == '\n' || c == '\0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 读取状态行与响应头，跳过1xx临时响应
+     *
+     * @param in 输入流
+     * @return 响应头
+     * @throws IOException 网络异常或报文格式错误
+     */
+    public static ResponseHead readResponseHead(InputStream in) throws IOException {
+        while (true) {
+            ResponseHead head = readSingleHead(in);
+            if (!head.isInformational()) {
+                return head;
+            }
+        }
+    }
+
+    /**
+     * 读取一个状态行与响应头，不跳过1xx临时响应
+     *
+     * @param in 输入流
+     * @return 响应头
+     * @throws IOException 网络异常或报文格式错误
+     */
+    public static ResponseHead readSingleHead(InputStream in) throws IOException {
+        String statusLine;
+        do {
+            statusLine = readLine(in);
+            if (statusLine == null) {
+                throw new EOFException("连接已被对端关闭");
+            }
+        } while (statusLine.isEmpty());
+        if (!statusLine.startsWith("HTTP/") || statusLine.length() < 12) {
+            throw new ProtocolException("非法的状态行: " + statusLine);
+        }
+        int sp1 = statusLine.indexOf(' ');
+        if (sp1 < 0) {
+            throw new ProtocolException("非法的状态行: " + statusLine);
+        }
+        String version = statusLine.substring(0, sp1);
+        int status;
+        try {
+            status = Integer.parseInt(statusLine.substring(sp1 + 1, sp1 + 4));
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new ProtocolException("非法的状态行: " + statusLine);
+        }
+        String reason = statusLine.length() > sp1 + 5 ? statusLine.substring(sp1 + 5) : "";
+
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        String line;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                continue;
+            }
+            String name = line.substring(0, colon).trim();
+            String value = line.substring(colon + 1).trim();
+            headers.computeIfAbsent(name, k -> new ArrayList<>(1)).add(value);
+        }
+        if (line == null) {
+            throw new EOFException("响应头不完整");
+        }
+        return new ResponseHead(version, status, reason, headers);
+    }
+
+    /**
+     * 读取以CRLF（或LF）结尾的一行，按ISO-8859-1解码，不含行尾
+     *
+     * @param in 输入流
+     * @return 行内容，流已结束时返回null
+     * @throws IOException 网络异常或行过长
+     */
+    public static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                byte[] bytes = line.toByteArray();
+                int len = bytes.length;
+                if (len > 0 && bytes[len - 1] == '\r') {
+                    len--;
+                }
+                return new String(bytes, 0, len, StandardCharsets.ISO_8859_1);
+            }
+            if (line.size() >= MAX_LINE_LENGTH) {
+                throw new ProtocolException("报文行过长");
+            }
+            line.write(b);
+        }
+        return line.size() == 0 ? null : new String(line.toByteArray(), StandardCharsets.ISO_8859_1);
+    }
+
+    static void writeCrlf(OutputStream out) throws IOException {
+        out.write(CRLF);
+    }
+
+    /**
+     * 解析后的状态行与响应头
+     */
+    public static final class ResponseHead {
+        /**
+         * 响应体使用chunked编码
+         */
+        public static final long CHUNKED = -1;
+        /**
+         * 响应体没有长度信息，读到连接关闭为止
+         */
+        public static final long UNTIL_CLOSE = -2;
+
+        private final String version;
+        private final int status;
+        private final String reason;
+        private final Map<String, List<String>> headers;
+
+        ResponseHead(String version, int status, String reason, Map<String, List<String>> headers) {
+            this.version = version;
+            this.status = status;
+            this.reason = reason;
+            this.headers = headers;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+
+        /**
+         * @return 是否为1xx临时响应（101协议切换除外）
+         */
+        public boolean isInformational() {
+            return status >= 100 && status < 200 && status != 101;
+        }
+
+        /**
+         * 按请求方法、状态码及响应头确定响应体长度
+         *
+         * @param method 请求方法
+         * @return 响应体字节数，或{@link #CHUNKED}、{@link #UNTIL_CLOSE}
+         */
+        public long bodyLength(String method) {
+            if ("HEAD".equals(method) || status == 204 || status == 304 || isInformational()) {
+                return 0;
+            }
+            if (headerContainsToken("Transfer-Encoding", "chunked")) {
+                return CHUNKED;
+            }
+            String length = getHeader("Content-Length");
+            if (length != null) {
+                try {
+                    long n = Long.parseLong(length.trim());
+                    if (n >= 0) {
+                        return n;
+                    }
+                } catch (NumberFormatException ignored) {
+                }
+            }
+            return UNTIL_CLOSE;
+        }
+
+        /**
+         * @return 服务端是否允许继续复用该连接
+         */
+        public boolean isKeepAlive() {
+            if (headerContainsToken("Connection", "close")) {
+                return false;
+            }
+            return "HTTP/1.1".equals(version) || headerContainsToken("Connection", "keep-alive");
+        }
+
+        public String getHeader(String name) {
+            List<String> values = headers.get(name);
+            return values == null || values.isEmpty() ? null : values.get(0);
+        }
+
+        /**
+         * 判断指定逗号分隔的请求头中是否含有某个标记，忽略大小写
+         *
+         * @param name  请求头名
+         * @param token 标记
+         * @return 是否包含
+         */
+        public boolean headerContainsToken(String name, String token) {
+            List<String> values = headers.get(name);
+            if (values == null) {
+                return false;
+            }
+            for (String v : values) {
+                for (String part : v.split(",")) {
+                    if (part.trim().equalsIgnoreCase(token)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package cn.cikian.utils.http.client;
+
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+/**
+ * 一条可复用的HTTP/1.1连接，持有底层Socket及其缓冲流
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 09:20
+ */
+
+public class HttpConnection implements Closeable {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Route route;
+    private final Socket socket;
+    private final BufferedInputStream in;
+    private final BufferedOutputStream out;
+    private final long createdAt;
+    private volatile long lastUsed;
+    private volatile boolean closed;
+    private int useCount;
+
+    private HttpConnection(Route route, Socket socket) throws IOException {
+        this.route = route;
+        this.socket = socket;
+        this.in = new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE);
+        this.out = new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE);
+        this.createdAt = System.currentTimeMillis();
+        this.lastUsed = createdAt;
+    }
+
+    /**
+     * 建立到指定路由的连接，https路由会完成TLS握手并校验主机名
+     *
+     * @param route          路由
+     * @param connectTimeout 连接超时（毫秒）
+     * @param readTimeout    读取超时（毫秒）
+     * @return 新连接
+     * @throws IOException 网络异常
+     */
+    public static HttpConnection open(Route route, int connectTimeout, int readTimeout) throws IOException {
+        return open(route, connectTimeout, readTimeout, null);
+    }
+
+    /**
+     * 建立到指定路由的连接，并在trace中记录DNS解析、TCP连接及TLS握手的耗时
+     *
+     * @param route          路由
+     * @param connectTimeout 连接超时（毫秒）
+     * @param readTimeout    读取超时（毫秒）
+     * @param trace          跟踪记录，可为null
+     * @return 新连接
+     * @throws IOException 网络异常
+     */
+    public static HttpConnection open(Route route, int connectTimeout, int readTimeout, ExchangeTrace trace)
+            throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            if (trace != null) {
+                trace.dnsStart();
+            }
+            InetAddress address = InetAddress.getByName(route.getHost());
+            if (trace != null) {
+                trace.dnsEnd();
+                trace.connectStart();
+            }
+            socket.connect(new InetSocketAddress(address, route.getPort()), connectTimeout);
+            if (trace != null) {
+                trace.connectEnd();
+            }
+            socket.setSoTimeout(readTimeout);
+            if (route.isSecure()) {
+                if (trace != null) {
+                    trace.tlsStart();
+                }
+                SSLSocketFactory factory = (SSLSocketFactory) SSLSocketFactory.getDefault();
+                SSLSocket ssl = (SSLSocket) factory.createSocket(socket, route.getHost(), route.getPort(), true);
+                SSLParameters parameters = ssl.getSSLParameters();
+                parameters.setEndpointIdentificationAlgorithm("HTTPS");
+                ssl.setSSLParameters(parameters);
+                ssl.startHandshake();
+                socket = ssl;
+                if (trace != null) {
+                    trace.tlsEnd();
+                }
+            }
+            return new HttpConnection(route, socket);
+        } catch (IOException | RuntimeException e) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+            throw e;
+        }
+    }
+
+    public Route getRoute() {
+        return route;
+    }
+
+    public InputStream getInputStream() {
+        return in;
+    }
+
+    public OutputStream getOutputStream() {
+        return out;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getLastUsed() {
+        return lastUsed;
+    }
+
+    void touch() {
+        this.lastUsed = System.currentTimeMillis();
+    }
+
+    /**
+     * 记录一次请求交换，返回此前已完成的交换次数
+     *
+     * @return 此前的交换次数，大于0表示这是一条复用的连接
+     */
+    public int markUsed() {
+        return useCount++;
+    }
+
+    public void setReadTimeout(int readTimeout) throws IOException {
+        socket.setSoTimeout(readTimeout);
+    }
+
+    public boolean isOpen() {
+        return !closed && !socket.isClosed() && !socket.isInputShutdown() && !socket.isOutputShutdown();
+    }
+
+    /**
+     * 检查空闲连接是否已被对端关闭<br>
+     * 以1毫秒超时尝试读取一个字节：超时说明连接正常；读到EOF或意外数据都视为失效
+     *
+     * @return 连接是否失效
+     */
+    public boolean isStale() {
+        if (!isOpen()) {
+            return true;
+        }
+        int timeout = -1;
+        try {
+            if (in.available() > 0) {
+                return true;
+            }
+            timeout = socket.getSoTimeout();
+            socket.setSoTimeout(1);
+            in.mark(1);
+            int b = in.read();
+            if (b == -1) {
+                return true;
+            }
+            in.reset();
+            return true;
+        } catch (SocketTimeoutException e) {
+            return false;
+        } catch (IOException e) {
+            return true;
+        } finally {
+            if (timeout >= 0) {
+                try {
+                    socket.setSoTimeout(timeout);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "HttpConnection{" + route + ", local=" + socket.getLocalPort() + '}';
+    }
+}
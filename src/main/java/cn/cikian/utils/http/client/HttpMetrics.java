@@ -0,0 +1,125 @@
+package cn.cikian.utils.http.client;
+
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按主机汇总请求指标的监听器，设置到客户端后即开始统计<br>
+ * 指标可直接在内存中读取，也可调用{@link #registerMBeans(String)}以MXBean形式发布到平台MBeanServer，
+ * 之后新出现的主机会自动注册
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 19:50
+ */
+
+public class HttpMetrics implements ExchangeListener {
+    public static final String JMX_DOMAIN = "cn.cikian.http";
+
+    private final ConcurrentHashMap<Route, HostMetrics> hosts = new ConcurrentHashMap<>();
+    private volatile String jmxName;
+
+    @Override
+    public void onEnd(ExchangeTrace trace) {
+        HostMetrics host = hosts.get(trace.getRoute());
+        if (host == null) {
+            host = hosts.computeIfAbsent(trace.getRoute(), this::create);
+        }
+        host.record(trace);
+    }
+
+    private HostMetrics create(Route route) {
+        HostMetrics host = new HostMetrics(route);
+        String name = jmxName;
+        if (name != null) {
+            register(name, host);
+        }
+        return host;
+    }
+
+    /**
+     * @param route 路由
+     * @return 该主机的指标，尚无请求时返回null
+     */
+    public HostMetrics getHost(Route route) {
+        return hosts.get(route);
+    }
+
+    /**
+     * @return 所有主机的指标
+     */
+    public Map<Route, HostMetrics> getHosts() {
+        return Collections.unmodifiableMap(hosts);
+    }
+
+    /**
+     * 清空所有主机的指标
+     */
+    public void reset() {
+        for (HostMetrics host : hosts.values()) {
+            host.reset();
+        }
+    }
+
+    /**
+     * 将各主机的指标注册到平台MBeanServer，ObjectName形如
+     * {@code cn.cikian.http:type=HostMetrics,client="name",host="http://example.com:80"}
+     *
+     * @param name 客户端名称，用于区分多个客户端
+     */
+    public synchronized void registerMBeans(String name) {
+        unregisterMBeans();
+        jmxName = name;
+        for (HostMetrics host : hosts.values()) {
+            register(name, host);
+        }
+    }
+
+    /**
+     * 注销已注册的MXBean
+     */
+    public synchronized void unregisterMBeans() {
+        String name = jmxName;
+        if (name == null) {
+            return;
+        }
+        jmxName = null;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (HostMetrics host : hosts.values()) {
+            try {
+                server.unregisterMBean(objectName(name, host.getRoute()));
+            } catch (InstanceNotFoundException ignored) {
+            } catch (JMException e) {
+                throw new IllegalStateException("注销MBean失败: " + host.getRoute(), e);
+            }
+        }
+    }
+
+    private static void register(String name, HostMetrics host) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(host, objectName(name, host.getRoute()));
+        } catch (InstanceAlreadyExistsException ignored) {
+        } catch (JMException e) {
+            throw new IllegalStateException("注册MBean失败: " + host.getRoute(), e);
+        }
+    }
+
+    private static ObjectName objectName(String name, Route route) throws MalformedObjectNameException {
+        return new ObjectName(JMX_DOMAIN + ":type=HostMetrics,client=" + ObjectName.quote(name)
+                + ",host=" + ObjectName.quote(route.toString()));
+    }
+
+    @Override
+    public String toString() {
+        return "HttpMetrics" + hosts.values();
+    }
+}
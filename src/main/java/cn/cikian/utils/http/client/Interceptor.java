@@ -0,0 +1,52 @@
+package cn.cikian.utils.http.client;
+
+
+import cn.cikian.utils.http.enitry.Request;
+import cn.cikian.utils.http.enitry.Response;
+
+import java.io.IOException;
+
+/**
+ * 请求拦截器，按添加顺序组成调用链，包裹在重试、熔断及缓存之外<br>
+ * 拦截器可在调用{@link Chain#proceed(Request)}之前修改Request及其Header、Param（如注入令牌、签名），
+ * 之后包装或替换返回的响应（如记录日志、包装响应体流）；不调用proceed而直接返回响应即短路，
+ * 可用{@link Response#of(int, cn.cikian.utils.http.enitry.JSON)}返回缓存或模拟的JSON，不经过序列化与解析。
+ * 拦截器作用于同步调用，整条链只分配一个Chain对象
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 20:10
+ */
+
+@FunctionalInterface
+public interface Interceptor {
+
+    /**
+     * 拦截一次调用
+     *
+     * @param chain 调用链
+     * @return 响应，不能为null
+     * @throws IOException 网络异常
+     */
+    Response intercept(Chain chain) throws IOException;
+
+    /**
+     * 调用链，只能在{@link #intercept(Chain)}执行期间使用
+     */
+    interface Chain {
+
+        /**
+         * @return 传给当前拦截器的请求
+         */
+        Request request();
+
+        /**
+         * 将请求交给下一个拦截器，最后一个拦截器之后实际发送请求
+         *
+         * @param request 请求
+         * @return 响应
+         * @throws IOException 网络异常
+         */
+        Response proceed(Request request) throws IOException;
+    }
+}
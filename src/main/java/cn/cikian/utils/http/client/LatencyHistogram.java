@@ -0,0 +1,180 @@
+package cn.cikian.utils.http.client;
+
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁的对数-线性延迟直方图（HdrHistogram的简化形式），以微秒为单位记录<br>
+ * 小于128的值逐一计数；更大的值按2的幂分段，每段再均分为64个子桶，相对误差不超过1/64。
+ * 超过约71分钟的值计入最后一个桶。记录一次只是一次数组下标计算和几次原子累加，不分配对象
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 19:35
+ */
+
+public class LatencyHistogram {
+    private static final int SUB_BITS = 6;
+    private static final int MAX_SHIFT = 25;
+    private static final int LENGTH = (MAX_SHIFT << SUB_BITS) + (2 << SUB_BITS);
+
+    private final AtomicLongArray counts = new AtomicLongArray(LENGTH);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * 记录一个值
+     *
+     * @param micros 耗时（微秒），负值会被忽略
+     */
+    public void record(long micros) {
+        if (micros < 0) {
+            return;
+        }
+        counts.incrementAndGet(index(micros));
+        count.incrementAndGet();
+        sum.addAndGet(micros);
+        long current;
+        while (micros > (current = max.get()) && !max.compareAndSet(current, micros)) {
+            // 并发更新最大值时重试
+        }
+    }
+
+    /**
+     * 记录一个以纳秒表示的耗时
+     *
+     * @param nanos 耗时（纳秒），负值表示未发生，会被忽略
+     */
+    public void recordNanos(long nanos) {
+        if (nanos >= 0) {
+            record(nanos / 1000);
+        }
+    }
+
+    /**
+     * @return 当前计数的快照，快照之后的记录不影响它
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[LENGTH];
+        long total = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, sum.get(), max.get());
+    }
+
+    /**
+     * 清空计数，与并发的记录之间不保证原子性
+     */
+    public void reset() {
+        for (int i = 0; i < LENGTH; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    static int index(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BITS);
+        if (shift > MAX_SHIFT) {
+            return LENGTH - 1;
+        }
+        return (shift << SUB_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * @return 下标对应桶内的最大值
+     */
+    static long highestEquivalent(int index) {
+        int shift = Math.max(0, (index >>> SUB_BITS) - 1);
+        long sub = index - ((long) shift << SUB_BITS);
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /**
+     * 直方图快照
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return 平均值（微秒），没有记录时为0
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * @return 最大值（微秒）
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * @return 最小值（微秒），没有记录时为0
+         */
+        public long getMin() {
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    return Math.min(highestEquivalent(i), max);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * 计算百分位数，结果为所在桶的上界，不超过记录到的最大值
+         *
+         * @param percentile 百分位，取值0~100
+         * @return 百分位数（微秒），没有记录时为0
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.min(highestEquivalent(i), max);
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{count=" + count +
+                    ", mean=" + Math.round(getMean()) + "us" +
+                    ", p50=" + getValueAtPercentile(50) + "us" +
+                    ", p90=" + getValueAtPercentile(90) + "us" +
+                    ", p99=" + getValueAtPercentile(99) + "us" +
+                    ", p999=" + getValueAtPercentile(99.9) + "us" +
+                    ", max=" + max + "us}";
+        }
+    }
+}
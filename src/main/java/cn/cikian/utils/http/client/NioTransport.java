@@ -0,0 +1,824 @@
+package cn.cikian.utils.http.client;
+
+
+import cn.cikian.code.ErrorCode;
+import cn.cikian.exception.CikException;
+import cn.cikian.utils.http.enitry.Response;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于NIO Selector的非阻塞HTTP/1.1传输层<br>
+ * 所有连接由单个事件循环线程驱动，并发请求数不受线程数限制；
+ * 超过maxInFlight的请求进入等待队列而不会阻塞调用方。
+ * 域名解析在{@link #setResolveExecutor(Executor)}指定的线程池中进行，不阻塞事件循环。
+ * 仅支持明文http，响应体在内存中聚合后一次性交付
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 11:05
+ */
+
+public class NioTransport implements Closeable {
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+    private static final long IDLE_CHECK_INTERVAL = 1000;
+
+    private static final int HEAD = 0;
+    private static final int BODY_FIXED = 1;
+    private static final int CHUNK_SIZE = 2;
+    private static final int CHUNK_DATA = 3;
+    private static final int CHUNK_DATA_END = 4;
+    private static final int TRAILER = 5;
+    private static final int BODY_UNTIL_CLOSE = 6;
+
+    private final Selector selector;
+    private final Thread loop;
+    private final ConcurrentLinkedQueue<Exchange> submissions = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Exchange> resolved = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<Exchange> waiting = new ArrayDeque<>();
+    private final PriorityQueue<Exchange> deadlines = new PriorityQueue<>(Comparator.comparingLong(e -> e.deadline));
+    private final Map<Route, ArrayDeque<Conn>> idle = new HashMap<>();
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+
+    private volatile int maxInFlight;
+    private volatile int maxIdlePerRoute;
+    private volatile long idleTimeout;
+    private volatile Executor resolveExecutor = ForkJoinPool.commonPool();
+    private volatile int inFlight;
+    private volatile int queued;
+    private volatile boolean running = true;
+    private long lastIdleCheck = System.nanoTime();
+
+    /**
+     * 创建传输层并启动事件循环线程
+     *
+     * @param maxInFlight     同时进行中的请求数上限，超出的请求排队等待
+     * @param maxIdlePerRoute 每个路由保留的空闲连接数上限
+     * @param idleTimeout     空闲连接存活时间（毫秒）
+     * @throws IOException 无法打开Selector
+     */
+    public NioTransport(int maxInFlight, int maxIdlePerRoute, long idleTimeout) throws IOException {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight必须大于0");
+        }
+        this.maxInFlight = maxInFlight;
+        this.maxIdlePerRoute = maxIdlePerRoute;
+        this.idleTimeout = idleTimeout;
+        this.selector = Selector.open();
+        this.loop = new Thread(this::run, "ciktools-http-nio");
+        this.loop.setDaemon(true);
+        this.loop.start();
+    }
+
+    /**
+     * 提交一次请求交换，立即返回
+     *
+     * @param route         路由，必须为http
+     * @param method        请求方法
+     * @param request       完整的请求报文
+     * @param timeoutMillis 从提交到响应体接收完毕的超时时间（毫秒）
+     * @return 响应，响应体已完整读入内存
+     */
+    public CompletableFuture<Response> send(Route route, String method, byte[] request, long timeoutMillis) {
+        return send(route, method, request, timeoutMillis, null);
+    }
+
+    /**
+     * 提交一次请求交换，立即返回；连接建立、请求写出及收到响应头的时间点记录到trace中
+     *
+     * @param route         路由，必须为http
+     * @param method        请求方法
+     * @param request       完整的请求报文
+     * @param timeoutMillis 从提交到响应体接收完毕的超时时间（毫秒）
+     * @param trace         跟踪记录，可为null
+     * @return 响应，响应体已完整读入内存
+     */
+    public CompletableFuture<Response> send(Route route, String method, byte[] request, long timeoutMillis,
+                                            ExchangeTrace trace) {
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        if (route.isSecure()) {
+            future.completeExceptionally(new IllegalArgumentException("NIO传输层不支持https: " + route));
+            return future;
+        }
+        if (!running) {
+            future.completeExceptionally(new IOException("NIO传输层已关闭"));
+            return future;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        submissions.add(new Exchange(route, method, request, future, deadline, trace));
+        selector.wakeup();
+        return future;
+    }
+
+    /**
+     * @return 正在进行中的请求数
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @return 因达到并发上限而排队等待的请求数
+     */
+    public int getQueued() {
+        return queued;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        selector.wakeup();
+    }
+
+    public int getMaxIdlePerRoute() {
+        return maxIdlePerRoute;
+    }
+
+    public void setMaxIdlePerRoute(int maxIdlePerRoute) {
+        this.maxIdlePerRoute = maxIdlePerRoute;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Executor getResolveExecutor() {
+        return resolveExecutor;
+    }
+
+    /**
+     * @param resolveExecutor 解析域名的线程池，默认为ForkJoinPool.commonPool()；IP地址不经过该线程池
+     */
+    public void setResolveExecutor(Executor resolveExecutor) {
+        if (resolveExecutor == null) {
+            throw new IllegalArgumentException("resolveExecutor不能为null");
+        }
+        this.resolveExecutor = resolveExecutor;
+    }
+
+    /**
+     * 关闭事件循环及全部连接，未完成的请求以异常结束
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select(selectTimeout());
+                drainSubmissions();
+                drainResolved();
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    try {
+                        handleKey(key);
+                    } catch (RuntimeException e) {
+                        abandon(key, e);
+                    }
+                }
+                expireDeadlines();
+                evictIdle();
+                admitWaiting();
+            }
+        } catch (IOException | RuntimeException e) {
+            running = false;
+        } finally {
+            shutdown();
+        }
+    }
+
+    private long selectTimeout() {
+        long timeout = IDLE_CHECK_INTERVAL;
+        Exchange next;
+        while ((next = deadlines.peek()) != null && next.done) {
+            deadlines.poll();
+        }
+        if (next != null) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(next.deadline - System.nanoTime());
+            timeout = Math.min(timeout, remaining);
+        }
+        return Math.max(1, timeout);
+    }
+
+    private void drainSubmissions() {
+        Exchange ex;
+        while ((ex = submissions.poll()) != null) {
+            deadlines.add(ex);
+            waiting.add(ex);
+        }
+        queued = waiting.size();
+    }
+
+    /**
+     * 为解析完成的请求建立连接
+     */
+    private void drainResolved() {
+        Exchange ex;
+        while ((ex = resolved.poll()) != null) {
+            ex.resolving = false;
+            if (ex.done) {
+                // 解析期间已超时
+                continue;
+            }
+            if (ex.future.isCancelled()) {
+                fail(ex, new CancellationException());
+            } else if (ex.resolveError != null) {
+                fail(ex, ex.resolveError);
+            } else {
+                connect(ex, ex.address);
+            }
+        }
+    }
+
+    private void admitWaiting() {
+        Exchange ex;
+        while (inFlight < maxInFlight && (ex = waiting.poll()) != null) {
+            if (ex.done || ex.future.isDone()) {
+                ex.done = true;
+                continue;
+            }
+            inFlight++;
+            start(ex);
+        }
+        queued = waiting.size();
+    }
+
+    private void start(Exchange ex) {
+        ex.out = ByteBuffer.wrap(ex.request);
+        Conn conn = pollIdle(ex.route);
+        if (conn != null) {
+            ex.reused = true;
+            if (ex.trace != null) {
+                ex.trace.reused();
+            }
+            bind(ex, conn);
+            conn.key.interestOps(SelectionKey.OP_WRITE);
+            return;
+        }
+        if (ex.trace != null) {
+            ex.trace.dnsStart();
+        }
+        String host = ex.route.getHost();
+        int port = ex.route.getPort();
+        if (isAddressLiteral(host)) {
+            connect(ex, new InetSocketAddress(host, port));
+            return;
+        }
+        // 域名解析可能阻塞较长时间，交给其他线程，完成后回到事件循环建立连接
+        ex.resolving = true;
+        try {
+            resolveExecutor.execute(() -> {
+                try {
+                    ex.address = new InetSocketAddress(InetAddress.getByName(host), port);
+                } catch (IOException | RuntimeException e) {
+                    ex.resolveError = e;
+                }
+                resolved.add(ex);
+                selector.wakeup();
+            });
+        } catch (RejectedExecutionException e) {
+            ex.resolving = false;
+            fail(ex, e);
+        }
+    }
+
+    private static boolean isAddressLiteral(String host) {
+        if (host.indexOf(':') >= 0) {
+            return true;
+        }
+        for (int i = 0; i < host.length(); i++) {
+            char c = host.charAt(i);
+            if (c != '.' && (c < '0' || c > '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void connect(Exchange ex, InetSocketAddress address) {
+        if (ex.trace != null) {
+            ex.trace.dnsEnd();
+            ex.trace.connectStart();
+        }
+        SocketChannel channel = null;
+        Conn conn = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+            conn = new Conn(channel, ex.route);
+            bind(ex, conn);
+            boolean connected = channel.connect(address);
+            if (connected && ex.trace != null) {
+                ex.trace.connectEnd();
+            }
+            conn.key = channel.register(selector, connected ? SelectionKey.OP_WRITE : SelectionKey.OP_CONNECT, conn);
+        } catch (IOException | RuntimeException e) {
+            if (conn == null && channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+            fail(ex, e);
+        }
+    }
+
+    private void bind(Exchange ex, Conn conn) {
+        ex.conn = conn;
+        conn.current = ex;
+    }
+
+    private void handleKey(SelectionKey key) {
+        Conn conn = (Conn) key.attachment();
+        Exchange ex = conn.current;
+        if (ex == null) {
+            // 空闲连接可读，说明对端已关闭或发送了意外数据
+            removeIdle(conn);
+            conn.close();
+            return;
+        }
+        if (ex.future.isCancelled()) {
+            fail(ex, new CancellationException());
+            return;
+        }
+        try {
+            if (key.isConnectable()) {
+                if (conn.channel.finishConnect()) {
+                    if (ex.trace != null) {
+                        ex.trace.connectEnd();
+                    }
+                    key.interestOps(SelectionKey.OP_WRITE);
+                }
+                return;
+            }
+            if (key.isWritable()) {
+                conn.channel.write(ex.out);
+                if (!ex.out.hasRemaining()) {
+                    if (ex.trace != null) {
+                        ex.trace.requestSent();
+                    }
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+                return;
+            }
+            if (key.isReadable()) {
+                readBuffer.clear();
+                int n = conn.channel.read(readBuffer);
+                if (n == -1) {
+                    onEof(ex);
+                    return;
+                }
+                readBuffer.flip();
+                if (consume(ex, readBuffer)) {
+                    complete(ex);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // 格式错误的响应等异常只结束当前请求，不影响共享的事件循环
+            if (!ex.done) {
+                onFailure(ex, e);
+            } else {
+                conn.close();
+            }
+        }
+    }
+
+    /**
+     * 处理就绪事件时出现未预料的异常，结束该连接上的请求并关闭连接，事件循环继续运行
+     */
+    private void abandon(SelectionKey key, RuntimeException e) {
+        Conn conn = (Conn) key.attachment();
+        Exchange ex = conn.current;
+        if (ex != null && !ex.done) {
+            fail(ex, e);
+        } else {
+            conn.close();
+        }
+    }
+
+    private void onEof(Exchange ex) {
+        if (ex.state == BODY_UNTIL_CLOSE) {
+            ex.keepAlive = false;
+            complete(ex);
+            return;
+        }
+        onFailure(ex, new EOFException("连接已被对端关闭"));
+    }
+
+    private void onFailure(Exchange ex, Exception e) {
+        // 复用的连接可能已被服务端关闭，尚未收到任何响应数据时换一条新连接重试一次
+        if (ex.reused && !ex.retried && ex.state == HEAD && ex.head.size() == 0) {
+            ex.conn.close();
+            ex.conn = null;
+            ex.retried = true;
+            ex.reused = false;
+            start(ex);
+            return;
+        }
+        fail(ex, e);
+    }
+
+    /**
+     * 消费缓冲区中的响应数据，推进解析状态
+     *
+     * @return 响应是否已接收完毕
+     */
+    private boolean consume(Exchange ex, ByteBuffer buf) throws IOException {
+        byte[] array = buf.array();
+        while (buf.hasRemaining()) {
+            switch (ex.state) {
+                case HEAD: {
+                    // 响应头在内存中聚合，整体长度与阻塞路径的单行长度使用同一上限
+                    if (ex.head.size() >= HttpCodec.MAX_LINE_LENGTH) {
+                        throw new ProtocolException("响应头过长");
+                    }
+                    byte b = buf.get();
+                    ex.head.write(b);
+                    if (endOfHeaderBlock(ex, b) && onHead(ex)) {
+                        return true;
+                    }
+                    break;
+                }
+                case BODY_FIXED:
+                case CHUNK_DATA: {
+                    int n = (int) Math.min(ex.remaining, buf.remaining());
+                    ex.body.write(array, buf.position(), n);
+                    buf.position(buf.position() + n);
+                    ex.remaining -= n;
+                    if (ex.remaining == 0) {
+                        if (ex.state == BODY_FIXED) {
+                            return true;
+                        }
+                        ex.state = CHUNK_DATA_END;
+                    }
+                    break;
+                }
+                case CHUNK_SIZE: {
+                    byte b = buf.get();
+                    if (b == '\n') {
+                        ex.remaining = parseChunkSize(ex.line);
+                        ex.line.setLength(0);
+                        if (ex.remaining == 0) {
+                            ex.state = TRAILER;
+                            ex.lineLength = 0;
+                        } else {
+                            ex.state = CHUNK_DATA;
+                        }
+                    } else if (b != '\r') {
+                        if (ex.line.length() >= HttpCodec.MAX_LINE_LENGTH) {
+                            throw new ProtocolException("报文行过长");
+                        }
+                        ex.line.append((char) (b & 0xff));
+                    }
+                    break;
+                }
+                case CHUNK_DATA_END: {
+                    if (buf.get() == '\n') {
+                        ex.state = CHUNK_SIZE;
+                    }
+                    break;
+                }
+                case TRAILER: {
+                    byte b = buf.get();
+                    if (b == '\n') {
+                        if (ex.lineLength == 0) {
+                            return true;
+                        }
+                        ex.lineLength = 0;
+                    } else if (b != '\r') {
+                        ex.lineLength++;
+                    }
+                    break;
+                }
+                case BODY_UNTIL_CLOSE: {
+                    int n = buf.remaining();
+                    ex.body.write(array, buf.position(), n);
+                    buf.position(buf.limit());
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("未知的解析状态: " + ex.state);
+            }
+        }
+        return false;
+    }
+
+    private static boolean endOfHeaderBlock(Exchange ex, byte b) {
+        if (b == '\n') {
+            if (ex.lineLength == 0 && ex.lines > 0) {
+                return true;
+            }
+            if (ex.lineLength > 0) {
+                ex.lines++;
+            }
+            ex.lineLength = 0;
+        } else if (b != '\r') {
+            ex.lineLength++;
+        }
+        return false;
+    }
+
+    /**
+     * 响应头接收完毕后确定响应体的读取方式
+     *
+     * @return 响应是否已接收完毕（没有响应体）
+     */
+    private boolean onHead(Exchange ex) throws IOException {
+        HttpCodec.ResponseHead head = HttpCodec.readSingleHead(new ByteArrayInputStream(ex.head.toByteArray()));
+        ex.head.reset();
+        ex.lines = 0;
+        ex.lineLength = 0;
+        if (head.isInformational()) {
+            return false;
+        }
+        ex.responseHead = head;
+        if (ex.trace != null) {
+            ex.trace.firstByte();
+        }
+        ex.keepAlive = head.isKeepAlive();
+        long length = head.bodyLength(ex.method);
+        if (length == HttpCodec.ResponseHead.CHUNKED) {
+            ex.body = new BodyBuffer(8192);
+            ex.state = CHUNK_SIZE;
+        } else if (length == HttpCodec.ResponseHead.UNTIL_CLOSE) {
+            ex.body = new BodyBuffer(8192);
+            ex.keepAlive = false;
+            ex.state = BODY_UNTIL_CLOSE;
+        } else if (length == 0) {
+            ex.body = new BodyBuffer(0);
+            return true;
+        } else {
+            if (length > Integer.MAX_VALUE - 8) {
+                throw new ProtocolException("响应体过大: " + length);
+            }
+            ex.body = new BodyBuffer((int) Math.min(length, 1024 * 1024));
+            ex.remaining = length;
+            ex.state = BODY_FIXED;
+        }
+        return false;
+    }
+
+    private static long parseChunkSize(StringBuilder line) throws ProtocolException {
+        int end = line.indexOf(";");
+        String size = (end >= 0 ? line.substring(0, end) : line.toString()).trim();
+        try {
+            return Long.parseLong(size, 16);
+        } catch (NumberFormatException e) {
+            throw new ProtocolException("非法的chunk长度: " + line);
+        }
+    }
+
+    private void complete(Exchange ex) {
+        ex.done = true;
+        Conn conn = ex.conn;
+        conn.current = null;
+        if (ex.keepAlive && running) {
+            conn.lastUsed = System.nanoTime();
+            try {
+                conn.key.interestOps(SelectionKey.OP_READ);
+                ArrayDeque<Conn> routeIdle = idle.computeIfAbsent(conn.route, r -> new ArrayDeque<>());
+                routeIdle.addFirst(conn);
+                while (routeIdle.size() > maxIdlePerRoute) {
+                    routeIdle.pollLast().close();
+                }
+            } catch (CancelledKeyException e) {
+                conn.close();
+            }
+        } else {
+            conn.close();
+        }
+        inFlight--;
+        HttpCodec.ResponseHead head = ex.responseHead;
+        ex.future.complete(new Response(head.getStatus(), head.getReason(), head.getHeaders(), ex.body.toInputStream()));
+    }
+
+    private void fail(Exchange ex, Exception e) {
+        ex.done = true;
+        if (ex.conn != null) {
+            ex.conn.current = null;
+            ex.conn.close();
+        }
+        inFlight--;
+        ex.future.completeExceptionally(e);
+    }
+
+    private void expireDeadlines() {
+        long now = System.nanoTime();
+        Exchange ex;
+        while ((ex = deadlines.peek()) != null && (ex.done || ex.deadline <= now)) {
+            deadlines.poll();
+            if (ex.done) {
+                continue;
+            }
+            if (ex.out != null) {
+                SelectionKey key = ex.conn == null ? null : ex.conn.key;
+                boolean connecting = ex.resolving
+                        || key != null && key.isValid() && (key.interestOps() & SelectionKey.OP_CONNECT) != 0;
+                fail(ex, connecting
+                        ? new CikException(ErrorCode.HTTP_CONNECT_TIMEOUT.code(), "连接超时: " + ex.route)
+                        : new CikException(ErrorCode.HTTP_READ_TIMEOUT.code(), "请求超时: " + ex.route));
+            } else {
+                // 一直在等待队列中，未能获得并发名额
+                waiting.remove(ex);
+                ex.done = true;
+                ex.future.completeExceptionally(
+                        new CikException(ErrorCode.HTTP_POOL_TIMEOUT.code(), "排队等待超时: " + ex.route));
+            }
+        }
+    }
+
+    private Conn pollIdle(Route route) {
+        ArrayDeque<Conn> routeIdle = idle.get(route);
+        if (routeIdle == null) {
+            return null;
+        }
+        Conn conn;
+        while ((conn = routeIdle.pollFirst()) != null) {
+            if (conn.channel.isOpen() && conn.key.isValid()) {
+                return conn;
+            }
+            conn.close();
+        }
+        return null;
+    }
+
+    private void removeIdle(Conn conn) {
+        ArrayDeque<Conn> routeIdle = idle.get(conn.route);
+        if (routeIdle != null) {
+            routeIdle.remove(conn);
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        if (now - lastIdleCheck < TimeUnit.MILLISECONDS.toNanos(IDLE_CHECK_INTERVAL)) {
+            return;
+        }
+        lastIdleCheck = now;
+        long expireBefore = now - TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+        Iterator<ArrayDeque<Conn>> it = idle.values().iterator();
+        while (it.hasNext()) {
+            ArrayDeque<Conn> routeIdle = it.next();
+            Conn last;
+            while ((last = routeIdle.peekLast()) != null && last.lastUsed - expireBefore < 0) {
+                routeIdle.pollLast().close();
+            }
+            if (routeIdle.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    private void shutdown() {
+        IOException closed = new IOException("NIO传输层已关闭");
+        Exchange ex;
+        while ((ex = submissions.poll()) != null) {
+            ex.future.completeExceptionally(closed);
+        }
+        while ((ex = waiting.poll()) != null) {
+            ex.future.completeExceptionally(closed);
+        }
+        for (Exchange pending : deadlines) {
+            if (pending.resolving) {
+                pending.future.completeExceptionally(closed);
+            }
+        }
+        for (SelectionKey key : new ArrayList<>(selector.keys())) {
+            Conn conn = (Conn) key.attachment();
+            if (conn.current != null) {
+                conn.current.future.completeExceptionally(closed);
+            }
+            conn.close();
+        }
+        idle.clear();
+        try {
+            selector.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * 一条非阻塞连接，同一时刻最多承载一个请求交换
+     */
+    private static final class Conn {
+        private final SocketChannel channel;
+        private final Route route;
+        private SelectionKey key;
+        private Exchange current;
+        private long lastUsed;
+
+        private Conn(SocketChannel channel, Route route) {
+            this.channel = channel;
+            this.route = route;
+        }
+
+        private void close() {
+            if (key != null) {
+                key.cancel();
+            }
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * 一次请求交换及其响应解析状态
+     */
+    private static final class Exchange {
+        private final Route route;
+        private final String method;
+        private final byte[] request;
+        private final CompletableFuture<Response> future;
+        private final long deadline;
+        private final ExchangeTrace trace;
+
+        private Conn conn;
+        private ByteBuffer out;
+        private boolean reused;
+        private boolean retried;
+        private boolean done;
+        /**
+         * 正在其他线程上解析域名；解析结果经由resolved队列交回事件循环
+         */
+        private boolean resolving;
+        private InetSocketAddress address;
+        private Exception resolveError;
+
+        private int state = HEAD;
+        private final ByteArrayOutputStream head = new ByteArrayOutputStream(512);
+        private int lines;
+        private int lineLength;
+        private final StringBuilder line = new StringBuilder(16);
+        private HttpCodec.ResponseHead responseHead;
+        private boolean keepAlive;
+        private long remaining;
+        private BodyBuffer body;
+
+        private Exchange(Route route, String method, byte[] request, CompletableFuture<Response> future, long deadline,
+                         ExchangeTrace trace) {
+            this.route = route;
+            this.method = method;
+            this.request = request;
+            this.future = future;
+            this.deadline = deadline;
+            this.trace = trace;
+        }
+    }
+
+    /**
+     * 可直接以输入流形式读取、不额外复制的字节缓冲区
+     */
+    private static final class BodyBuffer extends ByteArrayOutputStream {
+        private BodyBuffer(int size) {
+            super(size);
+        }
+
+        private InputStream toInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
+}
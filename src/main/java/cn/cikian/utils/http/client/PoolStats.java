@@ -0,0 +1,62 @@
+package cn.cikian.utils.http.client;
+
+
+/**
+ * 连接池统计快照
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 09:31
+ */
+
+public final class PoolStats {
+    private final int leased;
+    private final int idle;
+    private final int pending;
+    private final int max;
+
+    public PoolStats(int leased, int idle, int pending, int max) {
+        this.leased = leased;
+        this.idle = idle;
+        this.pending = pending;
+        this.max = max;
+    }
+
+    /**
+     * @return 正在使用中的连接数
+     */
+    public int getLeased() {
+        return leased;
+    }
+
+    /**
+     * @return 空闲可复用的连接数
+     */
+    public int getIdle() {
+        return idle;
+    }
+
+    /**
+     * @return 正在等待获取连接的请求数
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * @return 连接数上限
+     */
+    public int getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats{" +
+                "leased=" + leased +
+                ", idle=" + idle +
+                ", pending=" + pending +
+                ", max=" + max +
+                '}';
+    }
+}
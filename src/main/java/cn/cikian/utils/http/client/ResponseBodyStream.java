@@ -0,0 +1,105 @@
+package cn.cikian.utils.http.client;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 响应体输入流，读到末尾或关闭时把连接归还给连接池<br>
+ * 提前关闭时会尝试丢弃少量剩余数据以便复用连接，剩余数据过多则直接关闭连接
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 10:20
+ */
+
+public class ResponseBodyStream extends InputStream {
+    private static final long DRAIN_LIMIT = 64 * 1024;
+
+    private final ConnectionPool pool;
+    private final HttpConnection connection;
+    private final InputStream framed;
+    private final boolean keepAlive;
+    private boolean released;
+
+    /**
+     * @param pool       连接所属连接池
+     * @param connection 连接
+     * @param framed     按报文长度截断的响应体流，读完后返回EOF
+     * @param keepAlive  读完后连接是否可复用
+     */
+    public ResponseBodyStream(ConnectionPool pool, HttpConnection connection, InputStream framed, boolean keepAlive) {
+        this.pool = pool;
+        this.connection = connection;
+        this.framed = framed;
+        this.keepAlive = keepAlive;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (released) {
+            return -1;
+        }
+        try {
+            int b = framed.read();
+            if (b == -1) {
+                release(keepAlive);
+            }
+            return b;
+        } catch (IOException e) {
+            release(false);
+            throw e;
+        }
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (released) {
+            return -1;
+        }
+        try {
+            int n = framed.read(b, off, len);
+            if (n == -1) {
+                release(keepAlive);
+            }
+            return n;
+        } catch (IOException e) {
+            release(false);
+            throw e;
+        }
+    }
+
+    @Override
+    public int available() throws IOException {
+        return released ? 0 : framed.available();
+    }
+
+    @Override
+    public void close() {
+        if (released) {
+            return;
+        }
+        if (!keepAlive) {
+            release(false);
+            return;
+        }
+        try {
+            long drained = 0;
+            byte[] buf = new byte[4096];
+            int n;
+            while (drained <= DRAIN_LIMIT && (n = framed.read(buf)) != -1) {
+                drained += n;
+            }
+            release(drained <= DRAIN_LIMIT);
+        } catch (IOException e) {
+            release(false);
+        }
+    }
+
+    private void release(boolean reusable) {
+        if (!released) {
+            released = true;
+            pool.release(connection, reusable);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package cn.cikian.utils.http.client;
+
+
+import cn.cikian.utils.http.enitry.JSON;
+import cn.cikian.utils.http.enitry.Response;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 保存已解析JSON的HTTP响应缓存<br>
+ * 以请求方法、URL及指定的请求头作为键；遵循Cache-Control的max-age、no-cache、no-store及Expires，
+ * 过期后携带If-None-Match/If-Modified-Since进行条件请求；按估算内存占用设定上限，超出时淘汰最久未访问的条目
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 14:45
+ */
+
+public class ResponseCache {
+    /**
+     * 每个条目的固定开销估算（键、条目对象及Map节点）
+     */
+    private static final long ENTRY_OVERHEAD = 256;
+    /**
+     * 已解析JSON相对响应体字符数的内存放大系数估算
+     */
+    private static final long PARSED_BYTES_PER_CHAR = 4;
+
+    private final long maxBytes;
+    private final String[] keyHeaders;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * 创建响应缓存
+     *
+     * @param maxBytes   估算内存占用上限（字节）
+     * @param keyHeaders 参与缓存键计算的请求头名称，不区分大小写，例如Authorization、Accept-Language
+     */
+    public ResponseCache(long maxBytes, String... keyHeaders) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes必须大于0");
+        }
+        this.maxBytes = maxBytes;
+        this.keyHeaders = keyHeaders == null ? new String[0] : keyHeaders.clone();
+    }
+
+    /**
+     * 计算缓存键
+     *
+     * @param method  请求方法
+     * @param url     含查询串的完整URL
+     * @param headers 请求头，可为null
+     * @return 缓存键
+     */
+    public String key(String method, String url, Map<String, String> headers) {
+        StringBuilder sb = new StringBuilder(method.length() + url.length() + 16 * keyHeaders.length);
+        sb.append(method).append(' ').append(url);
+        for (String name : keyHeaders) {
+            sb.append('\n').append(name.toLowerCase(Locale.ROOT)).append('=');
+            String value = headerValue(headers, name);
+            if (value != null) {
+                sb.append(value);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 查找缓存条目，不计入统计
+     *
+     * @param key 缓存键
+     * @return 条目，不存在时返回null
+     */
+    public synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * 记录一次新鲜缓存命中
+     */
+    public void recordHit() {
+        hits.increment();
+    }
+
+    /**
+     * 保存200响应的解析结果，响应不可缓存时只计入未命中
+     *
+     * @param key       缓存键
+     * @param response  响应
+     * @param json      已解析的响应体，响应体为空时为null
+     * @param bodyChars 响应体字符数，用于估算内存占用
+     */
+    public void store(String key, Response response, JSON json, int bodyChars) {
+        misses.increment();
+        String cacheControl = lower(response.getHeader("Cache-Control"));
+        if (cacheControl != null && cacheControl.contains("no-store")) {
+            return;
+        }
+        String etag = response.getHeader("ETag");
+        String lastModified = response.getHeader("Last-Modified");
+        long expiresAt = freshUntil(response, cacheControl);
+        if (expiresAt <= System.currentTimeMillis() && etag == null && lastModified == null) {
+            return;
+        }
+        long weight = ENTRY_OVERHEAD + 2L * key.length() + PARSED_BYTES_PER_CHAR * bodyChars;
+        if (weight > maxBytes) {
+            return;
+        }
+        Entry entry = new Entry(json, etag, lastModified, expiresAt, weight);
+        synchronized (this) {
+            Entry old = entries.put(key, entry);
+            if (old != null) {
+                currentBytes -= old.weight;
+            }
+            currentBytes += weight;
+            Iterator<Entry> it = entries.values().iterator();
+            while (currentBytes > maxBytes && it.hasNext()) {
+                Entry eldest = it.next();
+                it.remove();
+                currentBytes -= eldest.weight;
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * 条件请求返回304后，按新的响应头刷新条目的有效期
+     *
+     * @param entry    条目
+     * @param response 304响应
+     */
+    public void revalidated(Entry entry, Response response) {
+        revalidations.increment();
+        entry.expiresAt = freshUntil(response, lower(response.getHeader("Cache-Control")));
+        String etag = response.getHeader("ETag");
+        if (etag != null) {
+            entry.etag = etag;
+        }
+    }
+
+    public synchronized void remove(String key) {
+        Entry old = entries.remove(key);
+        if (old != null) {
+            currentBytes -= old.weight;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), revalidations.sum(), evictions.sum(), entries.size(), currentBytes);
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    private static long freshUntil(Response response, String cacheControl) {
+        long now = System.currentTimeMillis();
+        if (cacheControl != null) {
+            if (cacheControl.contains("no-cache")) {
+                return now;
+            }
+            int i = cacheControl.indexOf("max-age=");
+            if (i >= 0 && (i == 0 || cacheControl.charAt(i - 1) != '-')) {
+                int start = i + "max-age=".length();
+                int end = start;
+                while (end < cacheControl.length() && Character.isDigit(cacheControl.charAt(end))) {
+                    end++;
+                }
+                if (end > start) {
+                    long age = parseLong(response.getHeader("Age"));
+                    return now + (Long.parseLong(cacheControl.substring(start, end)) - Math.max(age, 0)) * 1000;
+                }
+            }
+        }
+        String expires = response.getHeader("Expires");
+        if (expires != null) {
+            try {
+                return ZonedDateTime.parse(expires, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                return now;
+            }
+        }
+        return now;
+    }
+
+    private static long parseLong(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static String headerValue(Map<String, String> headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> e : headers.entrySet()) {
+            if (name.equalsIgnoreCase(e.getKey())) {
+                return e.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 缓存条目
+     */
+    public static final class Entry {
+        private final JSON json;
+        private final String lastModified;
+        private final long weight;
+        private volatile String etag;
+        private volatile long expiresAt;
+
+        private Entry(JSON json, String etag, String lastModified, long expiresAt, long weight) {
+            this.json = json;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.expiresAt = expiresAt;
+            this.weight = weight;
+        }
+
+        /**
+         * @return 缓存的JSON，各次命中共享同一实例；JSON不可变，可安全共享。响应体为空时为null
+         */
+        public JSON getJson() {
+            return json;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * @return 是否仍在有效期内，可不经请求直接使用
+         */
+        public boolean isFresh() {
+            return System.currentTimeMillis() < expiresAt;
+        }
+    }
+}
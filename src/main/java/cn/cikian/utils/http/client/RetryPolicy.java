@@ -0,0 +1,126 @@
+package cn.cikian.utils.http.client;
+
+
+import cn.cikian.code.ErrorCode;
+import cn.cikian.exception.CikException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 请求重试策略：指数退避加随机抖动<br>
+ * 只对幂等且请求体可重复发送的请求生效；连接失败、超时、IO异常以及指定状态码（默认429、502、503、504）会触发重试
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 15:40
+ */
+
+public class RetryPolicy {
+    private static final Set<Integer> DEFAULT_RETRY_STATUSES =
+            Collections.unmodifiableSet(new HashSet<>(Arrays.asList(429, 502, 503, 504)));
+
+    /**
+     * 不重试
+     */
+    public static final RetryPolicy NONE = new RetryPolicy(1, 0, 0);
+
+    private final int maxAttempts;
+    private final long baseDelay;
+    private final long maxDelay;
+    private final Set<Integer> retryStatuses;
+
+    /**
+     * @param maxAttempts 最大尝试次数（含首次请求）
+     * @param baseDelay   首次重试前的基础等待时间（毫秒），之后每次翻倍
+     * @param maxDelay    单次等待时间上限（毫秒）
+     */
+    public RetryPolicy(int maxAttempts, long baseDelay, long maxDelay) {
+        this(maxAttempts, baseDelay, maxDelay, DEFAULT_RETRY_STATUSES);
+    }
+
+    /**
+     * @param maxAttempts   最大尝试次数（含首次请求）
+     * @param baseDelay     首次重试前的基础等待时间（毫秒），之后每次翻倍
+     * @param maxDelay      单次等待时间上限（毫秒）
+     * @param retryStatuses 触发重试的状态码
+     */
+    public RetryPolicy(int maxAttempts, long baseDelay, long maxDelay, Set<Integer> retryStatuses) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts不能小于1");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.retryStatuses = Collections.unmodifiableSet(new HashSet<>(retryStatuses));
+    }
+
+    /**
+     * @param attempt 已完成的尝试次数
+     * @return 是否还可以再尝试
+     */
+    public boolean canRetry(int attempt) {
+        return attempt < maxAttempts;
+    }
+
+    public boolean isRetryableStatus(int status) {
+        return retryStatuses.contains(status);
+    }
+
+    /**
+     * 判断异常是否值得重试，连接池等待超时及熔断不重试
+     *
+     * @param e 请求异常
+     * @return 是否可重试
+     */
+    public boolean isRetryable(CikException e) {
+        int code = e.getErrorCode();
+        return code == ErrorCode.HTTP_CONNECT_TIMEOUT.code()
+                || code == ErrorCode.HTTP_CONNECT_FAILED.code()
+                || code == ErrorCode.HTTP_READ_TIMEOUT.code()
+                || code == ErrorCode.HTTP_IO_ERROR.code();
+    }
+
+    /**
+     * 计算第attempt次尝试失败后的等待时间：在[d/2, d]内随机取值，d = baseDelay * 2^(attempt-1)，不超过maxDelay；
+     * 服务端给出Retry-After（秒）时不少于该值，但同样不超过maxDelay
+     *
+     * @param attempt    已完成的尝试次数
+     * @param retryAfter Retry-After响应头，可为null
+     * @return 等待时间（毫秒）
+     */
+    public long delay(int attempt, String retryAfter) {
+        long d = baseDelay << Math.min(attempt - 1, 30);
+        if (d < 0 || d > maxDelay) {
+            d = maxDelay;
+        }
+        long delay = d <= 1 ? d : d / 2 + ThreadLocalRandom.current().nextLong(d / 2 + 1);
+        if (retryAfter != null) {
+            try {
+                long seconds = Long.parseLong(retryAfter.trim());
+                delay = Math.max(delay, Math.min(seconds * 1000, maxDelay));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return delay;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getBaseDelay() {
+        return baseDelay;
+    }
+
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    public Set<Integer> getRetryStatuses() {
+        return retryStatuses;
+    }
+}
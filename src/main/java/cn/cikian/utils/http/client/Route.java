@@ -0,0 +1,97 @@
+package cn.cikian.utils.http.client;
+
+
+import java.net.URL;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * 连接路由，由协议、主机、端口唯一确定，连接池按路由分组复用连接
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 09:12
+ */
+
+public final class Route {
+    private final String scheme;
+    private final String host;
+    private final int port;
+
+    /**
+     * @param scheme 协议
+     * @param host   主机，IPv6地址可带方括号（如{@link URL#getHost()}的返回值），保存时去掉方括号
+     * @param port   端口
+     */
+    public Route(String scheme, String host, int port) {
+        if (host.length() > 2 && host.charAt(0) == '[' && host.charAt(host.length() - 1) == ']') {
+            host = host.substring(1, host.length() - 1);
+        }
+        this.scheme = scheme.toLowerCase(Locale.ROOT);
+        this.host = host.toLowerCase(Locale.ROOT);
+        this.port = port;
+    }
+
+    /**
+     * 根据URL创建路由，未指定端口时使用协议默认端口
+     *
+     * @param url 请求地址
+     * @return 路由
+     */
+    public static Route of(URL url) {
+        String scheme = url.getProtocol();
+        if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) {
+            throw new IllegalArgumentException("不支持的协议: " + scheme);
+        }
+        int port = url.getPort() == -1 ? url.getDefaultPort() : url.getPort();
+        return new Route(scheme, url.getHost(), port);
+    }
+
+    public String getScheme() {
+        return scheme;
+    }
+
+    /**
+     * @return 主机，IPv6地址不带方括号
+     */
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public boolean isSecure() {
+        return "https".equals(scheme);
+    }
+
+    /**
+     * Host请求头的值，默认端口时省略端口号
+     *
+     * @return Host请求头
+     */
+    public String hostHeader() {
+        boolean defaultPort = (isSecure() && port == 443) || (!isSecure() && port == 80);
+        String h = host.indexOf(':') >= 0 ? "[" + host + "]" : host;
+        return defaultPort ? h : h + ":" + port;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Route)) return false;
+        Route route = (Route) o;
+        return port == route.port && scheme.equals(route.scheme) && host.equals(route.host);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(scheme, host, port);
+    }
+
+    @Override
+    public String toString() {
+        return scheme + "://" + host + ":" + port;
+    }
+}
@@ -0,0 +1,172 @@
+package cn.cikian.utils.http.client;
+
+
+import cn.cikian.utils.http.enitry.JSON;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 相同GET请求的合并执行（single-flight）<br>
+ * 同一时刻键相同的请求只有第一个真正发出，其余调用等待并共享同一个解析结果；请求结束后立即移除，不做缓存
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 15:10
+ */
+
+public class SingleFlight {
+    private final String[] keyHeaders;
+    private final ConcurrentHashMap<String, CompletableFuture<JSON>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * @param keyHeaders 参与合并键计算的请求头名称，不区分大小写；值不同的请求不会合并
+     */
+    public SingleFlight(String... keyHeaders) {
+        this.keyHeaders = keyHeaders == null ? new String[0] : keyHeaders.clone();
+    }
+
+    /**
+     * 计算合并键
+     *
+     * @param url     含编码后查询串的完整URL
+     * @param headers 请求头，可为null
+     * @return 合并键
+     */
+    public String key(String url, Map<String, String> headers) {
+        StringBuilder sb = new StringBuilder(url.length() + 16 * keyHeaders.length);
+        sb.append(url);
+        for (String name : keyHeaders) {
+            sb.append('\n').append(name.toLowerCase(Locale.ROOT)).append('=');
+            if (headers != null) {
+                for (Map.Entry<String, String> e : headers.entrySet()) {
+                    if (name.equalsIgnoreCase(e.getKey())) {
+                        sb.append(e.getValue());
+                        break;
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 执行或加入同键的进行中请求
+     *
+     * @param key  合并键
+     * @param call 真正发出请求的逻辑
+     * @return 共享的解析结果
+     * @throws IOException 请求失败，所有等待者收到同一异常
+     */
+    public JSON execute(String key, IOCall call) throws IOException {
+        CompletableFuture<JSON> mine = new CompletableFuture<>();
+        CompletableFuture<JSON> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            shared.increment();
+            return await(existing);
+        }
+        executed.increment();
+        try {
+            JSON result = call.call();
+            mine.complete(result);
+            return result;
+        } catch (IOException | RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * 异步版本，加入进行中的请求时返回一个独立的Future，取消它不会影响其他等待者
+     *
+     * @param key  合并键
+     * @param call 发出请求的逻辑
+     * @return 共享的解析结果
+     */
+    public CompletableFuture<JSON> executeAsync(String key, Supplier<CompletableFuture<JSON>> call) {
+        CompletableFuture<JSON> mine = new CompletableFuture<>();
+        CompletableFuture<JSON> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            shared.increment();
+            return existing.thenApply(json -> json);
+        }
+        executed.increment();
+        CompletableFuture<JSON> source;
+        try {
+            source = call.get();
+        } catch (RuntimeException e) {
+            source = new CompletableFuture<>();
+            source.completeExceptionally(e);
+        }
+        source.whenComplete((json, e) -> {
+            inFlight.remove(key, mine);
+            if (e != null) {
+                mine.completeExceptionally(e);
+            } else {
+                mine.complete(json);
+            }
+        });
+        return mine.thenApply(json -> json);
+    }
+
+    /**
+     * @return 真正发出的请求数
+     */
+    public long getExecuted() {
+        return executed.sum();
+    }
+
+    /**
+     * @return 加入其他进行中请求、未单独发出的调用数
+     */
+    public long getShared() {
+        return shared.sum();
+    }
+
+    /**
+     * @return 当前进行中的合并键数量
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    private static JSON await(CompletableFuture<JSON> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待合并请求结果被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * 可抛出IOException的请求逻辑
+     */
+    @FunctionalInterface
+    public interface IOCall {
+        JSON call() throws IOException;
+    }
+}
@@ -0,0 +1,63 @@
+package cn.cikian.utils.http.client;
+
+
+/**
+ * 单次请求的传输字节统计，区分线路上（压缩后）与应用层（解压后）的字节数<br>
+ * 响应体相关的计数随读取过程累加，读完响应体后才是最终值
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 14:02
+ */
+
+public class TransferStats {
+    long requestBodyBytes;
+    long requestWireBytes;
+    long responseWireBytes;
+    long responseBodyBytes;
+
+    /**
+     * @return 请求体压缩前的字节数
+     */
+    public long getRequestBodyBytes() {
+        return requestBodyBytes;
+    }
+
+    /**
+     * @return 请求体实际发送的字节数（压缩后，不含chunked分块标记）
+     */
+    public long getRequestWireBytes() {
+        return requestWireBytes;
+    }
+
+    /**
+     * @return 响应体在线路上接收的字节数（解压前）
+     */
+    public long getResponseWireBytes() {
+        return responseWireBytes;
+    }
+
+    /**
+     * @return 响应体解压后的字节数
+     */
+    public long getResponseBodyBytes() {
+        return responseBodyBytes;
+    }
+
+    /**
+     * @return 压缩节省的总字节数
+     */
+    public long getBytesSaved() {
+        return (requestBodyBytes - requestWireBytes) + (responseBodyBytes - responseWireBytes);
+    }
+
+    @Override
+    public String toString() {
+        return "TransferStats{" +
+                "requestBodyBytes=" + requestBodyBytes +
+                ", requestWireBytes=" + requestWireBytes +
+                ", responseWireBytes=" + responseWireBytes +
+                ", responseBodyBytes=" + responseBodyBytes +
+                '}';
+    }
+}
@@ -0,0 +1,69 @@
+package cn.cikian.utils.http.enitry;
+
+
+import cn.cikian.code.ErrorCode;
+import cn.cikian.exception.CikException;
+
+/**
+ * 批量请求中单个请求的结果：成功时持有解析后的JSON，失败或被取消时持有异常
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 18:40
+ */
+
+public class BatchResult {
+    private final int index;
+    private final Request request;
+    private final JSON json;
+    private final CikException error;
+
+    public BatchResult(int index, Request request, JSON json, CikException error) {
+        this.index = index;
+        this.request = request;
+        this.json = json;
+        this.error = error;
+    }
+
+    /**
+     * @return 请求在输入集合中的位置
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public Request getRequest() {
+        return request;
+    }
+
+    /**
+     * @return 响应结果，失败或响应体为空时为null
+     */
+    public JSON getJson() {
+        return json;
+    }
+
+    /**
+     * @return 失败原因，成功时为null
+     */
+    public CikException getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public boolean isCancelled() {
+        return error != null && error.getErrorCode() == ErrorCode.HTTP_CANCELLED.code();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "index=" + index +
+                ", url='" + (request == null ? null : request.getUrl()) + '\'' +
+                (error == null ? ", json=" + json : ", error=" + error) +
+                '}';
+    }
+}
@@ -1,7 +1,11 @@
 package cn.cikian.utils.http.enitry;
 
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 
 /**
@@ -11,16 +15,168 @@ import java.util.Map;
  */
 
 public class Body {
+    private static final String JSON_CONTENT_TYPE = "application/json";
+
     private Map<String, JSON> body;
+    private JSON json;
     private String contentType;
     private String charset;
 
+    private byte[] bytes;
+    private InputStream stream;
+    private Path file;
+    private long contentLength = -1;
+
+    public Body() {
+    }
+
+    /**
+     * 以字节数组作为请求体，按定长方式发送
+     *
+     * @param bytes       请求体内容
+     * @param contentType 内容类型
+     * @return 请求体
+     */
+    public static Body of(byte[] bytes, String contentType) {
+        Body b = new Body();
+        b.bytes = bytes;
+        b.contentLength = bytes.length;
+        b.contentType = contentType;
+        return b;
+    }
+
+    /**
+     * 以JSON对象作为请求体，发送时直接序列化到连接，不生成中间字符串；长度未知，以chunked方式发送
+     *
+     * @param json JSON对象
+     * @return 请求体，内容类型为application/json，字符集为UTF-8
+     */
+    public static Body of(JSON json) {
+        Body b = new Body();
+        b.json = json;
+        b.contentType = JSON_CONTENT_TYPE;
+        b.charset = "UTF-8";
+        return b;
+    }
+
+    /**
+     * 以输入流作为请求体，发送时直接从流拷贝到连接，不在内存中聚合<br>
+     * 长度未知（小于0）时以chunked方式发送；输入流只能发送一次
+     *
+     * @param stream        输入流
+     * @param contentLength 内容长度，未知时传-1
+     * @param contentType   内容类型
+     * @return 请求体
+     */
+    public static Body of(InputStream stream, long contentLength, String contentType) {
+        Body b = new Body();
+        b.stream = stream;
+        b.contentLength = contentLength;
+        b.contentType = contentType;
+        return b;
+    }
+
+    /**
+     * 以文件作为请求体，按文件大小定长发送
+     *
+     * @param file        文件路径
+     * @param contentType 内容类型
+     * @return 请求体
+     * @throws IOException 无法读取文件大小
+     */
+    public static Body of(Path file, String contentType) throws IOException {
+        Body b = new Body();
+        b.file = file;
+        b.contentLength = Files.size(file);
+        b.contentType = contentType;
+        return b;
+    }
+
     public boolean isEmpty() {
-        return body.isEmpty();
+        if (bytes != null || stream != null || file != null) {
+            return contentLength == 0;
+        }
+        if (json != null) {
+            return false;
+        }
+        return body == null || body.isEmpty();
     }
 
+    /**
+     * @return 请求体字节数，未知时返回-1
+     */
+    public long contentLength() {
+        return contentLength;
+    }
 
+    /**
+     * @return 请求体能否重复发送（输入流形式的请求体只能读取一次）
+     */
+    public boolean isRepeatable() {
+        return stream == null;
+    }
+
+    /**
+     * 将请求体写出到输出流，输入流及文件内容以固定大小的缓冲区直接拷贝；
+     * JSON及Map形式的请求体以UTF-8直接序列化到输出流，Map中的每一项作为顶层对象的一个字段
+     *
+     * @param out 输出流
+     * @throws IOException IO异常
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        if (bytes != null) {
+            out.write(bytes);
+        } else if (file != null) {
+            Files.copy(file, out);
+        } else if (stream != null) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+        } else if (json != null) {
+            json.writeTo(out);
+        } else if (body != null && !body.isEmpty()) {
+            JsonWriter writer = new JsonWriter(out).beginObject();
+            for (Map.Entry<String, JSON> entry : body.entrySet()) {
+                writer.name(entry.getKey()).value(entry.getValue());
+            }
+            writer.endObject().flush();
+        }
+    }
+
+    public Map<String, JSON> getBody() {
+        return body;
+    }
+
+    /**
+     * 设置Map形式的请求体，未设置内容类型时使用application/json及UTF-8
+     *
+     * @param body 请求体
+     */
     public void setBody(Map<String, JSON> body) {
         this.body = body;
+        if (contentType == null) {
+            contentType = JSON_CONTENT_TYPE;
+            if (charset == null) {
+                charset = "UTF-8";
+            }
+        }
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getCharset() {
+        return charset;
+    }
+
+    public void setCharset(String charset) {
+        this.charset = charset;
     }
 }
@@ -1,6 +1,7 @@
 package cn.cikian.utils.http.enitry;
 
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -12,6 +13,10 @@ import java.util.Map;
 public class Header {
     Map<String, String> headers;
 
+    public Header() {
+        this(new LinkedHashMap<>());
+    }
+
     public Header(Map<String, String> headers) {
         this.headers = headers;
     }
@@ -2,245 +2,423 @@ package cn.cikian.utils.http.enitry;
 
 import cn.cikian.code.ErrorCode;
 import cn.cikian.exception.CikException;
-import cn.cikian.utils.file.FileUtils;
-import cn.cikian.utils.string.StringUtils;
 
-import java.util.Arrays;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
+ * JSON对象<br>
+ * 嵌套的对象只在首次访问时解析并缓存，反复访问同一路径不会重复解析；
+ * 数值访问方法（如{@link #getLong(String)}）直接返回原始类型，不装箱。<br>
+ * 由UTF-8字节构造时不解码为字符串，只建立字段索引：按键查找时逐字节比较键名，
+ * 只有被取值的字符串才会解码，适合只读取响应中少数字段的场景。<br>
+ * 键名不逐对象保存：键相同、顺序相同的对象共享同一个{@link JSONShape}，对象只持有值数组，
+ * 大量同构记录（如列表接口的每一项）的内存占用远小于逐个使用Map
+ *
  * @author Cikian
  * @version 1.0
  * @since 2025/4/9 13:42
  */
 
 public class JSON {
-    private Map<String, JSONObj> json = new HashMap<>();
+    private volatile JSONShape shape;
+    /**
+     * 与形状的键一一对应的值；由UTF-8字节构造时随形状延迟生成，先于volatile的形状写入
+     */
+    private JSONObj[] values;
+    private final ByteBuffer bytes;
+    private final int[] fields;
+    /**
+     * 按需解码的值节点，多个线程并发访问时共享同一个节点
+     */
+    private final AtomicReferenceArray<JSONObj> nodes;
 
     public String get(String key) {
-        JSONObj jsonObj = json.get(key);
+        JSONObj jsonObj = node(key);
         if (jsonObj == null) {
             return null;
         }
-        Object v = jsonObj.get();
-        if (v.toString().startsWith("{") && v.toString().endsWith("}")) {
+        if (JSONObj.OBJECT.equals(jsonObj.type)) {
             throw new CikException(ErrorCode.FAIL.code(), "这个key返回的是一个JSON对象，请使用getJSON方法！");
         }
-        if (v.toString().startsWith("[") && v.toString().endsWith("]")) {
+        if (JSONObj.ARRAY.equals(jsonObj.type)) {
             throw new CikException(ErrorCode.FAIL.code(), "这个key返回的是一个JSON数组，请使用getArray方法！");
         }
-        return null;
+        return jsonObj.getString();
     }
 
     public JSON getJSON(String key) {
-        JSONObj jsonObj = json.get(key);
-        if (jsonObj == null) {
+        JSONObj jsonObj = node(key);
+        if (jsonObj == null || JSONObj.NULL.equals(jsonObj.type)) {
             return null;
         }
-        Object v = jsonObj.get();
-        if (v.toString().startsWith("[") && v.toString().endsWith("]")) {
+        if (JSONObj.ARRAY.equals(jsonObj.type)) {
             throw new CikException(ErrorCode.FAIL.code(), "这个key返回的是一个JSON数组，请使用getArray方法！");
         }
-
-        if (!v.toString().startsWith("{") && !v.toString().endsWith("}")) {
+        if (!JSONObj.OBJECT.equals(jsonObj.type)) {
             throw new CikException(ErrorCode.FAIL.code(), "这个key返回的不是JSON对象，请使用get方法！");
         }
+        return jsonObj.getJSON();
+    }
 
-        return new JSON(v.toString());
+    /**
+     * @param key 键
+     * @return 数组值，key不存在或值为null时返回null
+     * @throws CikException 值不是数组
+     */
+    public JSONArray getArray(String key) {
+        JSONObj jsonObj = node(key);
+        if (jsonObj == null || JSONObj.NULL.equals(jsonObj.type)) {
+            return null;
+        }
+        if (JSONObj.OBJECT.equals(jsonObj.type)) {
+            throw new CikException(ErrorCode.FAIL.code(), "这个key返回的是一个JSON对象，请使用getJSON方法！");
+        }
+        if (!JSONObj.ARRAY.equals(jsonObj.type)) {
+            throw new CikException(ErrorCode.FAIL.code(), "这个key返回的不是JSON数组，请使用get方法！");
+        }
+        return jsonObj.getArray();
+    }
 
+    /**
+     * @param key 键
+     * @return 值节点，key不存在时返回null
+     */
+    public JSONObj getObj(String key) {
+        return node(key);
     }
 
-    public JSON(String v) {
-        parse(v);
+    /**
+     * @param key 键
+     * @return 值的类型，见{@link JSONObj}中的类型常量；key不存在时返回null
+     */
+    public String getType(String key) {
+        JSONObj jsonObj = node(key);
+        return jsonObj == null ? null : jsonObj.type;
     }
 
-    private Map<String, JSONObj> parse(Object o) {
-        if (o == null) return null;
+    /**
+     * @param key 键
+     * @return 整数值
+     * @throws CikException key不存在、值不是数字或超出long范围
+     */
+    public long getLong(String key) {
+        return require(key).getLong();
+    }
 
-        String jsonStr = o.toString().trim();
-        if (!jsonStr.startsWith("{") || !jsonStr.endsWith("}")) {
-            throw new CikException(ErrorCode.FAIL.code(), "JSON格式错误！");
-        }
+    /**
+     * @param key          键
+     * @param defaultValue key不存在或值为null时的默认值
+     * @return 整数值
+     */
+    public long getLong(String key, long defaultValue) {
+        JSONObj jsonObj = node(key);
+        return jsonObj == null || jsonObj.isNull() ? defaultValue : jsonObj.getLong();
+    }
 
-        jsonStr = jsonStr.substring(1, jsonStr.length() - 1);
+    /**
+     * @param key 键
+     * @return 整数值
+     * @throws CikException key不存在、值不是数字或超出int范围
+     */
+    public int getInt(String key) {
+        return require(key).getInt();
+    }
 
-        int depth = 0;
-        boolean inString = false;
-        boolean isKey = true;
-        StringBuilder currentKey = new StringBuilder();
-        StringBuilder currentValue = new StringBuilder();
+    /**
+     * @param key          键
+     * @param defaultValue key不存在或值为null时的默认值
+     * @return 整数值
+     */
+    public int getInt(String key, int defaultValue) {
+        JSONObj jsonObj = node(key);
+        return jsonObj == null || jsonObj.isNull() ? defaultValue : jsonObj.getInt();
+    }
 
-        for (int i = 0; i < jsonStr.length(); i++) {
-            char c = jsonStr.charAt(i);
+    /**
+     * @param key 键
+     * @return 浮点值
+     * @throws CikException key不存在或值不是数字
+     */
+    public double getDouble(String key) {
+        return require(key).getDouble();
+    }
 
-            // 处理转义字符
-            if (c == '\\' && i < jsonStr.length() - 1) {
-                currentValue.append(c).append(jsonStr.charAt(++i));
-                continue;
-            }
+    /**
+     * @param key          键
+     * @param defaultValue key不存在或值为null时的默认值
+     * @return 浮点值
+     */
+    public double getDouble(String key, double defaultValue) {
+        JSONObj jsonObj = node(key);
+        return jsonObj == null || jsonObj.isNull() ? defaultValue : jsonObj.getDouble();
+    }
 
-            // 处理字符串状态
-            if (c == '"') {
-                inString = !inString;
-                if (isKey && !inString) { // 键结束
-                    currentKey = new StringBuilder(currentValue);
-                    currentValue.setLength(0);
-                }
-            }
+    /**
+     * @param key 键
+     * @return 精确的十进制值，key不存在或值为null时返回null
+     * @throws CikException 值不是数字
+     */
+    public BigDecimal getBigDecimal(String key) {
+        JSONObj jsonObj = node(key);
+        return jsonObj == null || jsonObj.isNull() ? null : jsonObj.getBigDecimal();
+    }
 
-            if (!inString) {
-                // 处理括号深度
-                if (c == '{' || c == '[') depth++;
-                if (c == '}' || c == ']') depth--;
-
-                // 遇到冒号且不在嵌套中时切换为值模式
-                if (depth == 0 && c == ':' && isKey) {
-                    isKey = false;
-                    currentValue.setLength(0);
-                    // 跳过冒号后的空白字符
-                    while (i + 1 < jsonStr.length() && Character.isWhitespace(jsonStr.charAt(i + 1))) {
-                        i++;
-                    }
-                    continue;
-                }
-
-                // 遇到逗号或结束符时保存键值对
-                // 加强结束符检测，确保完整捕获数值
-                // 加强结束符检测，确保捕获到数值末尾
-                if ((depth == 0 && (c == ',' || c == '}' || (i == jsonStr.length() - 1 && !inString)) && !isKey)) {
-                    if (currentKey.length() > 0 && currentValue.length() > 0) {
-                        String key = currentKey.toString().trim();
-                        String value = currentValue.toString().trim();
-
-                        // 去除键的引号
-                        if (key.startsWith("\"") && key.endsWith("\"")) {
-                            key = key.substring(1, key.length() - 1);
-                        }
-
-                        // 智能处理值类型
-                        if (value.startsWith("{") || value.startsWith("[")) {
-                            // 保留完整对象/数组结构
-                        } else if (value.startsWith("\"") && value.endsWith("\"")) {
-                            // 保留原始数值格式
-                            if (value.matches("^\".*\"$") && !value.matches("^-?\\d+(\\.\\d+)?$")) {
-                                value = value.substring(1, value.length() - 1);
-                            }
-                        } else if (value.matches("-?\\d+(\\.\\d+)?")) {
-                            // 保留数字原始格式
-                        } else if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
-                            // 保留布尔值原始格式
-                        }
-
-                        this.put(key, value);
-                        currentKey.setLength(0);
-                        currentValue.setLength(0);
-                        isKey = true;
-                    }
-                    continue;
-                }
-            }
+    /**
+     * @param key 键
+     * @return 布尔值
+     * @throws CikException key不存在或值不是布尔值
+     */
+    public boolean getBoolean(String key) {
+        return require(key).getBoolean();
+    }
+
+    /**
+     * @param key          键
+     * @param defaultValue key不存在或值为null时的默认值
+     * @return 布尔值
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        JSONObj jsonObj = node(key);
+        return jsonObj == null || jsonObj.isNull() ? defaultValue : jsonObj.getBoolean();
+    }
 
-            // 收集字符
-            if (!isKey || (isKey && (inString || !Character.isWhitespace(c)))) {
-                if (!Character.isWhitespace(c) || inString) {
-                    // 确保收集最后一个字符
-                    if (i == jsonStr.length() - 1 && !Character.isWhitespace(c)) {
-                        currentValue.append(c);
-                        // 立即处理末尾数字字符
-                        if (Character.isDigit(c) && !isKey) {
-                            saveKeyValue(currentKey, currentValue);
-                            currentValue.setLength(0);
-                        }
-                        // 立即处理最后一个数字字符
-                        // 立即处理连续数字结尾
-                        if (Character.isDigit(c) && !isKey) {
-                            if (i == jsonStr.length() - 1) {
-                                saveKeyValue(currentKey, currentValue);
-                                currentValue.setLength(0);
-                            }
-                        }
-                        
-                        // 立即处理数值结尾字符
-                        if (!isKey && (currentValue.toString().matches("-?\\d+$") || c == '0')) {
-                            saveKeyValue(currentKey, currentValue);
-                            currentValue.setLength(0);
-                        }
-                        
-                        // 处理最后一个键值对
-                        if (!isKey && currentKey.length() > 0 && currentValue.length() > 0) {
-                            saveKeyValue(currentKey, currentValue);
-                        }
-                    }
-                    currentValue.append(c);
-                }
+    /**
+     * @param key 键
+     * @return key存在且值为null
+     */
+    public boolean isNull(String key) {
+        JSONObj jsonObj = node(key);
+        return jsonObj != null && jsonObj.isNull();
+    }
+
+    public boolean containsKey(String key) {
+        return node(key) != null;
+    }
+
+    /**
+     * @return 所有键，保持原始顺序
+     */
+    public Set<String> keySet() {
+        return shape().keySet();
+    }
+
+    public int size() {
+        return shape().size();
+    }
+
+    private JSONObj node(String key) {
+        JSONShape s = shape;
+        if (s != null) {
+            int i = s.indexOf(key);
+            return i < 0 ? null : values[i];
+        }
+        // 从后向前查找，重复的键以最后出现的为准，与Map一致
+        for (int i = fields.length - Utf8Tokenizer.FIELD_SLOTS; i >= 0; i -= Utf8Tokenizer.FIELD_SLOTS) {
+            if (Utf8Tokenizer.nameEquals(bytes, fields[i], fields[i + 1], key)) {
+                return node(i / Utf8Tokenizer.FIELD_SLOTS);
             }
         }
-        // 最终强制处理所有残留数据
-        // 最终强制处理并清空缓冲区
-        // 最终强制处理并清空缓冲区
-        // 最终强制处理数字残留
-        // 最终强制处理所有数值残留
-        // 强制处理所有残留数值
-        // 最终强制处理所有数值
-        // 强制处理所有数字残留
-        if (currentValue.length() > 0 && currentValue.toString().matches("-?\\d+$")) {
-            if (currentKey.length() == 0) {
-                currentKey.append("numeric_value_" + currentValue.toString());
+        return null;
+    }
+
+    private JSONObj node(int index) {
+        JSONObj node = nodes.get(index);
+        if (node == null) {
+            int i = index * Utf8Tokenizer.FIELD_SLOTS;
+            node = Utf8Tokenizer.value(bytes, fields[i + 2], fields[i + 3]);
+            if (!nodes.compareAndSet(index, null, node)) {
+                node = nodes.get(index);
             }
-            saveKeyValue(currentKey, currentValue);
-            currentKey.setLength(0);
-            currentValue.setLength(0);
-        }
-        // 最终清理确保无残留
-        currentKey.setLength(0);
-        currentValue.setLength(0);
-        // 最终清理确保无残留
-        currentKey.setLength(0);
-        currentValue.setLength(0);
-        
-        // 最终清理缓冲区
-        currentKey.setLength(0);
-        currentValue.setLength(0);
-        return json;
-    }
-
-    private void saveKeyValue(StringBuilder keyBuilder, StringBuilder valueBuilder) {
-        String key = keyBuilder.toString().trim();
-        String value = valueBuilder.toString().trim();
-        
-        // 去除键的引号
-        if (key.startsWith("\"") && key.endsWith("\"")) {
-            key = key.substring(1, key.length() - 1);
-        }
-        
-        // 智能处理值类型
-        if (value.startsWith("{") || value.startsWith("[")) {
-            // 保留完整对象/数组结构
-        } else if (value.matches("^\".*\"$") && !value.matches("^-?\\d+(\\.\\d+)?$")) {
-            value = value.substring(1, value.length() - 1);
-        }
-        
-        put(key, value);
-    }
-    
-    private void put(String key, String value) {
-        // 处理未加引号的键名
-        // 完全去除键名首尾的引号
-        key = key.replaceAll("^['\"]+", "").replaceAll("['\"]+$", "");
-
-        if (value.startsWith("\"") && value.endsWith("\"")) {
-            // 保留原始数值格式
-            if (value.matches("^\".*\"$") && !value.matches("^-?\\d+(\\.\\d+)?$")) {
-                value = value.substring(1, value.length() - 1);
+        }
+        return node;
+    }
+
+    /**
+     * @return 形状；由UTF-8字节构造时首次调用会解码全部键名
+     */
+    private JSONShape shape() {
+        JSONShape s = shape;
+        if (s == null) {
+            JSONShape.Builder object = new JSONShape.Builder();
+            for (int i = 0; i < nodes.length(); i++) {
+                int f = i * Utf8Tokenizer.FIELD_SLOTS;
+                object.put(Utf8Tokenizer.decodeString(bytes, fields[f], fields[f + 1]), node(i));
             }
+            // 先写值再写volatile的形状，读到形状即可见对应的值
+            values = object.values();
+            s = object.shape();
+            shape = s;
+        }
+        return s;
+    }
+
+    /**
+     * @param i 下标，按键的原始顺序
+     * @return 键名
+     */
+    String key(int i) {
+        return shape().key(i);
+    }
+
+    /**
+     * @param i 下标，按键的原始顺序
+     * @return 值节点
+     */
+    JSONObj value(int i) {
+        shape();
+        return values[i];
+    }
+
+    private JSONObj require(String key) {
+        JSONObj jsonObj = node(key);
+        if (jsonObj == null) {
+            throw new CikException(ErrorCode.FAIL.code(), "key不存在: " + key);
         }
+        return jsonObj;
+    }
 
-        json.put(key, new JSONObj(value));
+    /**
+     * 解析JSON对象文本
+     *
+     * @param v JSON对象文本
+     * @throws CikException JSON格式错误
+     */
+    public JSON(String v) {
+        this(v != null ? new JSONTokenizer(v).parseObject() : new JSONShape.Builder());
+    }
+
+    /**
+     * 解析UTF-8编码的JSON对象，不复制字节，解析后不应再修改数组内容
+     *
+     * @param utf8 JSON对象的UTF-8字节
+     * @throws CikException JSON格式错误
+     */
+    public JSON(byte[] utf8) {
+        this(ByteBuffer.wrap(utf8), 0, utf8.length);
+    }
+
+    /**
+     * 解析UTF-8编码的JSON对象，范围为缓冲区的position到limit，不改变其position；
+     * 可直接传入内存映射文件，解析后不应再修改缓冲区内容
+     *
+     * @param utf8 JSON对象的UTF-8字节
+     * @throws CikException JSON格式错误
+     */
+    public JSON(ByteBuffer utf8) {
+        this(utf8.duplicate(), utf8.position(), utf8.limit());
+    }
+
+    JSON(ByteBuffer bytes, int start, int end) {
+        this.bytes = bytes;
+        this.fields = new Utf8Tokenizer(bytes, start, end).indexObject();
+        this.nodes = new AtomicReferenceArray<>(fields.length / Utf8Tokenizer.FIELD_SLOTS);
+    }
+
+    JSON(JSONShape.Builder object) {
+        this.bytes = null;
+        this.fields = null;
+        this.nodes = null;
+        this.values = object.values();
+        this.shape = object.shape();
+    }
+
+    JSON(Map<String, JSONObj> json) {
+        this(builder(json));
+    }
+
+    private static JSONShape.Builder builder(Map<String, JSONObj> json) {
+        JSONShape.Builder object = new JSONShape.Builder();
+        for (Map.Entry<String, JSONObj> entry : json.entrySet()) {
+            object.put(entry.getKey(), entry.getValue());
+        }
+        return object;
+    }
+
+    /**
+     * 绑定为Java对象：普通类按字段绑定（需要无参构造方法），record按组件绑定；
+     * 键名先按属性名查找，找不到再按下划线形式查找（如userName对应user_name），缺失的键保持默认值
+     *
+     * @param type 目标类型
+     * @return 绑定后的对象
+     * @throws CikException 类型无法绑定或值无法转换
+     */
+    public <T> T bind(Class<T> type) {
+        return JSONBinder.bind(this, type);
+    }
+
+    /**
+     * 由Java对象创建JSON，键名与属性名相同
+     *
+     * @param bean Java对象、Map或record
+     * @return JSON对象，bean为null时返回null
+     * @throws CikException 对象不能表示为JSON对象
+     */
+    public static JSON from(Object bean) {
+        return JSONBinder.from(bean, false);
+    }
+
+    /**
+     * 由Java对象创建JSON
+     *
+     * @param bean      Java对象、Map或record
+     * @param underline 为true时键名使用下划线形式（如userName写为user_name）
+     * @return JSON对象，bean为null时返回null
+     * @throws CikException 对象不能表示为JSON对象
+     */
+    public static JSON from(Object bean, boolean underline) {
+        return JSONBinder.from(bean, underline);
+    }
+
+    /**
+     * 以紧凑格式写出到输出流（UTF-8），写完后刷新但不关闭输出流
+     *
+     * @param out 输出流
+     * @throws IOException IO异常
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        new JsonWriter(out).value(this).flush();
+    }
+
+    /**
+     * 以紧凑格式写出，写完后刷新但不关闭writer
+     *
+     * @param writer 字符输出
+     * @throws IOException IO异常
+     */
+    public void writeTo(Writer writer) throws IOException {
+        new JsonWriter(writer).value(this).flush();
+    }
+
+    /**
+     * @return 带缩进的JSON文本
+     */
+    public String toPrettyString() {
+        return serialize(true);
+    }
+
+    private String serialize(boolean pretty) {
+        JsonWriter writer = new JsonWriter().setPretty(pretty);
+        try {
+            writer.value(this);
+        } catch (IOException e) {
+            // 写入内存不会发生IO异常
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
     }
 
+    /**
+     * @return 紧凑格式的JSON文本
+     */
     @Override
     public String toString() {
-        return json.toString();
+        return serialize(false);
     }
 }
@@ -0,0 +1,326 @@
+package cn.cikian.utils.http.enitry;
+
+
+import cn.cikian.code.ErrorCode;
+import cn.cikian.exception.CikException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * JSON数组<br>
+ * 构造时只记录原文，按下标访问或调用{@link #size()}时才一次性解析出所有元素并缓存；
+ * {@link #iterator()}和{@link #stream()}在未解析时逐个解码元素，不保留已遍历的元素，
+ * 适合遍历元素很多的大数组。可直接由UTF-8字节构造，元素中的字符串在取值时才解码。格式错误在解析到出错位置时抛出
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 21:10
+ */
+
+public class JSONArray implements Iterable<JSONObj> {
+    private final String src;
+    private final ByteBuffer bytes;
+    private final int start;
+    private final int end;
+    private volatile JSONObj[] elements;
+
+    /**
+     * @param v JSON数组文本
+     * @throws CikException 文本不是以'['开头
+     */
+    public JSONArray(String v) {
+        this(v, 0, v.length());
+        int i = 0;
+        while (i < end && Character.isWhitespace(v.charAt(i))) {
+            i++;
+        }
+        if (i == end || v.charAt(i) != '[') {
+            throw new CikException(ErrorCode.FAIL.code(), "JSON格式错误：应为'['，位置" + i);
+        }
+    }
+
+    /**
+     * @param utf8 JSON数组的UTF-8字节，不复制，之后不应再修改
+     * @throws CikException 内容不是以'['开头
+     */
+    public JSONArray(byte[] utf8) {
+        this(ByteBuffer.wrap(utf8));
+    }
+
+    /**
+     * @param utf8 JSON数组的UTF-8字节，范围为position到limit，不改变其position；可为内存映射文件
+     * @throws CikException 内容不是以'['开头
+     */
+    public JSONArray(ByteBuffer utf8) {
+        this(utf8.duplicate(), utf8.position(), utf8.limit());
+        int i = start;
+        while (i < end && Character.isWhitespace(bytes.get(i))) {
+            i++;
+        }
+        if (i == end || bytes.get(i) != '[') {
+            throw new CikException(ErrorCode.FAIL.code(), "JSON格式错误：应为'['，位置" + i);
+        }
+    }
+
+    JSONArray(String src, int start, int end) {
+        this.src = src;
+        this.bytes = null;
+        this.start = start;
+        this.end = end;
+    }
+
+    JSONArray(JSONObj[] elements) {
+        this.src = null;
+        this.bytes = null;
+        this.start = 0;
+        this.end = 0;
+        this.elements = elements;
+    }
+
+    JSONArray(ByteBuffer bytes, int start, int end) {
+        this.src = null;
+        this.bytes = bytes;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * @return 所有元素，首次调用时解析并缓存
+     */
+    private JSONObj[] elements() {
+        JSONObj[] parsed = elements;
+        if (parsed == null) {
+            // 并发首次访问时可能重复解析，结果等价
+            parsed = bytes != null ? new Utf8Tokenizer(bytes, start, end).parseArray()
+                    : new JSONTokenizer(src, start, end).parseArray();
+            elements = parsed;
+        }
+        return parsed;
+    }
+
+    public int size() {
+        return elements().length;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @param index 下标
+     * @return 元素节点
+     * @throws CikException 下标越界
+     */
+    public JSONObj getObj(int index) {
+        JSONObj[] items = elements();
+        if (index < 0 || index >= items.length) {
+            throw new CikException(ErrorCode.FAIL.code(), "下标越界: " + index + "，数组长度: " + items.length);
+        }
+        return items[index];
+    }
+
+    /**
+     * @param index 下标
+     * @return 元素的类型，见{@link JSONObj}中的类型常量
+     */
+    public String getType(int index) {
+        return getObj(index).type;
+    }
+
+    /**
+     * @param index 下标
+     * @return 字符串值；数字和布尔值返回其文本，null返回null
+     * @throws CikException 元素为对象或数组
+     */
+    public String get(int index) {
+        return getObj(index).getString();
+    }
+
+    /**
+     * @param index 下标
+     * @return 对象元素，元素为null时返回null
+     * @throws CikException 元素不是对象
+     */
+    public JSON getJSON(int index) {
+        return getObj(index).getJSON();
+    }
+
+    /**
+     * @param index 下标
+     * @return 数组元素，元素为null时返回null
+     * @throws CikException 元素不是数组
+     */
+    public JSONArray getArray(int index) {
+        return getObj(index).getArray();
+    }
+
+    public long getLong(int index) {
+        return getObj(index).getLong();
+    }
+
+    public int getInt(int index) {
+        return getObj(index).getInt();
+    }
+
+    public double getDouble(int index) {
+        return getObj(index).getDouble();
+    }
+
+    public BigDecimal getBigDecimal(int index) {
+        JSONObj jsonObj = getObj(index);
+        return jsonObj.isNull() ? null : jsonObj.getBigDecimal();
+    }
+
+    public boolean getBoolean(int index) {
+        return getObj(index).getBoolean();
+    }
+
+    public boolean isNull(int index) {
+        return getObj(index).isNull();
+    }
+
+    /**
+     * 遍历元素；已解析时遍历缓存的元素，否则边读边解码
+     */
+    @Override
+    public Iterator<JSONObj> iterator() {
+        JSONObj[] parsed = elements;
+        if (parsed != null) {
+            return new ArrayIterator(parsed);
+        }
+        if (bytes != null) {
+            Utf8Tokenizer tokenizer = new Utf8Tokenizer(bytes, start, end);
+            tokenizer.beginArray();
+            return new StreamingIterator(tokenizer::nextElement);
+        }
+        JSONTokenizer tokenizer = new JSONTokenizer(src, start, end);
+        tokenizer.beginArray();
+        return new StreamingIterator(tokenizer::nextElement);
+    }
+
+    /**
+     * @return 按顺序排列的元素流，未解析时逐个解码
+     */
+    public Stream<JSONObj> stream() {
+        JSONObj[] parsed = elements;
+        Spliterator<JSONObj> spliterator = parsed != null
+                ? Spliterators.spliterator(parsed, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE)
+                : Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * 将每个元素绑定为指定类型，规则同{@link JSON#bind(Class)}
+     *
+     * @param type 元素类型
+     * @return 元素列表
+     * @throws CikException 元素无法转换
+     */
+    public <T> List<T> bind(Class<T> type) {
+        return JSONBinder.bindList(this, type);
+    }
+
+    /**
+     * 以紧凑格式写出到输出流（UTF-8），未解析的数组边读边写；写完后刷新但不关闭输出流
+     *
+     * @param out 输出流
+     * @throws IOException IO异常
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        new JsonWriter(out).value(this).flush();
+    }
+
+    /**
+     * 以紧凑格式写出，写完后刷新但不关闭writer
+     *
+     * @param writer 字符输出
+     * @throws IOException IO异常
+     */
+    public void writeTo(Writer writer) throws IOException {
+        new JsonWriter(writer).value(this).flush();
+    }
+
+    /**
+     * @return JSON文本；尚未解析时直接返回原文
+     */
+    @Override
+    public String toString() {
+        if (elements == null) {
+            return bytes != null ? Utf8Tokenizer.decode(bytes, start, end) : src.substring(start, end);
+        }
+        JsonWriter writer = new JsonWriter();
+        try {
+            writer.value(this);
+        } catch (IOException e) {
+            // 写入内存不会发生IO异常
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
+    }
+
+    private static final class ArrayIterator implements Iterator<JSONObj> {
+        private final JSONObj[] items;
+        private int index;
+
+        private ArrayIterator(JSONObj[] items) {
+            this.items = items;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < items.length;
+        }
+
+        @Override
+        public JSONObj next() {
+            if (index >= items.length) {
+                throw new NoSuchElementException();
+            }
+            return items[index++];
+        }
+    }
+
+    /**
+     * 逐个读取元素的迭代器，source返回null表示数组结束
+     */
+    private static final class StreamingIterator implements Iterator<JSONObj> {
+        private final Supplier<JSONObj> source;
+        private JSONObj next;
+        private boolean done;
+
+        private StreamingIterator(Supplier<JSONObj> source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                next = source.get();
+                done = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public JSONObj next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            JSONObj item = next;
+            next = null;
+            return item;
+        }
+    }
+}
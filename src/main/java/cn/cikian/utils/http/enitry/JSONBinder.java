@@ -0,0 +1,501 @@
+package cn.cikian.utils.http.enitry;
+
+
+import cn.cikian.code.ErrorCode;
+import cn.cikian.exception.CikException;
+import cn.cikian.utils.string.StringUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON与Java对象之间的绑定<br>
+ * 每个类的属性访问器只在首次使用时通过反射查找一次，转换为MethodHandle后按类缓存，之后的绑定不再反射。
+ * 普通类按字段（含父类，不含static及transient字段）绑定，需要无参构造方法；
+ * record按组件绑定并调用规范构造方法（运行在Java 16及以上时可用，通过反射识别，不依赖编译目标版本）。
+ * 绑定时键名先按属性名查找，找不到再按下划线形式查找；缺失的键保持属性的默认值
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 23:10
+ */
+
+final class JSONBinder {
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final Method IS_RECORD = method(Class.class, "isRecord");
+    private static final Method RECORD_COMPONENTS = method(Class.class, "getRecordComponents");
+
+    private static final ClassValue<Mapping> MAPPINGS = new ClassValue<Mapping>() {
+        @Override
+        protected Mapping computeValue(Class<?> type) {
+            return new Mapping(type);
+        }
+    };
+
+    private JSONBinder() {
+    }
+
+    /**
+     * @param json JSON对象
+     * @param type 目标类型
+     * @return 绑定后的对象
+     * @throws CikException 类型无法绑定或值无法转换
+     */
+    static <T> T bind(JSON json, Class<T> type) {
+        if (json == null) {
+            return null;
+        }
+        Mapping mapping = MAPPINGS.get(type);
+        try {
+            return type.cast(mapping.bind(json));
+        } catch (CikException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new CikException(ErrorCode.FAIL.code(), "绑定" + type.getName() + "失败: " + e, e);
+        }
+    }
+
+    /**
+     * @param array JSON数组
+     * @param type  元素类型
+     * @return 绑定后的列表
+     */
+    static <T> List<T> bindList(JSONArray array, Class<T> type) {
+        List<T> list = new ArrayList<>();
+        for (JSONObj item : array) {
+            list.add(type.cast(toJava(item, type)));
+        }
+        return list;
+    }
+
+    /**
+     * @param bean      Java对象
+     * @param underline 为true时键名使用下划线形式
+     * @return JSON对象
+     * @throws CikException 对象不能表示为JSON对象
+     */
+    static JSON from(Object bean, boolean underline) {
+        if (bean == null) {
+            return null;
+        }
+        JSONObj node = toNode(bean, underline);
+        if (!JSONObj.OBJECT.equals(node.type)) {
+            throw new CikException(ErrorCode.INVALID_INPUT.code(), bean.getClass().getName() + "不能表示为JSON对象");
+        }
+        return node.getJSON();
+    }
+
+    /**
+     * 将值节点转换为指定类型
+     */
+    static Object toJava(JSONObj node, Type type) {
+        Class<?> raw = rawClass(type);
+        if (node == null || node.isNull()) {
+            return raw.isPrimitive() ? defaultValue(raw) : null;
+        }
+        if (raw == String.class) {
+            return JSONObj.OBJECT.equals(node.type) || JSONObj.ARRAY.equals(node.type) ? node.toString() : node.getString();
+        }
+        if (raw == long.class || raw == Long.class) {
+            return node.getLong();
+        }
+        if (raw == int.class || raw == Integer.class) {
+            return node.getInt();
+        }
+        if (raw == double.class || raw == Double.class) {
+            return node.getDouble();
+        }
+        if (raw == boolean.class || raw == Boolean.class) {
+            return node.getBoolean();
+        }
+        if (raw == float.class || raw == Float.class) {
+            return (float) node.getDouble();
+        }
+        if (raw == short.class || raw == Short.class) {
+            return (short) narrow(node.getLong(), Short.MIN_VALUE, Short.MAX_VALUE);
+        }
+        if (raw == byte.class || raw == Byte.class) {
+            return (byte) narrow(node.getLong(), Byte.MIN_VALUE, Byte.MAX_VALUE);
+        }
+        if (raw == char.class || raw == Character.class) {
+            String s = node.getString();
+            if (s.length() != 1) {
+                throw new CikException(ErrorCode.FAIL.code(), "无法将\"" + s + "\"转换为字符");
+            }
+            return s.charAt(0);
+        }
+        if (raw == BigDecimal.class) {
+            return node.getBigDecimal();
+        }
+        if (raw == BigInteger.class) {
+            return node.getBigDecimal().toBigInteger();
+        }
+        if (raw == JSONObj.class) {
+            return node;
+        }
+        if (raw == JSON.class) {
+            return node.getJSON();
+        }
+        if (raw == JSONArray.class) {
+            return node.getArray();
+        }
+        if (raw == Object.class || raw == Number.class) {
+            return node.get();
+        }
+        if (raw.isEnum()) {
+            return enumValue(raw, node.getString());
+        }
+        if (raw.isArray()) {
+            Type component = type instanceof GenericArrayType
+                    ? ((GenericArrayType) type).getGenericComponentType() : raw.getComponentType();
+            JSONArray array = node.getArray();
+            Object result = Array.newInstance(raw.getComponentType(), array.size());
+            for (int i = 0; i < array.size(); i++) {
+                Array.set(result, i, toJava(array.getObj(i), component));
+            }
+            return result;
+        }
+        if (Collection.class.isAssignableFrom(raw)) {
+            Collection<Object> collection = newCollection(raw);
+            Type element = typeArgument(type, 0);
+            for (JSONObj item : node.getArray()) {
+                collection.add(toJava(item, element));
+            }
+            return collection;
+        }
+        if (Map.class.isAssignableFrom(raw)) {
+            if (!raw.isAssignableFrom(LinkedHashMap.class)) {
+                throw new CikException(ErrorCode.FAIL.code(), "不支持的Map类型: " + raw.getName());
+            }
+            Type value = typeArgument(type, 1);
+            JSON json = node.getJSON();
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (String key : json.keySet()) {
+                map.put(key, toJava(json.getObj(key), value));
+            }
+            return map;
+        }
+        return bind(node.getJSON(), raw);
+    }
+
+    /**
+     * 将Java值转换为值节点
+     */
+    static JSONObj toNode(Object value, boolean underline) {
+        if (value == null) {
+            return new JSONObj(null, JSONObj.NULL);
+        }
+        if (value instanceof JSONObj) {
+            return (JSONObj) value;
+        }
+        if (value instanceof String || value instanceof Boolean || value instanceof JSON || value instanceof JSONArray
+                || value instanceof Long || value instanceof Integer || value instanceof Double
+                || value instanceof BigDecimal || value instanceof BigInteger || value instanceof Short
+                || value instanceof Byte || value instanceof Float) {
+            return new JSONObj(value);
+        }
+        if (value instanceof Number) {
+            return new JSONObj(new BigDecimal(value.toString()));
+        }
+        if (value instanceof Character) {
+            return new JSONObj(value.toString(), JSONObj.STRING);
+        }
+        if (value instanceof Enum) {
+            return new JSONObj(((Enum<?>) value).name(), JSONObj.STRING);
+        }
+        if (value instanceof Iterable) {
+            List<JSONObj> items = new ArrayList<>();
+            for (Object item : (Iterable<?>) value) {
+                items.add(toNode(item, underline));
+            }
+            return new JSONObj(new JSONArray(items.toArray(new JSONObj[0])));
+        }
+        if (value.getClass().isArray()) {
+            JSONObj[] items = new JSONObj[Array.getLength(value)];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = toNode(Array.get(value, i), underline);
+            }
+            return new JSONObj(new JSONArray(items));
+        }
+        if (value instanceof Map) {
+            Map<String, JSONObj> map = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(String.valueOf(entry.getKey()), toNode(entry.getValue(), underline));
+            }
+            return new JSONObj(new JSON(map));
+        }
+        if (value.getClass().getName().startsWith("java.")) {
+            // 日期、UUID等JDK类型按其文本表示
+            return new JSONObj(value.toString(), JSONObj.STRING);
+        }
+        Mapping mapping = MAPPINGS.get(value.getClass());
+        try {
+            return new JSONObj(mapping.from(value, underline));
+        } catch (CikException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new CikException(ErrorCode.FAIL.code(), "序列化" + value.getClass().getName() + "失败: " + e, e);
+        }
+    }
+
+    private static long narrow(long value, long min, long max) {
+        if (value < min || value > max) {
+            throw new CikException(ErrorCode.FAIL.code(), "数值超出范围: " + value);
+        }
+        return value;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object enumValue(Class<?> type, String name) {
+        try {
+            return Enum.valueOf((Class<? extends Enum>) type, name);
+        } catch (IllegalArgumentException e) {
+            throw new CikException(ErrorCode.FAIL.code(), type.getSimpleName() + "中不存在" + name);
+        }
+    }
+
+    private static Collection<Object> newCollection(Class<?> raw) {
+        if (raw.isAssignableFrom(ArrayList.class)) {
+            return new ArrayList<>();
+        }
+        if (raw.isAssignableFrom(LinkedHashSet.class)) {
+            return new LinkedHashSet<>();
+        }
+        throw new CikException(ErrorCode.FAIL.code(), "不支持的集合类型: " + raw.getName());
+    }
+
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] args = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < args.length) {
+                return args[index];
+            }
+        }
+        return Object.class;
+    }
+
+    private static Class<?> rawClass(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        if (type instanceof GenericArrayType) {
+            Class<?> component = rawClass(((GenericArrayType) type).getGenericComponentType());
+            return Array.newInstance(component, 0).getClass();
+        }
+        if (type instanceof WildcardType) {
+            return rawClass(((WildcardType) type).getUpperBounds()[0]);
+        }
+        // 类型变量按Object处理
+        return Object.class;
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0D;
+        }
+        if (type == float.class) {
+            return 0F;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        return 0;
+    }
+
+    private static Method method(Class<?> type, String name) {
+        try {
+            return type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandles.Lookup lookup(AccessibleObject member) {
+        member.setAccessible(true);
+        return MethodHandles.lookup();
+    }
+
+    /**
+     * 一个属性：字段或record组件
+     */
+    private static final class Property {
+        private final String name;
+        private final String underline;
+        private final Type type;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private Property(String name, Type type, MethodHandle getter, MethodHandle setter) {
+            this.name = name;
+            this.underline = StringUtils.camelToUnderline(name);
+            this.type = type;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        private JSONObj find(JSON json) {
+            JSONObj node = json.getObj(name);
+            if (node == null && !underline.equals(name)) {
+                node = json.getObj(underline);
+            }
+            return node;
+        }
+    }
+
+    /**
+     * 一个类的属性访问器及构造方法，首次使用时创建后缓存
+     */
+    private static final class Mapping {
+        private final Class<?> type;
+        private final boolean record;
+        private final MethodHandle constructor;
+        private final Property[] properties;
+
+        private Mapping(Class<?> type) {
+            this.type = type;
+            if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type.isPrimitive()) {
+                throw new CikException(ErrorCode.FAIL.code(), "无法绑定接口或抽象类: " + type.getName());
+            }
+            try {
+                this.record = IS_RECORD != null && (Boolean) IS_RECORD.invoke(type);
+                if (record) {
+                    Object[] components = (Object[]) RECORD_COMPONENTS.invoke(type);
+                    Class<?> componentClass = components.getClass().getComponentType();
+                    Method getName = componentClass.getMethod("getName");
+                    Method getType = componentClass.getMethod("getType");
+                    Method getGenericType = componentClass.getMethod("getGenericType");
+                    Method getAccessor = componentClass.getMethod("getAccessor");
+                    properties = new Property[components.length];
+                    Class<?>[] parameterTypes = new Class<?>[components.length];
+                    for (int i = 0; i < components.length; i++) {
+                        Object component = components[i];
+                        Method accessor = (Method) getAccessor.invoke(component);
+                        parameterTypes[i] = (Class<?>) getType.invoke(component);
+                        properties[i] = new Property((String) getName.invoke(component),
+                                (Type) getGenericType.invoke(component),
+                                lookup(accessor).unreflect(accessor).asType(GETTER), null);
+                    }
+                    Constructor<?> canonical = type.getDeclaredConstructor(parameterTypes);
+                    constructor = lookup(canonical).unreflectConstructor(canonical)
+                            .asSpreader(Object[].class, parameterTypes.length)
+                            .asType(MethodType.methodType(Object.class, Object[].class));
+                } else {
+                    Constructor<?> noArgs;
+                    try {
+                        noArgs = type.getDeclaredConstructor();
+                    } catch (NoSuchMethodException e) {
+                        noArgs = null;
+                    }
+                    constructor = noArgs == null ? null
+                            : lookup(noArgs).unreflectConstructor(noArgs).asType(MethodType.methodType(Object.class));
+                    properties = fields(type);
+                }
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new CikException(ErrorCode.FAIL.code(), "无法访问" + type.getName() + "的属性: " + e, e);
+            }
+        }
+
+        private static Property[] fields(Class<?> type) throws IllegalAccessException {
+            List<Property> list = new ArrayList<>();
+            List<Class<?>> hierarchy = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                hierarchy.add(0, c);
+            }
+            for (Class<?> c : hierarchy) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                        continue;
+                    }
+                    MethodHandles.Lookup lookup = lookup(field);
+                    MethodHandle setter = Modifier.isFinal(modifiers) ? null
+                            : lookup.unreflectSetter(field).asType(SETTER);
+                    list.add(new Property(field.getName(), field.getGenericType(),
+                            lookup.unreflectGetter(field).asType(GETTER), setter));
+                }
+            }
+            return list.toArray(new Property[0]);
+        }
+
+        private Object bind(JSON json) throws Throwable {
+            if (record) {
+                Object[] args = new Object[properties.length];
+                for (int i = 0; i < properties.length; i++) {
+                    Property p = properties[i];
+                    args[i] = convert(p, p.find(json));
+                }
+                return (Object) constructor.invokeExact(args);
+            }
+            if (constructor == null) {
+                throw new CikException(ErrorCode.FAIL.code(), type.getName() + "缺少无参构造方法");
+            }
+            Object bean = (Object) constructor.invokeExact();
+            for (Property p : properties) {
+                if (p.setter == null) {
+                    continue;
+                }
+                JSONObj node = p.find(json);
+                if (node != null) {
+                    p.setter.invokeExact(bean, convert(p, node));
+                }
+            }
+            return bean;
+        }
+
+        /**
+         * 转换失败时在异常信息中注明属性
+         */
+        private Object convert(Property p, JSONObj node) {
+            try {
+                return toJava(node, p.type);
+            } catch (CikException e) {
+                throw new CikException(e.getErrorCode(), type.getSimpleName() + "." + p.name + ": " + e.getErrorDetail(), e);
+            }
+        }
+
+        private JSON from(Object bean, boolean underline) throws Throwable {
+            Map<String, JSONObj> map = new LinkedHashMap<>();
+            for (Property p : properties) {
+                Object value = (Object) p.getter.invokeExact(bean);
+                map.put(underline ? p.underline : p.name, toNode(value, underline));
+            }
+            return new JSON(map);
+        }
+    }
+}
@@ -1,43 +1,367 @@
 package cn.cikian.utils.http.enitry;
 
 
-import cn.cikian.utils.string.StringUtils;
+import cn.cikian.code.ErrorCode;
+import cn.cikian.exception.CikException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
 
 /**
+ * JSON中的一个值：字符串、数字、布尔、null、对象或数组<br>
+ * 数字按原文区分为整数（long）、小数（double）和超出long范围的大数（BigDecimal），以原始类型保存，
+ * 数值访问方法不装箱；对象和数组只记录在原文中的位置，首次访问时才解析，解析结果会被缓存。
+ * 由UTF-8字节解析得到的字符串值同样只记录位置，首次取值时才解码。<br>
+ * 值创建后不可变，可以在线程间及缓存中共享（如{@link cn.cikian.utils.http.client.ResponseCache}返回的JSON），
+ * 需要不同的值时请用{@link #JSONObj(Object)}创建新的实例
+ *
  * @author Cikian
  * @version 1.0
  * @since 2025/4/9 13:50
  */
 
 public class JSONObj {
-    Object v;
-    String type;
+    public static final String STRING = "string";
+    public static final String NUMBER = "number";
+    public static final String BOOLEAN = "boolean";
+    public static final String NULL = "null";
+    public static final String OBJECT = "obj";
+    public static final String ARRAY = "array";
+
+    static final byte LONG = 1;
+    static final byte DOUBLE = 2;
+    static final byte BIG = 3;
+
+    /**
+     * 字符串、布尔值、小数及大数的原文；由Java对象创建时给定的对象和数组
+     */
+    final Object raw;
+    final String type;
+    final byte kind;
+    final long bits;
+    /**
+     * 延迟解析的原文：String或UTF-8字节的ByteBuffer，范围为start到end
+     */
+    final Object source;
+    final int start;
+    final int end;
+    /**
+     * 对象、数组及UTF-8字符串首次访问时的解析结果，是唯一在构造之后写入的字段；
+     * 其余字段均为final，实例经数据竞争发布也能被其他线程完整看到
+     */
+    private volatile Object v;
 
     public Object get() {
-        return v;
+        switch (type) {
+            case NUMBER:
+                return kind == LONG ? (Object) bits : kind == DOUBLE ? (Object) Double.longBitsToDouble(bits)
+                        : new BigDecimal((String) raw);
+            case OBJECT:
+                return getJSON();
+            case ARRAY:
+                return getArray();
+            case STRING:
+                return string();
+            default:
+                return raw;
+        }
     }
 
-    public void set(String v, String type) {
-        this.v = v;
-        this.type = type;
+    public String getType() {
+        return type;
     }
 
+    /**
+     * 由Java对象创建：String、Boolean、整数及浮点数类型、BigDecimal、BigInteger、JSON、JSONArray分别对应相应的JSON类型，
+     * 其他对象按toString作为字符串
+     *
+     * @param v 值，可为null
+     */
     public JSONObj(Object v) {
-        this.setJ(v.toString());
+        this(rawOf(v), typeOf(v), kindOf(v), bitsOf(v), null, 0, 0);
+    }
+
+    JSONObj(Object raw, String type) {
+        this(raw, type, (byte) 0, 0, null, 0, 0);
+    }
+
+    private JSONObj(Object raw, String type, byte kind, long bits, Object source, int start, int end) {
+        this.raw = raw;
+        this.type = type;
+        this.kind = kind;
+        this.bits = bits;
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    private static Object rawOf(Object v) {
+        if (v == null || v instanceof Boolean || v instanceof JSON || v instanceof JSONArray) {
+            return v;
+        }
+        return isIntegral(v) || v instanceof Double || v instanceof Float ? null : v.toString();
+    }
+
+    private static String typeOf(Object v) {
+        if (v == null) {
+            return NULL;
+        }
+        if (v instanceof Boolean) {
+            return BOOLEAN;
+        }
+        if (v instanceof Number && kindOf(v) != 0) {
+            return NUMBER;
+        }
+        return v instanceof JSON ? OBJECT : v instanceof JSONArray ? ARRAY : STRING;
+    }
+
+    private static byte kindOf(Object v) {
+        if (isIntegral(v)) {
+            return LONG;
+        }
+        if (v instanceof Double || v instanceof Float) {
+            return DOUBLE;
+        }
+        return v instanceof BigDecimal || v instanceof BigInteger ? BIG : 0;
+    }
+
+    private static long bitsOf(Object v) {
+        if (isIntegral(v)) {
+            return ((Number) v).longValue();
+        }
+        return v instanceof Double || v instanceof Float
+                ? Double.doubleToRawLongBits(((Number) v).doubleValue()) : 0;
+    }
+
+    private static boolean isIntegral(Object v) {
+        return v instanceof Long || v instanceof Integer || v instanceof Short || v instanceof Byte;
+    }
+
+    static JSONObj ofLong(long value) {
+        return new JSONObj(null, NUMBER, LONG, value, null, 0, 0);
+    }
+
+    /**
+     * @param text 小数或大数的原文
+     */
+    static JSONObj ofNumber(String text, boolean decimal) {
+        return decimal
+                ? new JSONObj(text, NUMBER, DOUBLE, Double.doubleToRawLongBits(Double.parseDouble(text)), null, 0, 0)
+                : new JSONObj(text, NUMBER, BIG, 0, null, 0, 0);
     }
 
-    private void setJ(Object v) {
-        this.v = v;
+    /**
+     * 延迟解析的对象或数组
+     */
+    static JSONObj lazy(String src, int start, int end, String type) {
+        return new JSONObj(null, type, (byte) 0, 0, src, start, end);
+    }
+
+    /**
+     * 延迟解码的UTF-8字符串（不含引号）、对象或数组
+     */
+    static JSONObj utf8(ByteBuffer bytes, int start, int end, String type) {
+        return new JSONObj(null, type, (byte) 0, 0, bytes, start, end);
+    }
+
+    public boolean isNull() {
+        return NULL.equals(type);
+    }
+
+    /**
+     * @return 字符串值；数字和布尔值返回其文本，null返回null
+     * @throws CikException 值为对象或数组
+     */
+    public String getString() {
+        switch (type) {
+            case STRING:
+                return string();
+            case NULL:
+                return null;
+            case BOOLEAN:
+                return raw.toString();
+            case NUMBER:
+                return kind == LONG ? Long.toString(bits) : (String) raw;
+            case OBJECT:
+                throw new CikException(ErrorCode.FAIL.code(), "值是一个JSON对象，请使用getJSON方法！");
+            default:
+                throw new CikException(ErrorCode.FAIL.code(), "值是一个JSON数组，请使用getArray方法！");
+        }
+    }
+
+    /**
+     * @return 整数值，小数按截断取整；字符串形式的数字会被解析
+     * @throws CikException 值不是数字或超出long范围
+     */
+    public long getLong() {
+        if (NUMBER.equals(type)) {
+            switch (kind) {
+                case LONG:
+                    return bits;
+                case DOUBLE: {
+                    double d = Double.longBitsToDouble(bits);
+                    // long的范围为[-2^63, 2^63)；NaN的比较结果均为false，同样视为超出范围
+                    if (!(d >= -0x1p63 && d < 0x1p63)) {
+                        throw new CikException(ErrorCode.FAIL.code(), "数值超出long范围: " + d);
+                    }
+                    return (long) d;
+                }
+                default:
+                    try {
+                        return new BigDecimal((String) raw).longValueExact();
+                    } catch (ArithmeticException e) {
+                        throw new CikException(ErrorCode.FAIL.code(), "数值超出long范围: " + raw);
+                    }
+            }
+        }
+        if (STRING.equals(type)) {
+            return JSONTokenizer.parseNumber(string().trim()).getLong();
+        }
+        throw notNumber();
+    }
+
+    /**
+     * @return 整数值
+     * @throws CikException 值不是数字或超出int范围
+     */
+    public int getInt() {
+        long value = getLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new CikException(ErrorCode.FAIL.code(), "数值超出int范围: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * @return 浮点值；字符串形式的数字会被解析
+     * @throws CikException 值不是数字
+     */
+    public double getDouble() {
+        if (NUMBER.equals(type)) {
+            switch (kind) {
+                case LONG:
+                    return bits;
+                case DOUBLE:
+                    return Double.longBitsToDouble(bits);
+                default:
+                    return Double.parseDouble((String) raw);
+            }
+        }
+        if (STRING.equals(type)) {
+            return JSONTokenizer.parseNumber(string().trim()).getDouble();
+        }
+        throw notNumber();
+    }
+
+    /**
+     * @return 精确的十进制值
+     * @throws CikException 值不是数字
+     */
+    public BigDecimal getBigDecimal() {
+        if (NUMBER.equals(type)) {
+            return kind == LONG ? BigDecimal.valueOf(bits) : new BigDecimal((String) raw);
+        }
+        if (STRING.equals(type)) {
+            return JSONTokenizer.parseNumber(string().trim()).getBigDecimal();
+        }
+        throw notNumber();
+    }
+
+    /**
+     * @return 布尔值；字符串"true"/"false"会被解析
+     * @throws CikException 值不是布尔值
+     */
+    public boolean getBoolean() {
+        if (BOOLEAN.equals(type)) {
+            return (Boolean) raw;
+        }
+        if (STRING.equals(type)) {
+            String text = string();
+            if ("true".equals(text)) {
+                return true;
+            }
+            if ("false".equals(text)) {
+                return false;
+            }
+        }
+        throw new CikException(ErrorCode.FAIL.code(), "值不是布尔值: " + this);
+    }
+
+    /**
+     * @return 对象值，首次调用时解析并缓存；值为null时返回null
+     * @throws CikException 值不是对象
+     */
+    public JSON getJSON() {
+        if (NULL.equals(type)) {
+            return null;
+        }
+        if (!OBJECT.equals(type)) {
+            throw new CikException(ErrorCode.FAIL.code(), ARRAY.equals(type)
+                    ? "值是一个JSON数组，请使用getArray方法！" : "值不是JSON对象，请使用get方法！");
+        }
+        Object parsed = raw != null ? raw : v;
+        if (parsed == null) {
+            // 并发首次访问时可能重复解析，结果等价，以最后写入的为准
+            parsed = source instanceof ByteBuffer ? new JSON((ByteBuffer) source, start, end)
+                    : new JSON(new JSONTokenizer((String) source, start, end).parseObject());
+            v = parsed;
+        }
+        return (JSON) parsed;
+    }
+
+    /**
+     * @return 数组值，值为null时返回null；元素在首次按下标访问时解析并缓存
+     * @throws CikException 值不是数组
+     */
+    public JSONArray getArray() {
+        if (NULL.equals(type)) {
+            return null;
+        }
+        if (!ARRAY.equals(type)) {
+            throw new CikException(ErrorCode.FAIL.code(), OBJECT.equals(type)
+                    ? "值是一个JSON对象，请使用getJSON方法！" : "值不是JSON数组，请使用get方法！");
+        }
+        Object parsed = raw != null ? raw : v;
+        if (parsed == null) {
+            parsed = source instanceof ByteBuffer ? new JSONArray((ByteBuffer) source, start, end)
+                    : new JSONArray((String) source, start, end);
+            v = parsed;
+        }
+        return (JSONArray) parsed;
+    }
+
+    /**
+     * @return 字符串值，UTF-8字节形式的在首次调用时解码并缓存
+     */
+    private String string() {
+        if (raw != null || source == null) {
+            return (String) raw;
+        }
+        Object text = v;
+        if (text == null) {
+            text = Utf8Tokenizer.decodeString((ByteBuffer) source, start, end);
+            v = text;
+        }
+        return (String) text;
+    }
 
-        if (v instanceof Integer) this.type = "int";
-        else if (v instanceof Boolean) this.type = "boolean";
-        else if (v.toString().startsWith("{") && v.toString().endsWith("}")) type = "obj";
-        else if (v.toString().startsWith("[") && v.toString().endsWith("]")) type = "array";
-        else type = "string";
+    private CikException notNumber() {
+        return new CikException(ErrorCode.FAIL.code(), "值不是数字: " + this);
     }
 
     @Override
     public String toString() {
-        return v.toString();
+        if (OBJECT.equals(type) || ARRAY.equals(type)) {
+            Object parsed = raw != null ? raw : v;
+            if (parsed == null && source instanceof String) {
+                return ((String) source).substring(start, end);
+            }
+            if (parsed == null && source != null) {
+                return Utf8Tokenizer.decode((ByteBuffer) source, start, end);
+            }
+            return String.valueOf(get());
+        }
+        return NULL.equals(type) ? "null" : getString();
     }
 }
@@ -0,0 +1,352 @@
+package cn.cikian.utils.http.enitry;
+
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JSON对象的形状，即按出现顺序排列的键名<br>
+ * 键相同、顺序相同的对象共享同一个形状，对象本身只保存与键名一一对应的值数组，
+ * 大量同构记录不再各自持有键名字符串和Map条目。形状由根形状逐键转移得到，转移结果被缓存，键名经符号表去重。<br>
+ * 为了不因键名千变万化（如以ID为键）而无限增长，共享有以下限制，超出限制只影响当前对象，
+ * 该对象改用不共享的形状，内存开销与不共享时相当：
+ * <ul>
+ *     <li>键数超过{@value #MAX_FIELDS}的对象不共享</li>
+ *     <li>单个对象最多新建{@value #MAX_NEW_SHAPES}个形状，同构的宽记录会在之后几次出现中逐步建立完整的共享形状</li>
+ *     <li>前{@value #SHALLOW_DEPTH}个键的转移数不限，更深的形状最多{@value #MAX_TRANSITIONS}个转移</li>
+ * </ul>
+ * 形状表按代淘汰：一代中新建的形状超过{@value #MAX_SHAPES}个时，换用新的根形状并清空符号表，
+ * 此后常用的形状会被重新建立；旧的形状仍被已解析的对象引用，随这些对象一起回收
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 23:58
+ */
+
+final class JSONShape {
+    private static final int MAX_SYMBOLS = 8192;
+    private static final int MAX_SYMBOL_LENGTH = 64;
+    private static final int MAX_SHAPES = 8192;
+    private static final int MAX_NEW_SHAPES = 16;
+    private static final int SHALLOW_DEPTH = 2;
+    private static final int MAX_TRANSITIONS = 32;
+    private static final int MAX_FIELDS = 128;
+    /**
+     * 键数超过此值时建立哈希索引，否则顺序比较
+     */
+    private static final int LINEAR_SEARCH = 16;
+
+    private static final ConcurrentHashMap<String, String> SYMBOLS = new ConcurrentHashMap<>();
+    /**
+     * 当前一代已新建的形状数
+     */
+    private static final AtomicInteger SHAPES = new AtomicInteger();
+
+    /**
+     * 不共享的空形状，不引用任何一代的形状表
+     */
+    static final JSONShape EMPTY = new JSONShape(new String[0], false);
+    /**
+     * 当前一代的根形状
+     */
+    private static volatile JSONShape root = new JSONShape(new String[0], true);
+
+    private final String[] keys;
+    private final int[] hashes;
+    private final Map<String, Integer> index;
+    /**
+     * 不共享的形状为null
+     */
+    private final ConcurrentHashMap<String, JSONShape> transitions;
+    /**
+     * 最后一个键不含引号、反斜杠和控制字符，原文与键名逐字符相同，可用于预测
+     */
+    private final boolean predictable;
+    /**
+     * 最近一次转移的键名，解析同构记录时用来预测下一个键
+     */
+    private volatile String next;
+    private volatile Set<String> keySet;
+
+    private JSONShape(String[] keys, boolean shared) {
+        this.keys = keys;
+        this.transitions = shared ? new ConcurrentHashMap<>(4) : null;
+        this.predictable = keys.length > 0 && plain(keys[keys.length - 1]);
+        if (keys.length > LINEAR_SEARCH) {
+            Map<String, Integer> map = new HashMap<>(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                map.put(keys[i], i);
+            }
+            this.index = map;
+            this.hashes = null;
+        } else {
+            this.index = null;
+            this.hashes = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                hashes[i] = keys[i].hashCode();
+            }
+        }
+    }
+
+    /**
+     * @return 符号表中与key相等的字符串；key过长时返回key本身，符号表已满时清空后重新收集
+     */
+    private static String symbol(String key) {
+        String symbol = SYMBOLS.get(key);
+        if (symbol != null) {
+            return symbol;
+        }
+        if (key.length() > MAX_SYMBOL_LENGTH) {
+            return key;
+        }
+        if (SYMBOLS.size() >= MAX_SYMBOLS) {
+            SYMBOLS.clear();
+        }
+        symbol = SYMBOLS.putIfAbsent(key, key);
+        return symbol != null ? symbol : key;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    String key(int i) {
+        return keys[i];
+    }
+
+    /**
+     * @return 键的下标，不存在时返回-1
+     */
+    int indexOf(String key) {
+        if (index != null) {
+            Integer i = index.get(key);
+            return i == null ? -1 : i;
+        }
+        int h = key.hashCode();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == key || (hashes[i] == h && keys[i].equals(key))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return 只读的键集合，保持原始顺序，同一形状的对象共享
+     */
+    Set<String> keySet() {
+        Set<String> set = keySet;
+        if (set == null) {
+            set = new KeySet();
+            keySet = set;
+        }
+        return set;
+    }
+
+    /**
+     * @return 预测的下一个键，没有时返回null
+     */
+    String predict() {
+        return transitions != null ? next : null;
+    }
+
+    /**
+     * 已缓存的转移，不创建新形状
+     */
+    private JSONShape cached(String key) {
+        if (transitions == null) {
+            return null;
+        }
+        JSONShape child = transitions.get(key);
+        if (child != null) {
+            remember(child);
+        }
+        return child;
+    }
+
+    private void remember(JSONShape child) {
+        String key = child.keys[keys.length];
+        if (child.predictable && next != key) {
+            next = key;
+        }
+    }
+
+    private static boolean plain(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 追加一个不在当前形状中的键
+     *
+     * @return 共享的新形状，超出上限时返回null
+     */
+    private JSONShape with(String key) {
+        JSONShape child = cached(key);
+        if (child != null || transitions == null) {
+            return child;
+        }
+        if (keys.length >= MAX_FIELDS
+                || (keys.length >= SHALLOW_DEPTH && transitions.size() >= MAX_TRANSITIONS)) {
+            return null;
+        }
+        String symbol = symbol(key);
+        child = transitions.computeIfAbsent(symbol, k -> {
+            SHAPES.incrementAndGet();
+            return new JSONShape(append(keys, k), true);
+        });
+        if (SHAPES.get() > MAX_SHAPES) {
+            renew();
+        }
+        remember(child);
+        return child;
+    }
+
+    /**
+     * 开始新的一代：换用新的根形状并清空符号表；正在构造的对象仍在旧的形状表中继续
+     */
+    private static synchronized void renew() {
+        if (SHAPES.get() > MAX_SHAPES) {
+            root = new JSONShape(new String[0], true);
+            SYMBOLS.clear();
+            SHAPES.set(0);
+        }
+    }
+
+    private static String[] append(String[] keys, String key) {
+        String[] copy = Arrays.copyOf(keys, keys.length + 1);
+        copy[keys.length] = key;
+        return copy;
+    }
+
+    /**
+     * 逐个加入键值对，构造形状与值数组；重复的键以最后出现的值为准，位置保持首次出现时的位置
+     */
+    static final class Builder {
+        private JSONShape shape = root;
+        /**
+         * 超出共享上限后改为自行收集键名
+         */
+        private String[] keys;
+        private Map<String, Integer> detached;
+        private JSONObj[] values = new JSONObj[8];
+        private int size;
+        /**
+         * 本对象已新建的形状数
+         */
+        private int created;
+
+        /**
+         * @return 预测的下一个键，没有时返回null
+         */
+        String predict() {
+            return keys == null ? shape.predict() : null;
+        }
+
+        void put(String key, JSONObj value) {
+            if (keys == null) {
+                // 已缓存的转移一定不是重复的键，省去查找
+                JSONShape child = shape.cached(key);
+                if (child == null) {
+                    int i = shape.indexOf(key);
+                    if (i >= 0) {
+                        values[i] = value;
+                        return;
+                    }
+                    if (created < MAX_NEW_SHAPES) {
+                        created++;
+                        child = shape.with(key);
+                    }
+                }
+                if (child != null) {
+                    shape = child;
+                    add(value);
+                    return;
+                }
+                detach();
+            }
+            Integer i = detached.get(key);
+            if (i != null) {
+                values[i] = value;
+                return;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            // 不共享的键多为ID之类的一次性键名，不进入符号表
+            keys[size] = key;
+            detached.put(key, size);
+            add(value);
+        }
+
+        private void add(JSONObj value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void detach() {
+            keys = Arrays.copyOf(shape.keys, Math.max(8, size * 2));
+            detached = new HashMap<>(size * 4);
+            for (int i = 0; i < size; i++) {
+                detached.put(keys[i], i);
+            }
+        }
+
+        JSONShape shape() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            return keys == null ? shape : new JSONShape(Arrays.copyOf(keys, size), false);
+        }
+
+        JSONObj[] values() {
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+    }
+
+    private final class KeySet extends AbstractSet<String> {
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<String>() {
+                private int i;
+
+                @Override
+                public boolean hasNext() {
+                    return i < keys.length;
+                }
+
+                @Override
+                public String next() {
+                    if (i >= keys.length) {
+                        throw new NoSuchElementException();
+                    }
+                    return keys[i++];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof String && indexOf((String) o) >= 0;
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package cn.cikian.utils.http.enitry;
+
+
+import cn.cikian.code.ErrorCode;
+import cn.cikian.exception.CikException;
+
+import java.util.Arrays;
+
+/**
+ * 单遍扫描的JSON词法解析器，逐字符推进，不使用正则表达式<br>
+ * 字符串不含转义时直接截取原文，含转义时才经由复用的缓冲区解码；整数在扫描时直接累加为long，不产生中间字符串；
+ * 嵌套的对象和数组只校验括号配对并记录位置，在被访问时再解析
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 20:40
+ */
+
+final class JSONTokenizer {
+    private final String src;
+    private final int end;
+    private int pos;
+    private StringBuilder buf;
+    private char[] brackets = new char[16];
+    private int elements;
+
+    JSONTokenizer(String src) {
+        this(src, 0, src.length());
+    }
+
+    /**
+     * @param src   原文
+     * @param start 解析范围的起始位置
+     * @param end   解析范围的结束位置（不含）
+     */
+    JSONTokenizer(String src, int start, int end) {
+        this.src = src;
+        this.pos = start;
+        this.end = end;
+    }
+
+    /**
+     * 解析一个数字文本
+     *
+     * @param text 数字文本
+     * @return 数字值
+     * @throws CikException 不是合法的JSON数字
+     */
+    static JSONObj parseNumber(String text) {
+        JSONTokenizer tokenizer = new JSONTokenizer(text);
+        JSONObj value = tokenizer.readNumber();
+        if (tokenizer.pos != tokenizer.end) {
+            throw tokenizer.error("非法的数字", 0);
+        }
+        return value;
+    }
+
+    /**
+     * 解析范围内的对象，对象之后只允许出现空白
+     *
+     * @return 键值对，保持原始顺序
+     */
+    JSONShape.Builder parseObject() {
+        skipWhitespace();
+        expect('{');
+        JSONShape.Builder object = new JSONShape.Builder();
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+        } else {
+            while (true) {
+                skipWhitespace();
+                expect('"');
+                String key = readKey(object.predict());
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                object.put(key, readValue());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    break;
+                }
+                if (c != ',') {
+                    throw error("应为','或'}'", pos - 1);
+                }
+            }
+        }
+        skipWhitespace();
+        if (pos < end) {
+            throw error("对象结束后存在多余内容", pos);
+        }
+        return object;
+    }
+
+    /**
+     * 解析范围内的数组，数组之后只允许出现空白
+     *
+     * @return 数组元素
+     */
+    JSONObj[] parseArray() {
+        beginArray();
+        JSONObj[] items = new JSONObj[8];
+        int size = 0;
+        JSONObj item;
+        while ((item = nextElement()) != null) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = item;
+        }
+        return size == items.length ? items : Arrays.copyOf(items, size);
+    }
+
+    /**
+     * 开始逐个读取数组元素，之后反复调用{@link #nextElement()}
+     */
+    void beginArray() {
+        skipWhitespace();
+        expect('[');
+        elements = 0;
+    }
+
+    /**
+     * 读取下一个数组元素，嵌套的对象和数组仍延迟解析
+     *
+     * @return 元素，数组结束时返回null
+     */
+    JSONObj nextElement() {
+        skipWhitespace();
+        if (elements > 0) {
+            char c = next();
+            if (c == ']') {
+                endArray();
+                return null;
+            }
+            if (c != ',') {
+                throw error("应为','或']'", pos - 1);
+            }
+            skipWhitespace();
+        } else if (peek() == ']') {
+            pos++;
+            endArray();
+            return null;
+        }
+        elements++;
+        return readValue();
+    }
+
+    private void endArray() {
+        skipWhitespace();
+        if (pos < end) {
+            throw error("数组结束后存在多余内容", pos);
+        }
+    }
+
+    private JSONObj readValue() {
+        char c = peek();
+        switch (c) {
+            case '"':
+                pos++;
+                return new JSONObj(readString(), JSONObj.STRING);
+            case '{':
+            case '[': {
+                int start = pos;
+                skipNested();
+                return JSONObj.lazy(src, start, pos, c == '{' ? JSONObj.OBJECT : JSONObj.ARRAY);
+            }
+            case 't':
+                literal("true");
+                return new JSONObj(Boolean.TRUE, JSONObj.BOOLEAN);
+            case 'f':
+                literal("false");
+                return new JSONObj(Boolean.FALSE, JSONObj.BOOLEAN);
+            case 'n':
+                literal("null");
+                return new JSONObj(null, JSONObj.NULL);
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return readNumber();
+                }
+                throw error("非法的值", pos);
+        }
+    }
+
+    /**
+     * 读取键名，调用前已越过起始引号；与预测的键相同时直接返回预测的键，不创建新字符串
+     *
+     * @param guess 预测的键，可为null
+     */
+    private String readKey(String guess) {
+        if (guess != null) {
+            int n = guess.length();
+            if (pos + n < end && src.charAt(pos + n) == '"' && src.regionMatches(pos, guess, 0, n)) {
+                pos += n + 1;
+                return guess;
+            }
+        }
+        return readString();
+    }
+
+    /**
+     * 读取字符串内容，调用前已越过起始引号
+     */
+    private String readString() {
+        int start = pos;
+        while (pos < end) {
+            char c = src.charAt(pos);
+            if (c == '"') {
+                return src.substring(start, pos++);
+            }
+            if (c == '\\') {
+                return readEscaped(start);
+            }
+            if (c < 0x20) {
+                throw error("字符串中存在未转义的控制字符", pos);
+            }
+            pos++;
+        }
+        throw error("字符串未结束", start - 1);
+    }
+
+    private String readEscaped(int start) {
+        StringBuilder sb = buf == null ? (buf = new StringBuilder(64)) : buf;
+        sb.setLength(0);
+        sb.append(src, start, pos);
+        while (pos < end) {
+            char c = src.charAt(pos++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c < 0x20) {
+                throw error("字符串中存在未转义的控制字符", pos - 1);
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= end) {
+                break;
+            }
+            char e = src.charAt(pos++);
+            switch (e) {
+                case '"':
+                case '\\':
+                case '/':
+                    sb.append(e);
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    sb.append(readHex4());
+                    break;
+                default:
+                    throw error("非法的转义字符", pos - 1);
+            }
+        }
+        throw error("字符串未结束", start - 1);
+    }
+
+    private char readHex4() {
+        if (pos + 4 > end) {
+            throw error("非法的unicode转义", pos);
+        }
+        int v = 0;
+        for (int i = 0; i < 4; i++) {
+            char h = src.charAt(pos++);
+            int d;
+            if (h >= '0' && h <= '9') {
+                d = h - '0';
+            } else if (h >= 'a' && h <= 'f') {
+                d = h - 'a' + 10;
+            } else if (h >= 'A' && h <= 'F') {
+                d = h - 'A' + 10;
+            } else {
+                throw error("非法的unicode转义", pos - 1);
+            }
+            v = (v << 4) | d;
+        }
+        return (char) v;
+    }
+
+    /**
+     * 读取数字：-?(0|[1-9][0-9]*)(.[0-9]+)?([eE][+-]?[0-9]+)?<br>
+     * 不超过18位的整数边扫描边累加，不产生字符串；小数及更长的整数截取原文
+     */
+    private JSONObj readNumber() {
+        int start = pos;
+        boolean negative = peek() == '-';
+        if (negative) {
+            pos++;
+        }
+        char c = peek();
+        long value = 0;
+        int digits = 0;
+        if (c == '0') {
+            pos++;
+            digits = 1;
+        } else if (c >= '1' && c <= '9') {
+            while (pos < end && isDigit(c = src.charAt(pos))) {
+                value = value * 10 + (c - '0');
+                digits++;
+                pos++;
+            }
+        } else {
+            throw error("非法的数字", start);
+        }
+        c = peek();
+        if (c != '.' && c != 'e' && c != 'E') {
+            if (digits <= 18) {
+                return JSONObj.ofLong(negative ? -value : value);
+            }
+            return JSONObj.ofNumber(src.substring(start, pos), false);
+        }
+        if (c == '.') {
+            pos++;
+            if (!isDigit(peek())) {
+                throw error("小数点后缺少数字", start);
+            }
+            skipDigits();
+        }
+        c = peek();
+        if (c == 'e' || c == 'E') {
+            pos++;
+            c = peek();
+            if (c == '+' || c == '-') {
+                pos++;
+            }
+            if (!isDigit(peek())) {
+                throw error("指数缺少数字", start);
+            }
+            skipDigits();
+        }
+        return JSONObj.ofNumber(src.substring(start, pos), true);
+    }
+
+    private void skipDigits() {
+        while (pos < end && isDigit(src.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * 跳过一个完整的对象或数组，只跟踪字符串边界和括号配对，不逐个解析其中的值
+     */
+    private void skipNested() {
+        int start = pos;
+        int depth = 0;
+        while (pos < end) {
+            char c = src.charAt(pos++);
+            switch (c) {
+                case '{':
+                case '[':
+                    if (depth == brackets.length) {
+                        brackets = Arrays.copyOf(brackets, depth * 2);
+                    }
+                    brackets[depth++] = c == '{' ? '}' : ']';
+                    break;
+                case '}':
+                case ']':
+                    if (brackets[--depth] != c) {
+                        throw error("括号不匹配", pos - 1);
+                    }
+                    if (depth == 0) {
+                        return;
+                    }
+                    break;
+                case '"':
+                    skipString();
+                    break;
+                default:
+                    break;
+            }
+        }
+        throw error("对象或数组未结束", start);
+    }
+
+    private void skipString() {
+        int start = pos - 1;
+        while (pos < end) {
+            char c = src.charAt(pos++);
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                pos++;
+            }
+        }
+        throw error("字符串未结束", start);
+    }
+
+    private void literal(String word) {
+        if (!src.startsWith(word, pos)) {
+            throw error("非法的值", pos);
+        }
+        pos += word.length();
+    }
+
+    private void skipWhitespace() {
+        while (pos < end) {
+            char c = src.charAt(pos);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private char peek() {
+        return pos < end ? src.charAt(pos) : 0;
+    }
+
+    private char next() {
+        if (pos >= end) {
+            throw error("JSON意外结束", pos);
+        }
+        return src.charAt(pos++);
+    }
+
+    private void expect(char c) {
+        if (pos >= end || src.charAt(pos) != c) {
+            throw error("应为'" + c + "'", pos);
+        }
+        pos++;
+    }
+
+    private CikException error(String message, int at) {
+        return new CikException(ErrorCode.FAIL.code(), "JSON格式错误：" + message + "，位置" + at);
+    }
+}
@@ -0,0 +1,356 @@
+package cn.cikian.utils.http.enitry;
+
+
+import cn.cikian.code.ErrorCode;
+import cn.cikian.exception.CikException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * JSON Lines（NDJSON）读取器，每行一个JSON对象，空行被忽略<br>
+ * 输入按字节切分为批次，批次在线程池中并行解析，解析结果在调用{@link #forEach(Consumer)}的线程上交给consumer，
+ * consumer无需考虑线程安全。同时未交付的批次数不超过{@link #setMaxPendingBatches(int)}，
+ * consumer处理较慢时不再读取新的输入，内存占用有上限。<br>
+ * 各行直接由UTF-8字节解析（见{@link JSON#JSON(ByteBuffer)}），不解码为字符串；
+ * 解析结果引用所在批次的字节，长期保留少量记录时可能连带保留整个批次
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/18 00:20
+ */
+
+public class JsonLinesReader implements Closeable {
+    private static final int DEFAULT_BATCH_BYTES = 1 << 20;
+
+    private final InputStream in;
+    private final ByteBuffer buffer;
+    private Executor executor = ForkJoinPool.commonPool();
+    private int batchBytes = DEFAULT_BATCH_BYTES;
+    private int maxPendingBatches = Math.max(2, ForkJoinPool.getCommonPoolParallelism() * 2);
+    private boolean ordered = true;
+
+    private final LinkedBlockingQueue<Batch> done = new LinkedBlockingQueue<>();
+    private volatile boolean cancelled;
+    private byte[] carry = new byte[0];
+    private long offset;
+    private boolean eof;
+
+    /**
+     * @param in UTF-8编码的输入流，如文件或HTTP响应体
+     */
+    public JsonLinesReader(InputStream in) {
+        this.in = in;
+        this.buffer = null;
+    }
+
+    /**
+     * @param utf8 UTF-8字节，范围为position到limit，不改变其position；可为内存映射文件，批次直接引用其中的数据，不复制
+     */
+    public JsonLinesReader(ByteBuffer utf8) {
+        this.in = null;
+        this.buffer = utf8.duplicate();
+    }
+
+    /**
+     * 读取文件，不超过2GB时以内存映射方式读取，否则按输入流读取
+     *
+     * @param file 文件
+     * @return 读取器
+     * @throws IOException 文件无法打开
+     */
+    public static JsonLinesReader open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() <= Integer.MAX_VALUE) {
+                return new JsonLinesReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+        return new JsonLinesReader(Files.newInputStream(file));
+    }
+
+    /**
+     * @param executor 解析批次的线程池，默认为{@link ForkJoinPool#commonPool()}
+     * @return this
+     */
+    public JsonLinesReader setExecutor(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor不能为null");
+        }
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * @param batchBytes 每批的字节数，默认1MB；超过此长度的单行自成一批
+     * @return this
+     */
+    public JsonLinesReader setBatchBytes(int batchBytes) {
+        if (batchBytes <= 0) {
+            throw new IllegalArgumentException("批次大小必须大于0");
+        }
+        this.batchBytes = batchBytes;
+        return this;
+    }
+
+    /**
+     * @param maxPendingBatches 已读取但尚未交给consumer的批次上限，默认为并行度的2倍
+     * @return this
+     */
+    public JsonLinesReader setMaxPendingBatches(int maxPendingBatches) {
+        if (maxPendingBatches <= 0) {
+            throw new IllegalArgumentException("批次上限必须大于0");
+        }
+        this.maxPendingBatches = maxPendingBatches;
+        return this;
+    }
+
+    /**
+     * @param ordered 为true（默认）时按行的顺序交付；为false时按批次解析完成的顺序交付，批次内仍保持顺序
+     * @return this
+     */
+    public JsonLinesReader setOrdered(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    /**
+     * 读取全部输入，把每行的对象交给consumer；只能调用一次<br>
+     * 某行解析失败时，有序模式下先交付该行之前的全部记录再抛出异常；
+     * 其他线程调用{@link #close()}时，交付完已解析的批次后视为输入结束
+     *
+     * @param consumer 处理者，在当前线程上调用
+     * @return 读取的对象数
+     * @throws IOException  读取异常
+     * @throws CikException 某行不是合法的JSON对象（信息中包含该行的字节偏移），或consumer抛出的异常
+     */
+    public long forEach(Consumer<? super JSON> consumer) throws IOException {
+        // 有序模式下按读取顺序排队；无序模式下只存放刚解析完的一批
+        ArrayDeque<Batch> pending = new ArrayDeque<>();
+        long count = 0;
+        int outstanding = 0;
+        try {
+            while (true) {
+                while (outstanding < maxPendingBatches && !cancelled) {
+                    Batch batch = nextBatch();
+                    if (batch == null) {
+                        break;
+                    }
+                    outstanding++;
+                    if (ordered) {
+                        pending.add(batch);
+                    }
+                    executor.execute(batch);
+                }
+                if (outstanding == 0) {
+                    return count;
+                }
+                Batch batch = take();
+                batch.completed = true;
+                if (!ordered) {
+                    pending.add(batch);
+                }
+                while (!pending.isEmpty() && pending.peek().completed) {
+                    Batch next = pending.poll();
+                    outstanding--;
+                    if (next.error != null) {
+                        if (ordered && next.records != null) {
+                            deliver(next, consumer);
+                        }
+                        throw next.error;
+                    }
+                    if (next.records == null) {
+                        // 被close()取消，未解析
+                        return count;
+                    }
+                    count += deliver(next, consumer);
+                }
+            }
+        } finally {
+            // 出错时尚未开始的批次不再解析
+            cancelled = true;
+        }
+    }
+
+    private Batch take() {
+        try {
+            return done.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CikException(ErrorCode.FAIL.code(), "读取JSON Lines时被中断", e);
+        }
+    }
+
+    private static int deliver(Batch batch, Consumer<? super JSON> consumer) {
+        for (JSON json : batch.records) {
+            consumer.accept(json);
+        }
+        return batch.records.length;
+    }
+
+    /**
+     * 切出下一批，批次以换行结束（输入末尾除外）
+     *
+     * @return 批次，输入结束时返回null
+     */
+    private Batch nextBatch() throws IOException {
+        if (buffer != null) {
+            int start = buffer.position();
+            int limit = buffer.limit();
+            if (start == limit) {
+                return null;
+            }
+            int end = start + Math.min(batchBytes, limit - start);
+            while (end < limit && buffer.get(end - 1) != '\n') {
+                end++;
+            }
+            buffer.position(end);
+            return new Batch(buffer, start, end, start);
+        }
+        if (eof) {
+            return null;
+        }
+        byte[] data = Arrays.copyOf(carry, Math.max(batchBytes, carry.length * 2));
+        int size = carry.length;
+        while (true) {
+            int n;
+            try {
+                n = in.read(data, size, data.length - size);
+            } catch (IOException e) {
+                if (cancelled) {
+                    // 其他线程关闭了输入流
+                    eof = true;
+                    return null;
+                }
+                throw e;
+            }
+            if (n < 0) {
+                eof = true;
+                break;
+            }
+            size += n;
+            if (size == data.length) {
+                int last = lastNewline(data, size);
+                if (last >= 0) {
+                    carry = Arrays.copyOfRange(data, last + 1, size);
+                    size = last + 1;
+                    break;
+                }
+                // 单行超过批次大小
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+        }
+        if (eof) {
+            carry = new byte[0];
+            if (size == 0) {
+                return null;
+            }
+        }
+        Batch batch = new Batch(ByteBuffer.wrap(data), 0, size, offset);
+        offset += size;
+        return batch;
+    }
+
+    private static int lastNewline(byte[] data, int size) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (data[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 关闭输入；可在其他线程上调用以提前结束{@link #forEach(Consumer)}，尚未开始解析的批次被丢弃
+     */
+    @Override
+    public void close() throws IOException {
+        cancelled = true;
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    private final class Batch implements Runnable {
+        private final ByteBuffer bytes;
+        private final int start;
+        private final int end;
+        private final long offset;
+        /**
+         * 解析结果，批次因取消而未解析时为null；解析失败时为出错行之前的记录
+         */
+        private JSON[] records;
+        private CikException error;
+        /**
+         * 已从完成队列中取出，只在调用forEach的线程上访问
+         */
+        private boolean completed;
+
+        private Batch(ByteBuffer bytes, int start, int end, long offset) {
+            this.bytes = bytes;
+            this.start = start;
+            this.end = end;
+            this.offset = offset;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (!cancelled) {
+                    parse();
+                }
+            } catch (RuntimeException e) {
+                error = e instanceof CikException ? (CikException) e
+                        : new CikException(ErrorCode.FAIL.code(), "解析JSON Lines失败", e);
+            } finally {
+                done.add(this);
+            }
+        }
+
+        private void parse() {
+            List<JSON> list = new ArrayList<>();
+            int lineStart = start;
+            while (lineStart < end) {
+                int lineEnd = lineStart;
+                while (lineEnd < end && bytes.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                if (!blank(lineStart, lineEnd)) {
+                    try {
+                        list.add(new JSON(bytes, lineStart, lineEnd));
+                    } catch (CikException e) {
+                        // 保留出错行之前的记录，有序模式下先交付再抛出异常
+                        records = list.toArray(new JSON[0]);
+                        throw new CikException(e.getErrorCode(), "JSON Lines格式错误，行起始偏移"
+                                + (offset + lineStart - start) + "：" + e.getErrorDetail(), e);
+                    }
+                }
+                lineStart = lineEnd + 1;
+            }
+            records = list.toArray(new JSON[0]);
+        }
+
+        private boolean blank(int from, int to) {
+            for (int i = from; i < to; i++) {
+                byte b = bytes.get(i);
+                if (b != ' ' && b != '\t' && b != '\r') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,577 @@
+package cn.cikian.utils.http.enitry;
+
+
+import cn.cikian.code.ErrorCode;
+import cn.cikian.exception.CikException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 编译后的JSON路径表达式，编译一次后可在多个线程中重复使用<br>
+ * 支持的语法：
+ * <ul>
+ *     <li>{@code $}：根</li>
+ *     <li>{@code .name}、{@code ['name']}：对象成员</li>
+ *     <li>{@code [0]}、{@code [-1]}：数组下标，负数从末尾计数</li>
+ *     <li>{@code .*}、{@code [*]}：所有成员或元素</li>
+ *     <li>{@code [?(@.price < 10 && @.tag == 'a')]}：过滤，@为当前元素，可比较==、!=、&lt;、&lt;=、&gt;、&gt;=，
+ *     以&amp;&amp;、||组合，只写@.name时判断成员是否存在且不为null</li>
+ * </ul>
+ * 例如{@code $.data.items[*].id}。对{@link JsonReader}求值时只读取路径经过的部分，其余子树直接跳过而不解码；
+ * 过滤条件需要整个元素，此时只读取被过滤的元素
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 23:45
+ */
+
+public final class JsonPath {
+    private final String expression;
+    private final Step[] steps;
+
+    private JsonPath(String expression, Step[] steps) {
+        this.expression = expression;
+        this.steps = steps;
+    }
+
+    /**
+     * 编译路径表达式
+     *
+     * @param expression 路径表达式，以$开头
+     * @return 编译结果
+     * @throws CikException 语法错误
+     */
+    public static JsonPath compile(String expression) {
+        if (expression == null) {
+            throw new CikException(ErrorCode.INVALID_INPUT.code(), "JsonPath不能为null");
+        }
+        Parser parser = new Parser(expression);
+        parser.expect('$');
+        Step[] steps = parser.steps(false);
+        if (parser.pos < expression.length()) {
+            throw parser.error("多余的内容");
+        }
+        return new JsonPath(expression, steps);
+    }
+
+    /**
+     * @param json JSON对象
+     * @return 匹配的值，按文档顺序排列
+     */
+    public List<JSONObj> read(JSON json) {
+        return read(new JSONObj(json));
+    }
+
+    /**
+     * @param array JSON数组
+     * @return 匹配的值，按文档顺序排列
+     */
+    public List<JSONObj> read(JSONArray array) {
+        return read(new JSONObj(array));
+    }
+
+    /**
+     * @param node 值节点
+     * @return 匹配的值，按文档顺序排列
+     */
+    public List<JSONObj> read(JSONObj node) {
+        List<JSONObj> result = new ArrayList<>();
+        if (node != null) {
+            evaluate(node, 0, result::add);
+        }
+        return result;
+    }
+
+    /**
+     * @param json JSON对象
+     * @return 第一个匹配的值，没有匹配时返回null
+     */
+    public JSONObj readFirst(JSON json) {
+        List<JSONObj> result = read(json);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * 从读取器中读取下一个值并求值，不匹配的子树被跳过
+     *
+     * @param reader 读取器，位于一个值之前（如刚创建，或刚读到键名）
+     * @return 匹配的值，按文档顺序排列
+     * @throws IOException  读取异常
+     * @throws CikException JSON格式错误，或路径含负数下标
+     */
+    public List<JSONObj> read(JsonReader reader) throws IOException {
+        List<JSONObj> result = new ArrayList<>();
+        read(reader, result::add);
+        return result;
+    }
+
+    /**
+     * 从读取器中读取下一个值并求值，每找到一个匹配即交给consumer，匹配的值不会累积在内存中
+     *
+     * @param reader   读取器，位于一个值之前
+     * @param consumer 匹配值的处理者
+     * @throws IOException  读取异常
+     * @throws CikException JSON格式错误，或路径含负数下标
+     */
+    public void read(JsonReader reader, Consumer<JSONObj> consumer) throws IOException {
+        stream(reader, 0, consumer);
+    }
+
+    private void evaluate(JSONObj node, int index, Consumer<JSONObj> sink) {
+        if (index == steps.length) {
+            sink.accept(node);
+            return;
+        }
+        Step step = steps[index];
+        boolean object = JSONObj.OBJECT.equals(node.type);
+        boolean array = JSONObj.ARRAY.equals(node.type);
+        if (step.name != null) {
+            if (object) {
+                JSONObj child = node.getJSON().getObj(step.name);
+                if (child != null) {
+                    evaluate(child, index + 1, sink);
+                }
+            }
+        } else if (step.filter == null && !step.wildcard) {
+            if (array) {
+                JSONArray items = node.getArray();
+                int i = step.index < 0 ? items.size() + step.index : step.index;
+                if (i >= 0 && i < items.size()) {
+                    evaluate(items.getObj(i), index + 1, sink);
+                }
+            }
+        } else if (object) {
+            JSON json = node.getJSON();
+            for (String key : json.keySet()) {
+                JSONObj child = json.getObj(key);
+                if (step.filter == null || step.filter.test(child)) {
+                    evaluate(child, index + 1, sink);
+                }
+            }
+        } else if (array) {
+            for (JSONObj child : node.getArray()) {
+                if (step.filter == null || step.filter.test(child)) {
+                    evaluate(child, index + 1, sink);
+                }
+            }
+        }
+    }
+
+    /**
+     * 读取器位于一个值之前，读取（或跳过）这个值
+     */
+    private void stream(JsonReader reader, int index, Consumer<JSONObj> sink) throws IOException {
+        if (index == steps.length) {
+            sink.accept(reader.readValue());
+            return;
+        }
+        Step step = steps[index];
+        if (step.filter != null) {
+            // 过滤需要完整的元素，只读取当前容器中的元素，之后在节点上继续求值
+            JsonReader.Event event = reader.next();
+            if (event == JsonReader.Event.BEGIN_OBJECT || event == JsonReader.Event.BEGIN_ARRAY) {
+                while (reader.hasNext()) {
+                    if (event == JsonReader.Event.BEGIN_OBJECT) {
+                        reader.next();
+                    }
+                    JSONObj child = reader.readValue();
+                    if (step.filter.test(child)) {
+                        evaluate(child, index + 1, sink);
+                    }
+                }
+                reader.next();
+            }
+            return;
+        }
+        if (step.name == null && !step.wildcard && step.index < 0) {
+            throw new CikException(ErrorCode.FAIL.code(), "流式求值不支持负数下标: " + expression);
+        }
+        JsonReader.Event event = reader.next();
+        if (event == JsonReader.Event.BEGIN_OBJECT) {
+            while (reader.hasNext()) {
+                reader.next();
+                if (step.wildcard || (step.name != null && step.name.equals(reader.getName()))) {
+                    stream(reader, index + 1, sink);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.next();
+        } else if (event == JsonReader.Event.BEGIN_ARRAY) {
+            int i = 0;
+            while (reader.hasNext()) {
+                if (step.wildcard || (step.name == null && step.index == i)) {
+                    stream(reader, index + 1, sink);
+                } else {
+                    reader.skipValue();
+                }
+                i++;
+            }
+            reader.next();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /**
+     * 路径中的一步：name不为null时为对象成员；wildcard为所有成员；filter不为null时为过滤；否则为数组下标
+     */
+    private static final class Step {
+        private final String name;
+        private final int index;
+        private final boolean wildcard;
+        private final Filter filter;
+
+        private Step(String name, int index, boolean wildcard, Filter filter) {
+            this.name = name;
+            this.index = index;
+            this.wildcard = wildcard;
+            this.filter = filter;
+        }
+    }
+
+    /**
+     * 过滤条件，conditions[i]内各项为“且”，各组之间为“或”
+     */
+    private static final class Filter {
+        private final Condition[][] conditions;
+
+        private Filter(Condition[][] conditions) {
+            this.conditions = conditions;
+        }
+
+        private boolean test(JSONObj node) {
+            for (Condition[] all : conditions) {
+                boolean matched = true;
+                for (Condition condition : all) {
+                    if (!condition.test(node)) {
+                        matched = false;
+                        break;
+                    }
+                }
+                if (matched) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 单个比较：操作数为相对路径（以@开头）或字面量；op为null时判断左侧路径存在且不为null
+     */
+    private static final class Condition {
+        private final JsonPath leftPath;
+        private final JSONObj leftValue;
+        private final String op;
+        private final JsonPath rightPath;
+        private final JSONObj rightValue;
+
+        private Condition(JsonPath leftPath, JSONObj leftValue, String op, JsonPath rightPath, JSONObj rightValue) {
+            this.leftPath = leftPath;
+            this.leftValue = leftValue;
+            this.op = op;
+            this.rightPath = rightPath;
+            this.rightValue = rightValue;
+        }
+
+        private boolean test(JSONObj node) {
+            JSONObj left = leftPath != null ? first(leftPath, node) : leftValue;
+            if (op == null) {
+                return left != null && !left.isNull();
+            }
+            JSONObj right = rightPath != null ? first(rightPath, node) : rightValue;
+            if (left == null || right == null) {
+                return false;
+            }
+            switch (op) {
+                case "==":
+                    return equal(left, right);
+                case "!=":
+                    return !equal(left, right);
+                default:
+                    Integer c = compare(left, right);
+                    if (c == null) {
+                        return false;
+                    }
+                    switch (op) {
+                        case "<":
+                            return c < 0;
+                        case "<=":
+                            return c <= 0;
+                        case ">":
+                            return c > 0;
+                        default:
+                            return c >= 0;
+                    }
+            }
+        }
+
+        private static JSONObj first(JsonPath path, JSONObj node) {
+            List<JSONObj> result = path.read(node);
+            return result.isEmpty() ? null : result.get(0);
+        }
+
+        private static boolean equal(JSONObj a, JSONObj b) {
+            if (!a.type.equals(b.type)) {
+                return false;
+            }
+            switch (a.type) {
+                case JSONObj.NULL:
+                    return true;
+                case JSONObj.NUMBER:
+                    return compare(a, b) == 0;
+                case JSONObj.BOOLEAN:
+                    return a.getBoolean() == b.getBoolean();
+                case JSONObj.STRING:
+                    return a.getString().equals(b.getString());
+                default:
+                    return a.toString().equals(b.toString());
+            }
+        }
+
+        /**
+         * @return 数字之间、字符串之间的比较结果，类型不同时返回null
+         */
+        private static Integer compare(JSONObj a, JSONObj b) {
+            if (JSONObj.NUMBER.equals(a.type) && JSONObj.NUMBER.equals(b.type)) {
+                if (a.kind == JSONObj.LONG && b.kind == JSONObj.LONG) {
+                    return Long.compare(a.bits, b.bits);
+                }
+                if (a.kind == JSONObj.BIG || b.kind == JSONObj.BIG) {
+                    return a.getBigDecimal().compareTo(b.getBigDecimal());
+                }
+                return Double.compare(a.getDouble(), b.getDouble());
+            }
+            if (JSONObj.STRING.equals(a.type) && JSONObj.STRING.equals(b.type)) {
+                return a.getString().compareTo(b.getString());
+            }
+            return null;
+        }
+    }
+
+    private static final class Parser {
+        private final String src;
+        private int pos;
+
+        private Parser(String src) {
+            this.src = src;
+        }
+
+        /**
+         * @param relative 是否为过滤条件中的相对路径，此时遇到运算符、空白或')'即结束，且不允许通配与过滤
+         */
+        private Step[] steps(boolean relative) {
+            List<Step> steps = new ArrayList<>();
+            while (pos < src.length()) {
+                char c = src.charAt(pos);
+                if (c == '.') {
+                    pos++;
+                    if (peek() == '.') {
+                        throw error("不支持递归查找'..'");
+                    }
+                    if (peek() == '*' && !relative) {
+                        pos++;
+                        steps.add(new Step(null, 0, true, null));
+                    } else {
+                        steps.add(new Step(identifier(), 0, false, null));
+                    }
+                } else if (c == '[') {
+                    pos++;
+                    skipWhitespace();
+                    steps.add(bracket(relative));
+                    skipWhitespace();
+                    expect(']');
+                } else if (relative) {
+                    break;
+                } else {
+                    throw error("应为'.'或'['");
+                }
+            }
+            return steps.toArray(new Step[0]);
+        }
+
+        private Step bracket(boolean relative) {
+            char c = peek();
+            if (c == '\'' || c == '"') {
+                return new Step(quoted(), 0, false, null);
+            }
+            if (c == '-' || (c >= '0' && c <= '9')) {
+                return new Step(null, integer(), false, null);
+            }
+            if (!relative && c == '*') {
+                pos++;
+                return new Step(null, 0, true, null);
+            }
+            if (!relative && c == '?') {
+                pos++;
+                skipWhitespace();
+                expect('(');
+                Filter filter = filter();
+                skipWhitespace();
+                expect(')');
+                return new Step(null, 0, false, filter);
+            }
+            throw error("非法的下标");
+        }
+
+        private Filter filter() {
+            List<Condition[]> any = new ArrayList<>();
+            while (true) {
+                List<Condition> all = new ArrayList<>();
+                while (true) {
+                    all.add(condition());
+                    skipWhitespace();
+                    if (!src.startsWith("&&", pos)) {
+                        break;
+                    }
+                    pos += 2;
+                }
+                any.add(all.toArray(new Condition[0]));
+                if (!src.startsWith("||", pos)) {
+                    break;
+                }
+                pos += 2;
+            }
+            return new Filter(any.toArray(new Condition[0][]));
+        }
+
+        private Condition condition() {
+            skipWhitespace();
+            JsonPath leftPath = null;
+            JSONObj leftValue = null;
+            if (peek() == '@') {
+                leftPath = relativePath();
+            } else {
+                leftValue = literal();
+            }
+            skipWhitespace();
+            String op = operator();
+            if (op == null) {
+                if (leftPath == null) {
+                    throw error("应为比较运算符");
+                }
+                return new Condition(leftPath, null, null, null, null);
+            }
+            skipWhitespace();
+            if (peek() == '@') {
+                return new Condition(leftPath, leftValue, op, relativePath(), null);
+            }
+            return new Condition(leftPath, leftValue, op, null, literal());
+        }
+
+        private JsonPath relativePath() {
+            int start = pos;
+            pos++;
+            Step[] steps = steps(true);
+            return new JsonPath(src.substring(start, pos), steps);
+        }
+
+        private String operator() {
+            for (String op : new String[]{"==", "!=", "<=", ">=", "<", ">"}) {
+                if (src.startsWith(op, pos)) {
+                    pos += op.length();
+                    return op;
+                }
+            }
+            return null;
+        }
+
+        private JSONObj literal() {
+            char c = peek();
+            if (c == '\'' || c == '"') {
+                return new JSONObj(quoted(), JSONObj.STRING);
+            }
+            for (String word : new String[]{"true", "false", "null"}) {
+                if (src.startsWith(word, pos)) {
+                    pos += word.length();
+                    return word.equals("null") ? new JSONObj(null, JSONObj.NULL)
+                            : new JSONObj(Boolean.valueOf(word), JSONObj.BOOLEAN);
+                }
+            }
+            int start = pos;
+            while (pos < src.length() && "+-.eE0123456789".indexOf(src.charAt(pos)) >= 0) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("非法的字面量");
+            }
+            try {
+                return JSONTokenizer.parseNumber(src.substring(start, pos));
+            } catch (CikException e) {
+                pos = start;
+                throw error("非法的数字");
+            }
+        }
+
+        private String identifier() {
+            int start = pos;
+            while (pos < src.length() && ".[]()=<>!&| \t'\"".indexOf(src.charAt(pos)) < 0) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("缺少成员名");
+            }
+            return src.substring(start, pos);
+        }
+
+        private String quoted() {
+            char quote = src.charAt(pos++);
+            StringBuilder sb = new StringBuilder();
+            while (pos < src.length()) {
+                char c = src.charAt(pos++);
+                if (c == quote) {
+                    return sb.toString();
+                }
+                if (c == '\\' && pos < src.length()) {
+                    c = src.charAt(pos++);
+                }
+                sb.append(c);
+            }
+            throw error("字符串未结束");
+        }
+
+        private int integer() {
+            int start = pos;
+            if (peek() == '-') {
+                pos++;
+            }
+            while (pos < src.length() && Character.isDigit(src.charAt(pos))) {
+                pos++;
+            }
+            try {
+                return Integer.parseInt(src.substring(start, pos));
+            } catch (NumberFormatException e) {
+                pos = start;
+                throw error("非法的下标");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < src.length() && Character.isWhitespace(src.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private char peek() {
+            return pos < src.length() ? src.charAt(pos) : 0;
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw error("应为'" + c + "'");
+            }
+            pos++;
+        }
+
+        private CikException error(String message) {
+            return new CikException(ErrorCode.INVALID_INPUT.code(), "JsonPath语法错误：" + message + "，位置" + pos + "，" + src);
+        }
+    }
+}
@@ -0,0 +1,676 @@
+package cn.cikian.utils.http.enitry;
+
+
+import cn.cikian.code.ErrorCode;
+import cn.cikian.exception.CikException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 拉取式JSON解析器，从InputStream或Reader中按需读取，只使用固定大小的缓冲区<br>
+ * 每次调用{@link #next()}前进到下一个事件：遇到键名时为{@link Event#NAME}，可用{@link #getName()}取得；
+ * 遇到字符串、数字、布尔或null时为{@link Event#VALUE}，可用{@link #getString()}、{@link #getLong()}等取值；
+ * 不关心的值可用{@link #skipValue()}跳过而不解码，需要整体处理的值可用{@link #readValue()}读成节点。<br>
+ * 顶层可以依次出现多个值（如NDJSON的每一行），全部读完后返回{@link Event#END_DOCUMENT}。
+ * 内存占用与文档大小无关，只与最长的单个字符串及嵌套深度有关。非线程安全
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 21:35
+ */
+
+public class JsonReader implements Closeable {
+
+    public enum Event {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, VALUE, END_DOCUMENT
+    }
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final byte DOCUMENT = 0;
+    private static final byte EMPTY_OBJECT = 1;
+    private static final byte NONEMPTY_OBJECT = 2;
+    private static final byte DANGLING_NAME = 3;
+    private static final byte EMPTY_ARRAY = 4;
+    private static final byte NONEMPTY_ARRAY = 5;
+
+    /**
+     * 数组在{@link #beginValue()}中结束
+     */
+    private static final int ARRAY_END = -2;
+
+    private final Reader reader;
+    private final char[] buf;
+    private int pos;
+    private int limit;
+    private long consumed;
+
+    private byte[] scopes = new byte[32];
+    private int depth = 1;
+
+    private Event event;
+    private String name;
+    private String valueType;
+    private String text;
+    private byte kind;
+    private long bits;
+    private boolean bool;
+    private final StringBuilder sb = new StringBuilder();
+
+    /**
+     * 以UTF-8读取
+     *
+     * @param in 输入流
+     */
+    public JsonReader(InputStream in) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    public JsonReader(InputStream in, Charset charset) {
+        this(new InputStreamReader(in, charset));
+    }
+
+    public JsonReader(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param reader     字符输入
+     * @param bufferSize 缓冲区大小（字符数）
+     */
+    public JsonReader(Reader reader, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new CikException(ErrorCode.INVALID_INPUT.code(), "缓冲区大小必须大于0");
+        }
+        this.reader = reader;
+        this.buf = new char[bufferSize];
+        scopes[0] = DOCUMENT;
+    }
+
+    /**
+     * 前进到下一个事件
+     *
+     * @return 事件，输入读完时为{@link Event#END_DOCUMENT}
+     * @throws IOException  读取异常
+     * @throws CikException JSON格式错误
+     */
+    public Event next() throws IOException {
+        byte top = scopes[depth - 1];
+        if (top == EMPTY_OBJECT || top == NONEMPTY_OBJECT) {
+            int c = nextNonWhitespace();
+            if (c == '}') {
+                depth--;
+                return event = Event.END_OBJECT;
+            }
+            if (c == -1) {
+                throw error("JSON意外结束", 0);
+            }
+            if (top == NONEMPTY_OBJECT) {
+                if (c != ',') {
+                    throw error("应为','或'}'", 1);
+                }
+                c = nextNonWhitespace();
+            }
+            if (c != '"') {
+                throw error("应为键名", 1);
+            }
+            name = readString();
+            scopes[depth - 1] = DANGLING_NAME;
+            return event = Event.NAME;
+        }
+        int c = beginValue();
+        if (c == ARRAY_END) {
+            return event = Event.END_ARRAY;
+        }
+        if (c == -1 && depth == 1) {
+            return event = Event.END_DOCUMENT;
+        }
+        switch (c) {
+            case '{':
+                push(EMPTY_OBJECT);
+                return event = Event.BEGIN_OBJECT;
+            case '[':
+                push(EMPTY_ARRAY);
+                return event = Event.BEGIN_ARRAY;
+            default:
+                readScalar(c);
+                return event = Event.VALUE;
+        }
+    }
+
+    /**
+     * 当前对象或数组中是否还有成员，只查看下一个非空白字符而不消费；在顶层时表示输入中是否还有值
+     *
+     * @return 还有成员或值时为true
+     * @throws IOException 读取异常
+     */
+    public boolean hasNext() throws IOException {
+        int c = peekNonWhitespace();
+        byte top = scopes[depth - 1];
+        if (top == DOCUMENT || top == DANGLING_NAME) {
+            return c != -1;
+        }
+        return c != '}' && c != ']' && c != -1;
+    }
+
+    /**
+     * @return 当前事件，尚未调用{@link #next()}时为null
+     */
+    public Event getEvent() {
+        return event;
+    }
+
+    /**
+     * @return 当前嵌套深度，顶层为0
+     */
+    public int getDepth() {
+        return depth - 1;
+    }
+
+    /**
+     * @return 最近读到的键名
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return 当前值的类型，见{@link JSONObj}中的类型常量
+     */
+    public String getValueType() {
+        return valueType;
+    }
+
+    public boolean isNull() {
+        return JSONObj.NULL.equals(valueType);
+    }
+
+    /**
+     * @return 字符串值；数字和布尔值返回其文本，null返回null
+     */
+    public String getString() {
+        if (JSONObj.NUMBER.equals(valueType) && kind == JSONObj.LONG) {
+            return Long.toString(bits);
+        }
+        if (JSONObj.BOOLEAN.equals(valueType)) {
+            return String.valueOf(bool);
+        }
+        return text;
+    }
+
+    /**
+     * @return 整数值，规则同{@link JSONObj#getLong()}
+     */
+    public long getLong() {
+        if (JSONObj.NUMBER.equals(valueType) && kind == JSONObj.LONG) {
+            return bits;
+        }
+        return toObj().getLong();
+    }
+
+    public int getInt() {
+        return toObj().getInt();
+    }
+
+    /**
+     * @return 浮点值，规则同{@link JSONObj#getDouble()}
+     */
+    public double getDouble() {
+        if (JSONObj.NUMBER.equals(valueType)) {
+            if (kind == JSONObj.LONG) {
+                return bits;
+            }
+            if (kind == JSONObj.DOUBLE) {
+                return Double.longBitsToDouble(bits);
+            }
+        }
+        return toObj().getDouble();
+    }
+
+    public BigDecimal getBigDecimal() {
+        return isNull() ? null : toObj().getBigDecimal();
+    }
+
+    public boolean getBoolean() {
+        if (JSONObj.BOOLEAN.equals(valueType)) {
+            return bool;
+        }
+        return toObj().getBoolean();
+    }
+
+    /**
+     * @return 当前标量值的节点
+     */
+    JSONObj toObj() {
+        if (event != Event.VALUE) {
+            throw new CikException(ErrorCode.FAIL.code(), "当前事件不是值: " + event);
+        }
+        switch (valueType) {
+            case JSONObj.NUMBER:
+                return kind == JSONObj.LONG ? JSONObj.ofLong(bits) : JSONObj.ofNumber(text, kind == JSONObj.DOUBLE);
+            case JSONObj.BOOLEAN:
+                return new JSONObj(bool ? Boolean.TRUE : Boolean.FALSE, JSONObj.BOOLEAN);
+            case JSONObj.NULL:
+                return new JSONObj(null, JSONObj.NULL);
+            default:
+                return new JSONObj(text, JSONObj.STRING);
+        }
+    }
+
+    /**
+     * 跳过下一个值；对象和数组只跟踪括号配对与字符串边界，不解码其中的内容
+     *
+     * @throws IOException  读取异常
+     * @throws CikException 当前位置没有值
+     */
+    public void skipValue() throws IOException {
+        int c = beginValue();
+        if (c == '{' || c == '[') {
+            skipNested(c, null);
+        } else if (c == '"') {
+            skipString();
+        } else if (c < 0) {
+            throw noValue(c);
+        } else {
+            readScalar(c);
+        }
+        event = null;
+    }
+
+    /**
+     * 读取下一个完整的值，对象和数组中的内容在访问时才解析
+     *
+     * @return 值节点
+     * @throws IOException  读取异常
+     * @throws CikException 当前位置没有值或JSON格式错误
+     */
+    public JSONObj readValue() throws IOException {
+        int c = beginValue();
+        if (c == '{' || c == '[') {
+            StringBuilder capture = new StringBuilder();
+            skipNested(c, capture);
+            event = null;
+            String raw = capture.toString();
+            return JSONObj.lazy(raw, 0, raw.length(), c == '{' ? JSONObj.OBJECT : JSONObj.ARRAY);
+        }
+        if (c < 0) {
+            throw noValue(c);
+        }
+        readScalar(c);
+        event = Event.VALUE;
+        JSONObj value = toObj();
+        event = null;
+        return value;
+    }
+
+    /**
+     * 读取下一个值并作为对象返回
+     *
+     * @return 对象，值为null时返回null
+     * @throws IOException  读取异常
+     * @throws CikException 值不是对象或JSON格式错误
+     */
+    public JSON readJSON() throws IOException {
+        JSONObj value = readValue();
+        if (JSONObj.OBJECT.equals(value.type)) {
+            // 顶层对象立即解析以便尽早发现格式错误，与new JSON(String)一致
+            return new JSON(value.toString());
+        }
+        return value.getJSON();
+    }
+
+    /**
+     * 处理值之前的分隔符并返回值的首字符
+     *
+     * @return 值的首字符；输入结束时为-1；数组结束时为{@link #ARRAY_END}，此时已退出该数组
+     */
+    private int beginValue() throws IOException {
+        int c = nextNonWhitespace();
+        switch (scopes[depth - 1]) {
+            case EMPTY_ARRAY:
+                if (c == ']') {
+                    depth--;
+                    return ARRAY_END;
+                }
+                scopes[depth - 1] = NONEMPTY_ARRAY;
+                return c;
+            case NONEMPTY_ARRAY:
+                if (c == ']') {
+                    depth--;
+                    return ARRAY_END;
+                }
+                if (c != ',') {
+                    throw error("应为','或']'", 1);
+                }
+                return nextNonWhitespace();
+            case DANGLING_NAME:
+                if (c != ':') {
+                    throw error("应为':'", 1);
+                }
+                scopes[depth - 1] = NONEMPTY_OBJECT;
+                return nextNonWhitespace();
+            case DOCUMENT:
+                return c;
+            default:
+                throw error("当前位置应为键名，请先调用next", 1);
+        }
+    }
+
+    private void push(byte scope) {
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        }
+        scopes[depth++] = scope;
+    }
+
+    private void readScalar(int c) throws IOException {
+        switch (c) {
+            case '"':
+                text = readString();
+                valueType = JSONObj.STRING;
+                return;
+            case 't':
+                literal("rue");
+                bool = true;
+                valueType = JSONObj.BOOLEAN;
+                return;
+            case 'f':
+                literal("alse");
+                bool = false;
+                valueType = JSONObj.BOOLEAN;
+                return;
+            case 'n':
+                literal("ull");
+                text = null;
+                valueType = JSONObj.NULL;
+                return;
+            case -1:
+                throw error("JSON意外结束", 0);
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    readNumber(c);
+                    valueType = JSONObj.NUMBER;
+                    return;
+                }
+                throw error("非法的值", 1);
+        }
+    }
+
+    /**
+     * 不超过18位的整数边读边累加；其他情况收集原文后按JSON数字语法校验
+     */
+    private void readNumber(int first) throws IOException {
+        sb.setLength(0);
+        sb.append((char) first);
+        boolean negative = first == '-';
+        boolean simple = true;
+        long value = negative ? 0 : first - '0';
+        int digits = negative ? 0 : 1;
+        int c;
+        while ((c = peekChar()) != -1) {
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                digits++;
+            } else if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                simple = false;
+            } else {
+                break;
+            }
+            sb.append((char) c);
+            pos++;
+        }
+        boolean leadingZero = digits > 1 && sb.charAt(negative ? 1 : 0) == '0';
+        if (simple && digits > 0 && digits <= 18 && !leadingZero) {
+            kind = JSONObj.LONG;
+            bits = negative ? -value : value;
+            return;
+        }
+        String number = sb.toString();
+        JSONObj parsed;
+        try {
+            parsed = JSONTokenizer.parseNumber(number);
+        } catch (CikException e) {
+            throw error("非法的数字 " + number, number.length());
+        }
+        kind = parsed.kind;
+        bits = parsed.bits;
+        text = (String) parsed.raw;
+    }
+
+    private void literal(String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            if (read() != rest.charAt(i)) {
+                throw error("非法的值", 1);
+            }
+        }
+    }
+
+    /**
+     * 读取字符串内容，调用前已越过起始引号；不含转义且未跨越缓冲区时直接由缓冲区构造
+     */
+    private String readString() throws IOException {
+        int start = pos;
+        for (int i = pos; i < limit; i++) {
+            char c = buf[i];
+            if (c == '"') {
+                pos = i + 1;
+                return new String(buf, start, i - start);
+            }
+            if (c == '\\' || c < 0x20) {
+                break;
+            }
+        }
+        sb.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c == -1) {
+                throw error("字符串未结束", 0);
+            }
+            if (c < 0x20) {
+                throw error("字符串中存在未转义的控制字符", 1);
+            }
+            if (c != '\\') {
+                sb.append((char) c);
+                continue;
+            }
+            int e = read();
+            switch (e) {
+                case '"':
+                case '\\':
+                case '/':
+                    sb.append((char) e);
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    sb.append(readHex4());
+                    break;
+                default:
+                    throw error("非法的转义字符", 1);
+            }
+        }
+    }
+
+    private char readHex4() throws IOException {
+        int v = 0;
+        for (int i = 0; i < 4; i++) {
+            int h = read();
+            int d;
+            if (h >= '0' && h <= '9') {
+                d = h - '0';
+            } else if (h >= 'a' && h <= 'f') {
+                d = h - 'a' + 10;
+            } else if (h >= 'A' && h <= 'F') {
+                d = h - 'A' + 10;
+            } else {
+                throw error("非法的unicode转义", 1);
+            }
+            v = (v << 4) | d;
+        }
+        return (char) v;
+    }
+
+    /**
+     * 跳过一个完整的对象或数组，调用前已读入起始括号
+     *
+     * @param capture 不为null时将原文追加到其中
+     */
+    private void skipNested(int first, StringBuilder capture) throws IOException {
+        char[] brackets = new char[16];
+        int nested = 0;
+        int c = first;
+        while (true) {
+            if (capture != null) {
+                capture.append((char) c);
+            }
+            switch (c) {
+                case '{':
+                case '[':
+                    if (nested == brackets.length) {
+                        brackets = Arrays.copyOf(brackets, nested * 2);
+                    }
+                    brackets[nested++] = c == '{' ? '}' : ']';
+                    break;
+                case '}':
+                case ']':
+                    if (brackets[--nested] != c) {
+                        throw error("括号不匹配", 1);
+                    }
+                    if (nested == 0) {
+                        return;
+                    }
+                    break;
+                case '"':
+                    copyString(capture);
+                    break;
+                case -1:
+                    throw error("对象或数组未结束", 0);
+                default:
+                    break;
+            }
+            c = read();
+        }
+    }
+
+    private void skipString() throws IOException {
+        copyString(null);
+    }
+
+    /**
+     * 跳过字符串剩余部分（含结束引号），capture不为null时原样追加
+     */
+    private void copyString(StringBuilder capture) throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw error("字符串未结束", 0);
+            }
+            if (capture != null) {
+                capture.append((char) c);
+            }
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                int e = read();
+                if (e == -1) {
+                    throw error("字符串未结束", 0);
+                }
+                if (capture != null) {
+                    capture.append((char) e);
+                }
+            }
+        }
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) {
+                return -1;
+            }
+            char c = buf[pos++];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+    }
+
+    private int peekNonWhitespace() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) {
+                return -1;
+            }
+            char c = buf[pos];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+            pos++;
+        }
+    }
+
+    private int peekChar() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buf[pos];
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buf[pos++];
+    }
+
+    private boolean fill() throws IOException {
+        consumed += limit;
+        pos = 0;
+        limit = 0;
+        int n = reader.read(buf, 0, buf.length);
+        if (n < 0) {
+            return false;
+        }
+        limit = n;
+        return true;
+    }
+
+    private CikException noValue(int c) {
+        return new CikException(ErrorCode.FAIL.code(), c == ARRAY_END ? "数组已结束，没有可读取的值" : "JSON意外结束");
+    }
+
+    /**
+     * @param back 出错字符距当前位置的距离
+     */
+    private CikException error(String message, int back) {
+        return new CikException(ErrorCode.FAIL.code(), "JSON格式错误：" + message + "，位置" + (consumed + pos - back));
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,497 @@
+package cn.cikian.utils.http.enitry;
+
+
+import cn.cikian.code.ErrorCode;
+import cn.cikian.exception.CikException;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 流式JSON写出器，与{@link JsonReader}相对应<br>
+ * 内容先写入复用的字符缓冲区，满后才写出到目标，字符串按段整体拷贝、只对需要转义的字符逐个处理，
+ * 整数直接写出各位数字而不创建字符串；可输出紧凑格式或带缩进的格式。
+ * 顶层可以依次写出多个值，之间以换行分隔（如NDJSON）。非线程安全
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 22:40
+ */
+
+public class JsonWriter implements Closeable, Flushable {
+    private static final int BUFFER_SIZE = 8192;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final char[] MIN_LONG = Long.toString(Long.MIN_VALUE).toCharArray();
+
+    private static final byte EMPTY_DOCUMENT = 0;
+    private static final byte NONEMPTY_DOCUMENT = 1;
+    private static final byte EMPTY_OBJECT = 2;
+    private static final byte NONEMPTY_OBJECT = 3;
+    private static final byte DANGLING_NAME = 4;
+    private static final byte EMPTY_ARRAY = 5;
+    private static final byte NONEMPTY_ARRAY = 6;
+
+    /**
+     * 写出目标，为null时内容保留在缓冲区中
+     */
+    private final Writer out;
+    private char[] buf;
+    private int count;
+
+    private byte[] scopes = new byte[32];
+    private int depth = 1;
+    private String indent;
+
+    /**
+     * 以UTF-8写出到输出流
+     *
+     * @param out 输出流
+     */
+    public JsonWriter(OutputStream out) {
+        this(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    public JsonWriter(Writer out) {
+        this.out = out;
+        this.buf = new char[BUFFER_SIZE];
+    }
+
+    /**
+     * 写入内存，用于{@link #toString()}
+     */
+    JsonWriter() {
+        this.out = null;
+        this.buf = new char[256];
+    }
+
+    /**
+     * 设置是否输出带缩进的格式，默认紧凑格式
+     *
+     * @param pretty 为true时以两个空格缩进并换行
+     * @return this
+     */
+    public JsonWriter setPretty(boolean pretty) {
+        this.indent = pretty ? "  " : null;
+        return this;
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        push(EMPTY_OBJECT);
+        write('{');
+        return this;
+    }
+
+    public JsonWriter endObject() throws IOException {
+        return close(EMPTY_OBJECT, NONEMPTY_OBJECT, '}');
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        push(EMPTY_ARRAY);
+        write('[');
+        return this;
+    }
+
+    public JsonWriter endArray() throws IOException {
+        return close(EMPTY_ARRAY, NONEMPTY_ARRAY, ']');
+    }
+
+    /**
+     * 写出键名，之后必须写出对应的值
+     *
+     * @param name 键名
+     * @return this
+     * @throws CikException 当前不在对象中，或上一个键名还没有值
+     */
+    public JsonWriter name(String name) throws IOException {
+        if (name == null) {
+            throw new CikException(ErrorCode.INVALID_INPUT.code(), "键名不能为null");
+        }
+        byte top = scopes[depth - 1];
+        if (top == NONEMPTY_OBJECT) {
+            write(',');
+        } else if (top != EMPTY_OBJECT) {
+            throw new CikException(ErrorCode.FAIL.code(), top == DANGLING_NAME ? "上一个键名还没有写出值" : "只能在对象中写出键名");
+        }
+        newline();
+        string(name);
+        write(':');
+        if (indent != null) {
+            write(' ');
+        }
+        scopes[depth - 1] = DANGLING_NAME;
+        return this;
+    }
+
+    /**
+     * @param value 字符串，为null时写出null
+     * @return this
+     */
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        string(value);
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        beforeValue();
+        writeLong(value);
+        return this;
+    }
+
+    /**
+     * @param value 浮点数
+     * @return this
+     * @throws CikException 值为NaN或无穷大
+     */
+    public JsonWriter value(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new CikException(ErrorCode.INVALID_INPUT.code(), "JSON不支持的数值: " + value);
+        }
+        beforeValue();
+        // -0.0与0相等，但需保留符号，交给Double.toString
+        if (value == (long) value && Math.abs(value) < 1e15 && Double.doubleToRawLongBits(value) != Long.MIN_VALUE) {
+            writeLong((long) value);
+            write('.');
+            write('0');
+        } else {
+            raw(Double.toString(value));
+        }
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        raw(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * @param value 数字，为null时写出null；整数类型按long写出，Double、Float按double写出，
+     *              BigDecimal、BigInteger按原值写出
+     * @return this
+     */
+    public JsonWriter value(Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return value(value.doubleValue());
+        }
+        if (value instanceof BigDecimal || value instanceof BigInteger) {
+            beforeValue();
+            raw(value.toString());
+            return this;
+        }
+        return value(value.longValue());
+    }
+
+    public JsonWriter nullValue() throws IOException {
+        beforeValue();
+        raw("null");
+        return this;
+    }
+
+    /**
+     * 写出一个对象，为null时写出null
+     *
+     * @param value 对象
+     * @return this
+     */
+    public JsonWriter value(JSON value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beginObject();
+        for (int i = 0, n = value.size(); i < n; i++) {
+            name(value.key(i));
+            value(value.value(i));
+        }
+        return endObject();
+    }
+
+    /**
+     * 写出一个数组，未解析的数组边读边写，不一次性解析全部元素
+     *
+     * @param value 数组，为null时写出null
+     * @return this
+     */
+    public JsonWriter value(JSONArray value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beginArray();
+        for (JSONObj item : value) {
+            value(item);
+        }
+        return endArray();
+    }
+
+    /**
+     * 写出一个值节点；由原文解析得到的小数和大数按原文写出
+     *
+     * @param value 值节点，为null时写出null
+     * @return this
+     */
+    public JsonWriter value(JSONObj value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        switch (value.type) {
+            case JSONObj.STRING:
+                return value(value.getString());
+            case JSONObj.NUMBER:
+                if (value.kind == JSONObj.LONG) {
+                    return value(value.bits);
+                }
+                Object text = value.raw;
+                if (text instanceof String) {
+                    beforeValue();
+                    raw((String) text);
+                    return this;
+                }
+                return value(value.getDouble());
+            case JSONObj.BOOLEAN:
+                return value(value.getBoolean());
+            case JSONObj.OBJECT:
+                return value(value.getJSON());
+            case JSONObj.ARRAY:
+                return value(value.getArray());
+            default:
+                return nullValue();
+        }
+    }
+
+    /**
+     * 将缓冲区中的内容写出并刷新目标
+     */
+    @Override
+    public void flush() throws IOException {
+        if (out != null) {
+            drain();
+            out.flush();
+        }
+    }
+
+    /**
+     * 写出剩余内容并关闭目标
+     *
+     * @throws CikException 还有未结束的对象或数组
+     */
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            flush();
+            out.close();
+        }
+        if (depth > 1) {
+            throw new CikException(ErrorCode.FAIL.code(), "JSON未结束，还有" + (depth - 1) + "层对象或数组未关闭");
+        }
+    }
+
+    /**
+     * @return 写入内存的内容；写出到目标时为尚未写出的部分
+     */
+    @Override
+    public String toString() {
+        return new String(buf, 0, count);
+    }
+
+    private void beforeValue() throws IOException {
+        switch (scopes[depth - 1]) {
+            case EMPTY_DOCUMENT:
+                scopes[depth - 1] = NONEMPTY_DOCUMENT;
+                break;
+            case NONEMPTY_DOCUMENT:
+                write('\n');
+                break;
+            case EMPTY_ARRAY:
+                scopes[depth - 1] = NONEMPTY_ARRAY;
+                newline();
+                break;
+            case NONEMPTY_ARRAY:
+                write(',');
+                newline();
+                break;
+            case DANGLING_NAME:
+                scopes[depth - 1] = NONEMPTY_OBJECT;
+                break;
+            default:
+                throw new CikException(ErrorCode.FAIL.code(), "对象中应先写出键名");
+        }
+    }
+
+    private JsonWriter close(byte empty, byte nonempty, char bracket) throws IOException {
+        byte top = scopes[depth - 1];
+        if (top != empty && top != nonempty) {
+            throw new CikException(ErrorCode.FAIL.code(), top == DANGLING_NAME ? "键名之后缺少值"
+                    : "没有可结束的" + (bracket == '}' ? "对象" : "数组"));
+        }
+        depth--;
+        if (top == nonempty) {
+            newline();
+        }
+        write(bracket);
+        return this;
+    }
+
+    private void push(byte scope) {
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        }
+        scopes[depth++] = scope;
+    }
+
+    private void newline() throws IOException {
+        if (indent == null) {
+            return;
+        }
+        write('\n');
+        for (int i = 1; i < depth; i++) {
+            raw(indent);
+        }
+    }
+
+    /**
+     * 写出带引号的字符串，不需要转义的连续字符整段拷贝
+     */
+    private void string(String s) throws IOException {
+        write('"');
+        int length = s.length();
+        int run = 0;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            if (i > run) {
+                raw(s, run, i);
+            }
+            run = i + 1;
+            escape(c);
+        }
+        if (length > run) {
+            raw(s, run, length);
+        }
+        write('"');
+    }
+
+    private void escape(char c) throws IOException {
+        ensure(6);
+        buf[count++] = '\\';
+        switch (c) {
+            case '"':
+            case '\\':
+                buf[count++] = c;
+                break;
+            case '\n':
+                buf[count++] = 'n';
+                break;
+            case '\r':
+                buf[count++] = 'r';
+                break;
+            case '\t':
+                buf[count++] = 't';
+                break;
+            case '\b':
+                buf[count++] = 'b';
+                break;
+            case '\f':
+                buf[count++] = 'f';
+                break;
+            default:
+                buf[count++] = 'u';
+                buf[count++] = '0';
+                buf[count++] = '0';
+                buf[count++] = HEX[c >> 4];
+                buf[count++] = HEX[c & 0xF];
+                break;
+        }
+    }
+
+    /**
+     * 从低位到高位直接写入缓冲区，不创建字符串
+     */
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            ensure(MIN_LONG.length);
+            System.arraycopy(MIN_LONG, 0, buf, count, MIN_LONG.length);
+            count += MIN_LONG.length;
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            buf[count++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        int end = count + digits;
+        for (int i = end - 1; i >= count; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        count = end;
+    }
+
+    private void raw(String s) throws IOException {
+        raw(s, 0, s.length());
+    }
+
+    private void raw(String s, int start, int end) throws IOException {
+        int length = end - start;
+        if (length > buf.length - count) {
+            drain();
+            if (length > buf.length - count) {
+                if (out != null) {
+                    out.write(s, start, length);
+                    return;
+                }
+                ensure(length);
+            }
+        }
+        s.getChars(start, end, buf, count);
+        count += length;
+    }
+
+    private void write(char c) throws IOException {
+        if (count == buf.length) {
+            ensure(1);
+        }
+        buf[count++] = c;
+    }
+
+    /**
+     * 保证缓冲区至少还有n个字符的空间：写出到目标时先清空缓冲区，写入内存时扩容
+     */
+    private void ensure(int n) throws IOException {
+        if (buf.length - count >= n) {
+            return;
+        }
+        drain();
+        if (buf.length - count < n) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + n));
+        }
+    }
+
+    private void drain() throws IOException {
+        if (out != null && count > 0) {
+            out.write(buf, 0, count);
+            count = 0;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package cn.cikian.utils.http.enitry;
 
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -12,6 +13,22 @@ import java.util.Map;
 public class Param {
     private Map<String, String> params;
 
+    public Param() {
+        this(new LinkedHashMap<>());
+    }
+
+    public Param(Map<String, String> params) {
+        this.params = params;
+    }
+
+    public String get(String key) {
+        return params.get(key);
+    }
+
+    public void put(String key, String value) {
+        params.put(key, value);
+    }
+
     public boolean containsKey(String key) {
         return params.containsKey(key);
     }
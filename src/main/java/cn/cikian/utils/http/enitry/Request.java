@@ -1,6 +1,10 @@
 package cn.cikian.utils.http.enitry;
 
 
+import cn.cikian.utils.http.code.RequestMethod;
+
+import java.util.LinkedHashMap;
+
 /**
  * @author Cikian
  * @version 1.0
@@ -13,6 +17,16 @@ public class Request {
     private Header headers;
     private Param params;
     private Body body;
+    private Integer connectTimeout;
+    private Integer readTimeout;
+
+    public Request() {
+    }
+
+    public Request(String url, RequestMethod method) {
+        this.url = url;
+        this.method = method.name();
+    }
 
     public String getUrl() {
         return url;
@@ -30,6 +44,10 @@ public class Request {
         this.method = method;
     }
 
+    public void setMethod(RequestMethod method) {
+        this.method = method.name();
+    }
+
     public Header getHeaders() {
         return headers;
     }
@@ -53,4 +71,73 @@ public class Request {
     public void setBody(Body body) {
         this.body = body;
     }
+
+    public Integer getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * @param connectTimeout 本次请求的连接超时（毫秒），为null时使用客户端配置
+     */
+    public void setConnectTimeout(Integer connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Integer getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * @param readTimeout 本次请求的读取超时（毫秒），为null时使用客户端配置
+     */
+    public void setReadTimeout(Integer readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * 设置请求头，尚无Header时自动创建
+     *
+     * @param name  名称
+     * @param value 值
+     * @return 当前请求
+     */
+    public Request header(String name, String value) {
+        if (headers == null) {
+            headers = new Header();
+        }
+        headers.put(name, value);
+        return this;
+    }
+
+    /**
+     * 设置请求参数，尚无Param时自动创建
+     *
+     * @param name  名称
+     * @param value 值
+     * @return 当前请求
+     */
+    public Request param(String name, String value) {
+        if (params == null) {
+            params = new Param();
+        }
+        params.put(name, value);
+        return this;
+    }
+
+    /**
+     * 复制请求，Header与Param复制为新的Map，请求体共用。拦截器需要修改请求又不希望影响调用方时使用
+     *
+     * @return 请求副本
+     */
+    public Request copy() {
+        Request copy = new Request();
+        copy.url = url;
+        copy.method = method;
+        copy.headers = headers == null ? null : new Header(new LinkedHashMap<>(headers.getHeaders()));
+        copy.params = params == null ? null : new Param(new LinkedHashMap<>(params.getParams()));
+        copy.body = body;
+        copy.connectTimeout = connectTimeout;
+        copy.readTimeout = readTimeout;
+        return copy;
+    }
 }
@@ -0,0 +1,353 @@
+package cn.cikian.utils.http.enitry;
+
+
+import cn.cikian.utils.http.client.TransferStats;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * HTTP响应，响应体以流的形式提供，使用完毕后需要关闭以归还连接
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 10:31
+ */
+
+public class Response implements Closeable {
+    private static final int MAX_INITIAL_CAPACITY = 1 << 20;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private final int status;
+    private final String reason;
+    private final Map<String, List<String>> headers;
+    private final InputStream body;
+    private final TransferStats transferStats;
+    private final JSON json;
+
+    public Response(int status, String reason, Map<String, List<String>> headers, InputStream body) {
+        this(status, reason, headers, body, new TransferStats());
+    }
+
+    public Response(int status, String reason, Map<String, List<String>> headers, InputStream body,
+                    TransferStats transferStats) {
+        this(status, reason, headers, body, transferStats, null);
+    }
+
+    private Response(int status, String reason, Map<String, List<String>> headers, InputStream body,
+                     TransferStats transferStats, JSON json) {
+        this.status = status;
+        this.reason = reason;
+        this.headers = headers;
+        this.body = body;
+        this.transferStats = transferStats;
+        this.json = json;
+    }
+
+    /**
+     * 构造一个不经过网络的响应，{@link #asJSON()}直接返回给定的JSON而不再解析，
+     * 响应体只在被读取时才序列化。适合拦截器返回缓存或模拟的结果
+     *
+     * @param status 状态码
+     * @param json   响应结果，为null时响应体为空，{@link #asJSON()}返回null
+     * @return 响应
+     */
+    public static Response of(int status, JSON json) {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.put("Content-Type", Collections.singletonList("application/json; charset=UTF-8"));
+        return new Response(status, "", headers, new LazyBody(json), new TransferStats(), json);
+    }
+
+    /**
+     * 构造一个不经过网络的响应
+     *
+     * @param status      状态码
+     * @param contentType 响应类型，可为null
+     * @param body        响应体
+     * @return 响应
+     */
+    public static Response of(int status, String contentType, byte[] body) {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (contentType != null) {
+            headers.put("Content-Type", Collections.singletonList(contentType));
+        }
+        headers.put("Content-Length", Collections.singletonList(Integer.toString(body.length)));
+        return new Response(status, "", headers, new ByteArrayInputStream(body), new TransferStats());
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * @return 响应头，名称不区分大小写
+     */
+    public Map<String, List<String>> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    /**
+     * 获取响应头的第一个值
+     *
+     * @param name 响应头名称，不区分大小写
+     * @return 响应头的值，不存在时返回null
+     */
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * @return 状态码是否为2xx
+     */
+    public boolean isSuccessful() {
+        return status >= 200 && status < 300;
+    }
+
+    /**
+     * @return Content-Type响应头，不含参数部分；不存在时返回null
+     */
+    public String getContentType() {
+        String contentType = getHeader("Content-Type");
+        if (contentType == null) {
+            return null;
+        }
+        int semicolon = contentType.indexOf(';');
+        return (semicolon >= 0 ? contentType.substring(0, semicolon) : contentType).trim();
+    }
+
+    /**
+     * 取Content-Type响应头中声明的字符集，未声明或不受支持时使用UTF-8
+     *
+     * @return 响应体字符集
+     */
+    public Charset getCharset() {
+        String contentType = getHeader("Content-Type");
+        if (contentType != null) {
+            for (String param : contentType.split(";")) {
+                int eq = param.indexOf('=');
+                if (eq > 0 && "charset".equalsIgnoreCase(param.substring(0, eq).trim())) {
+                    String name = param.substring(eq + 1).trim();
+                    if (name.length() > 1 && name.startsWith("\"") && name.endsWith("\"")) {
+                        name = name.substring(1, name.length() - 1);
+                    }
+                    try {
+                        return Charset.forName(name);
+                    } catch (IllegalArgumentException ignored) {
+                        break;
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * @return Content-Length响应头的值，未知时返回-1
+     */
+    public long getContentLength() {
+        String length = getHeader("Content-Length");
+        if (length == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(length.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 本次请求压缩前后的字节数，响应体读完后为最终值
+     *
+     * @return 传输统计
+     */
+    public TransferStats getTransferStats() {
+        return transferStats;
+    }
+
+    /**
+     * @return 响应体字节流（已按Content-Encoding解压），读到末尾或关闭后连接自动归还
+     */
+    public InputStream getBody() {
+        return body;
+    }
+
+    /**
+     * @return 响应体字节通道，与{@link #getBody()}共享同一数据
+     */
+    public ReadableByteChannel getChannel() {
+        return Channels.newChannel(body);
+    }
+
+    /**
+     * 按响应字符集解码的字符流，适合交给增量解析器逐段处理，内存占用与响应体大小无关
+     *
+     * @return 响应体字符流
+     */
+    public Reader getReader() {
+        return new InputStreamReader(body, getCharset());
+    }
+
+    /**
+     * 按响应字符集将响应体完整读取为字符串，保留原始换行
+     *
+     * @return 响应体字符串
+     * @throws IOException 网络异常
+     */
+    public String asString() throws IOException {
+        long length = getContentLength();
+        StringBuilder sb = new StringBuilder(length > 0 ? (int) Math.min(length, MAX_INITIAL_CAPACITY) : 1024);
+        try (Reader reader = getReader()) {
+            char[] buf = new char[8192];
+            int n;
+            while ((n = reader.read(buf)) != -1) {
+                sb.append(buf, 0, n);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 将响应体完整读取为字节数组
+     *
+     * @return 响应体字节
+     * @throws IOException 网络异常
+     */
+    public byte[] asBytes() throws IOException {
+        long length = getContentLength();
+        // Content-Length不可信，初始容量有上限，实际数据更多时再扩容
+        byte[] buf = new byte[length > 0 ? (int) Math.min(length, MAX_INITIAL_CAPACITY) : 8192];
+        int size = 0;
+        try (InputStream in = body) {
+            int n;
+            while ((n = in.read(buf, size, buf.length - size)) != -1) {
+                size += n;
+                if (size == buf.length) {
+                    int next = in.read();
+                    if (next == -1) {
+                        break;
+                    }
+                    if (buf.length >= MAX_ARRAY_SIZE) {
+                        throw new OutOfMemoryError("响应体超过数组长度上限");
+                    }
+                    buf = Arrays.copyOf(buf, (int) Math.min((long) buf.length * 2, MAX_ARRAY_SIZE));
+                    buf[size++] = (byte) next;
+                }
+            }
+        }
+        return size == buf.length ? buf : Arrays.copyOf(buf, size);
+    }
+
+    /**
+     * 将响应体解析为JSON；字符集为UTF-8时直接在字节上解析，不先解码为字符串
+     *
+     * @return 解析结果，响应体为空时返回null；由{@link #of(int, JSON)}构造的响应直接返回给定的JSON
+     * @throws IOException 网络异常
+     */
+    public JSON asJSON() throws IOException {
+        if (json != null) {
+            close();
+            return json;
+        }
+        if (StandardCharsets.UTF_8.equals(getCharset())) {
+            byte[] bytes = asBytes();
+            return bytes.length == 0 ? null : new JSON(bytes);
+        }
+        String text = asString();
+        return text.isEmpty() ? null : new JSON(text);
+    }
+
+    /**
+     * 将响应体解析为JSON数组，元素在访问时才解析；字符集为UTF-8时直接在字节上解析
+     *
+     * @return 解析结果，响应体为空时返回null
+     * @throws IOException 网络异常
+     */
+    public JSONArray asJSONArray() throws IOException {
+        if (StandardCharsets.UTF_8.equals(getCharset())) {
+            byte[] bytes = asBytes();
+            return bytes.length == 0 ? null : new JSONArray(bytes);
+        }
+        String text = asString();
+        return text.isEmpty() ? null : new JSONArray(text);
+    }
+
+    /**
+     * 以拉取方式逐个读取响应体中的JSON事件，不把整个响应体读入内存；关闭JsonReader即关闭响应
+     *
+     * @return JSON读取器
+     */
+    public JsonReader asJsonReader() {
+        return new JsonReader(getReader());
+    }
+
+    /**
+     * 按JSON Lines（NDJSON）格式并行解析响应体，响应体须为UTF-8编码；关闭读取器即关闭响应
+     *
+     * @return JSON Lines读取器
+     */
+    public JsonLinesReader asJsonLines() {
+        return new JsonLinesReader(body);
+    }
+
+    @Override
+    public void close() {
+        try {
+            body.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * 首次读取时才序列化JSON的响应体
+     */
+    private static final class LazyBody extends InputStream {
+        private final JSON json;
+        private ByteArrayInputStream in;
+
+        private LazyBody(JSON json) {
+            this.json = json;
+        }
+
+        private ByteArrayInputStream in() {
+            if (in == null) {
+                byte[] bytes = json == null ? new byte[0] : json.toString().getBytes(StandardCharsets.UTF_8);
+                in = new ByteArrayInputStream(bytes);
+            }
+            return in;
+        }
+
+        @Override
+        public int read() {
+            return in().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return in().read(b, off, len);
+        }
+
+        @Override
+        public int available() {
+            return in == null ? 0 : in.available();
+        }
+    }
+}
@@ -0,0 +1,531 @@
+package cn.cikian.utils.http.enitry;
+
+
+import cn.cikian.code.ErrorCode;
+import cn.cikian.exception.CikException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 直接在UTF-8字节上工作的JSON词法解析器，不先解码为字符串<br>
+ * 对象只建立字段索引（键名与值在字节中的起止位置），按键查找时逐字节比较键名；
+ * 字符串值在调用方取值时才解码，数字直接从字节累加，嵌套的对象和数组在被访问时再解析。
+ * 使用ByteBuffer的绝对位置读取，堆内数组、直接内存及内存映射文件均可作为输入
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/17 22:05
+ */
+
+final class Utf8Tokenizer {
+    /**
+     * 每个字段在索引中占用的int数：键名起止、值起止
+     */
+    static final int FIELD_SLOTS = 4;
+
+    private final ByteBuffer buf;
+    private final int end;
+    private int pos;
+    private byte[] brackets = new byte[16];
+    private int elements;
+
+    /**
+     * @param buf   输入，只使用绝对位置读取，不改变其position
+     * @param start 解析范围的起始位置
+     * @param end   解析范围的结束位置（不含）
+     */
+    Utf8Tokenizer(ByteBuffer buf, int start, int end) {
+        this.buf = buf;
+        this.pos = start;
+        this.end = end;
+    }
+
+    /**
+     * 建立范围内对象的字段索引，对象之后只允许出现空白；只校验结构，不解码键名和值
+     *
+     * @return 依次为每个字段的键名起止（不含引号）及值起止
+     */
+    int[] indexObject() {
+        skipWhitespace();
+        expect('{');
+        int[] fields = new int[FIELD_SLOTS * 8];
+        int size = 0;
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+        } else {
+            while (true) {
+                skipWhitespace();
+                expect('"');
+                if (size == fields.length) {
+                    fields = Arrays.copyOf(fields, size * 2);
+                }
+                fields[size] = pos;
+                skipString();
+                fields[size + 1] = pos - 1;
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                fields[size + 2] = pos;
+                skipValue();
+                fields[size + 3] = pos;
+                size += FIELD_SLOTS;
+                skipWhitespace();
+                int c = next();
+                if (c == '}') {
+                    break;
+                }
+                if (c != ',') {
+                    throw error("应为','或'}'", pos - 1);
+                }
+            }
+        }
+        skipWhitespace();
+        if (pos < end) {
+            throw error("对象结束后存在多余内容", pos);
+        }
+        return size == fields.length ? fields : Arrays.copyOf(fields, size);
+    }
+
+    /**
+     * 解析范围内的数组，数组之后只允许出现空白
+     *
+     * @return 数组元素
+     */
+    JSONObj[] parseArray() {
+        beginArray();
+        JSONObj[] items = new JSONObj[8];
+        int size = 0;
+        JSONObj item;
+        while ((item = nextElement()) != null) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = item;
+        }
+        return size == items.length ? items : Arrays.copyOf(items, size);
+    }
+
+    /**
+     * 开始逐个读取数组元素，之后反复调用{@link #nextElement()}
+     */
+    void beginArray() {
+        skipWhitespace();
+        expect('[');
+        elements = 0;
+    }
+
+    /**
+     * 读取下一个数组元素
+     *
+     * @return 元素，数组结束时返回null
+     */
+    JSONObj nextElement() {
+        skipWhitespace();
+        if (elements > 0) {
+            int c = next();
+            if (c == ']') {
+                endArray();
+                return null;
+            }
+            if (c != ',') {
+                throw error("应为','或']'", pos - 1);
+            }
+            skipWhitespace();
+        } else if (peek() == ']') {
+            pos++;
+            endArray();
+            return null;
+        }
+        elements++;
+        int start = pos;
+        skipValue();
+        return value(buf, start, pos);
+    }
+
+    private void endArray() {
+        skipWhitespace();
+        if (pos < end) {
+            throw error("数组结束后存在多余内容", pos);
+        }
+    }
+
+    /**
+     * 由已校验过结构的值范围创建节点；字符串和嵌套值延迟解码
+     */
+    static JSONObj value(ByteBuffer buf, int start, int end) {
+        switch (buf.get(start)) {
+            case '"':
+                return JSONObj.utf8(buf, start + 1, end - 1, JSONObj.STRING);
+            case '{':
+                return JSONObj.utf8(buf, start, end, JSONObj.OBJECT);
+            case '[':
+                return JSONObj.utf8(buf, start, end, JSONObj.ARRAY);
+            case 't':
+                return new JSONObj(Boolean.TRUE, JSONObj.BOOLEAN);
+            case 'f':
+                return new JSONObj(Boolean.FALSE, JSONObj.BOOLEAN);
+            case 'n':
+                return new JSONObj(null, JSONObj.NULL);
+            default:
+                return number(buf, start, end);
+        }
+    }
+
+    /**
+     * 不超过18位的整数直接从字节累加，其他数字按ASCII截取原文
+     */
+    private static JSONObj number(ByteBuffer buf, int start, int end) {
+        int i = start;
+        boolean negative = buf.get(i) == '-';
+        if (negative) {
+            i++;
+        }
+        if (end - i <= 18) {
+            long value = 0;
+            for (; i < end; i++) {
+                int d = buf.get(i) - '0';
+                if (d < 0 || d > 9) {
+                    break;
+                }
+                value = value * 10 + d;
+            }
+            if (i == end) {
+                return JSONObj.ofLong(negative ? -value : value);
+            }
+        }
+        boolean decimal = false;
+        for (i = start; i < end && !decimal; i++) {
+            byte b = buf.get(i);
+            decimal = b == '.' || b == 'e' || b == 'E';
+        }
+        return JSONObj.ofNumber(decode(buf, start, end), decimal);
+    }
+
+    /**
+     * 键名（不含引号）是否等于给定字符串，逐字节按UTF-8比较，不创建字符串；含转义时才解码后比较
+     */
+    static boolean nameEquals(ByteBuffer buf, int start, int end, String key) {
+        int n = key.length();
+        int k = 0;
+        int i = start;
+        while (i < end) {
+            int b = buf.get(i);
+            if (b >= 0) {
+                if (b == '\\') {
+                    return decodeString(buf, start, end).equals(key);
+                }
+                if (k == n || key.charAt(k) != b) {
+                    return false;
+                }
+                i++;
+                k++;
+                continue;
+            }
+            int cp;
+            int len;
+            if ((b & 0xE0) == 0xC0) {
+                cp = b & 0x1F;
+                len = 2;
+            } else if ((b & 0xF0) == 0xE0) {
+                cp = b & 0x0F;
+                len = 3;
+            } else if ((b & 0xF8) == 0xF0) {
+                cp = b & 0x07;
+                len = 4;
+            } else {
+                return decodeString(buf, start, end).equals(key);
+            }
+            if (i + len > end) {
+                return decodeString(buf, start, end).equals(key);
+            }
+            for (int j = 1; j < len; j++) {
+                cp = (cp << 6) | (buf.get(i + j) & 0x3F);
+            }
+            i += len;
+            if (cp >= 0x10000) {
+                if (k + 2 > n || key.charAt(k) != Character.highSurrogate(cp)
+                        || key.charAt(k + 1) != Character.lowSurrogate(cp)) {
+                    return false;
+                }
+                k += 2;
+            } else {
+                if (k == n || key.charAt(k) != cp) {
+                    return false;
+                }
+                k++;
+            }
+        }
+        return k == n;
+    }
+
+    /**
+     * 解码字符串内容（不含引号），处理转义
+     */
+    static String decodeString(ByteBuffer buf, int start, int end) {
+        int i = start;
+        while (i < end && buf.get(i) != '\\') {
+            i++;
+        }
+        if (i == end) {
+            return decode(buf, start, end);
+        }
+        StringBuilder sb = new StringBuilder(end - start);
+        int run = start;
+        while (i < end) {
+            byte b = buf.get(i);
+            if (b != '\\') {
+                i++;
+                continue;
+            }
+            if (i > run) {
+                sb.append(decode(buf, run, i));
+            }
+            byte e = buf.get(i + 1);
+            i += 2;
+            switch (e) {
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    sb.append((char) Integer.parseInt(decode(buf, i, i + 4), 16));
+                    i += 4;
+                    break;
+                default:
+                    sb.append((char) e);
+                    break;
+            }
+            run = i;
+        }
+        if (end > run) {
+            sb.append(decode(buf, run, end));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 按UTF-8解码一段字节
+     */
+    static String decode(ByteBuffer buf, int start, int end) {
+        if (buf.hasArray()) {
+            return new String(buf.array(), buf.arrayOffset() + start, end - start, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buf.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 跳过一个值并校验其结构；字符串只查找结束引号并校验转义，不解码
+     */
+    private void skipValue() {
+        int c = peek();
+        switch (c) {
+            case '"':
+                pos++;
+                skipString();
+                return;
+            case '{':
+            case '[':
+                skipNested();
+                return;
+            case 't':
+                literal("true");
+                return;
+            case 'f':
+                literal("false");
+                return;
+            case 'n':
+                literal("null");
+                return;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    skipNumber();
+                    return;
+                }
+                throw error("非法的值", pos);
+        }
+    }
+
+    /**
+     * 跳过字符串剩余部分（含结束引号），调用前已越过起始引号
+     */
+    private void skipString() {
+        int start = pos - 1;
+        while (pos < end) {
+            byte c = buf.get(pos++);
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                if (pos >= end) {
+                    break;
+                }
+                byte e = buf.get(pos++);
+                if (e == 'u') {
+                    for (int i = 0; i < 4; i++) {
+                        if (pos >= end || Character.digit(buf.get(pos++), 16) < 0) {
+                            throw error("非法的unicode转义", pos - 1);
+                        }
+                    }
+                } else if (e != '"' && e != '\\' && e != '/' && e != 'b' && e != 'f' && e != 'n'
+                        && e != 'r' && e != 't') {
+                    throw error("非法的转义字符", pos - 1);
+                }
+            } else if (c >= 0 && c < 0x20) {
+                throw error("字符串中存在未转义的控制字符", pos - 1);
+            }
+        }
+        throw error("字符串未结束", start);
+    }
+
+    /**
+     * 跳过数字并校验语法：-?(0|[1-9][0-9]*)(.[0-9]+)?([eE][+-]?[0-9]+)?
+     */
+    private void skipNumber() {
+        int start = pos;
+        if (peek() == '-') {
+            pos++;
+        }
+        int c = peek();
+        if (c == '0') {
+            pos++;
+        } else if (c >= '1' && c <= '9') {
+            skipDigits();
+        } else {
+            throw error("非法的数字", start);
+        }
+        if (peek() == '.') {
+            pos++;
+            if (!isDigit(peek())) {
+                throw error("小数点后缺少数字", start);
+            }
+            skipDigits();
+        }
+        c = peek();
+        if (c == 'e' || c == 'E') {
+            pos++;
+            c = peek();
+            if (c == '+' || c == '-') {
+                pos++;
+            }
+            if (!isDigit(peek())) {
+                throw error("指数缺少数字", start);
+            }
+            skipDigits();
+        }
+    }
+
+    private void skipDigits() {
+        while (pos < end && isDigit(buf.get(pos))) {
+            pos++;
+        }
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * 跳过一个完整的对象或数组，只跟踪字符串边界和括号配对
+     */
+    private void skipNested() {
+        int start = pos;
+        int depth = 0;
+        while (pos < end) {
+            byte c = buf.get(pos++);
+            switch (c) {
+                case '{':
+                case '[':
+                    if (depth == brackets.length) {
+                        brackets = Arrays.copyOf(brackets, depth * 2);
+                    }
+                    brackets[depth++] = (byte) (c == '{' ? '}' : ']');
+                    break;
+                case '}':
+                case ']':
+                    if (brackets[--depth] != c) {
+                        throw error("括号不匹配", pos - 1);
+                    }
+                    if (depth == 0) {
+                        return;
+                    }
+                    break;
+                case '"':
+                    while (pos < end) {
+                        byte s = buf.get(pos++);
+                        if (s == '"') {
+                            break;
+                        }
+                        if (s == '\\') {
+                            pos++;
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        throw error("对象或数组未结束", start);
+    }
+
+    private void literal(String word) {
+        if (pos + word.length() > end) {
+            throw error("非法的值", pos);
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (buf.get(pos + i) != word.charAt(i)) {
+                throw error("非法的值", pos);
+            }
+        }
+        pos += word.length();
+    }
+
+    private void skipWhitespace() {
+        while (pos < end) {
+            byte c = buf.get(pos);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private int peek() {
+        return pos < end ? buf.get(pos) : 0;
+    }
+
+    private int next() {
+        if (pos >= end) {
+            throw error("JSON意外结束", pos);
+        }
+        return buf.get(pos++);
+    }
+
+    private void expect(char c) {
+        if (pos >= end || buf.get(pos) != c) {
+            throw error("应为'" + c + "'", pos);
+        }
+        pos++;
+    }
+
+    private CikException error(String message, int at) {
+        return new CikException(ErrorCode.FAIL.code(), "JSON格式错误：" + message + "，位置" + at);
+    }
+}
@@ -0,0 +1,473 @@
+package cn.cikian.utils.http.client;
+
+
+import cn.cikian.utils.http.enitry.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link Http2Transport}的回环测试<br>
+ * 测试内置一个只处理帧格式的h2c服务端，按各用例的脚本逐帧应答，
+ * 覆盖SETTINGS握手、HPACK往返（含Huffman解码与动态表淘汰）、REFUSED_STREAM重试、GOAWAY以及回退HTTP/1.1的判定
+ *
+ * @author Cikian
+ * @version 1.0
+ * @since 2026/10/18 10:20
+ */
+
+class Http2TransportTest {
+    private static final int TIMEOUT = 5000;
+
+    private static final int DATA = 0x0;
+    private static final int HEADERS = 0x1;
+    private static final int RST_STREAM = 0x3;
+    private static final int SETTINGS = 0x4;
+    private static final int PING = 0x6;
+    private static final int GOAWAY = 0x7;
+    private static final int CONTINUATION = 0x9;
+
+    private static final int FLAG_END_STREAM = 0x1;
+    private static final int FLAG_ACK = 0x1;
+    private static final int FLAG_END_HEADERS = 0x4;
+
+    private static final int NO_ERROR = 0x0;
+    private static final int REFUSED_STREAM = 0x7;
+
+    private static final int SETTINGS_ENABLE_PUSH = 0x2;
+    private static final int SETTINGS_MAX_CONCURRENT_STREAMS = 0x3;
+
+    /**
+     * RFC 7541 C.6中的三个使用Huffman编码的响应头部块，表大小为256字节，第二、三个块会淘汰动态表中的旧条目。
+     * 第一个块前加上动态表大小更新（256），与示例的表大小一致
+     */
+    private static final byte[][] RFC7541_C6 = {
+            hex("3fe101 4882 6402 5885 aec3 771a 4b61 96d0 7abe 9410 54d4 44a8 2005 9504 0b81 66e0 82a6 2d1b"
+                    + " ff6e 919d 29ad 1718 63c7 8f0b 97c8 e9ae 82ae 43d3"),
+            hex("4883 640e ffc1 c0bf"),
+            hex("88c1 6196 d07a be94 1054 d444 a820 0595 040b 8166 e084 a62d 1bff c05a 839b d9ab 77ad 94e7"
+                    + " 821d d7f2 e6c7 b335 dfdf cd5b 3960 d5af 2708 7f36 72c1 ab27 0fb5 291f 9587 3160 65c0"
+                    + " 03ed 4ee5 b106 3d50 07"),
+            // :status 200及动态表中仅剩的三个条目，更早的条目已被淘汰
+            hex("88be bfc0")
+    };
+
+    private FrameServer server;
+    private Http2Transport transport = new Http2Transport(10, 60000);
+
+    @AfterEach
+    void tearDown() {
+        transport.close();
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    void settingsHandshakeAndHpackRoundTrip() throws IOException {
+        server = new FrameServer((conn, request) -> {
+            conn.headers(request.streamId, RFC7541_C6[conn.requests - 1], false);
+            conn.data(request.streamId, "ok".getBytes(StandardCharsets.UTF_8), true);
+        });
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        char[] longValue = new char[300];
+        Arrays.fill(longValue, 'v');
+        headers.put("X-Trace", "追踪-1");
+        headers.put("X-Long", new String(longValue));
+        headers.put("Cookie", "a=b");
+        headers.put("Connection", "keep-alive");
+
+        Response first = get("/a?b=1", headers);
+        assertThat(first.getStatus()).isEqualTo(302);
+        assertThat(first.getHeader("cache-control")).isEqualTo("private");
+        assertThat(first.getHeader("date")).isEqualTo("Mon, 21 Oct 2013 20:13:21 GMT");
+        assertThat(first.getHeader("location")).isEqualTo("https://www.example.com");
+        assertThat(first.asString()).isEqualTo("ok");
+
+        Response second = get("/", headers);
+        assertThat(second.getStatus()).isEqualTo(307);
+        assertThat(second.getHeader("location")).isEqualTo("https://www.example.com");
+        second.close();
+
+        Response third = get("/", headers);
+        assertThat(third.getStatus()).isEqualTo(200);
+        assertThat(third.getHeader("date")).isEqualTo("Mon, 21 Oct 2013 20:13:22 GMT");
+        assertThat(third.getHeader("content-encoding")).isEqualTo("gzip");
+        assertThat(third.getHeader("set-cookie")).isEqualTo("foo=ASDJKHQKBZXOQWEOPIUAXQWEOIU; max-age=3600; version=1");
+        third.close();
+
+        Response fourth = get("/", headers);
+        assertThat(fourth.getStatus()).isEqualTo(200);
+        assertThat(fourth.getHeader("set-cookie")).isEqualTo("foo=ASDJKHQKBZXOQWEOPIUAXQWEOIU; max-age=3600; version=1");
+        assertThat(fourth.getHeader("content-encoding")).isEqualTo("gzip");
+        assertThat(fourth.getHeader("date")).isEqualTo("Mon, 21 Oct 2013 20:13:22 GMT");
+        assertThat(fourth.getHeader("location")).isNull();
+        fourth.close();
+
+        assertThat(server.connections).hasSize(1);
+        FrameServer.Conn conn = server.connections.get(0);
+        assertThat(conn.clientSettings).containsEntry(SETTINGS_ENABLE_PUSH, 0);
+        assertThat(conn.settingsAcked).isTrue();
+
+        Request request = server.requests.get(0);
+        assertThat(request.streamId).isEqualTo(1);
+        assertThat(request.header(":method")).isEqualTo("GET");
+        assertThat(request.header(":scheme")).isEqualTo("http");
+        assertThat(request.header(":path")).isEqualTo("/a?b=1");
+        assertThat(request.header(":authority")).isEqualTo("127.0.0.1:" + server.port());
+        assertThat(request.header("x-trace")).isEqualTo("追踪-1");
+        assertThat(request.header("x-long")).isEqualTo(new String(longValue));
+        assertThat(request.header("cookie")).isEqualTo("a=b");
+        assertThat(request.header("connection")).isNull();
+        assertThat(server.requests).extracting(r -> r.streamId).containsExactly(1, 3, 5, 7);
+    }
+
+    @Test
+    void refusedStreamIsRetried() throws IOException {
+        server = new FrameServer((conn, request) -> {
+            if (conn.requests == 1) {
+                conn.reset(request.streamId, REFUSED_STREAM);
+                return;
+            }
+            conn.headers(request.streamId, new byte[]{(byte) 0x88}, false);
+            conn.data(request.streamId, "retried".getBytes(StandardCharsets.UTF_8), true);
+        });
+
+        Response response = get("/refused", new TreeMap<>());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.asString()).isEqualTo("retried");
+        assertThat(server.requests).extracting(r -> r.header(":path")).containsExactly("/refused", "/refused");
+        assertThat(server.connections).hasSize(1);
+    }
+
+    @Test
+    void goAwayRefusesUnprocessedStreams() throws IOException {
+        server = new FrameServer((conn, request) -> {
+            if (conn == server.connections.get(0)) {
+                // 不处理该流，告知客户端编号大于0的流均未处理
+                conn.goAway(0, NO_ERROR);
+                return;
+            }
+            conn.headers(request.streamId, new byte[]{(byte) 0x88}, true);
+        });
+
+        Response response = get("/", new TreeMap<>());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        response.close();
+        assertThat(server.connections).hasSize(2);
+        assertThat(server.requests).hasSize(2);
+    }
+
+    @Test
+    void goAwayStopsNewStreamsOnConnection() throws IOException {
+        server = new FrameServer((conn, request) -> {
+            if (conn == server.connections.get(0)) {
+                // 已在处理的流1正常完成，之后的请求须使用新连接
+                conn.goAway(request.streamId, NO_ERROR);
+            }
+            conn.headers(request.streamId, new byte[]{(byte) 0x88}, true);
+        });
+
+        get("/first", new TreeMap<>()).close();
+        get("/second", new TreeMap<>()).close();
+
+        assertThat(server.connections).hasSize(2);
+        assertThat(server.connections.get(1).requests).isEqualTo(1);
+    }
+
+    @Test
+    void fallsBackOnlyOnNonHttp2Reply() throws IOException {
+        try (ServerSocket http1 = rawServer(socket -> {
+            socket.getOutputStream().write("HTTP/1.1 400 Bad Request\r\nConnection: close\r\n\r\n"
+                    .getBytes(StandardCharsets.ISO_8859_1));
+            socket.shutdownOutput();
+        })) {
+            Route route = new Route("http", "127.0.0.1", http1.getLocalPort());
+            assertThat(get(route, "/", new TreeMap<>())).isNull();
+            assertThat(transport.isHttp1Only(route)).isTrue();
+        }
+        try (ServerSocket resetting = rawServer(socket -> socket.setSoLinger(true, 0))) {
+            Route route = new Route("http", "127.0.0.1", resetting.getLocalPort());
+            assertThatThrownBy(() -> get(route, "/", new TreeMap<>())).isInstanceOf(IOException.class);
+            assertThat(transport.isHttp1Only(route)).isFalse();
+        }
+    }
+
+    private Response get(String target, Map<String, String> headers) throws IOException {
+        return get(server.route(), target, headers);
+    }
+
+    private Response get(Route route, String target, Map<String, String> headers) throws IOException {
+        return transport.exchange(route, "GET", target, headers, null, false, new TransferStats(),
+                TIMEOUT, TIMEOUT, TIMEOUT, null);
+    }
+
+    /**
+     * 读完连接前言及随后的SETTINGS、WINDOW_UPDATE帧后交给action处理，然后关闭连接
+     */
+    private static ServerSocket rawServer(SocketAction action) throws IOException {
+        ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread thread = new Thread(() -> {
+            try (Socket socket = serverSocket.accept()) {
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                in.readFully(new byte[24]);
+                for (int i = 0; i < 2; i++) {
+                    byte[] head = new byte[9];
+                    in.readFully(head);
+                    in.readFully(new byte[((head[0] & 0xff) << 16) | ((head[1] & 0xff) << 8) | (head[2] & 0xff)]);
+                }
+                action.accept(socket);
+            } catch (IOException ignored) {
+            }
+        }, "h2c-test-raw");
+        thread.setDaemon(true);
+        thread.start();
+        return serverSocket;
+    }
+
+    private static byte[] hex(String s) {
+        String digits = s.replace(" ", "");
+        byte[] bytes = new byte[digits.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(digits.substring(i * 2, i * 2 + 2), 16);
+        }
+        return bytes;
+    }
+
+    private static byte[] ints(int... values) {
+        byte[] bytes = new byte[values.length * 4];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i * 4] = (byte) (values[i] >>> 24);
+            bytes[i * 4 + 1] = (byte) (values[i] >>> 16);
+            bytes[i * 4 + 2] = (byte) (values[i] >>> 8);
+            bytes[i * 4 + 3] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    private interface SocketAction {
+        void accept(Socket socket) throws IOException;
+    }
+
+    private interface Handler {
+        void handle(FrameServer.Conn conn, Request request) throws IOException;
+    }
+
+    /**
+     * 服务端收到的一个请求
+     */
+    private static final class Request {
+        private final int streamId;
+        private final List<String[]> fields;
+
+        private Request(int streamId, List<String[]> fields) {
+            this.streamId = streamId;
+            this.fields = fields;
+        }
+
+        private String header(String name) {
+            for (String[] field : fields) {
+                if (field[0].equals(name)) {
+                    return field[1];
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 最小的h2c服务端：完成SETTINGS交换，用{@link Hpack.Decoder}解码请求头，其余应答由用例的Handler逐帧写出
+     */
+    private static final class FrameServer implements Closeable {
+        private final ServerSocket serverSocket;
+        private final Handler handler;
+        private final List<Conn> connections = new CopyOnWriteArrayList<>();
+        private final List<Request> requests = new CopyOnWriteArrayList<>();
+
+        private FrameServer(Handler handler) throws IOException {
+            this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            this.handler = handler;
+            Thread acceptor = new Thread(this::accept, "h2c-test-acceptor");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        private int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        private Route route() {
+            return new Route("http", "127.0.0.1", port());
+        }
+
+        private void accept() {
+            try {
+                while (true) {
+                    Conn conn = new Conn(serverSocket.accept());
+                    connections.add(conn);
+                    Thread thread = new Thread(conn::serve, "h2c-test-conn-" + connections.size());
+                    thread.setDaemon(true);
+                    thread.start();
+                }
+            } catch (IOException ignored) {
+                // 服务端已关闭
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                serverSocket.close();
+            } catch (IOException ignored) {
+            }
+            for (Conn conn : connections) {
+                conn.close();
+            }
+        }
+
+        private final class Conn implements Closeable {
+            private final Socket socket;
+            private final DataInputStream in;
+            private final OutputStream out;
+            private final Hpack.Decoder decoder = new Hpack.Decoder(Hpack.DEFAULT_TABLE_SIZE);
+            private final Map<Integer, Integer> clientSettings = new ConcurrentHashMap<>();
+            private volatile boolean settingsAcked;
+            /**
+             * 本连接已收到的请求数，只在连接线程上访问
+             */
+            private int requests;
+
+            private Conn(Socket socket) throws IOException {
+                this.socket = socket;
+                InputStream input = socket.getInputStream();
+                this.in = new DataInputStream(input);
+                this.out = socket.getOutputStream();
+            }
+
+            private void serve() {
+                try {
+                    byte[] preface = new byte[24];
+                    in.readFully(preface);
+                    assertThat(new String(preface, StandardCharsets.US_ASCII))
+                            .isEqualTo("PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n");
+                    byte[] settings = new byte[6];
+                    settings[1] = SETTINGS_MAX_CONCURRENT_STREAMS;
+                    settings[5] = 100;
+                    frame(SETTINGS, 0, 0, settings);
+                    ByteArrayOutputStream block = null;
+                    int blockStream = 0;
+                    byte[] head = new byte[9];
+                    while (true) {
+                        in.readFully(head);
+                        int length = ((head[0] & 0xff) << 16) | ((head[1] & 0xff) << 8) | (head[2] & 0xff);
+                        int type = head[3] & 0xff;
+                        int flags = head[4] & 0xff;
+                        int streamId = ((head[5] & 0x7f) << 24) | ((head[6] & 0xff) << 16)
+                                | ((head[7] & 0xff) << 8) | (head[8] & 0xff);
+                        byte[] payload = new byte[length];
+                        in.readFully(payload);
+                        switch (type) {
+                            case SETTINGS:
+                                if ((flags & FLAG_ACK) != 0) {
+                                    settingsAcked = true;
+                                    break;
+                                }
+                                for (int i = 0; i < length; i += 6) {
+                                    int id = ((payload[i] & 0xff) << 8) | (payload[i + 1] & 0xff);
+                                    int value = ((payload[i + 2] & 0xff) << 24) | ((payload[i + 3] & 0xff) << 16)
+                                            | ((payload[i + 4] & 0xff) << 8) | (payload[i + 5] & 0xff);
+                                    clientSettings.put(id, value);
+                                }
+                                frame(SETTINGS, FLAG_ACK, 0, new byte[0]);
+                                break;
+                            case PING:
+                                if ((flags & FLAG_ACK) == 0) {
+                                    frame(PING, FLAG_ACK, 0, payload);
+                                }
+                                break;
+                            case HEADERS:
+                                block = new ByteArrayOutputStream();
+                                blockStream = streamId;
+                                // fall through
+                            case CONTINUATION:
+                                block.write(payload, 0, length);
+                                if ((flags & FLAG_END_HEADERS) != 0) {
+                                    Request request = new Request(blockStream,
+                                            decoder.decode(block.toByteArray(), block.size()));
+                                    FrameServer.this.requests.add(request);
+                                    requests++;
+                                    handler.handle(this, request);
+                                }
+                                break;
+                            default:
+                                // DATA、WINDOW_UPDATE、RST_STREAM及客户端关闭时的GOAWAY无需应答
+                                break;
+                        }
+                    }
+                } catch (IOException ignored) {
+                    // 连接已关闭
+                } finally {
+                    close();
+                }
+            }
+
+            private synchronized void frame(int type, int flags, int streamId, byte[] payload) throws IOException {
+                byte[] head = new byte[9];
+                head[0] = (byte) (payload.length >>> 16);
+                head[1] = (byte) (payload.length >>> 8);
+                head[2] = (byte) payload.length;
+                head[3] = (byte) type;
+                head[4] = (byte) flags;
+                System.arraycopy(ints(streamId), 0, head, 5, 4);
+                out.write(head);
+                out.write(payload);
+                out.flush();
+            }
+
+            private void headers(int streamId, byte[] block, boolean endStream) throws IOException {
+                frame(HEADERS, FLAG_END_HEADERS | (endStream ? FLAG_END_STREAM : 0), streamId, block);
+            }
+
+            private void data(int streamId, byte[] data, boolean endStream) throws IOException {
+                frame(DATA, endStream ? FLAG_END_STREAM : 0, streamId, data);
+            }
+
+            private void reset(int streamId, int errorCode) throws IOException {
+                frame(RST_STREAM, 0, streamId, ints(errorCode));
+            }
+
+            private void goAway(int lastStreamId, int errorCode) throws IOException {
+                frame(GOAWAY, 0, 0, ints(lastStreamId, errorCode));
+            }
+
+            @Override
+            public void close() {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+}